@@ -6,6 +6,12 @@ import com.nageoffer.onethread.core.executor.OneThreadExecutor;
 import com.nageoffer.onethread.core.executor.OneThreadRegistry;
 import com.nageoffer.onethread.core.executor.ThreadPoolExecutorHolder;
 import com.nageoffer.onethread.core.executor.ThreadPoolExecutorProperties;
+import com.nageoffer.onethread.core.executor.support.RateLimitedBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.RunningTaskInfo;
+import com.nageoffer.onethread.core.executor.support.TaskRates;
+import com.nageoffer.onethread.core.monitor.QueueForecastRegistry;
+import com.nageoffer.onethread.core.monitor.QueueSaturationForecaster;
+import com.nageoffer.onethread.core.monitor.jfr.OneThreadEvents;
 import com.nageoffer.onethread.core.notification.dto.ThreadPoolAlarmNotifyDTO;
 import com.nageoffer.onethread.core.notification.service.NotifierDispatcher;
 import com.nageoffer.onethread.core.toolkit.ThreadFactoryBuilder;
@@ -43,6 +49,8 @@ public class ThreadPoolAlarmChecker {
     );
     private final Map<String, Long> lastRejectCountMap = new ConcurrentHashMap<>();
 
+    private static final int LONG_TASK_STACK_DEPTH = 20;
+
     /**
      * 启动定时检查任务
      */
@@ -70,7 +78,11 @@ public class ThreadPoolAlarmChecker {
                 checkQueueUsage(holder);
                 checkActiveRate(holder);
                 checkRejectCount(holder);
+                checkRejectRate(holder);
+                checkQueueFullForecast(holder);
             }
+            // 长任务中断策略不依赖报警开关，关闭报警后依然按配置中断
+            checkLongTask(holder);
         }
     }
 
@@ -143,7 +155,79 @@ public class ThreadPoolAlarmChecker {
         }
     }
 
+    /**
+     * 检查最近 1 分钟的平均拒绝速率，与单次检查间隔内是否有拒绝相比，可以过滤偶发的零星拒绝
+     */
+    private void checkRejectRate(ThreadPoolExecutorHolder holder) {
+        ThreadPoolExecutor executor = holder.getExecutor();
+        Double threshold = holder.getExecutorProperties().getAlarm().getRejectRateThreshold();
+        if (!(executor instanceof OneThreadExecutor) || threshold == null || threshold <= 0) {
+            return;
+        }
+
+        double rejectRate = ((OneThreadExecutor) executor).getTaskRates().getRejected().rate(TaskRates.WINDOW_SECONDS[0]);
+        if (rejectRate >= threshold) {
+            sendAlarmMessage("RejectRate", holder);
+        }
+    }
+
+    /**
+     * 按队列深度增长趋势预测队列打满时间，在使用率阈值报警之前提前发现快速堆积的队列
+     */
+    private void checkQueueFullForecast(ThreadPoolExecutorHolder holder) {
+        Long thresholdSeconds = holder.getExecutorProperties().getAlarm().getQueueFullForecastSeconds();
+        if (thresholdSeconds == null || thresholdSeconds <= 0) {
+            return;
+        }
+
+        QueueSaturationForecaster.Forecast forecast = QueueForecastRegistry.observe(holder.getThreadPoolId(), holder.getExecutor().getQueue());
+        long secondsToFull = forecast.getSecondsToFull();
+        if (secondsToFull != QueueSaturationForecaster.UNKNOWN && secondsToFull <= thresholdSeconds) {
+            sendAlarmMessage("QueueFullForecast", holder);
+        }
+    }
+
+    /**
+     * 检查执行时长超过阈值的长任务，每个任务只上报一次
+     */
+    private void checkLongTask(ThreadPoolExecutorHolder holder) {
+        ThreadPoolExecutor executor = holder.getExecutor();
+        ThreadPoolExecutorProperties.AlarmConfig alarmConfig = holder.getExecutorProperties().getAlarm();
+        Long thresholdMillis = alarmConfig.getLongTaskThresholdMillis();
+        if (!(executor instanceof OneThreadExecutor) || thresholdMillis == null || thresholdMillis <= 0) {
+            return;
+        }
+
+        StringBuilder detail = new StringBuilder();
+        for (RunningTaskInfo runningTask : ((OneThreadExecutor) executor).getRunningTasks()) {
+            // 执行中任务按执行时长倒序，遇到未超过阈值的任务即可结束
+            if (runningTask.getRunningMillis() < thresholdMillis) {
+                break;
+            }
+            if (!runningTask.getSlot().markReported(runningTask.getTaskSequence())) {
+                continue;
+            }
+
+            String stackTrace = String.join("\n    at ", runningTask.captureStackTrace(LONG_TASK_STACK_DEPTH));
+            boolean interrupted = Boolean.TRUE.equals(alarmConfig.getInterruptLongTask()) && runningTask.interruptIfRunning();
+            OneThreadEvents.longTaskDetected(holder.getThreadPoolId(), runningTask.getThreadName(), runningTask.getTaskName(),
+                    runningTask.getRunningMillis(), thresholdMillis, interrupted, executor.getQueue());
+            log.warn("[{}] Long running task detected, thread: {}, task: {}, running millis: {}, interrupted: {}\n    at {}",
+                    holder.getThreadPoolId(), runningTask.getThreadName(), runningTask.getTaskName(), runningTask.getRunningMillis(), interrupted, stackTrace);
+            detail.append(String.format("%s | %s | %dms%s%n    at %s%n",
+                    runningTask.getThreadName(), runningTask.getTaskName(), runningTask.getRunningMillis(), interrupted ? " | interrupted" : "", stackTrace));
+        }
+
+        if (detail.length() > 0 && alarmConfig.getEnable()) {
+            sendAlarmMessage("LongTask", holder, detail.toString());
+        }
+    }
+
     private void sendAlarmMessage(String alarmType, ThreadPoolExecutorHolder holder) {
+        sendAlarmMessage(alarmType, holder, null);
+    }
+
+    private void sendAlarmMessage(String alarmType, ThreadPoolExecutorHolder holder, String longTaskDetail) {
         ThreadPoolExecutorProperties properties = holder.getExecutorProperties();
         String threadPoolId = holder.getThreadPoolId();
 
@@ -175,7 +259,7 @@ public class ThreadPoolAlarmChecker {
                     .setCurrentPoolSize(executor.getPoolSize()) // API 有锁，避免高频率调用
                     .setCompletedTaskCount(executor.getCompletedTaskCount()) // API 有锁，避免高频率调用
                     .setLargestPoolSize(executor.getLargestPoolSize()) // API 有锁，避免高频率调用
-                    .setWorkQueueName(queue.getClass().getSimpleName())
+                    .setWorkQueueName(RateLimitedBlockingQueue.unwrap(queue).getClass().getSimpleName())
                     .setWorkQueueSize(size)
                     .setWorkQueueRemainingCapacity(remaining)
                     .setWorkQueueCapacity(size + remaining)
@@ -184,7 +268,8 @@ public class ThreadPoolAlarmChecker {
                     .setCurrentTime(DateUtil.now())
                     .setApplicationName(ApplicationProperties.getApplicationName())
                     .setActiveProfile(ApplicationProperties.getActiveProfile())
-                    .setReceives(properties.getNotify().getReceives());
+                    .setReceives(properties.getNotify().getReceives())
+                    .setLongTaskDetail(longTaskDetail);
             return alarm;
         });
 
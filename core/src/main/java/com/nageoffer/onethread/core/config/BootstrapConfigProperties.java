@@ -54,6 +54,21 @@ public class BootstrapConfigProperties {
      */
     private MonitorConfig monitor = new MonitorConfig();
 
+    /**
+     * 关闭配置
+     */
+    private ShutdownConfig shutdown = new ShutdownConfig();
+
+    /**
+     * 容器资源检测配置
+     */
+    private ContainerSizingConfig containerSizing = new ContainerSizingConfig();
+
+    /**
+     * 内存压力准入控制配置
+     */
+    private AdmissionConfig admission = new AdmissionConfig();
+
     /**
      * 线程池配置集合
      */
@@ -82,7 +97,7 @@ public class BootstrapConfigProperties {
         private Boolean enable = Boolean.TRUE;
 
         /**
-         * 监控类型
+         * 监控类型：log、micrometer 或 prometheus，prometheus 由控制台 Starter 直接输出 Prometheus 文本格式，log 按 {@link #log} 异步输出
          */
         private String collectType = "micrometer";
 
@@ -90,6 +105,117 @@ public class BootstrapConfigProperties {
          * 采集间隔，默认 10 秒
          */
         private Long collectInterval = 10L;
+
+        /**
+         * 进程内保留的指标历史时长（单位：分钟），按采集间隔采样，供控制台绘制趋势图；小于等于 0 表示不保留
+         */
+        private Long historyMinutes = 30L;
+
+        /**
+         * 是否开启 JVM 线程竞争监控，开启后采集工作线程阻塞和等待时间占比；对整个 JVM 生效，有少量开销，默认关闭
+         */
+        private Boolean threadContentionMonitoring = Boolean.FALSE;
+
+        /**
+         * 分片采集阈值：线程池数量超过该值时，按线程池 ID 分成 10 片，在采集间隔内错开采集，避免所有线程池集中在同一时刻采集
+         */
+        private Integer collectShardThreshold = 500;
+
+        /**
+         * 是否跳过自上次采集以来没有任何变化的空闲线程池，跳过时沿用上次采集结果
+         */
+        private Boolean skipUnchanged = Boolean.TRUE;
+
+        /**
+         * 上报明细指标的线程池数量上限，按繁忙程度排名，其余线程池汇总为 others；小于等于 0 表示不限制
+         */
+        private Integer maxDetailedPools = 200;
+
+        /**
+         * 监控类型为 log 时的输出配置
+         */
+        private MonitorLogConfig log = new MonitorLogConfig();
+    }
+
+    @Data
+    public static class MonitorLogConfig {
+
+        /**
+         * 输出文件路径，为空时通过日志框架输出
+         */
+        private String file;
+
+        /**
+         * 待输出记录的队列容量，队列满时丢弃并计数
+         */
+        private Integer queueCapacity = 8192;
+
+        /**
+         * 单个文件大小上限（单位：MB），超过后滚动；小于等于 0 表示不按大小滚动
+         */
+        private Long maxFileSizeMb = 100L;
+
+        /**
+         * 按时间滚动的周期（单位：分钟），默认每天滚动；小于等于 0 表示不按时间滚动
+         */
+        private Long rotateIntervalMinutes = 1440L;
+
+        /**
+         * 保留的滚动文件数量
+         */
+        private Integer maxHistory = 7;
+    }
+
+    @Data
+    public static class ShutdownConfig {
+
+        /**
+         * 所有线程池关闭的全局截止时间（单位：毫秒），超时后强制关闭，应小于 Kubernetes 的 terminationGracePeriodSeconds
+         */
+        private Long timeoutMillis = 25000L;
+    }
+
+    @Data
+    public static class ContainerSizingConfig {
+
+        /**
+         * 是否定时检测容器 CPU 配额和内存上限，为开启自动计算线程数的线程池重新计算大小
+         */
+        private Boolean enable = Boolean.TRUE;
+
+        /**
+         * 检测间隔，默认 30 秒
+         */
+        private Long checkInterval = 30L;
+
+        /**
+         * cgroup 挂载目录
+         */
+        private String cgroupRoot = "/sys/fs/cgroup";
+    }
+
+    @Data
+    public static class AdmissionConfig {
+
+        /**
+         * 是否订阅 GC 通知和内存池阈值，在内存压力下对可降级线程池限流
+         */
+        private Boolean enable = Boolean.TRUE;
+
+        /**
+         * 进入内存压力状态的阈值，GC 后老年代使用率百分比
+         */
+        private Integer highWatermark = 85;
+
+        /**
+         * 退出内存压力状态的阈值，GC 后老年代使用率百分比，低于 highWatermark 以避免状态抖动
+         */
+        private Integer lowWatermark = 70;
+
+        /**
+         * 内存压力下可降级线程池的队列容量百分比
+         */
+        private Integer shedQueuePercent = 10;
     }
 
     @Data
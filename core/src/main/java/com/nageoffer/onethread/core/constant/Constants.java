@@ -17,7 +17,8 @@ public class Constants {
             + "\n    capacity: {}"
             + "\n    keepAliveTime: {}"
             + "\n    rejectedType: {}"
-            + "\n    allowCoreThreadTimeOut: {}";
+            + "\n    allowCoreThreadTimeOut: {}"
+            + "\n    permitsPerSecond: {}";
 
     /**
      * 线程池参数变更前后分隔符常量
@@ -136,4 +137,18 @@ public class Constants {
             
             **告警时间：%s**
             """;
+
+    /**
+     * 钉钉长任务报警详情文本，追加在运行告警消息之后
+     */
+    public static final String DING_ALARM_LONG_TASK_DETAIL_TEXT = """
+            
+             ---
+            
+            **长任务详情**
+            
+            ```
+            %s
+            ```
+            """;
 }
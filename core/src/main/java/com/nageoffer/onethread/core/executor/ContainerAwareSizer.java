@@ -0,0 +1,209 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import com.nageoffer.onethread.core.monitor.jfr.OneThreadEvents;
+import com.nageoffer.onethread.core.toolkit.ContainerResources;
+import com.nageoffer.onethread.core.toolkit.ThreadFactoryBuilder;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolSizing;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 容器资源感知的线程池大小调整器
+ * <p>
+ * 定时读取容器 CPU 配额和内存上限，资源限制发生变化时（包括首次检测）为开启了 {@link ThreadPoolExecutorProperties.SizingConfig}
+ * 的线程池按负载类型重新计算核心线程数和最大线程数，新注册的线程池在下一次检测时计算；
+ * 开启 apply 的线程池直接调整，其余只在日志中给出建议值。
+ * 调整只作用于线程池实例，不回写线程池配置，配置中心下发的线程数变更依然按原有逻辑生效
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class ContainerAwareSizer {
+
+    /**
+     * 资源限制读取方式
+     */
+    private final Supplier<ContainerResources> resourcesSupplier;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 上一次检测到的资源限制
+     */
+    private ContainerResources lastResources;
+
+    /**
+     * 已经计算过大小的线程池，资源限制不变时只计算新注册的线程池
+     */
+    private final Set<String> evaluatedPools = new HashSet<>();
+
+    public ContainerAwareSizer() {
+        this(() -> ContainerResources.read(
+                Paths.get(BootstrapConfigProperties.getInstance().getContainerSizing().getCgroupRoot()),
+                Runtime.getRuntime().availableProcessors()
+        ));
+    }
+
+    public ContainerAwareSizer(Supplier<ContainerResources> resourcesSupplier) {
+        this.resourcesSupplier = resourcesSupplier;
+    }
+
+    /**
+     * 启动定时检测任务
+     */
+    public void start() {
+        BootstrapConfigProperties.ContainerSizingConfig sizingConfig = BootstrapConfigProperties.getInstance().getContainerSizing();
+        if (!sizingConfig.getEnable()) {
+            return;
+        }
+
+        scheduler = Executors.newScheduledThreadPool(
+                1,
+                ThreadFactoryBuilder.builder()
+                        .namePrefix("scheduler_thread-pool_container_sizer")
+                        .daemon(true)
+                        .build()
+        );
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                evaluate();
+            } catch (Throwable ex) {
+                log.error("Container aware sizing failed.", ex);
+            }
+        }, 0, sizingConfig.getCheckInterval(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时检测任务
+     */
+    public void stop() {
+        if (scheduler != null && !scheduler.isShutdown()) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * 检测一次资源限制，资源限制变化时重新计算所有开启的线程池，否则只计算新注册的线程池
+     *
+     * @return 本次计算出的调整建议，只包含大小需要变化的线程池
+     */
+    public synchronized List<SizingProposal> evaluate() {
+        ContainerResources resources = resourcesSupplier.get();
+        boolean changed = resources.isChanged(lastResources);
+        if (changed) {
+            log.info("Container resources changed, before: {}, after: {}", lastResources, resources);
+            lastResources = resources;
+        }
+
+        List<SizingProposal> proposals = new ArrayList<>();
+        for (ThreadPoolExecutorHolder holder : OneThreadRegistry.getAllHolders()) {
+            ThreadPoolExecutorProperties.SizingConfig sizingConfig = holder.getExecutorProperties().getSizing();
+            if (sizingConfig == null || !Boolean.TRUE.equals(sizingConfig.getEnable())) {
+                continue;
+            }
+            boolean firstSeen = evaluatedPools.add(holder.getThreadPoolId());
+            if (!changed && !firstSeen) {
+                continue;
+            }
+
+            ThreadPoolExecutor executor = holder.getExecutor();
+            ThreadPoolSizing.PoolSize size;
+            try {
+                size = ThreadPoolSizing.of(sizingConfig.getWorkloadClass(), sizingConfig.getBlockingCoefficient()).compute(resources);
+            } catch (IllegalArgumentException ex) {
+                log.warn("[{}] Invalid sizing config: {}", holder.getThreadPoolId(), ex.getMessage());
+                continue;
+            }
+            if (size.getCorePoolSize() == executor.getCorePoolSize() && size.getMaximumPoolSize() == executor.getMaximumPoolSize()) {
+                continue;
+            }
+
+            SizingProposal proposal = new SizingProposal();
+            proposal.setThreadPoolId(holder.getThreadPoolId());
+            proposal.setCurrentCorePoolSize(executor.getCorePoolSize());
+            proposal.setCurrentMaximumPoolSize(executor.getMaximumPoolSize());
+            proposal.setProposedCorePoolSize(size.getCorePoolSize());
+            proposal.setProposedMaximumPoolSize(size.getMaximumPoolSize());
+            if (Boolean.TRUE.equals(sizingConfig.getApply())) {
+                resize(holder.getThreadPoolId(), executor, size);
+                proposal.setApplied(true);
+            }
+            proposals.add(proposal);
+            log.info("[{}] Container aware sizing, applied: {}, core: {} -> {}, maximum: {} -> {}",
+                    proposal.getThreadPoolId(),
+                    proposal.isApplied(),
+                    proposal.getCurrentCorePoolSize(),
+                    proposal.getProposedCorePoolSize(),
+                    proposal.getCurrentMaximumPoolSize(),
+                    proposal.getProposedMaximumPoolSize());
+        }
+        return proposals;
+    }
+
+    /**
+     * 调大时先调最大线程数，调小时先调核心线程数，避免出现核心线程数大于最大线程数
+     */
+    private void resize(String threadPoolId, ThreadPoolExecutor executor, ThreadPoolSizing.PoolSize size) {
+        int originalCorePoolSize = executor.getCorePoolSize();
+        int originalMaximumPoolSize = executor.getMaximumPoolSize();
+        if (size.getCorePoolSize() > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(size.getMaximumPoolSize());
+            executor.setCorePoolSize(size.getCorePoolSize());
+        } else {
+            executor.setCorePoolSize(size.getCorePoolSize());
+            executor.setMaximumPoolSize(size.getMaximumPoolSize());
+        }
+        OneThreadEvents.resized(threadPoolId, originalCorePoolSize, size.getCorePoolSize(),
+                originalMaximumPoolSize, size.getMaximumPoolSize(), executor.getQueue(), "container-sizer");
+    }
+
+    /**
+     * 线程池大小调整建议
+     */
+    @Data
+    public static class SizingProposal {
+
+        /**
+         * 线程池 ID
+         */
+        private String threadPoolId;
+
+        /**
+         * 当前核心线程数
+         */
+        private int currentCorePoolSize;
+
+        /**
+         * 当前最大线程数
+         */
+        private int currentMaximumPoolSize;
+
+        /**
+         * 建议核心线程数
+         */
+        private int proposedCorePoolSize;
+
+        /**
+         * 建议最大线程数
+         */
+        private int proposedMaximumPoolSize;
+
+        /**
+         * 是否已经应用到线程池
+         */
+        private boolean applied;
+    }
+}
@@ -0,0 +1,280 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.executor.support.RunningTaskInfo;
+import com.nageoffer.onethread.core.executor.support.WorkerTimeSampler;
+import com.nageoffer.onethread.core.monitor.jfr.OneThreadEvents;
+import com.nageoffer.onethread.core.monitor.jfr.TaskSubmittedEvent;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 逻辑动态线程池
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ * <p>
+ * 不持有自己的工作线程，任务进入自己的工作队列后由 {@link SharedWorkerSubstrate} 的共享工作线程执行，
+ * 适合大量低负载线程池的场景，避免每个线程池各自持有一批大部分时间空闲的线程
+ * <p>
+ * 对外依然是一个 {@link OneThreadExecutor}，可以正常注册、监控、报警和动态刷新：
+ * 最大线程数表示该线程池同时占用共享工作线程的上限，活跃线程数、当前线程数表示正在执行的任务数，
+ * 队列、拒绝策略和拒绝计数都是该线程池独立的
+ */
+@Slf4j
+public class LogicalOneThreadExecutor extends OneThreadExecutor {
+
+    /**
+     * 共享工作线程底座
+     */
+    @Getter
+    private final SharedWorkerSubstrate substrate;
+
+    /**
+     * 逻辑工作队列，父类持有的是一个始终为空的同步队列，保证父类不会创建工作线程
+     */
+    private volatile BlockingQueue<Runnable> workQueue;
+
+    /**
+     * 赤字轮询权重，每轮可连续执行的任务数
+     */
+    @Getter
+    private volatile int weight;
+
+    /**
+     * 赤字轮询剩余额度，由底座调度锁保护
+     */
+    int deficit;
+
+    /**
+     * 正在执行的任务数，由底座调度锁保护写入
+     */
+    volatile int inFlightCount;
+
+    /**
+     * 同时执行任务数的峰值，由底座调度锁保护写入
+     */
+    volatile int largestInFlightCount;
+
+    private final LongAdder completedTaskCount = new LongAdder();
+
+    private final CountDownLatch terminationLatch = new CountDownLatch(1);
+
+    private volatile boolean stopped;
+
+    public LogicalOneThreadExecutor(
+            @NonNull String threadPoolId,
+            int corePoolSize,
+            int maximumPoolSize,
+            long keepAliveTime,
+            @NonNull TimeUnit unit,
+            @NonNull BlockingQueue<Runnable> workQueue,
+            @NonNull RejectedExecutionHandler handler,
+            long awaitTerminationMillis,
+            @NonNull SharedWorkerSubstrate substrate,
+            int weight) {
+        // 父类不会创建线程，线程工厂仅用于满足构造参数
+        super(threadPoolId, corePoolSize, maximumPoolSize, keepAliveTime, unit, new SynchronousQueue<>(), Executors.defaultThreadFactory(), handler, awaitTerminationMillis);
+        this.workQueue = workQueue;
+        this.substrate = substrate;
+        setWeight(weight);
+        substrate.register(this);
+    }
+
+    /**
+     * 动态调整赤字轮询权重
+     */
+    public void setWeight(int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("The logical pool weight must be greater than 0.");
+        }
+        this.weight = weight;
+    }
+
+    /**
+     * 替换逻辑工作队列，已排队的任务迁移到新队列，仅在启动阶段使用
+     */
+    public void replaceWorkQueue(@NonNull BlockingQueue<Runnable> newWorkQueue) {
+        BlockingQueue<Runnable> original = workQueue;
+        workQueue = newWorkQueue;
+        original.drainTo(newWorkQueue);
+        substrate.signal(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        getTaskRates().getSubmitted().increment();
+        if (shedOnMemoryPressure(command)) {
+            return;
+        }
+        TaskSubmittedEvent submittedEvent = OneThreadEvents.beginSubmit();
+        Runnable task = captureContext(command);
+        if (isShutdown() || substrate.isShutdown() || !workQueue.offer(task)) {
+            getRejectedExecutionHandler().rejectedExecution(task, this);
+            return;
+        }
+        substrate.signal(false);
+        OneThreadEvents.commitSubmit(submittedEvent, getThreadPoolId(), command, workQueue);
+    }
+
+    /**
+     * 在共享工作线程中执行任务，保留线程池的执行前后钩子（上下文传递、运行中任务、资源统计）
+     */
+    void runTask(Runnable task) {
+        Throwable thrown = null;
+        try {
+            beforeExecute(Thread.currentThread(), task);
+            task.run();
+        } catch (Throwable ex) {
+            thrown = ex;
+        } finally {
+            try {
+                afterExecute(task, thrown);
+            } finally {
+                completedTaskCount.increment();
+                substrate.complete(this);
+            }
+        }
+        // 共享工作线程不能因为单个任务异常而退出
+        if (thrown != null) {
+            log.error("[{}] Task failed on shared worker.", getThreadPoolId(), thrown);
+        }
+    }
+
+    /**
+     * 是否有可分配给共享工作线程的任务，由底座在调度锁内调用
+     */
+    boolean isDispatchable() {
+        return !stopped && inFlightCount < getMaximumPoolSize() && !workQueue.isEmpty();
+    }
+
+    /**
+     * 已关闭且没有执行中和排队任务时标记为终止，并从底座上卸载
+     */
+    void checkTermination() {
+        if (isShutdown() && inFlightCount == 0 && (stopped || workQueue.isEmpty()) && terminationLatch.getCount() > 0) {
+            substrate.deregister(this);
+            terminationLatch.countDown();
+        }
+    }
+
+    @Override
+    public int initiateShutdown() {
+        int drained = super.initiateShutdown();
+        checkTermination();
+        return drained;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        stopped = true;
+        super.shutdownNow();
+        List<Runnable> dropped = new ArrayList<>();
+        workQueue.drainTo(dropped);
+        // 共享工作线程同时为其他线程池服务，中断与任务结束在槽位锁内互斥，中断不会落到其他线程池随后执行的任务上
+        getRunningTasks().forEach(RunningTaskInfo::interruptIfRunning);
+        checkTermination();
+        return dropped;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminationLatch.await(timeout, unit);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminationLatch.getCount() == 0;
+    }
+
+    @Override
+    public boolean isTerminating() {
+        return isShutdown() && !isTerminated();
+    }
+
+    @Override
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        super.setMaximumPoolSize(maximumPoolSize);
+        // 并发上限调大后，等待中的任务可以立即分配
+        substrate.signal(true);
+    }
+
+    /**
+     * 逻辑线程池没有自己的工作线程，返回当前正在执行该线程池任务的共享工作线程；
+     * 共享工作线程随时可能转去执行其他线程池的任务，结果只反映调用时刻
+     */
+    @Override
+    public long[] getWorkerThreadIds() {
+        return getBusyWorkerThreadIds();
+    }
+
+    /**
+     * 共享工作线程的 CPU、阻塞和等待时间无法拆分到单个逻辑线程池，不支持采样
+     *
+     * @return 始终为空
+     */
+    @Override
+    public WorkerTimeSampler getWorkerTimeSampler() {
+        return null;
+    }
+
+    @Override
+    public boolean prestartCoreThread() {
+        return false;
+    }
+
+    @Override
+    public int prestartAllCoreThreads() {
+        return 0;
+    }
+
+    @Override
+    public BlockingQueue<Runnable> getQueue() {
+        return workQueue;
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+        boolean removed = workQueue.remove(task);
+        checkTermination();
+        return removed;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return inFlightCount;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return inFlightCount;
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return largestInFlightCount;
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return completedTaskCount.sum();
+    }
+
+    @Override
+    public long getTaskCount() {
+        return completedTaskCount.sum() + inFlightCount + workQueue.size();
+    }
+}
@@ -0,0 +1,266 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import com.nageoffer.onethread.core.executor.support.RateLimitedBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.ResizableCapacityLinkedBlockingQueue;
+import com.nageoffer.onethread.core.monitor.jfr.OneThreadEvents;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内存压力准入控制器
+ * <p>
+ * 订阅 GC 完成通知和老年代内存池的回收后使用量阈值通知（{@link MemoryPoolMXBean#setCollectionUsageThreshold(long)}），
+ * 每次通知后按 GC 后的老年代使用率判断是否处于内存压力：使用率达到高水位进入压力状态，回落到低水位以下才退出，避免状态抖动。
+ * 压力状态下，对配置了 {@link ThreadPoolExecutorProperties#getSheddable()} 的线程池降级：
+ * 队列为 {@link ResizableCapacityLinkedBlockingQueue} 时通过 setCapacity 缩小队列容量，
+ * 其他队列在提交时直接执行拒绝策略；退出压力状态后恢复原容量或恢复提交
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class MemoryPressureAdmissionController {
+
+    private final BootstrapConfigProperties.AdmissionConfig admissionConfig;
+
+    /**
+     * 是否处于内存压力状态
+     */
+    @Getter
+    private volatile boolean underPressure;
+
+    /**
+     * 最近一次检测到的 GC 后老年代使用率
+     */
+    @Getter
+    private volatile double lastUsageRatio;
+
+    /**
+     * 进入内存压力状态的次数
+     */
+    @Getter
+    private final AtomicLong pressureEventCount = new AtomicLong();
+
+    /**
+     * 缩小前的队列容量，key 为线程池 ID
+     */
+    private final Map<String, Integer> originalCapacities = new ConcurrentHashMap<>();
+
+    /**
+     * 设置了回收后使用量阈值的老年代内存池
+     */
+    private final List<MemoryPoolMXBean> trackedPools = new ArrayList<>();
+
+    /**
+     * 已注册的通知监听，停止时移除
+     */
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    private final NotificationListener listener = this::handleNotification;
+
+    public MemoryPressureAdmissionController(BootstrapConfigProperties.AdmissionConfig admissionConfig) {
+        if (admissionConfig.getLowWatermark() > admissionConfig.getHighWatermark()) {
+            throw new IllegalArgumentException("The admission low watermark cannot be greater than the high watermark.");
+        }
+        this.admissionConfig = admissionConfig;
+    }
+
+    /**
+     * 订阅 GC 通知和内存池阈值通知
+     */
+    public synchronized void start() {
+        if (!admissionConfig.getEnable()) {
+            return;
+        }
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0 && !isYoungGenerationPool(pool.getName())) {
+                pool.setCollectionUsageThreshold(max * admissionConfig.getHighWatermark() / 100);
+                trackedPools.add(pool);
+            }
+        }
+
+        // 阈值通知只在超过阈值时发出，回落需要依赖 GC 完成通知来检测
+        subscribe(ManagementFactory.getMemoryMXBean());
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            subscribe(collector);
+        }
+        log.info("Memory pressure admission control started, tracked pools: {}", trackedPools.stream().map(MemoryPoolMXBean::getName).toList());
+    }
+
+    /**
+     * 取消订阅并恢复所有线程池
+     */
+    public synchronized void stop() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException ignored) {
+            }
+        }
+        emitters.clear();
+        if (underPressure) {
+            underPressure = false;
+            applyAll(false);
+        }
+    }
+
+    /**
+     * 按当前内存池 GC 后使用量重新判断内存压力
+     */
+    public void evaluate() {
+        update(currentUsageRatio());
+    }
+
+    /**
+     * 按指定的老年代使用率更新内存压力状态，并对可降级线程池应用降级或恢复
+     *
+     * @param usageRatio GC 后老年代使用率，取值 [0, 1]
+     */
+    public synchronized void update(double usageRatio) {
+        lastUsageRatio = usageRatio;
+        boolean pressure = underPressure;
+        if (!pressure && usageRatio * 100 >= admissionConfig.getHighWatermark()) {
+            pressure = true;
+            pressureEventCount.incrementAndGet();
+            log.warn("Memory pressure detected, old generation usage after GC: {}%", Math.round(usageRatio * 100));
+        } else if (pressure && usageRatio * 100 <= admissionConfig.getLowWatermark()) {
+            pressure = false;
+            log.info("Memory pressure relieved, old generation usage after GC: {}%", Math.round(usageRatio * 100));
+        }
+
+        // 压力状态下每次都重新检查，配置中心在压力期间调大的队列容量会被再次缩小
+        if (pressure || underPressure) {
+            underPressure = pressure;
+            applyAll(pressure);
+        }
+    }
+
+    private void applyAll(boolean pressure) {
+        for (ThreadPoolExecutorHolder holder : OneThreadRegistry.getAllHolders()) {
+            if (Boolean.TRUE.equals(holder.getExecutorProperties().getSheddable())) {
+                apply(holder, pressure);
+            }
+        }
+    }
+
+    private void apply(ThreadPoolExecutorHolder holder, boolean pressure) {
+        ThreadPoolExecutor executor = holder.getExecutor();
+        BlockingQueue<?> queue = RateLimitedBlockingQueue.unwrap(executor.getQueue());
+        if (queue instanceof ResizableCapacityLinkedBlockingQueue) {
+            ResizableCapacityLinkedBlockingQueue<?> resizableQueue = (ResizableCapacityLinkedBlockingQueue<?>) queue;
+            if (pressure) {
+                int originalCapacity = originalCapacities.computeIfAbsent(holder.getThreadPoolId(), each -> resizableQueue.getCapacity());
+                int shedCapacity = Math.max(1, originalCapacity * admissionConfig.getShedQueuePercent() / 100);
+                if (resizableQueue.getCapacity() > shedCapacity) {
+                    int currentCapacity = resizableQueue.getCapacity();
+                    resizableQueue.setCapacity(shedCapacity);
+                    OneThreadEvents.queueCapacityChanged(holder.getThreadPoolId(), currentCapacity, shedCapacity, resizableQueue, "memory-pressure");
+                    recordDecision(executor);
+                    log.warn("[{}] Memory pressure, shrink queue capacity: {} -> {}", holder.getThreadPoolId(), originalCapacity, shedCapacity);
+                }
+            } else {
+                Integer originalCapacity = originalCapacities.remove(holder.getThreadPoolId());
+                if (originalCapacity != null) {
+                    // 压力期间配置中心下发过新容量时以配置为准
+                    int restoreCapacity = Optional.ofNullable(holder.getExecutorProperties().getQueueCapacity()).orElse(originalCapacity);
+                    int currentCapacity = resizableQueue.getCapacity();
+                    resizableQueue.setCapacity(restoreCapacity);
+                    OneThreadEvents.queueCapacityChanged(holder.getThreadPoolId(), currentCapacity, restoreCapacity, resizableQueue, "memory-pressure");
+                    recordDecision(executor);
+                    log.info("[{}] Memory pressure relieved, restore queue capacity: {}", holder.getThreadPoolId(), restoreCapacity);
+                }
+            }
+        } else if (executor instanceof OneThreadExecutor) {
+            OneThreadExecutor oneThreadExecutor = (OneThreadExecutor) executor;
+            if (oneThreadExecutor.isMemoryShedding() != pressure) {
+                oneThreadExecutor.setMemoryShedding(pressure);
+                log.warn("[{}] Memory pressure {}, reject at submit: {}", holder.getThreadPoolId(), pressure ? "detected" : "relieved", pressure);
+            }
+        } else {
+            log.debug("[{}] Thread pool cannot shed under memory pressure, queue: {}", holder.getThreadPoolId(), queue.getClass().getSimpleName());
+        }
+    }
+
+    private void recordDecision(ThreadPoolExecutor executor) {
+        if (executor instanceof OneThreadExecutor) {
+            ((OneThreadExecutor) executor).getMemoryShedDecisionCount().incrementAndGet();
+        }
+    }
+
+    /**
+     * 是否为新生代内存池
+     * <p>
+     * Eden 和 Survivor 每次 Young GC 后使用率都可能很高，却不代表存活对象增长，计入会频繁误判为内存压力；
+     * 按 HotSpot 和 OpenJ9 内存池命名排除（如 G1 Eden Space、PS Survivor Space、ZGC Young Generation、nursery-allocate），
+     * 剩下的 Old Gen、Tenured Gen 或 ZHeap、Shenandoah 等不分代的整堆内存池按老年代跟踪
+     *
+     * @param poolName 内存池名称
+     * @return 是否为新生代内存池
+     */
+    static boolean isYoungGenerationPool(String poolName) {
+        String name = poolName.toLowerCase();
+        return name.contains("eden") || name.contains("survivor") || name.contains("young") || name.contains("nursery");
+    }
+
+    /**
+     * GC 后使用率取所有被跟踪老年代内存池中最高的一个；没有可跟踪的内存池时使用整个堆的当前使用率
+     */
+    private double currentUsageRatio() {
+        double ratio = 0D;
+        for (MemoryPoolMXBean pool : trackedPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null && usage.getMax() > 0) {
+                ratio = Math.max(ratio, (double) usage.getUsed() / usage.getMax());
+            }
+        }
+        if (trackedPools.isEmpty()) {
+            MemoryUsage heapUsage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            ratio = heapUsage.getMax() > 0 ? (double) heapUsage.getUsed() / heapUsage.getMax() : 0D;
+        }
+        return ratio;
+    }
+
+    private void subscribe(Object bean) {
+        if (bean instanceof NotificationEmitter) {
+            NotificationEmitter emitter = (NotificationEmitter) bean;
+            emitter.addNotificationListener(listener, null, null);
+            emitters.add(emitter);
+        }
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (Objects.equals(type, GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)
+                || Objects.equals(type, MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED)) {
+            try {
+                evaluate();
+            } catch (Throwable ex) {
+                log.error("Failed to evaluate memory pressure.", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.executor.support.BatchTaskHandler;
+import com.nageoffer.onethread.core.executor.support.ContextualTask;
+import com.nageoffer.onethread.core.monitor.BucketHistogram;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 微批处理动态线程池
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ * <p>
+ * 通过 {@link #submitItem(Object)} 提交的元素会被包装为批处理任务放入工作队列，
+ * 工作线程取到第一个元素后继续从队列中拉取，直到凑满 {@link #batchSize} 个元素或等待超过 {@link #lingerMillis} 毫秒，
+ * 然后调用一次 {@link BatchTaskHandler} 处理整批元素。适合写库、发消息等单条处理开销较大的场景。
+ * 凑批时遇到混入的普通任务会结束本批并把任务放回队列，由工作线程按正常流程执行，保证上下文恢复、执行中任务登记和完成数统计不被绕过
+ * <p>
+ * 该线程池依然是一个 {@link OneThreadExecutor}，可以正常注册、监控和动态刷新核心参数，
+ * 批大小和最长等待时间也可以通过配置中心动态调整
+ *
+ * @param <T> 批处理元素类型
+ */
+@Slf4j
+public class OneThreadBatchExecutor<T> extends OneThreadExecutor {
+
+    /**
+     * 单批次元素个数上限，批大小分布按该上限划分桶，动态调大批大小后分布依然准确
+     */
+    public static final int MAX_BATCH_SIZE = 65536;
+
+    /**
+     * 批量任务处理器
+     */
+    private final BatchTaskHandler<T> batchHandler;
+
+    /**
+     * 单批次最大元素个数
+     */
+    @Getter
+    private volatile int batchSize;
+
+    /**
+     * 凑批最长等待时间，单位毫秒
+     */
+    @Getter
+    private volatile long lingerMillis;
+
+    /**
+     * 批大小分布
+     */
+    @Getter
+    private final BucketHistogram batchSizeHistogram = BucketHistogram.powerOfTwo(MAX_BATCH_SIZE);
+
+    /**
+     * 凑批等待时长分布，单位毫秒
+     */
+    @Getter
+    private final BucketHistogram lingerHistogram = BucketHistogram.millis();
+
+    /**
+     * 已处理的元素总数
+     */
+    @Getter
+    private final AtomicLong itemCount = new AtomicLong();
+
+    /**
+     * 处理失败的批次数
+     */
+    @Getter
+    private final AtomicLong batchFailureCount = new AtomicLong();
+
+    public OneThreadBatchExecutor(
+            @NonNull String threadPoolId,
+            int corePoolSize,
+            int maximumPoolSize,
+            long keepAliveTime,
+            @NonNull TimeUnit unit,
+            @NonNull BlockingQueue<Runnable> workQueue,
+            @NonNull ThreadFactory threadFactory,
+            @NonNull RejectedExecutionHandler handler,
+            long awaitTerminationMillis,
+            @NonNull BatchTaskHandler<T> batchHandler,
+            int batchSize,
+            long lingerMillis) {
+        super(threadPoolId, corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler, awaitTerminationMillis);
+        this.batchHandler = batchHandler;
+        setBatchSize(batchSize);
+        setLingerMillis(lingerMillis);
+    }
+
+    /**
+     * 提交一个待批量处理的元素
+     *
+     * @param item 元素
+     */
+    public void submitItem(@NonNull T item) {
+        execute(new BatchItem<>(this, item));
+    }
+
+    /**
+     * 动态调整单批次最大元素个数
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("The batch size must be in [1, " + MAX_BATCH_SIZE + "].");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 动态调整凑批最长等待时间
+     */
+    public void setLingerMillis(long lingerMillis) {
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("The linger millis cannot be negative.");
+        }
+        this.lingerMillis = lingerMillis;
+    }
+
+    /**
+     * 从首个元素开始凑批并调用处理器，运行在线程池工作线程中
+     */
+    private void runBatch(T firstItem) {
+        int maxSize = batchSize;
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        long startNanos = System.nanoTime();
+
+        List<T> batch = new ArrayList<>(maxSize);
+        batch.add(firstItem);
+        BlockingQueue<Runnable> queue = getQueue();
+        try {
+            // 先无等待地拉取队列中已有的元素，不足时再在剩余等待时间内继续拉取；遇到普通任务时结束本批
+            while (batch.size() < maxSize) {
+                Runnable next = queue.poll();
+                if (next == null) {
+                    long remaining = lingerNanos - (System.nanoTime() - startNanos);
+                    if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                        break;
+                    }
+                }
+                if (!collect(next, batch)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException ex) {
+            // 线程池关闭时会中断工作线程，已拉取的元素依然处理完再退出
+            Thread.currentThread().interrupt();
+        }
+
+        batchSizeHistogram.record(batch.size());
+        lingerHistogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        itemCount.addAndGet(batch.size());
+        try {
+            batchHandler.handle(batch);
+        } catch (Throwable ex) {
+            batchFailureCount.incrementAndGet();
+            log.error("[{}] Failed to handle batch, batch size: {}", getThreadPoolId(), batch.size(), ex);
+        }
+    }
+
+    /**
+     * 将队列中拉取到的任务放入当前批次
+     * <p>
+     * 混入的普通任务不能在当前线程直接执行：当前线程正处于批处理任务的 beforeExecute 和 afterExecute 之间，
+     * 直接执行会绕过上下文恢复、执行中任务登记和任务统计。这里把任务放回队列尾部，由工作线程按正常流程执行；
+     * 刚取出一个任务后队列又被并发提交填满时放不回去，改为重新提交，按拒绝策略处理
+     *
+     * @return 是否为本线程池的批处理元素，不是时结束本批
+     */
+    @SuppressWarnings("unchecked")
+    private boolean collect(Runnable task, List<T> batch) {
+        // 开启上下文传递后元素会被包装，同一批次的元素统一在首个元素的上下文中处理
+        Runnable unwrapped = ContextualTask.unwrap(task);
+        if (unwrapped instanceof BatchItem && ((BatchItem<?>) unwrapped).executor == this) {
+            batch.add(((BatchItem<T>) unwrapped).item);
+            return true;
+        }
+
+        if (!getQueue().offer(task)) {
+            log.warn("[{}] Work queue is full, resubmit non-batch task pulled while collecting batch.", getThreadPoolId());
+            try {
+                execute(task);
+            } catch (RejectedExecutionException ex) {
+                log.error("[{}] Non-batch task pulled while collecting batch was rejected.", getThreadPoolId(), ex);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 批处理元素包装，作为普通任务进入工作队列
+     */
+    private static final class BatchItem<T> implements Runnable {
+
+        private final OneThreadBatchExecutor<T> executor;
+        private final T item;
+
+        private BatchItem(OneThreadBatchExecutor<T> executor, T item) {
+            this.executor = executor;
+            this.item = item;
+        }
+
+        @Override
+        public void run() {
+            executor.runBatch(item);
+        }
+    }
+}
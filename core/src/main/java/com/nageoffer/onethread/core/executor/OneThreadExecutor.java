@@ -1,14 +1,46 @@
 package com.nageoffer.onethread.core.executor;
 
+import com.nageoffer.onethread.core.executor.support.ContextualTask;
+import com.nageoffer.onethread.core.executor.support.DiscardAwareTask;
+import com.nageoffer.onethread.core.executor.support.KeyedBulkhead;
+import com.nageoffer.onethread.core.executor.support.LabeledFutureTask;
+import com.nageoffer.onethread.core.executor.support.QueuedTaskStore;
+import com.nageoffer.onethread.core.executor.support.RateLimitedBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.RunningTaskInfo;
+import com.nageoffer.onethread.core.executor.support.TaskAccounting;
+import com.nageoffer.onethread.core.executor.support.TaskScopeStats;
+import com.nageoffer.onethread.core.executor.support.TaskContextPropagator;
+import com.nageoffer.onethread.core.executor.support.TaskHedger;
+import com.nageoffer.onethread.core.executor.support.TaskRates;
+import com.nageoffer.onethread.core.executor.support.TrackingThreadFactory;
+import com.nageoffer.onethread.core.executor.support.WorkerTimeSampler;
+import com.nageoffer.onethread.core.executor.support.WorkerSlot;
+import com.nageoffer.onethread.core.monitor.jfr.OneThreadEvents;
+import com.nageoffer.onethread.core.monitor.jfr.TaskSubmittedEvent;
+import com.nageoffer.onethread.core.monitor.BucketHistogram;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -26,6 +58,13 @@ import java.util.concurrent.atomic.AtomicLong;
 @Slf4j
 public class OneThreadExecutor extends ThreadPoolExecutor {
 
+    private static final int DEFAULT_MAX_KEYS = 4096;
+    private static final int DEFAULT_PARKED_CAPACITY_PER_KEY = 1024;
+    private static final long DEFAULT_KEY_IDLE_EVICT_MILLIS = 60000L;
+    private static final TaskContextPropagator[] EMPTY_PROPAGATORS = new TaskContextPropagator[0];
+    private static final int DEFAULT_MAX_TASK_LABELS = 64;
+    private static final long DEFAULT_WARM_UP_TIMEOUT_MILLIS = 30000L;
+
     /**
      * 线程池唯一标识，用来动态变更参数等
      * 通过这个ID可以唯一识别和管理线程池实例
@@ -45,8 +84,89 @@ public class OneThreadExecutor extends ThreadPoolExecutor {
      * 等待终止时间，单位毫秒
      * 在关闭线程池时，等待现有任务完成的最大时间
      */
+    @Getter
     private long awaitTerminationMillis;
 
+    /**
+     * 按 Key 隔离的并发舱壁，未设置单 Key 并发上限时为空
+     */
+    @Getter
+    private volatile KeyedBulkhead keyedBulkhead;
+
+    /**
+     * 任务上下文传递器，写时复制，未注册时提交任务不做任何额外处理
+     */
+    private volatile TaskContextPropagator[] contextPropagators = EMPTY_PROPAGATORS;
+
+    /**
+     * 当前工作线程的任务槽位
+     */
+    private final ThreadLocal<WorkerSlot> currentWorkerSlot = new ThreadLocal<>();
+
+    /**
+     * 所有工作线程的任务槽位，线程退出后在下次扫描时移除
+     */
+    private final Set<WorkerSlot> workerSlots = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 按任务类型统计 CPU 时间和内存分配，未开启时为空
+     */
+    @Getter
+    private volatile TaskAccounting taskAccounting;
+
+    /**
+     * 启动预热耗时，单位毫秒，未预热或预热未完成时为空
+     */
+    @Getter
+    private volatile Long warmUpMillis;
+
+    /**
+     * 排队任务持久化存储，设置后关闭线程池时将队列中可序列化的任务转存到本地文件，未设置时为空
+     */
+    @Getter
+    private volatile QueuedTaskStore queuedTaskStore;
+
+    /**
+     * 通过 {@link TaskScope} 提交到该线程池的扇出作用域统计
+     */
+    @Getter
+    private final TaskScopeStats taskScopeStats = new TaskScopeStats();
+
+    /**
+     * 对冲执行器，通过 {@link #submitHedged(Callable)} 提交的任务生效
+     */
+    @Getter
+    private final TaskHedger taskHedger = new TaskHedger(this);
+
+    /**
+     * 任务提交、完成和拒绝的滑动窗口速率
+     */
+    @Getter
+    private final TaskRates taskRates = new TaskRates();
+
+    /**
+     * 是否因内存压力在提交时直接拒绝任务，由 {@link MemoryPressureAdmissionController} 设置
+     */
+    @Getter
+    private volatile boolean memoryShedding;
+
+    /**
+     * 因内存压力在提交时被拒绝的任务数
+     */
+    @Getter
+    private final AtomicLong memoryShedCount = new AtomicLong();
+
+    /**
+     * 内存压力降级决策次数：缩小或恢复队列容量、开启或关闭提交拒绝
+     */
+    @Getter
+    private final AtomicLong memoryShedDecisionCount = new AtomicLong();
+
+    /**
+     * 工作线程 CPU、阻塞和等待时间分布采样器，工作线程由包装后的线程工厂登记
+     */
+    private final WorkerTimeSampler workerTimeSampler;
+
     /**
      * 创建一个新的可扩展线程池执行器，带有指定的初始参数
      *
@@ -80,7 +200,7 @@ public class OneThreadExecutor extends ThreadPoolExecutor {
             @NonNull ThreadFactory threadFactory,
             @NonNull RejectedExecutionHandler handler,
             long awaitTerminationMillis) {
-        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, new TrackingThreadFactory(threadFactory), handler);
 
         // 通过动态代理设置拒绝策略执行次数
         setRejectedExecutionHandler(handler);
@@ -90,6 +210,17 @@ public class OneThreadExecutor extends ThreadPoolExecutor {
 
         // 设置等待终止时间，单位毫秒
         this.awaitTerminationMillis = awaitTerminationMillis;
+
+        // 包装后的线程工厂登记工作线程，供采样器按线程池统计线程时间分布
+        this.workerTimeSampler = new WorkerTimeSampler((TrackingThreadFactory) getThreadFactory());
+    }
+
+    /**
+     * 重写线程工厂设置方法，只替换实际创建线程的工厂，保留工作线程登记
+     */
+    @Override
+    public void setThreadFactory(ThreadFactory threadFactory) {
+        ((TrackingThreadFactory) getThreadFactory()).setDelegate(threadFactory);
     }
 
     /**
@@ -107,6 +238,7 @@ public class OneThreadExecutor extends ThreadPoolExecutor {
      * 增强功能：
      * 1. 在执行原始拒绝策略前，增加拒绝计数
      * 2. 保持原始拒绝策略的行为不变
+     * 3. 拒绝策略执行后通知 {@link DiscardAwareTask}，DiscardOldestPolicy 由包装器按相同语义执行，以便通知被丢弃的队头任务
      */
     @Override
     public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
@@ -116,8 +248,34 @@ public class OneThreadExecutor extends ThreadPoolExecutor {
             public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
                 // 增加拒绝计数
                 rejectCount.incrementAndGet();
-                // 执行原始拒绝策略
-                handler.rejectedExecution(r, executor);
+                taskRates.getRejected().increment();
+                OneThreadEvents.rejected(threadPoolId, r, toString(), getQueue());
+                if (handler instanceof ThreadPoolExecutor.DiscardOldestPolicy) {
+                    discardOldest(r, executor);
+                    return;
+                }
+                // 执行原始拒绝策略，任务被静默丢弃或抛出异常时都需要通知任务
+                try {
+                    handler.rejectedExecution(r, executor);
+                } finally {
+                    DiscardAwareTask.notifyDiscarded(r);
+                }
+            }
+
+            private void discardOldest(Runnable r, ThreadPoolExecutor executor) {
+                if (executor.isShutdown()) {
+                    DiscardAwareTask.notifyDiscarded(r);
+                    return;
+                }
+                // 限速队列的非阻塞 poll 在没有令牌时返回空，淘汰队头任务不应受限速约束，直接从原始队列取出
+                Runnable oldest = (Runnable) RateLimitedBlockingQueue.unwrap(executor.getQueue()).poll();
+                if (oldest == null) {
+                    // 没有可淘汰的任务时重新提交只会再次被拒绝并递归，直接丢弃当前任务
+                    DiscardAwareTask.notifyDiscarded(r);
+                    return;
+                }
+                DiscardAwareTask.notifyDiscarded(oldest);
+                executor.execute(r);
             }
 
             @Override
@@ -129,15 +287,440 @@ public class OneThreadExecutor extends ThreadPoolExecutor {
         super.setRejectedExecutionHandler(handlerWrapper);
     }
 
+    /**
+     * 注册任务上下文传递器，提交任务时在提交线程捕获上下文，执行任务前在工作线程恢复，执行后清理
+     *
+     * @param propagator 上下文传递器
+     */
+    public synchronized void addContextPropagator(@NonNull TaskContextPropagator propagator) {
+        TaskContextPropagator[] propagators = Arrays.copyOf(contextPropagators, contextPropagators.length + 1);
+        propagators[propagators.length - 1] = propagator;
+        contextPropagators = propagators;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        taskRates.getSubmitted().increment();
+        if (shedOnMemoryPressure(command)) {
+            return;
+        }
+        TaskSubmittedEvent submittedEvent = OneThreadEvents.beginSubmit();
+        super.execute(captureContext(command));
+        OneThreadEvents.commitSubmit(submittedEvent, threadPoolId, command, getQueue());
+    }
+
+    /**
+     * 设置是否因内存压力在提交时直接拒绝任务
+     */
+    public void setMemoryShedding(boolean memoryShedding) {
+        if (this.memoryShedding != memoryShedding) {
+            this.memoryShedding = memoryShedding;
+            memoryShedDecisionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 内存压力下直接执行拒绝策略，不让任务进入队列
+     *
+     * @return 任务是否已被拒绝
+     */
+    protected boolean shedOnMemoryPressure(Runnable command) {
+        if (!memoryShedding || command == null) {
+            return false;
+        }
+        memoryShedCount.incrementAndGet();
+        getRejectedExecutionHandler().rejectedExecution(command, this);
+        return true;
+    }
+
+    /**
+     * 在提交线程捕获上下文；没有注册传递器或所有传递器都没有捕获到上下文时返回原任务，不产生任何分配
+     */
+    protected Runnable captureContext(Runnable command) {
+        return captureContext(command, false);
+    }
+
+    /**
+     * 在提交线程捕获上下文
+     *
+     * @param alwaysWrap 没有捕获到上下文时是否也包装为空快照的 {@link ContextualTask}，
+     *                   包装后的任务由其他线程转交提交时不会再捕获转交线程的上下文
+     */
+    private Runnable captureContext(Runnable command, boolean alwaysWrap) {
+        TaskContextPropagator[] propagators = contextPropagators;
+        if (command instanceof ContextualTask || (propagators.length == 0 && !alwaysWrap)) {
+            return command;
+        }
+
+        Object[] snapshots = null;
+        for (int i = 0; i < propagators.length; i++) {
+            Object snapshot = propagators[i].capture();
+            if (snapshot != null) {
+                if (snapshots == null) {
+                    snapshots = new Object[propagators.length];
+                }
+                snapshots[i] = snapshot;
+            }
+        }
+        if (snapshots == null) {
+            if (!alwaysWrap) {
+                return command;
+            }
+            snapshots = new Object[propagators.length];
+        }
+        return new ContextualTask(command, snapshots, propagators);
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        WorkerSlot slot = currentWorkerSlot.get();
+        if (slot == null) {
+            slot = new WorkerSlot(t);
+            currentWorkerSlot.set(slot);
+            workerSlots.add(slot);
+        }
+        slot.begin(r);
+
+        TaskAccounting accounting = taskAccounting;
+        if (accounting != null) {
+            accounting.begin(slot);
+        }
+
+        if (r instanceof ContextualTask) {
+            ((ContextualTask) r).restore();
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        taskRates.getCompleted().increment();
+        if (r instanceof ContextualTask) {
+            ((ContextualTask) r).clear();
+        }
+
+        WorkerSlot slot = currentWorkerSlot.get();
+        if (slot != null) {
+            TaskAccounting accounting = taskAccounting;
+            if (accounting != null) {
+                accounting.end(slot, r);
+            }
+            slot.end();
+        }
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return taskAccounting != null ? new LabeledFutureTask<>(runnable, value) : super.newTaskFor(runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return taskAccounting != null ? new LabeledFutureTask<>(callable) : super.newTaskFor(callable);
+    }
+
+    /**
+     * 开启或关闭按任务类型的 CPU 时间和内存分配统计，关闭后已有统计数据会被丢弃
+     *
+     * @param enabled 是否开启
+     */
+    public synchronized void setTaskAccountingEnabled(boolean enabled) {
+        if (enabled && taskAccounting == null) {
+            taskAccounting = new TaskAccounting(DEFAULT_MAX_TASK_LABELS);
+        } else if (!enabled) {
+            taskAccounting = null;
+        }
+    }
+
+    /**
+     * 获取正在执行的任务，按已执行时长倒序
+     */
+    public List<RunningTaskInfo> getRunningTasks() {
+        long now = System.nanoTime();
+        List<RunningTaskInfo> runningTasks = new ArrayList<>();
+        workerSlots.removeIf(each -> !each.getThread().isAlive());
+        for (WorkerSlot slot : workerSlots) {
+            RunningTaskInfo runningTask = slot.snapshot(now);
+            if (runningTask != null) {
+                runningTasks.add(runningTask);
+            }
+        }
+        runningTasks.sort(Comparator.comparingLong(RunningTaskInfo::getRunningMillis).reversed());
+        return runningTasks;
+    }
+
+    /**
+     * 获取仍然存活的工作线程 ID，包括空闲线程
+     */
+    public long[] getWorkerThreadIds() {
+        return ((TrackingThreadFactory) getThreadFactory()).liveThreadIds();
+    }
+
+    /**
+     * 获取正在执行该线程池任务的工作线程 ID
+     */
+    protected long[] getBusyWorkerThreadIds() {
+        return workerSlots.stream()
+                .filter(WorkerSlot::isBusy)
+                .mapToLong(each -> each.getThread().getId())
+                .toArray();
+    }
+
+    /**
+     * 获取工作线程时间分布采样器
+     *
+     * @return 采样器，工作线程不归该线程池独占、无法按线程池统计时为空
+     */
+    public WorkerTimeSampler getWorkerTimeSampler() {
+        return workerTimeSampler;
+    }
+
+    /**
+     * 统计正在执行的任务已执行时长分布，单位毫秒
+     */
+    public BucketHistogram getRunningTaskAgeHistogram() {
+        BucketHistogram histogram = BucketHistogram.millis();
+        getRunningTasks().forEach(each -> histogram.record(each.getRunningMillis()));
+        return histogram;
+    }
+
+    /**
+     * 按 Key 提交任务，同一个 Key 同时执行的任务数受 {@link #setKeyConcurrencyLimit(int)} 限制
+     * 未设置单 Key 并发上限时等同于 {@link #execute(Runnable)}
+     *
+     * @param key     隔离 Key，比如租户标识、下游服务名
+     * @param command 任务
+     */
+    public void execute(@NonNull String key, @NonNull Runnable command) {
+        KeyedBulkhead bulkhead = keyedBulkhead;
+        if (bulkhead == null) {
+            execute(command);
+            return;
+        }
+        // 在提交线程捕获上下文，没有上下文时也包装为空快照：等待中的任务由其他工作线程在上一个任务的上下文中转交提交，
+        // 不包装会在转交时捕获到上一个任务的上下文
+        bulkhead.execute(key, captureContext(command, true));
+    }
+
+    /**
+     * 设置单个 Key 最大并发执行数，首次设置时创建舱壁，之后动态调整上限
+     *
+     * @param keyConcurrencyLimit 单个 Key 最大并发执行数
+     */
+    public synchronized void setKeyConcurrencyLimit(int keyConcurrencyLimit) {
+        if (keyedBulkhead == null) {
+            keyedBulkhead = new KeyedBulkhead(this, keyConcurrencyLimit, DEFAULT_MAX_KEYS, DEFAULT_PARKED_CAPACITY_PER_KEY, DEFAULT_KEY_IDLE_EVICT_MILLIS);
+            return;
+        }
+        keyedBulkhead.setLimitPerKey(keyConcurrencyLimit);
+    }
+
+    /**
+     * 以对冲方式提交幂等任务，超过对冲延迟未完成时在当前线程池再执行一次，取先完成的结果
+     *
+     * @param task 幂等任务
+     * @return 任务结果
+     */
+    public <T> CompletableFuture<T> submitHedged(@NonNull Callable<T> task) {
+        return taskHedger.submit(task, this);
+    }
+
+    /**
+     * 以对冲方式提交幂等任务，超过对冲延迟未完成时在备用线程池再执行一次，取先完成的结果
+     *
+     * @param task           幂等任务
+     * @param backupExecutor 对冲执行使用的备用线程池
+     * @return 任务结果
+     */
+    public <T> CompletableFuture<T> submitHedged(@NonNull Callable<T> task, @NonNull ThreadPoolExecutor backupExecutor) {
+        return taskHedger.submit(task, backupExecutor);
+    }
+
+    /**
+     * 启动预热：预启动全部核心线程，再以不超过指定并发数的方式在工作线程中执行预热任务
+     * <p>
+     * 预热在独立线程中异步进行，返回的 Future 在所有预热任务结束后完成，结果为预热耗时（毫秒）；最多等待 {@value #DEFAULT_WARM_UP_TIMEOUT_MILLIS} 毫秒
+     *
+     * @param warmUpTasks 预热任务，单个任务异常不影响其他任务
+     * @param concurrency 预热任务最大并发数
+     * @return 预热耗时 Future
+     */
+    public CompletableFuture<Long> warmUp(List<? extends Runnable> warmUpTasks, int concurrency) {
+        return warmUp(warmUpTasks, concurrency, DEFAULT_WARM_UP_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * 启动预热，拒绝策略静默丢弃或内存卸载丢弃的预热任务视为已结束；超过等待时间仍未结束时不再等待剩余任务，按已耗时完成
+     *
+     * @param warmUpTasks   预热任务，单个任务异常不影响其他任务
+     * @param concurrency   预热任务最大并发数
+     * @param timeoutMillis 最长等待时间（单位：毫秒）
+     * @return 预热耗时 Future
+     */
+    public CompletableFuture<Long> warmUp(List<? extends Runnable> warmUpTasks, int concurrency, long timeoutMillis) {
+        long startNanos = System.nanoTime();
+        prestartAllCoreThreads();
+
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        Thread warmUpThread = new Thread(() -> {
+            long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            Semaphore permits = new Semaphore(Math.max(concurrency, 1));
+            CountDownLatch latch = new CountDownLatch(warmUpTasks.size());
+            boolean finished = false;
+            try {
+                boolean acquired = true;
+                for (Runnable each : warmUpTasks) {
+                    if (!(acquired = permits.tryAcquire(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS))) {
+                        break;
+                    }
+                    WarmUpTask warmUpTask = new WarmUpTask(each, permits, latch);
+                    try {
+                        execute(warmUpTask);
+                    } catch (RejectedExecutionException ex) {
+                        warmUpTask.onDiscarded();
+                    }
+                }
+                finished = acquired && latch.await(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            warmUpMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (!finished) {
+                log.warn("[{}] Thread pool warm-up timed out, unfinished warm-up tasks: {}, cost: {}ms", threadPoolId, latch.getCount(), warmUpMillis);
+            } else {
+                log.info("[{}] Thread pool warm-up finished, core threads: {}, warm-up tasks: {}, cost: {}ms", threadPoolId, getPoolSize(), warmUpTasks.size(), warmUpMillis);
+            }
+            future.complete(warmUpMillis);
+        }, "onethread-warm-up_" + threadPoolId);
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+        return future;
+    }
+
+    /**
+     * 开启关闭时转存排队任务，传入空值表示关闭
+     */
+    public void setQueuedTaskStore(QueuedTaskStore queuedTaskStore) {
+        this.queuedTaskStore = queuedTaskStore;
+    }
+
+    /**
+     * 重新提交上次关闭时转存的排队任务，应在线程池启动后调用
+     *
+     * @return 重新提交的任务数
+     */
+    public int restoreQueuedTasks() {
+        QueuedTaskStore store = queuedTaskStore;
+        if (store == null) {
+            return 0;
+        }
+
+        List<Runnable> tasks;
+        try {
+            tasks = store.load(threadPoolId);
+        } catch (IOException ex) {
+            log.error("[{}] Failed to load queued tasks from {}.", threadPoolId, store.getDirectory(), ex);
+            return 0;
+        }
+
+        int restored = 0;
+        for (Runnable task : tasks) {
+            try {
+                execute(task);
+                restored++;
+            } catch (RejectedExecutionException ex) {
+                log.warn("[{}] Restored queued task was rejected.", threadPoolId);
+            }
+        }
+        if (!tasks.isEmpty()) {
+            log.info("[{}] Restored {} queued tasks from last shutdown.", threadPoolId, restored);
+        }
+        return restored;
+    }
+
+    /**
+     * 将工作队列中的任务取出并转存到本地文件，不可序列化或不在白名单中的任务放回队列，在关闭等待期间照常执行；
+     * 存储未配置任务类白名单时不转存
+     *
+     * @return 转存的任务数
+     */
+    private int drainQueueToStore(QueuedTaskStore store) {
+        if (!store.isRestorable()) {
+            return 0;
+        }
+        List<Runnable> queued = new ArrayList<>();
+        getQueue().drainTo(queued);
+        if (queued.isEmpty()) {
+            return 0;
+        }
+
+        List<byte[]> records = new ArrayList<>(queued.size());
+        List<Runnable> remaining = new ArrayList<>();
+        for (Runnable each : queued) {
+            // 上下文快照只在当前进程内有效，持久化原始任务
+            byte[] record = store.toRestorableRecord(ContextualTask.unwrap(each));
+            if (record != null) {
+                records.add(record);
+            } else {
+                remaining.add(each);
+            }
+        }
+
+        try {
+            if (!records.isEmpty()) {
+                store.save(threadPoolId, records);
+            }
+        } catch (IOException ex) {
+            log.error("[{}] Failed to save queued tasks to {}, tasks will run before shutdown.", threadPoolId, store.getDirectory(), ex);
+            remaining = queued;
+            records.clear();
+        }
+
+        BlockingQueue<Runnable> queue = getQueue();
+        for (Runnable each : remaining) {
+            // 转存期间队列可能被新任务占满，放不回去的任务在当前线程执行，避免丢失
+            if (!queue.offer(each)) {
+                try {
+                    each.run();
+                } catch (Throwable ex) {
+                    log.error("[{}] Failed to run queued task during shutdown.", threadPoolId, ex);
+                }
+            }
+        }
+        log.info("[{}] Drained {} queued tasks to {}, {} non-restorable tasks left in queue.", threadPoolId, records.size(), store.getDirectory(), remaining.size());
+        return records.size();
+    }
+
+    /**
+     * 发起关闭但不等待：按需转存排队任务后停止接受新任务，由调用方自行等待终止，供统一关闭协调器并行关闭多个线程池
+     *
+     * @return 转存到本地文件的任务数
+     */
+    public int initiateShutdown() {
+        if (isShutdown()) {
+            return 0;
+        }
+
+        // 转存排队任务，下次启动时重新提交，避免关闭等待时间过长或丢失任务
+        // 在停止接受新任务前转存，保证放回队列的任务依然有工作线程执行
+        QueuedTaskStore store = queuedTaskStore;
+        int drained = store != null ? drainQueueToStore(store) : 0;
+
+        // 调用父类的shutdown方法，停止接受新任务
+        super.shutdown();
+        return drained;
+    }
+
     /**
      * 重写线程池关闭方法，实现优雅关闭
      * 在关闭线程池时，等待现有任务完成指定的时间
      * 
      * 关闭流程：
      * 1. 检查线程池是否已经关闭，如果已关闭则直接返回
-     * 2. 调用父类的shutdown方法，不再接受新任务
-     * 3. 如果设置了等待终止时间，则等待现有任务完成
-     * 4. 记录关闭过程中的日志信息
+     * 2. 如果设置了排队任务持久化存储，将队列中可序列化的任务转存到本地文件
+     * 3. 调用父类的shutdown方法，不再接受新任务
+     * 4. 如果设置了等待终止时间，则等待现有任务完成
+     * 5. 记录关闭过程中的日志信息
      */
     @Override
     public void shutdown() {
@@ -146,9 +729,9 @@ public class OneThreadExecutor extends ThreadPoolExecutor {
             return;
         }
 
-        // 调用父类的shutdown方法，停止接受新任务
-        super.shutdown();
-        
+        // 按需转存排队任务，并停止接受新任务
+        initiateShutdown();
+
         // 如果未设置等待终止时间，则直接返回
         if (this.awaitTerminationMillis <= 0) {
             return;
@@ -171,4 +754,45 @@ public class OneThreadExecutor extends ThreadPoolExecutor {
             Thread.currentThread().interrupt();
         }
     }
+
+    /**
+     * 预热任务包装，执行结束或被拒绝策略丢弃时归还并发许可并计数，两者只生效一次
+     */
+    private class WarmUpTask implements Runnable, DiscardAwareTask {
+
+        private final Runnable task;
+        private final Semaphore permits;
+        private final CountDownLatch latch;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        WarmUpTask(Runnable task, Semaphore permits, CountDownLatch latch) {
+            this.task = task;
+            this.permits = permits;
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                log.warn("[{}] Warm-up task failed.", threadPoolId, ex);
+            } finally {
+                permits.release();
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void onDiscarded() {
+            if (settled.compareAndSet(false, true)) {
+                log.warn("[{}] Warm-up task was discarded.", threadPoolId);
+                permits.release();
+                latch.countDown();
+            }
+        }
+    }
 }
\ No newline at end of file
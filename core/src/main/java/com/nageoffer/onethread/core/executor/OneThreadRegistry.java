@@ -40,6 +40,16 @@ public class OneThreadRegistry {
         return HOLDER_MAP.get(threadPoolId);
     }
 
+    /**
+     * 从管理器移除线程池，监控器在下一个采集周期注销该线程池的指标
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 被移除的线程池持有者对象，不存在时为 null
+     */
+    public static ThreadPoolExecutorHolder removeHolder(String threadPoolId) {
+        return HOLDER_MAP.remove(threadPoolId);
+    }
+
     /**
      * 获取所有线程池集合
      *
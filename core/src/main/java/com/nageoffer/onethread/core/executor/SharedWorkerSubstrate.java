@@ -0,0 +1,293 @@
+package com.nageoffer.onethread.core.executor;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 共享工作线程底座
+ * <p>
+ * 多个 {@link LogicalOneThreadExecutor} 共用同一组物理工作线程，各逻辑线程池保留独立的队列、并发上限、拒绝统计和监控。
+ * 工作线程按赤字轮询（Deficit Round Robin）在有任务的逻辑线程池之间分配：每轮每个线程池获得与其权重相等的额度，
+ * 每执行一个任务消耗一个额度，额度用完或队列为空时轮到下一个线程池，避免某个繁忙线程池独占所有工作线程
+ * <p>
+ * 调度状态由一把锁保护，逻辑线程池提交任务时只入队并唤醒一个空闲工作线程
+ * <p>
+ * 底座的生命周期跟随挂载的逻辑线程池：最后一个逻辑线程池终止并卸载后底座自动关闭，工作线程随之退出，
+ * 之后不能再挂载新的逻辑线程池，需要重新创建底座
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class SharedWorkerSubstrate {
+
+    /**
+     * 队列不为空但取不到任务（比如限速队列没有许可）时的重试间隔
+     */
+    private static final long THROTTLED_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    /**
+     * 底座唯一标识
+     */
+    @Getter
+    private final String substrateId;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition workAvailable = lock.newCondition();
+
+    /**
+     * 挂载在底座上的逻辑线程池，由 {@link #lock} 保护
+     */
+    private final List<LogicalOneThreadExecutor> pools = new ArrayList<>();
+
+    /**
+     * 赤字轮询当前指向的逻辑线程池下标，由 {@link #lock} 保护
+     */
+    private int cursor;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    /**
+     * 正在执行任务的工作线程数
+     */
+    private final AtomicInteger busyWorkerCount = new AtomicInteger();
+
+    private volatile boolean shutdown;
+
+    public SharedWorkerSubstrate(@NonNull String substrateId, int workerCount, @NonNull ThreadFactory threadFactory) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("The worker count must be greater than 0.");
+        }
+        this.substrateId = substrateId;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::runWorker);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * 获取工作线程数
+     */
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    /**
+     * 获取正在执行任务的工作线程数
+     */
+    public int getBusyWorkerCount() {
+        return busyWorkerCount.get();
+    }
+
+    /**
+     * 获取挂载的逻辑线程池数量
+     */
+    public int getPoolCount() {
+        lock.lock();
+        try {
+            return pools.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * 关闭底座：不再接收新任务，工作线程执行完所有逻辑线程池中已排队的任务后退出
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待所有工作线程退出
+     *
+     * @return 超时前是否全部退出
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : workers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis > 0) {
+                worker.join(remainingMillis);
+            }
+            if (worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void register(LogicalOneThreadExecutor pool) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new IllegalStateException("The shared worker substrate " + substrateId + " has been shut down.");
+            }
+            pools.add(pool);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void deregister(LogicalOneThreadExecutor pool) {
+        lock.lock();
+        try {
+            int index = pools.indexOf(pool);
+            if (index >= 0) {
+                pools.remove(index);
+                if (index < cursor) {
+                    cursor--;
+                }
+            }
+            // 最后一个逻辑线程池卸载后关闭底座，共享工作线程不会比挂载的线程池存活得更久
+            if (pools.isEmpty() && !shutdown) {
+                shutdown = true;
+                workAvailable.signalAll();
+                log.info("[{}] Last logical pool terminated, shared worker substrate shut down.", substrateId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 有新任务入队或并发上限调大时唤醒工作线程
+     *
+     * @param all 是否唤醒全部工作线程
+     */
+    void signal(boolean all) {
+        lock.lock();
+        try {
+            if (all) {
+                workAvailable.signalAll();
+            } else {
+                workAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 逻辑线程池任务执行完成，归还并发名额
+     */
+    void complete(LogicalOneThreadExecutor pool) {
+        lock.lock();
+        try {
+            pool.inFlightCount--;
+            // 该线程池可能因并发上限而有任务在等待
+            if (!pool.getQueue().isEmpty()) {
+                workAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        pool.checkTermination();
+    }
+
+    private void runWorker() {
+        while (true) {
+            Dispatch dispatch = take();
+            if (dispatch == null) {
+                return;
+            }
+
+            busyWorkerCount.incrementAndGet();
+            try {
+                dispatch.pool.runTask(dispatch.task);
+            } finally {
+                busyWorkerCount.decrementAndGet();
+                // 逻辑线程池 shutdownNow 可能中断了当前任务，清除中断标记后继续为其他线程池服务
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * 按赤字轮询取出下一个可执行任务，没有任务时阻塞；底座关闭且没有待执行任务时返回空
+     */
+    private Dispatch take() {
+        lock.lock();
+        try {
+            while (true) {
+                boolean throttled = false;
+                int size = pools.size();
+                for (int visited = 0; visited < size; visited++) {
+                    if (cursor >= size) {
+                        cursor = 0;
+                    }
+                    LogicalOneThreadExecutor pool = pools.get(cursor);
+                    if (pool.isDispatchable()) {
+                        // 新一轮开始时补充额度，额度用完前一直从该线程池取任务
+                        if (pool.deficit < 1) {
+                            pool.deficit += pool.getWeight();
+                        }
+                        Runnable task = pool.getQueue().poll();
+                        if (task != null) {
+                            pool.deficit--;
+                            pool.inFlightCount++;
+                            pool.largestInFlightCount = Math.max(pool.largestInFlightCount, pool.inFlightCount);
+                            if (pool.deficit < 1) {
+                                cursor++;
+                            }
+                            return new Dispatch(pool, task);
+                        }
+                        throttled = true;
+                    }
+                    // 队列为空或达到并发上限的线程池不保留额度
+                    pool.deficit = 0;
+                    cursor++;
+                }
+
+                if (shutdown && !throttled) {
+                    return null;
+                }
+                try {
+                    if (throttled) {
+                        workAvailable.awaitNanos(THROTTLED_RETRY_NANOS);
+                    } else {
+                        workAvailable.await();
+                    }
+                } catch (InterruptedException ex) {
+                    if (shutdown) {
+                        return null;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Dispatch {
+
+        private final LogicalOneThreadExecutor pool;
+        private final Runnable task;
+
+        private Dispatch(LogicalOneThreadExecutor pool, Runnable task) {
+            this.pool = pool;
+            this.task = task;
+        }
+    }
+}
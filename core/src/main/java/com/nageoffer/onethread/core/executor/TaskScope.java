@@ -0,0 +1,319 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.executor.support.TaskScopeStats;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 绑定到线程池的结构化扇出作用域
+ * <p>
+ * 一次请求内的子任务通过 {@link #fork(Callable)} 提交到同一个线程池，再通过 {@link #join()} 在截止时间内等待全部完成。
+ * 任意子任务失败时立即取消（中断）其余子任务，等待超过截止时间时同样取消全部未完成的子任务；
+ * 配合 try-with-resources 使用，{@link #close()} 保证作用域结束后不会遗留仍在执行或排队的子任务
+ * <pre>
+ * try (TaskScope scope = TaskScope.open("order-query", 500L)) {
+ *     TaskScope.Subtask&lt;User&gt; user = scope.fork(() -&gt; userClient.get(userId));
+ *     TaskScope.Subtask&lt;Order&gt; order = scope.fork(() -&gt; orderClient.get(orderId));
+ *     scope.join();
+ *     return assemble(user.getResult(), order.getResult());
+ * }
+ * </pre>
+ * 作用域由打开它的线程持有，fork、join 和 close 都应在该线程中调用；基于 {@link FutureTask} 实现，不依赖预览特性。
+ * 目标线程池为 {@link OneThreadExecutor} 时，每个作用域结束后将扇出宽度和完成耗时记录到 {@link TaskScopeStats}
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public final class TaskScope implements AutoCloseable {
+
+    /**
+     * 子任务执行的线程池
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 作用域统计，非动态线程池时为空
+     */
+    private final TaskScopeStats stats;
+
+    /**
+     * 作用域打开时间，单位纳秒
+     */
+    private final long startNanos;
+
+    /**
+     * 截止时间，单位纳秒
+     */
+    private final long deadlineNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition finished = lock.newCondition();
+
+    /**
+     * 以下字段由 {@link #lock} 保护
+     */
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private int pending;
+    private Throwable failure;
+    private boolean sealed;
+
+    /**
+     * 是否已记录统计，只由持有线程读写
+     */
+    private boolean recorded;
+
+    private TaskScope(ThreadPoolExecutor executor, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("The task scope timeout must be greater than 0.");
+        }
+        this.executor = executor;
+        this.stats = executor instanceof OneThreadExecutor ? ((OneThreadExecutor) executor).getTaskScopeStats() : null;
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * 在已注册的线程池上打开一个作用域
+     *
+     * @param threadPoolId  线程池唯一标识
+     * @param timeoutMillis 从打开作用域开始计算的截止时间，单位毫秒
+     */
+    public static TaskScope open(@NonNull String threadPoolId, long timeoutMillis) {
+        ThreadPoolExecutorHolder holder = OneThreadRegistry.getHolder(threadPoolId);
+        if (holder == null) {
+            throw new IllegalArgumentException("Thread pool not registered: " + threadPoolId);
+        }
+        return open(holder.getExecutor(), timeoutMillis);
+    }
+
+    /**
+     * 在指定线程池上打开一个作用域
+     *
+     * @param executor      线程池
+     * @param timeoutMillis 从打开作用域开始计算的截止时间，单位毫秒
+     */
+    public static TaskScope open(@NonNull ThreadPoolExecutor executor, long timeoutMillis) {
+        return new TaskScope(executor, timeoutMillis);
+    }
+
+    /**
+     * 提交一个子任务
+     * <p>
+     * 作用域内已有子任务失败时不再提交，直接返回已取消的子任务；线程池拒绝提交视为该子任务失败
+     *
+     * @param task 子任务
+     * @return 子任务句柄，{@link #join()} 返回后通过 {@link Subtask#getResult()} 获取结果
+     */
+    public <T> Subtask<T> fork(@NonNull Callable<T> task) {
+        Subtask<T> subtask = new Subtask<>(this, task);
+        boolean failed;
+        lock.lock();
+        try {
+            if (sealed) {
+                throw new IllegalStateException("The task scope has already been joined or closed.");
+            }
+            subtasks.add(subtask);
+            pending++;
+            failed = failure != null;
+        } finally {
+            lock.unlock();
+        }
+
+        if (failed) {
+            subtask.cancel(false);
+            return subtask;
+        }
+        try {
+            executor.execute(subtask);
+        } catch (RejectedExecutionException ex) {
+            subtask.reject(ex);
+        }
+        return subtask;
+    }
+
+    /**
+     * 等待所有子任务完成，之后不能再提交子任务
+     *
+     * @throws ExecutionException 有子任务失败，异常原因为第一个失败子任务的异常，其余子任务已被取消
+     * @throws TimeoutException   超过截止时间仍有子任务未完成，未完成的子任务已被取消
+     */
+    public void join() throws InterruptedException, ExecutionException, TimeoutException {
+        Throwable cause;
+        boolean timedOut = false;
+        lock.lock();
+        try {
+            sealed = true;
+            while (pending > 0 && failure == null) {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0L) {
+                    timedOut = true;
+                    break;
+                }
+                finished.awaitNanos(remaining);
+            }
+            cause = failure;
+        } finally {
+            lock.unlock();
+        }
+
+        if (cause != null || timedOut) {
+            cancelAll();
+        }
+        record(cause != null, cause == null && timedOut);
+        if (cause != null) {
+            throw new ExecutionException(cause);
+        }
+        if (timedOut) {
+            throw new TimeoutException("Task scope did not complete before the deadline.");
+        }
+    }
+
+    /**
+     * 关闭作用域，取消所有未完成的子任务
+     */
+    @Override
+    public void close() {
+        boolean failed;
+        lock.lock();
+        try {
+            sealed = true;
+            failed = failure != null;
+        } finally {
+            lock.unlock();
+        }
+        cancelAll();
+        record(failed, false);
+    }
+
+    /**
+     * 获取已提交的子任务数
+     */
+    public int getWidth() {
+        lock.lock();
+        try {
+            return subtasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 子任务结束回调，运行在执行子任务的线程或取消子任务的线程中
+     */
+    private void onDone(Subtask<?> subtask) {
+        Throwable cause = subtask.getFailure();
+        boolean firstFailure;
+        lock.lock();
+        try {
+            pending--;
+            firstFailure = cause != null && failure == null;
+            if (firstFailure) {
+                failure = cause;
+            }
+            finished.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        // 第一个失败的子任务负责取消其余子任务，不必等持有线程从 join 中醒来
+        if (firstFailure) {
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        List<Subtask<?>> snapshot;
+        lock.lock();
+        try {
+            snapshot = new ArrayList<>(subtasks);
+        } finally {
+            lock.unlock();
+        }
+        for (Subtask<?> each : snapshot) {
+            // 仍在队列中的子任务顺带移除，避免占用队列容量；被包装过的任务移除不掉，出队后也只是空跑
+            if (each.cancel(true)) {
+                executor.remove(each);
+            }
+        }
+    }
+
+    private void record(boolean failed, boolean timedOut) {
+        if (stats == null || recorded) {
+            return;
+        }
+        recorded = true;
+        stats.record(getWidth(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), failed, timedOut);
+    }
+
+    /**
+     * 作用域内的子任务
+     *
+     * @param <T> 子任务结果类型
+     */
+    public static final class Subtask<T> extends FutureTask<T> {
+
+        private final TaskScope scope;
+
+        private Subtask(TaskScope scope, Callable<T> callable) {
+            super(callable);
+            this.scope = scope;
+        }
+
+        /**
+         * 获取已成功完成的子任务结果
+         *
+         * @throws IllegalStateException 子任务未完成、已取消或执行失败
+         */
+        public T getResult() {
+            if (!isDone() || isCancelled()) {
+                throw new IllegalStateException("The subtask has not completed successfully.");
+            }
+            try {
+                return get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("The subtask failed.", ex.getCause());
+            }
+        }
+
+        /**
+         * 获取子任务异常，未完成、已取消或执行成功时为空
+         */
+        public Throwable getFailure() {
+            if (!isDone() || isCancelled()) {
+                return null;
+            }
+            try {
+                get();
+                return null;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException ex) {
+                return ex.getCause();
+            }
+        }
+
+        @Override
+        protected void done() {
+            scope.onDone(this);
+        }
+
+        private void reject(RejectedExecutionException ex) {
+            setException(ex);
+        }
+    }
+}
@@ -6,6 +6,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 线程池属性参数
  * <p>
@@ -59,6 +63,66 @@ public class ThreadPoolExecutorProperties {
      */
     private Boolean allowCoreThreadTimeOut = false;
 
+    /**
+     * 每秒许可数，配置后任务从队列分派到工作线程的速率受令牌桶限制，为空表示不限速
+     */
+    private Double permitsPerSecond;
+
+    /**
+     * 令牌桶突发容量，默认为 1（即严格匀速）
+     */
+    private Integer permitsBurst;
+
+    /**
+     * 批处理线程池：单批次最大元素个数，仅对 OneThreadBatchExecutor 生效
+     */
+    private Integer batchSize;
+
+    /**
+     * 批处理线程池：凑批最长等待时间（单位：毫秒），仅对 OneThreadBatchExecutor 生效
+     */
+    private Long batchLingerMillis;
+
+    /**
+     * 单个 Key 最大并发执行数，通过 {@code OneThreadExecutor#execute(String, Runnable)} 提交的任务生效，为空表示不限制
+     */
+    private Integer keyConcurrencyLimit;
+
+    /**
+     * 是否开启按任务类型的 CPU 时间和内存分配统计，默认关闭
+     */
+    private Boolean taskAccounting;
+
+    /**
+     * 对冲延迟使用的耗时分位（单位：百分比），通过 {@code OneThreadExecutor#submitHedged} 提交的任务生效，为空时为 95
+     */
+    private Double hedgeDelayPercentile;
+
+    /**
+     * 对冲预算，对冲次数占对冲请求数的最大百分比，设置为 0 时关闭对冲，为空时为 5
+     */
+    private Double hedgeBudgetPercent;
+
+    /**
+     * 多租户公平队列租户权重，key 为租户标识，未配置的租户权重为 1（仅对 TenantFairBlockingQueue 生效）
+     */
+    private Map<String, Integer> tenantWeights;
+
+    /**
+     * 多租户公平队列租户容量，key 为租户标识，未配置的租户使用 queueCapacity（仅对 TenantFairBlockingQueue 生效）
+     */
+    private Map<String, Integer> tenantCapacities;
+
+    /**
+     * 关闭顺序，值越小越先关闭，生产者线程池应小于其下游消费者线程池，为空时为 0
+     */
+    private Integer shutdownOrder;
+
+    /**
+     * 是否允许在内存压力下降级：可调整容量的队列缩小容量，其他队列在提交时直接拒绝，默认不允许
+     */
+    private Boolean sheddable;
+
     /**
      * 通知配置
      */
@@ -69,6 +133,21 @@ public class ThreadPoolExecutorProperties {
      */
     private AlarmConfig alarm = new AlarmConfig();
 
+    /**
+     * 启动预热配置，默认不预热
+     */
+    private WarmUpConfig warmUp = new WarmUpConfig();
+
+    /**
+     * 关闭时转存排队任务配置，默认不转存
+     */
+    private DrainConfig drain = new DrainConfig();
+
+    /**
+     * 按容器资源限制自动计算线程数配置，默认不开启
+     */
+    private SizingConfig sizing = new SizingConfig();
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -104,5 +183,93 @@ public class ThreadPoolExecutorProperties {
          * 活跃线程阈值
          */
         private Integer activeThreshold = 80;
+
+        /**
+         * 长任务阈值（单位：毫秒），任务执行时长超过该值时报警，为空表示不检查
+         */
+        private Long longTaskThresholdMillis;
+
+        /**
+         * 是否中断超过长任务阈值的任务，默认只报警不中断
+         */
+        private Boolean interruptLongTask = Boolean.FALSE;
+
+        /**
+         * 拒绝速率阈值（单位：次/秒），最近 1 分钟平均拒绝速率达到该值时报警，为空表示不检查
+         */
+        private Double rejectRateThreshold;
+
+        /**
+         * 队列打满预测阈值（单位：秒），按队列深度增长趋势预测队列将在该时间内打满时报警，为空表示不检查
+         */
+        private Long queueFullForecastSeconds;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WarmUpConfig {
+
+        /**
+         * 是否开启启动预热：预启动全部核心线程并执行预热任务
+         */
+        private Boolean enable = Boolean.FALSE;
+
+        /**
+         * 预热任务最大并发数，为空时使用核心线程数
+         */
+        private Integer concurrency;
+
+        /**
+         * 预热超时时间（单位：毫秒），超时后不再阻塞应用启动，预热任务继续在后台执行
+         */
+        private Long timeoutMillis = 30000L;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DrainConfig {
+
+        /**
+         * 是否开启关闭时转存：将队列中可序列化的任务写入本地文件，下次启动时重新提交
+         */
+        private Boolean enable = Boolean.FALSE;
+
+        /**
+         * 转存目录，为空时使用系统临时目录下的 onethread-drain 目录
+         */
+        private String directory;
+
+        /**
+         * 允许重新提交的任务类，支持 com.example.task.OrderTask、com.example.task.*、com.example.** 三种写法，为空时不转存任务
+         */
+        private List<String> allowedClasses = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SizingConfig {
+
+        /**
+         * 是否按容器 CPU 配额和内存上限计算线程数，CPU 配额变化后重新计算
+         */
+        private Boolean enable = Boolean.FALSE;
+
+        /**
+         * 负载类型：cpu 或 io
+         */
+        private String workloadClass = "cpu";
+
+        /**
+         * 阻塞系数，任务等待 IO 的时间占比，取值 [0, 1)，仅 io 负载类型生效
+         */
+        private Double blockingCoefficient = 0.5D;
+
+        /**
+         * 是否直接调整线程池大小，默认只在日志中给出建议值
+         */
+        private Boolean apply = Boolean.FALSE;
     }
 }
@@ -0,0 +1,187 @@
+package com.nageoffer.onethread.core.executor;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 线程池统一关闭协调器
+ * <p>
+ * 按 {@link ThreadPoolExecutorProperties#getShutdownOrder()} 从小到大分组关闭：同一组内的线程池并行关闭，
+ * 上一组全部终止（或被强制关闭）后才关闭下一组，保证生产者线程池关闭时下游消费者线程池依然可以接收任务。
+ * 所有线程池共享一个全局截止时间，单个线程池最多等待到自身的等待终止时间和全局截止时间中较早的一个，超时后升级为 shutdownNow
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class ThreadPoolShutdownCoordinator {
+
+    private static final int DEFAULT_SHUTDOWN_ORDER = 0;
+
+    /**
+     * 全局关闭截止时间，单位毫秒
+     */
+    private final long timeoutMillis;
+
+    public ThreadPoolShutdownCoordinator(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 关闭注册器中的所有线程池
+     *
+     * @return 各线程池关闭统计，按关闭顺序排列
+     */
+    public List<PoolShutdownStats> shutdownAll() {
+        return shutdown(OneThreadRegistry.getAllHolders());
+    }
+
+    /**
+     * 关闭指定的线程池
+     *
+     * @param holders 线程池持有者集合，已关闭的线程池会被忽略
+     * @return 各线程池关闭统计，按关闭顺序排列
+     */
+    public List<PoolShutdownStats> shutdown(Collection<ThreadPoolExecutorHolder> holders) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Map<Integer, List<ThreadPoolExecutorHolder>> groups = holders.stream()
+                .filter(each -> !each.getExecutor().isShutdown())
+                .collect(Collectors.groupingBy(this::shutdownOrderOf, TreeMap::new, Collectors.toList()));
+
+        List<PoolShutdownStats> result = new ArrayList<>();
+        for (Map.Entry<Integer, List<ThreadPoolExecutorHolder>> group : groups.entrySet()) {
+            List<Thread> shutdownThreads = new ArrayList<>();
+            for (ThreadPoolExecutorHolder holder : group.getValue()) {
+                PoolShutdownStats stats = new PoolShutdownStats();
+                stats.setThreadPoolId(holder.getThreadPoolId());
+                stats.setShutdownOrder(group.getKey());
+                result.add(stats);
+
+                Thread shutdownThread = new Thread(() -> shutdownPool(holder.getExecutor(), stats, deadlineNanos), "onethread-shutdown_" + holder.getThreadPoolId());
+                shutdownThread.start();
+                shutdownThreads.add(shutdownThread);
+            }
+
+            // 每个线程池的等待时间都不超过全局截止时间，这里无需再设置超时
+            for (Thread shutdownThread : shutdownThreads) {
+                try {
+                    shutdownThread.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return result;
+                }
+            }
+        }
+
+        if (!result.isEmpty()) {
+            long forced = result.stream().filter(PoolShutdownStats::isForced).count();
+            log.info("Shut down {} thread pools in {} orders, forced: {}, cost: {}ms", result.size(), groups.size(), forced, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+        return result;
+    }
+
+    private void shutdownPool(ThreadPoolExecutor executor, PoolShutdownStats stats, long deadlineNanos) {
+        long startNanos = System.nanoTime();
+        long completedBefore = executor.getCompletedTaskCount();
+        stats.setQueuedTasks(executor.getQueue().size());
+        stats.setActiveTasks(executor.getActiveCount());
+
+        long waitNanos = deadlineNanos - startNanos;
+        if (executor instanceof OneThreadExecutor) {
+            OneThreadExecutor oneThreadExecutor = (OneThreadExecutor) executor;
+            stats.setDrainedTasks(oneThreadExecutor.initiateShutdown());
+            // 设置了等待终止时间的线程池以自身配置为准，未设置时最多等待到全局截止时间
+            if (oneThreadExecutor.getAwaitTerminationMillis() > 0) {
+                waitNanos = Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(oneThreadExecutor.getAwaitTerminationMillis()));
+            }
+        } else {
+            executor.shutdown();
+        }
+
+        try {
+            if (!executor.awaitTermination(Math.max(waitNanos, 0L), TimeUnit.NANOSECONDS)) {
+                stats.setDroppedTasks(executor.shutdownNow().size());
+                stats.setForced(true);
+            }
+        } catch (InterruptedException ex) {
+            stats.setDroppedTasks(executor.shutdownNow().size());
+            stats.setForced(true);
+            Thread.currentThread().interrupt();
+        }
+
+        stats.setCompletedTasks(executor.getCompletedTaskCount() - completedBefore);
+        stats.setCostMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        log.info("[{}] Thread pool shut down, order: {}, queued: {}, active: {}, drained: {}, completed: {}, dropped: {}, forced: {}, cost: {}ms",
+                stats.getThreadPoolId(), stats.getShutdownOrder(), stats.getQueuedTasks(), stats.getActiveTasks(), stats.getDrainedTasks(),
+                stats.getCompletedTasks(), stats.getDroppedTasks(), stats.isForced(), stats.getCostMillis());
+    }
+
+    private int shutdownOrderOf(ThreadPoolExecutorHolder holder) {
+        return Optional.ofNullable(holder.getExecutorProperties())
+                .map(ThreadPoolExecutorProperties::getShutdownOrder)
+                .orElse(DEFAULT_SHUTDOWN_ORDER);
+    }
+
+    /**
+     * 单个线程池关闭统计
+     */
+    @Data
+    public static class PoolShutdownStats {
+
+        /**
+         * 线程池唯一标识
+         */
+        private String threadPoolId;
+
+        /**
+         * 关闭顺序
+         */
+        private int shutdownOrder;
+
+        /**
+         * 开始关闭时的排队任务数
+         */
+        private int queuedTasks;
+
+        /**
+         * 开始关闭时的执行中任务数
+         */
+        private int activeTasks;
+
+        /**
+         * 转存到本地文件的任务数
+         */
+        private int drainedTasks;
+
+        /**
+         * 关闭期间执行完成的任务数
+         */
+        private long completedTasks;
+
+        /**
+         * 强制关闭时丢弃的排队任务数
+         */
+        private int droppedTasks;
+
+        /**
+         * 是否超时后强制关闭
+         */
+        private boolean forced;
+
+        /**
+         * 关闭耗时，单位毫秒
+         */
+        private long costMillis;
+    }
+}
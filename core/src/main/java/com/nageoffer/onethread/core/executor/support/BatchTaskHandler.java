@@ -0,0 +1,23 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import java.util.List;
+
+/**
+ * 批量任务处理器，由批处理线程池的工作线程一次性处理一批元素
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ *
+ * @param <T> 批处理元素类型
+ */
+@FunctionalInterface
+public interface BatchTaskHandler<T> {
+
+    /**
+     * 处理一批元素
+     *
+     * @param batch 本批次元素，至少包含一个元素，大小不超过线程池配置的批大小
+     * @throws Exception 处理失败时抛出，线程池会记录失败次数并打印日志，不会重试
+     */
+    void handle(List<T> batch) throws Exception;
+}
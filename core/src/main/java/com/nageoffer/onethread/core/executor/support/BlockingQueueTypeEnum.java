@@ -124,6 +124,21 @@ public enum BlockingQueueTypeEnum {
         <T> BlockingQueue<T> of() {
             return new ResizableCapacityLinkedBlockingQueue<>();
         }
+    },
+
+    /**
+     * {@link TenantFairBlockingQueue}，容量为单个租户的默认容量
+     */
+    TENANT_FAIR_BLOCKING_QUEUE("TenantFairBlockingQueue") {
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return new TenantFairBlockingQueue<>(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return new TenantFairBlockingQueue<>();
+        }
     };
 
     @Getter
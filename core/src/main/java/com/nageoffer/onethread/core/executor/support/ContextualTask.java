@@ -0,0 +1,72 @@
+package com.nageoffer.onethread.core.executor.support;
+
+/**
+ * 携带上下文快照的任务包装
+ * <p>
+ * 只在至少一个 {@link TaskContextPropagator} 捕获到上下文时才会创建，上下文的恢复和清理由线程池在
+ * beforeExecute 和 afterExecute 中完成，包装本身只负责执行原始任务
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public final class ContextualTask implements Runnable {
+
+    private final Runnable command;
+
+    /**
+     * 与线程池上下文传递器一一对应的快照，未捕获到上下文的位置为 null
+     */
+    private final Object[] snapshots;
+
+    /**
+     * 捕获快照时使用的上下文传递器，避免任务排队期间传递器变更导致快照错位
+     */
+    private final TaskContextPropagator[] propagators;
+
+    public ContextualTask(Runnable command, Object[] snapshots, TaskContextPropagator[] propagators) {
+        this.command = command;
+        this.snapshots = snapshots;
+        this.propagators = propagators;
+    }
+
+    /**
+     * 使用相同的上下文快照包装另一个任务
+     */
+    public ContextualTask withCommand(Runnable command) {
+        return new ContextualTask(command, snapshots, propagators);
+    }
+
+    /**
+     * 在当前线程恢复上下文
+     */
+    public void restore() {
+        for (int i = 0; i < propagators.length; i++) {
+            if (snapshots[i] != null) {
+                propagators[i].restore(snapshots[i]);
+            }
+        }
+    }
+
+    /**
+     * 清理当前线程中由 {@link #restore()} 设置的上下文
+     */
+    public void clear() {
+        for (int i = 0; i < propagators.length; i++) {
+            if (snapshots[i] != null) {
+                propagators[i].clear();
+            }
+        }
+    }
+
+    /**
+     * 获取原始任务，非上下文包装任务原样返回
+     */
+    public static Runnable unwrap(Runnable task) {
+        return task instanceof ContextualTask ? ((ContextualTask) task).command : task;
+    }
+
+    @Override
+    public void run() {
+        command.run();
+    }
+}
@@ -0,0 +1,33 @@
+package com.nageoffer.onethread.core.executor.support;
+
+/**
+ * 感知丢弃的任务
+ * <p>
+ * DiscardPolicy、DiscardOldestPolicy 和内存压力拒绝都会静默丢弃任务，提交方既看不到异常也等不到任务执行。
+ * 任务实现该接口后，oneThread 线程池在拒绝策略执行完毕（包括抛出异常）后回调 {@link #onDiscarded()}，
+ * DiscardOldestPolicy 从队头丢弃的任务同样会回调，用于归还名额、结束等待等收尾工作；自定义拒绝策略自行从队列移除的任务无法感知
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public interface DiscardAwareTask {
+
+    /**
+     * 任务被拒绝后回调，在提交线程中执行
+     * <p>
+     * CallerRunsPolicy 等策略可能已经在提交线程执行了任务，实现需要自行判断任务是否开始执行，并保证多次回调幂等
+     */
+    void onDiscarded();
+
+    /**
+     * 通知任务已被拒绝，非感知丢弃的任务忽略
+     *
+     * @param task 被拒绝的任务，可以是上下文包装任务
+     */
+    static void notifyDiscarded(Runnable task) {
+        Runnable command = ContextualTask.unwrap(task);
+        if (command instanceof DiscardAwareTask) {
+            ((DiscardAwareTask) command).onDiscarded();
+        }
+    }
+}
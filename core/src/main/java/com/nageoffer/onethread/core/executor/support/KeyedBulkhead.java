@@ -0,0 +1,394 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 线程池内按 Key 隔离的并发舱壁
+ * <p>
+ * 同一个 Key（比如租户、下游接口）同时执行的任务数不超过 {@link #limitPerKey}，超出的任务暂存在该 Key 自己的等待队列中，
+ * 不占用线程池工作线程，也不进入线程池工作队列；该 Key 的任务执行完成后再从等待队列中取出下一个提交到线程池
+ * <p>
+ * Key 状态按哈希分段存储，每个分段独立加锁并限制最大 Key 数量，空闲 Key 会被定期淘汰，避免 Key 无限增长
+ * <p>
+ * 提交到线程池的任务实现 {@link DiscardAwareTask}，被拒绝策略抛出异常或静默丢弃（DiscardPolicy、内存压力拒绝等）时同样归还名额，
+ * 否则该 Key 会永久占用名额，后续任务全部进入等待队列
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class KeyedBulkhead {
+
+    private static final int STRIPE_COUNT = 16;
+
+    /**
+     * 所属线程池
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Key 状态分段
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * 每个分段最多跟踪的 Key 数量
+     */
+    private final int maxKeysPerStripe;
+
+    /**
+     * 单个 Key 等待队列容量，超出后执行线程池拒绝策略
+     */
+    private final int parkedCapacityPerKey;
+
+    /**
+     * 空闲 Key 淘汰时间，单位纳秒
+     */
+    private final long idleEvictNanos;
+
+    /**
+     * 单个 Key 最大并发执行数
+     */
+    @Getter
+    private volatile int limitPerKey;
+
+    /**
+     * 因 Key 数量或等待队列已满而被拒绝的任务数
+     */
+    @Getter
+    private final AtomicLong rejectCount = new AtomicLong();
+
+    public KeyedBulkhead(ThreadPoolExecutor executor, int limitPerKey, int maxKeys, int parkedCapacityPerKey, long idleEvictMillis) {
+        this.executor = executor;
+        this.maxKeysPerStripe = Math.max(maxKeys / STRIPE_COUNT, 1);
+        this.parkedCapacityPerKey = parkedCapacityPerKey;
+        this.idleEvictNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMillis);
+        this.stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+        setLimitPerKey(limitPerKey);
+    }
+
+    /**
+     * 动态调整单个 Key 最大并发执行数；调小后已在执行的任务不受影响，等待中的任务按新限制放行
+     */
+    public void setLimitPerKey(int limitPerKey) {
+        if (limitPerKey < 1) {
+            throw new IllegalArgumentException("The key concurrency limit must be greater than 0.");
+        }
+        this.limitPerKey = limitPerKey;
+    }
+
+    /**
+     * 按 Key 提交任务
+     *
+     * @param key     隔离 Key
+     * @param command 任务
+     */
+    public void execute(String key, Runnable command) {
+        Stripe stripe = stripeFor(key);
+        KeyState state;
+        String rejectReason = null;
+        boolean dispatch = false;
+        synchronized (stripe) {
+            state = stripe.keys.get(key);
+            if (state == null && stripe.keys.size() >= maxKeysPerStripe && evictIdle(stripe, System.nanoTime()) == 0) {
+                rejectReason = "too many keys";
+            } else {
+                if (state == null) {
+                    state = new KeyState(key, stripe);
+                    stripe.keys.put(key, state);
+                }
+
+                if (state.inFlight < limitPerKey) {
+                    state.inFlight++;
+                    dispatch = true;
+                } else if (state.parked.size() < parkedCapacityPerKey) {
+                    state.parked.offer(command);
+                } else {
+                    rejectReason = "key parked queue is full";
+                }
+            }
+        }
+
+        // 拒绝策略和任务提交都放在锁外执行，避免 CallerRunsPolicy 等策略在持有分段锁时运行任务
+        if (rejectReason != null) {
+            reject(command, rejectReason);
+        } else if (dispatch) {
+            KeyedTask task = new KeyedTask(state, command);
+            try {
+                if (!submit(task)) {
+                    release(state);
+                }
+            } catch (RejectedExecutionException ex) {
+                // 线程池拒绝了任务，需要归还并发名额，否则该 Key 会永久占用名额
+                if (task.discarded) {
+                    release(state);
+                }
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * 淘汰所有分段中的空闲 Key
+     *
+     * @return 被淘汰的 Key 数量
+     */
+    public int evictIdleKeys() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                evicted += evictIdle(stripe, now);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * 获取执行中加等待中任务数最多的前 N 个 Key
+     *
+     * @param limit N
+     * @return Key 快照集合，按执行中 + 等待中任务数倒序
+     */
+    public List<KeySnapshot> topKeys(int limit) {
+        List<KeySnapshot> snapshots = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (KeyState state : stripe.keys.values()) {
+                    if (state.inFlight > 0 || !state.parked.isEmpty()) {
+                        snapshots.add(new KeySnapshot(state.key, state.inFlight, state.parked.size()));
+                    }
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparingInt((KeySnapshot each) -> each.getInFlight() + each.getParked()).reversed());
+        return snapshots.size() > limit ? new ArrayList<>(snapshots.subList(0, limit)) : snapshots;
+    }
+
+    /**
+     * 获取当前跟踪的 Key 数量
+     */
+    public int getTrackedKeyCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.keys.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获取所有 Key 等待中的任务总数
+     */
+    public long getParkedCount() {
+        long count = 0L;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (KeyState state : stripe.keys.values()) {
+                    count += state.parked.size();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 提交任务到线程池
+     *
+     * @return 任务是否被线程池接收；被丢弃时并发名额仍由调用方持有，需要调用方归还或交接
+     */
+    private boolean submit(KeyedTask task) {
+        task.submitter = Thread.currentThread();
+        try {
+            Runnable command = task.command;
+            executor.execute(command instanceof ContextualTask ? ((ContextualTask) command).withCommand(task) : task);
+        } catch (RejectedExecutionException ex) {
+            // 非 oneThread 线程池不会回调丢弃通知，这里补充标记
+            task.onDiscarded();
+            throw ex;
+        } finally {
+            task.submitter = null;
+        }
+        return !task.discarded;
+    }
+
+    /**
+     * 任务执行完成或被丢弃后归还并发名额，如果该 Key 有等待中的任务则直接交接名额并提交下一个；
+     * 交接的任务再次被拒绝时继续交接给下一个等待中的任务，循环处理，不会递归
+     */
+    private void release(KeyState state) {
+        while (true) {
+            Runnable next = null;
+            synchronized (state.stripe) {
+                if (state.inFlight <= limitPerKey) {
+                    next = state.parked.poll();
+                }
+                if (next == null) {
+                    state.inFlight--;
+                    state.lastActiveNanos = System.nanoTime();
+                    return;
+                }
+            }
+
+            KeyedTask task = new KeyedTask(state, next);
+            try {
+                if (submit(task)) {
+                    return;
+                }
+                log.warn("Parked task of key {} was discarded by thread pool.", state.key);
+            } catch (RejectedExecutionException ex) {
+                log.warn("Parked task of key {} was rejected by thread pool.", state.key);
+                if (!task.discarded) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private int evictIdle(Stripe stripe, long now) {
+        int evicted = 0;
+        Iterator<Map.Entry<String, KeyState>> iterator = stripe.keys.entrySet().iterator();
+        while (iterator.hasNext()) {
+            KeyState state = iterator.next().getValue();
+            if (state.inFlight == 0 && state.parked.isEmpty() && now - state.lastActiveNanos >= idleEvictNanos) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private void reject(Runnable command, String reason) {
+        rejectCount.incrementAndGet();
+        log.debug("Keyed bulkhead rejected task, reason: {}", reason);
+        executor.getRejectedExecutionHandler().rejectedExecution(command, executor);
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * Key 状态分段，分段内所有 Key 共用一把锁
+     */
+    private static final class Stripe {
+
+        private final Map<String, KeyState> keys = new HashMap<>();
+    }
+
+    /**
+     * 单个 Key 的并发状态，所有字段由所在分段的锁保护
+     */
+    private static final class KeyState {
+
+        private final String key;
+        private final Stripe stripe;
+        private final ArrayDeque<Runnable> parked = new ArrayDeque<>();
+        private int inFlight;
+        private long lastActiveNanos = System.nanoTime();
+
+        private KeyState(String key, Stripe stripe) {
+            this.key = key;
+            this.stripe = stripe;
+        }
+    }
+
+    /**
+     * 带 Key 的任务包装，执行完成或被丢弃后归还该 Key 的并发名额，两者只会发生一次
+     */
+    private final class KeyedTask implements Runnable, LabeledTask, DiscardAwareTask {
+
+        private final KeyState state;
+        private final Runnable command;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        /**
+         * 正在同步提交该任务的线程，提交过程中被丢弃时由提交方处理名额，避免在拒绝策略内部递归交接
+         */
+        private volatile Thread submitter;
+
+        /**
+         * 是否在提交过程中被丢弃
+         */
+        private volatile boolean discarded;
+
+        private KeyedTask(KeyState state, Runnable command) {
+            this.state = state;
+            this.command = command;
+        }
+
+        @Override
+        public String getTaskLabel() {
+            return TaskAccounting.resolveLabel(command);
+        }
+
+        @Override
+        public void run() {
+            settled.set(true);
+            try {
+                command.run();
+            } finally {
+                release(state);
+            }
+        }
+
+        @Override
+        public void onDiscarded() {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            if (submitter == Thread.currentThread()) {
+                discarded = true;
+            } else {
+                // DiscardOldestPolicy 在其他线程提交时丢弃了排队中的任务
+                release(state);
+            }
+        }
+    }
+
+    /**
+     * Key 并发快照
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KeySnapshot {
+
+        /**
+         * 隔离 Key
+         */
+        private String key;
+
+        /**
+         * 执行中任务数
+         */
+        private int inFlight;
+
+        /**
+         * 等待中任务数
+         */
+        private int parked;
+    }
+}
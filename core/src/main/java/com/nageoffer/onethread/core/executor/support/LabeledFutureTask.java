@@ -0,0 +1,35 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 保留原始任务类型的 FutureTask，开启任务资源统计时 submit 提交的任务按原始任务而不是 FutureTask 聚合
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ *
+ * @param <V> 任务结果类型
+ */
+public class LabeledFutureTask<V> extends FutureTask<V> implements LabeledTask {
+
+    /**
+     * 原始任务，Runnable 或 Callable
+     */
+    private final Object source;
+
+    public LabeledFutureTask(Callable<V> callable) {
+        super(callable);
+        this.source = callable;
+    }
+
+    public LabeledFutureTask(Runnable runnable, V result) {
+        super(runnable, result);
+        this.source = runnable;
+    }
+
+    @Override
+    public String getTaskLabel() {
+        return TaskAccounting.resolveLabel(source);
+    }
+}
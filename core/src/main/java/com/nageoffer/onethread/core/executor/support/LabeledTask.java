@@ -0,0 +1,18 @@
+package com.nageoffer.onethread.core.executor.support;
+
+/**
+ * 带统计标签的任务
+ * <p>
+ * 开启任务资源统计后，默认按任务类名聚合 CPU 时间和内存分配；任务实现该接口后按返回的标签聚合，
+ * 标签需要是有限取值（比如业务类型），不要包含订单号、用户 ID 等高基数内容
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public interface LabeledTask {
+
+    /**
+     * 获取任务统计标签
+     */
+    String getTaskLabel();
+}
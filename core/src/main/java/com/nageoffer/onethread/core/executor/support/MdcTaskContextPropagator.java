@@ -0,0 +1,40 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.Map;
+
+/**
+ * MDC 上下文传递
+ * <p>
+ * Logback 的 MDC 实现本身是写时复制的：{@link LogbackMDCAdapter#getPropertyMap()} 返回只读快照，
+ * MDC 未被修改前重复获取的是同一个对象，所以提交任务时不会产生额外的 Map 复制。
+ * 其他 MDC 实现退化为 {@link MDC#getCopyOfContextMap()}
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class MdcTaskContextPropagator implements TaskContextPropagator {
+
+    @Override
+    public Object capture() {
+        MDCAdapter adapter = MDC.getMDCAdapter();
+        Map<String, String> contextMap = adapter instanceof LogbackMDCAdapter
+                ? ((LogbackMDCAdapter) adapter).getPropertyMap()
+                : MDC.getCopyOfContextMap();
+        return contextMap == null || contextMap.isEmpty() ? null : contextMap;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void restore(Object snapshot) {
+        MDC.setContextMap((Map<String, String>) snapshot);
+    }
+
+    @Override
+    public void clear() {
+        MDC.clear();
+    }
+}
@@ -0,0 +1,293 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 排队任务本地持久化存储
+ * <p>
+ * 线程池关闭时把队列中可序列化的任务写入本地文件，下次同一个线程池 ID 启动时读回并重新提交。
+ * 文件格式为 GZIP 压缩的记录流：魔数、版本号、记录数，之后每条记录是长度前缀的 Java 序列化字节。
+ * 每个任务单独序列化，单个任务序列化或反序列化失败不影响其他任务
+ * <p>
+ * 反序列化通过 {@link ObjectInputFilter} 校验：只允许白名单中的任务类和 {@link #BASE_ALLOWED_CLASSES} 中的常用 JDK 类型，
+ * 并限制对象图深度、数组长度和单条记录字节数。转存时只写入能通过同一过滤器读回的任务，其余任务留在队列中照常执行；
+ * 未配置白名单时不转存任何任务。读回时仍无法反序列化的记录和无法识别的文件转入隔离文件，不会被直接删除，
+ * 修正白名单后将隔离文件重命名为 {@code <线程池 ID>.queue} 即可在下次启动时重新读回。
+ * 记录长度超出上限或线程池 ID 含路径分隔符时视为非法文件，存储目录仍不建议对其他用户开放写权限
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class QueuedTaskStore {
+
+    private static final int MAGIC = 0x4F545153;
+    private static final int VERSION = 1;
+    private static final String FILE_SUFFIX = ".queue";
+    private static final String QUARANTINE_SUFFIX = ".rejected-";
+
+    /**
+     * 单条记录的最大字节数，超出时视为文件损坏
+     */
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * 反序列化对象图的最大深度和数组最大长度
+     */
+    private static final int MAX_DEPTH = 32;
+    private static final int MAX_ARRAY_LENGTH = 100000;
+
+    /**
+     * 任务字段常用的 JDK 类型，始终允许反序列化
+     */
+    private static final String BASE_ALLOWED_CLASSES = "java.lang.*;java.util.*;java.util.concurrent.atomic.*;java.time.*;java.math.*";
+
+    /**
+     * 存储目录
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * 反序列化过滤器，只允许白名单中的类
+     */
+    private final ObjectInputFilter filter;
+
+    /**
+     * 是否配置了任务类白名单，未配置时不转存任何任务
+     */
+    private final boolean restorable;
+
+    /**
+     * @param directory      存储目录
+     * @param allowedClasses 允许反序列化的任务类，使用 {@link ObjectInputFilter.Config#createFilter(String)} 的类名模式，
+     *                       如 {@code com.example.task.OrderTask}、{@code com.example.task.*}（包内的类）或 {@code com.example.**}（包及子包）
+     */
+    public QueuedTaskStore(Path directory, List<String> allowedClasses) {
+        this.directory = directory;
+        StringBuilder pattern = new StringBuilder()
+                .append("maxdepth=").append(MAX_DEPTH)
+                .append(";maxarray=").append(MAX_ARRAY_LENGTH)
+                .append(";maxbytes=").append(MAX_RECORD_BYTES)
+                .append(';').append(BASE_ALLOWED_CLASSES);
+        for (String allowedClass : allowedClasses) {
+            if (allowedClass.isBlank() || allowedClass.startsWith("!") || allowedClass.contains(";") || allowedClass.contains("=")) {
+                throw new IllegalArgumentException("Invalid queued task allowed class pattern: " + allowedClass);
+            }
+            pattern.append(';').append(allowedClass.trim());
+        }
+        this.filter = ObjectInputFilter.Config.createFilter(pattern.append(";!*").toString());
+        this.restorable = !allowedClasses.isEmpty();
+        if (!restorable) {
+            log.warn("No allowed classes configured for queued task store {}, queued tasks will not be drained on shutdown.", directory);
+        }
+    }
+
+    /**
+     * 是否配置了任务类白名单，未配置时转存的任务都无法读回，关闭时不应转存
+     */
+    public boolean isRestorable() {
+        return restorable;
+    }
+
+    /**
+     * 序列化能在下次启动时读回的任务，转存前用与读回相同的过滤器校验一次，避免写入无法读回的任务
+     *
+     * @param task 任务
+     * @return 序列化字节，任务不可序列化或无法通过白名单校验时返回 null
+     */
+    public byte[] toRestorableRecord(Runnable task) {
+        if (!restorable) {
+            return null;
+        }
+        byte[] record = serialize(task);
+        if (record == null || record.length > MAX_RECORD_BYTES) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record))) {
+            in.setObjectInputFilter(filter);
+            in.readObject();
+        } catch (IOException | ClassNotFoundException ex) {
+            log.debug("Task {} is not allowed by queued task store filter: {}", task.getClass().getName(), ex.getMessage());
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * 序列化单个任务
+     *
+     * @param task 任务
+     * @return 序列化字节，任务不可序列化时返回 null
+     */
+    public static byte[] serialize(Runnable task) {
+        if (!(task instanceof Serializable)) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(task);
+        } catch (IOException ex) {
+            log.debug("Task {} cannot be serialized: {}", task.getClass().getName(), ex.getMessage());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 保存线程池排队任务，上次转存的文件尚未读回时追加到其后，不覆盖未读回的任务；
+     * 先写临时文件再原子替换，避免写入中途进程退出留下半个文件
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param records      {@link #toRestorableRecord(Runnable)} 得到的任务字节
+     * @throws IOException 写入失败，或已有文件无法识别时拒绝写入
+     */
+    public void save(String threadPoolId, List<byte[]> records) throws IOException {
+        Path target = fileOf(threadPoolId);
+        List<byte[]> merged = records;
+        if (Files.exists(target)) {
+            merged = new ArrayList<>(readRecords(target));
+            merged.addAll(records);
+        }
+        writeRecords(threadPoolId, target, merged);
+    }
+
+    /**
+     * 读取并删除线程池上次关闭时保存的任务，无法反序列化的记录转入隔离文件
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 可反序列化的任务，没有保存文件时返回空集合
+     * @throws IOException 读取失败，文件无法识别或损坏时整个文件转入隔离文件
+     */
+    public List<Runnable> load(String threadPoolId) throws IOException {
+        Path source = fileOf(threadPoolId);
+        if (!Files.exists(source)) {
+            return Collections.emptyList();
+        }
+
+        List<byte[]> records;
+        try {
+            records = readRecords(source);
+        } catch (IOException ex) {
+            Path quarantine = quarantineFileOf(threadPoolId);
+            Files.move(source, quarantine, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.warn("[{}] Queued task file {} cannot be read, moved to {}.", threadPoolId, source, quarantine);
+            throw ex;
+        }
+
+        List<Runnable> tasks = new ArrayList<>(records.size());
+        List<byte[]> rejected = new ArrayList<>();
+        for (byte[] record : records) {
+            Runnable task = deserialize(threadPoolId, record);
+            if (task != null) {
+                tasks.add(task);
+            } else {
+                rejected.add(record);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            Path quarantine = quarantineFileOf(threadPoolId);
+            writeRecords(threadPoolId, quarantine, rejected);
+            log.warn("[{}] {} queued tasks cannot be restored, moved to {}.", threadPoolId, rejected.size(), quarantine);
+        }
+        // 读取后立即删除，避免任务异常导致下次启动重复执行
+        Files.delete(source);
+        return tasks;
+    }
+
+    private List<byte[]> readRecords(Path source) throws IOException {
+        try (InputStream file = Files.newInputStream(source);
+             DataInputStream in = new DataInputStream(new GZIPInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unrecognized queued task file " + source);
+            }
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Corrupted queued task file " + source + ", record count: " + count);
+            }
+            List<byte[]> records = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                // 长度前缀损坏后无法定位后续记录，整个文件作废
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    throw new IOException("Corrupted queued task file " + source + ", record length: " + length);
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                records.add(record);
+            }
+            return records;
+        }
+    }
+
+    private void writeRecords(String threadPoolId, Path target, List<byte[]> records) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, threadPoolId, ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new GZIPOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(records.size());
+                for (byte[] record : records) {
+                    out.writeInt(record.length);
+                    out.write(record);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Runnable deserialize(String threadPoolId, byte[] record) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record))) {
+            in.setObjectInputFilter(filter);
+            return (Runnable) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            log.warn("[{}] Failed to deserialize queued task.", threadPoolId, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 线程池 ID 直接作为文件名，含路径分隔符时可能写到存储目录之外，直接拒绝
+     */
+    private Path fileOf(String threadPoolId) throws IOException {
+        boolean invalid = threadPoolId.isEmpty() || threadPoolId.indexOf('/') >= 0 || threadPoolId.indexOf('\\') >= 0 || threadPoolId.indexOf('\0') >= 0;
+        Path file = invalid ? null : directory.resolve(threadPoolId + FILE_SUFFIX);
+        if (file == null || !directory.equals(file.getParent())) {
+            throw new IOException("Invalid thread pool id for queued task file: " + threadPoolId);
+        }
+        return file;
+    }
+
+    /**
+     * 创建唯一的隔离文件，同一个线程池多次读回失败时互不覆盖
+     */
+    private Path quarantineFileOf(String threadPoolId) throws IOException {
+        fileOf(threadPoolId);
+        return Files.createTempFile(directory, threadPoolId + FILE_SUFFIX + QUARANTINE_SUFFIX, "");
+    }
+}
@@ -0,0 +1,196 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 限速阻塞队列，对任务从队列分派到工作线程的速率进行节流
+ * <p>
+ * 线程池工作线程通过 {@link #take()} / {@link #poll(long, TimeUnit)} 获取任务，
+ * 本队列在出队前先从 {@link TokenBucketRateLimiter} 预占令牌，令牌未就绪时工作线程在出队前等待，
+ * 不会出现"拿着任务睡眠等待令牌"的情况。入队、容量、清空等操作全部委托给原始队列
+ * <p>
+ * 注意：空闲的工作线程会各自预占一个令牌后阻塞在原始队列上，因此长时间空闲后的第一波突发，
+ * 最多会比 burst 多放行"空闲线程数"个任务
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class RateLimitedBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /**
+     * 被包装的原始阻塞队列
+     */
+    @Getter
+    private final BlockingQueue<E> delegate;
+
+    /**
+     * 令牌桶限流器
+     */
+    @Getter
+    private final TokenBucketRateLimiter rateLimiter;
+
+    public RateLimitedBlockingQueue(@NonNull BlockingQueue<E> delegate, double permitsPerSecond, int burst) {
+        this.delegate = delegate;
+        this.rateLimiter = new TokenBucketRateLimiter(permitsPerSecond, burst);
+    }
+
+    /**
+     * 如果是限速队列则返回其包装的原始队列，否则原样返回
+     */
+    public static BlockingQueue<?> unwrap(BlockingQueue<?> queue) {
+        return queue instanceof RateLimitedBlockingQueue ? ((RateLimitedBlockingQueue<?>) queue).getDelegate() : queue;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        awaitPermit(rateLimiter.reserve(Long.MAX_VALUE));
+        try {
+            return delegate.take();
+        } catch (InterruptedException ex) {
+            rateLimiter.refund();
+            throw ex;
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + timeoutNanos;
+        long waitNanos = rateLimiter.reserve(timeoutNanos);
+        if (waitNanos < 0) {
+            // 超时时间内拿不到令牌，等待至超时后按"无任务"返回，由线程池决定是否回收工作线程
+            LockSupport.parkNanos(this, timeoutNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return null;
+        }
+
+        awaitPermit(waitNanos);
+        E element;
+        try {
+            element = delegate.poll(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            rateLimiter.refund();
+            throw ex;
+        }
+        if (element == null) {
+            rateLimiter.refund();
+        }
+        return element;
+    }
+
+    @Override
+    public E poll() {
+        if (delegate.isEmpty() || rateLimiter.reserve(0L) < 0) {
+            return null;
+        }
+        E element = delegate.poll();
+        if (element == null) {
+            rateLimiter.refund();
+        }
+        return element;
+    }
+
+    /**
+     * 在出队前等待令牌就绪，等待期间被中断会归还令牌并抛出中断异常
+     */
+    private void awaitPermit(long waitNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + waitNanos;
+        long remaining = waitNanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                rateLimiter.refund();
+                throw new InterruptedException();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    @Override
+    public boolean offer(@NonNull E e) {
+        return delegate.offer(e);
+    }
+
+    @Override
+    public void put(@NonNull E e) throws InterruptedException {
+        delegate.put(e);
+    }
+
+    @Override
+    public boolean offer(@NonNull E e, long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.offer(e, timeout, unit);
+    }
+
+    @Override
+    public E peek() {
+        return delegate.peek();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return delegate.remainingCapacity();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return delegate.remove(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return delegate.contains(o);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return delegate.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return delegate.toArray(a);
+    }
+
+    /**
+     * 批量转移不受限速约束，主要用于线程池 shutdownNow 时取出剩余任务
+     */
+    @Override
+    public int drainTo(@NonNull Collection<? super E> c) {
+        return delegate.drainTo(c);
+    }
+
+    @Override
+    public int drainTo(@NonNull Collection<? super E> c, int maxElements) {
+        return delegate.drainTo(c, maxElements);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return delegate.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
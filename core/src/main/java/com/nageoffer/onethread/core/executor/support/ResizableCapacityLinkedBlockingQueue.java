@@ -229,6 +229,15 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
         return count.get();
     }
 
+    /**
+     * 返回队列当前容量。
+     *
+     * @return 队列容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
     /**
      * 为队列设置新容量。
      *
@@ -0,0 +1,65 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 正在执行的任务快照
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Data
+@AllArgsConstructor
+public class RunningTaskInfo {
+
+    /**
+     * 工作线程名称
+     */
+    private String threadName;
+
+    /**
+     * 任务类名
+     */
+    private String taskName;
+
+    /**
+     * 已执行时长，单位毫秒
+     */
+    private long runningMillis;
+
+    /**
+     * 任务序号
+     */
+    private long taskSequence;
+
+    /**
+     * 所属工作线程槽位
+     */
+    private WorkerSlot slot;
+
+    /**
+     * 获取工作线程当前调用栈
+     *
+     * @param maxDepth 最大栈深度
+     */
+    public List<String> captureStackTrace(int maxDepth) {
+        return Arrays.stream(slot.getThread().getStackTrace())
+                .limit(maxDepth)
+                .map(StackTraceElement::toString)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 任务仍在执行时中断工作线程；任务已经结束时不做处理，避免中断后续任务
+     *
+     * @return 是否执行了中断
+     */
+    public boolean interruptIfRunning() {
+        return slot.interruptIfRunning(taskSequence);
+    }
+}
@@ -0,0 +1,106 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 滑动窗口计数器，按秒分桶统计事件数，用于计算最近 1、5、15 分钟的每秒速率
+ * <p>
+ * 桶按秒数取模循环复用，每个桶是一个 long：高 32 位为桶所属的秒数，低 32 位为该秒内的事件数，
+ * 记录时对同一个 long 做 CAS，秒数不一致说明桶已过期，直接以新秒数和本次计数覆盖，整个过程无锁且不会丢失计数。
+ * 另外维护单调递增的累计总数，供 Micrometer FunctionCounter 导出
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class SlidingWindowCounter {
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final AtomicLongArray buckets;
+
+    private final LongAdder total = new LongAdder();
+
+    private final LongSupplier clockMillis;
+
+    /**
+     * 创建时的秒数，运行时长不足一个窗口时按实际时长计算速率
+     */
+    private final long startSecond;
+
+    public SlidingWindowCounter(int maxWindowSeconds) {
+        this(maxWindowSeconds, System::currentTimeMillis);
+    }
+
+    public SlidingWindowCounter(int maxWindowSeconds, LongSupplier clockMillis) {
+        if (maxWindowSeconds <= 0) {
+            throw new IllegalArgumentException("The window seconds must be greater than 0.");
+        }
+        // 多保留一个桶给当前尚未结束的这一秒
+        this.buckets = new AtomicLongArray(maxWindowSeconds + 1);
+        this.clockMillis = clockMillis;
+        this.startSecond = currentSecond();
+    }
+
+    /**
+     * 记录一次事件
+     */
+    public void increment() {
+        add(1L);
+    }
+
+    /**
+     * 记录多次事件
+     *
+     * @param count 事件数
+     */
+    public void add(long count) {
+        total.add(count);
+        long second = currentSecond();
+        long tag = (second & COUNT_MASK) << 32;
+        int index = (int) (second % buckets.length());
+        while (true) {
+            long current = buckets.get(index);
+            long next = (current & ~COUNT_MASK) == tag ? current + count : tag | count;
+            if (buckets.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取最近若干秒的每秒平均速率，不包含当前尚未结束的这一秒
+     *
+     * @param windowSeconds 窗口秒数，不能超过创建时指定的最大窗口
+     * @return 每秒事件数
+     */
+    public double rate(int windowSeconds) {
+        int window = Math.min(windowSeconds, buckets.length() - 1);
+        long second = currentSecond();
+        long sum = 0L;
+        for (int i = 1; i <= window; i++) {
+            long bucketSecond = second - i;
+            if (bucketSecond < 0) {
+                break;
+            }
+            long bucket = buckets.get((int) (bucketSecond % buckets.length()));
+            if (bucket >>> 32 == (bucketSecond & COUNT_MASK)) {
+                sum += bucket & COUNT_MASK;
+            }
+        }
+        long elapsed = Math.max(1L, Math.min(window, second - startSecond));
+        return (double) sum / elapsed;
+    }
+
+    /**
+     * 获取单调递增的累计事件数
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    private long currentSecond() {
+        return clockMillis.getAsLong() / 1000;
+    }
+}
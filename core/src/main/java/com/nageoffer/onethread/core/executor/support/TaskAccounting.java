@@ -0,0 +1,193 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按任务类型统计 CPU 时间和内存分配
+ * <p>
+ * 在任务执行前后读取当前线程的 CPU 时间和已分配字节数，差值归属到任务标签（默认是任务类名，可通过 {@link LabeledTask} 指定）。
+ * 标签数量有上限，超出后统一归入 {@link #OTHERS_LABEL}；计数使用 {@link LongAdder}，多个工作线程并发累加时不会互相争用
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class TaskAccounting {
+
+    /**
+     * 标签数量超过上限后的归并标签
+     */
+    public static final String OTHERS_LABEL = "others";
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    /**
+     * HotSpot 扩展接口，用于读取线程已分配字节数，非 HotSpot 虚拟机为空
+     */
+    private static final com.sun.management.ThreadMXBean HOTSPOT_THREAD_MX_BEAN = THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+            ? (com.sun.management.ThreadMXBean) THREAD_MX_BEAN
+            : null;
+
+    /**
+     * 类名标签缓存，Lambda 等隐藏类去掉地址后缀，避免每次统计都拼接字符串
+     */
+    private static final ClassValue<String> CLASS_LABELS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getName();
+            int index = name.indexOf('/');
+            return index > 0 ? name.substring(0, index) : name;
+        }
+    };
+
+    private final int maxLabels;
+    private final boolean cpuTimeSupported;
+    private final boolean allocatedBytesSupported;
+    private final Map<String, TaskStats> statsMap = new ConcurrentHashMap<>();
+    private final TaskStats othersStats = new TaskStats();
+
+    public TaskAccounting(int maxLabels) {
+        this.maxLabels = maxLabels;
+        this.cpuTimeSupported = enableCpuTime();
+        this.allocatedBytesSupported = enableAllocatedBytes();
+    }
+
+    /**
+     * 任务开始执行，记录当前线程 CPU 时间和已分配字节数
+     */
+    public void begin(WorkerSlot slot) {
+        slot.cpuStartNanos = cpuTimeSupported ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L;
+        slot.allocatedStartBytes = allocatedBytesSupported ? HOTSPOT_THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : 0L;
+        slot.accounting = true;
+    }
+
+    /**
+     * 任务执行结束，把差值累加到任务标签
+     */
+    public void end(WorkerSlot slot, Runnable task) {
+        // 任务执行过程中才开启统计时，没有开始值，跳过本次统计
+        if (!slot.accounting) {
+            return;
+        }
+        slot.accounting = false;
+
+        long cpuNanos = cpuTimeSupported ? THREAD_MX_BEAN.getCurrentThreadCpuTime() - slot.cpuStartNanos : 0L;
+        long allocatedBytes = allocatedBytesSupported ? HOTSPOT_THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - slot.allocatedStartBytes : 0L;
+        TaskStats stats = statsFor(resolveLabel(task));
+        stats.count.increment();
+        stats.cpuNanos.add(Math.max(cpuNanos, 0L));
+        stats.allocatedBytes.add(Math.max(allocatedBytes, 0L));
+    }
+
+    /**
+     * 获取 CPU 时间最多的前 N 个任务标签，标签数量超过上限时归并的 {@link #OTHERS_LABEL} 也参与排序
+     */
+    public List<TaskStatsSnapshot> topN(int limit) {
+        List<TaskStatsSnapshot> snapshots = new ArrayList<>(statsMap.size() + 1);
+        statsMap.forEach((label, stats) -> snapshots.add(stats.snapshot(label)));
+        if (othersStats.count.sum() > 0) {
+            snapshots.add(othersStats.snapshot(OTHERS_LABEL));
+        }
+        snapshots.sort(Comparator.comparingLong(TaskStatsSnapshot::getCpuNanos).reversed());
+        return snapshots.size() > limit ? new ArrayList<>(snapshots.subList(0, limit)) : snapshots;
+    }
+
+    /**
+     * 解析任务统计标签：优先使用 {@link LabeledTask} 标签，否则使用去掉上下文包装后的任务类名
+     */
+    public static String resolveLabel(Object task) {
+        Object unwrapped = task instanceof Runnable ? ContextualTask.unwrap((Runnable) task) : task;
+        if (unwrapped instanceof LabeledTask) {
+            return ((LabeledTask) unwrapped).getTaskLabel();
+        }
+        return CLASS_LABELS.get(unwrapped.getClass());
+    }
+
+    private TaskStats statsFor(String label) {
+        TaskStats stats = statsMap.get(label);
+        if (stats != null) {
+            return stats;
+        }
+        if (statsMap.size() >= maxLabels) {
+            return othersStats;
+        }
+        return statsMap.computeIfAbsent(label, each -> new TaskStats());
+    }
+
+    private static boolean enableCpuTime() {
+        if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+            log.warn("Current thread cpu time is not supported by this JVM, task cpu time will not be collected.");
+            return false;
+        }
+        if (!THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+            THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+        }
+        return true;
+    }
+
+    private static boolean enableAllocatedBytes() {
+        if (HOTSPOT_THREAD_MX_BEAN == null || !HOTSPOT_THREAD_MX_BEAN.isThreadAllocatedMemorySupported()) {
+            log.warn("Thread allocated memory is not supported by this JVM, task allocated bytes will not be collected.");
+            return false;
+        }
+        if (!HOTSPOT_THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled()) {
+            HOTSPOT_THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    /**
+     * 单个标签的累计统计
+     */
+    private static final class TaskStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        private TaskStatsSnapshot snapshot(String label) {
+            return new TaskStatsSnapshot(label, count.sum(), cpuNanos.sum(), allocatedBytes.sum());
+        }
+    }
+
+    /**
+     * 任务标签统计快照
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskStatsSnapshot {
+
+        /**
+         * 任务标签
+         */
+        private String label;
+
+        /**
+         * 累计执行次数
+         */
+        private long count;
+
+        /**
+         * 累计 CPU 时间，单位纳秒
+         */
+        private long cpuNanos;
+
+        /**
+         * 累计分配内存，单位字节
+         */
+        private long allocatedBytes;
+    }
+}
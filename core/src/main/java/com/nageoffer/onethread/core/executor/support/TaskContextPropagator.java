@@ -0,0 +1,33 @@
+package com.nageoffer.onethread.core.executor.support;
+
+/**
+ * 任务上下文传递扩展点，用于把提交线程的 MDC、链路追踪、租户等上下文带到线程池工作线程
+ * <p>
+ * {@link #capture()} 在提交任务的线程中调用，{@link #restore(Object)} 和 {@link #clear()}
+ * 分别在工作线程的 beforeExecute 和 afterExecute 中调用。实现类需要保证 {@link #capture()} 足够轻量，
+ * 上下文未变化时尽量返回同一个不可变快照而不是每次复制
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public interface TaskContextPropagator {
+
+    /**
+     * 在提交线程捕获上下文快照
+     *
+     * @return 上下文快照，返回 null 表示当前没有需要传递的上下文
+     */
+    Object capture();
+
+    /**
+     * 在工作线程执行任务前恢复上下文
+     *
+     * @param snapshot {@link #capture()} 返回的非空快照
+     */
+    void restore(Object snapshot);
+
+    /**
+     * 在工作线程执行任务后清理上下文，避免污染后续任务
+     */
+    void clear();
+}
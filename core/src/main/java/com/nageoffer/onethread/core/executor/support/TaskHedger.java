@@ -0,0 +1,340 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.monitor.BucketHistogram;
+import com.nageoffer.onethread.core.toolkit.ThreadFactoryBuilder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对冲执行器，用于降低幂等查询类任务的尾延迟
+ * <p>
+ * 任务先提交到所属线程池执行，如果超过对冲延迟仍未完成，再向同一个或指定的备用线程池提交一次相同任务，取先完成的结果。
+ * 对冲延迟取自本线程池对冲任务首次执行耗时分布的指定分位值，分布按 {@link #WINDOW_SAMPLES} 个样本滚动，
+ * 样本不足 {@link #MIN_SAMPLES} 个时不做对冲
+ * <p>
+ * 对冲次数受预算限制：每个请求存入 {@link #budgetPercent}% 个令牌，每次对冲消耗 1 个令牌，令牌不足时放弃对冲，
+ * 因此线程池变慢时对冲次数不会超过请求量的固定比例，不会放大过载。
+ * 对冲只适用于幂等任务，落败的一次执行不会被中断；备用线程池不建议使用 CallerRunsPolicy，否则拒绝时会占用对冲定时线程。
+ * 被拒绝策略静默丢弃的执行按失败处理（见 {@link DiscardAwareTask}），全部执行都被丢弃或失败时结果以异常结束，不会一直等待
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TaskHedger {
+
+    /**
+     * 每个耗时分布窗口的样本数，写满后切换到新窗口
+     */
+    private static final int WINDOW_SAMPLES = 1024;
+
+    /**
+     * 计算对冲延迟所需的最少样本数
+     */
+    private static final int MIN_SAMPLES = 64;
+
+    /**
+     * 令牌精度，1 次对冲消耗 {@code TOKEN_SCALE} 个单位
+     */
+    private static final long TOKEN_SCALE = 1000L;
+
+    /**
+     * 最多累积的对冲令牌数，限制流量低谷后的突发对冲
+     */
+    private static final long MAX_TOKENS = 10 * TOKEN_SCALE;
+
+    /**
+     * 所属线程池
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 对冲延迟使用的耗时分位，单位百分比
+     */
+    @Getter
+    private volatile double delayPercentile = 95D;
+
+    /**
+     * 对冲预算，对冲次数占请求数的最大百分比
+     */
+    @Getter
+    private volatile double budgetPercent = 5D;
+
+    /**
+     * 剩余对冲令牌
+     */
+    private final AtomicLong tokens = new AtomicLong();
+
+    /**
+     * 当前写入的耗时分布窗口和上一个写满的窗口，单位毫秒
+     */
+    private volatile BucketHistogram currentWindow = BucketHistogram.millis();
+    private volatile BucketHistogram previousWindow;
+
+    /**
+     * 通过对冲方式提交的请求数
+     */
+    @Getter
+    private final LongAdder requestCount = new LongAdder();
+
+    /**
+     * 实际发起的对冲次数
+     */
+    @Getter
+    private final LongAdder hedgeCount = new LongAdder();
+
+    /**
+     * 对冲执行先于首次执行完成的次数
+     */
+    @Getter
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    /**
+     * 因预算不足放弃的对冲次数
+     */
+    @Getter
+    private final LongAdder budgetExhaustedCount = new LongAdder();
+
+    public TaskHedger(ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 提交一个幂等任务，超过对冲延迟未完成时向备用线程池再提交一次
+     *
+     * @param task           幂等任务
+     * @param backupExecutor 对冲执行使用的线程池，可以是所属线程池自身
+     * @return 先完成的一次执行结果；两次执行都失败时以最后一次的异常结束
+     */
+    public <T> CompletableFuture<T> submit(@NonNull Callable<T> task, @NonNull ThreadPoolExecutor backupExecutor) {
+        HedgedCall<T> call = new HedgedCall<>(task);
+        requestCount.increment();
+        deposit();
+        Attempt<T> primary = new Attempt<>(call, false);
+        try {
+            executor.execute(primary);
+        } catch (RejectedExecutionException ex) {
+            primary.settle(ex);
+            throw ex;
+        }
+
+        long delayMillis = getHedgeDelayMillis();
+        if (delayMillis >= 0 && !call.result.isDone()) {
+            ScheduledFuture<?> timer = TimerHolder.TIMER.schedule(() -> hedge(call, backupExecutor), delayMillis, TimeUnit.MILLISECONDS);
+            call.result.whenComplete((value, ex) -> timer.cancel(false));
+        }
+        return call.result;
+    }
+
+    /**
+     * 获取当前对冲延迟，样本不足时返回 -1 表示不对冲
+     */
+    public long getHedgeDelayMillis() {
+        BucketHistogram histogram = previousWindow;
+        if (histogram == null) {
+            histogram = currentWindow;
+            if (histogram.getCount() < MIN_SAMPLES) {
+                return -1L;
+            }
+        }
+        return histogram.valueAtPercentile(delayPercentile / 100D);
+    }
+
+    /**
+     * 获取对冲率，即对冲次数占请求数的比例
+     */
+    public double getHedgeRate() {
+        long requests = requestCount.sum();
+        return requests == 0 ? 0D : (double) hedgeCount.sum() / requests;
+    }
+
+    /**
+     * 获取对冲胜率，即对冲执行先完成的次数占对冲次数的比例
+     */
+    public double getHedgeWinRate() {
+        long hedges = hedgeCount.sum();
+        return hedges == 0 ? 0D : (double) hedgeWinCount.sum() / hedges;
+    }
+
+    /**
+     * 动态调整对冲延迟使用的耗时分位
+     *
+     * @param delayPercentile 分位，单位百分比，取值 (0, 100]
+     */
+    public void setDelayPercentile(double delayPercentile) {
+        if (delayPercentile <= 0 || delayPercentile > 100) {
+            throw new IllegalArgumentException("The hedge delay percentile must be in (0, 100].");
+        }
+        this.delayPercentile = delayPercentile;
+    }
+
+    /**
+     * 动态调整对冲预算，设置为 0 时关闭对冲
+     *
+     * @param budgetPercent 对冲次数占请求数的最大百分比，取值 [0, 100]
+     */
+    public void setBudgetPercent(double budgetPercent) {
+        if (budgetPercent < 0 || budgetPercent > 100) {
+            throw new IllegalArgumentException("The hedge budget percent must be in [0, 100].");
+        }
+        this.budgetPercent = budgetPercent;
+    }
+
+    private <T> void hedge(HedgedCall<T> call, ThreadPoolExecutor backupExecutor) {
+        if (call.result.isDone()) {
+            return;
+        }
+        if (!tryAcquire()) {
+            budgetExhaustedCount.increment();
+            return;
+        }
+
+        hedgeCount.increment();
+        call.pending.incrementAndGet();
+        Attempt<T> attempt = new Attempt<>(call, true);
+        try {
+            backupExecutor.execute(attempt);
+        } catch (RejectedExecutionException ex) {
+            attempt.settle(ex);
+        }
+    }
+
+    private void deposit() {
+        long amount = (long) (budgetPercent * TOKEN_SCALE / 100D);
+        if (amount > 0) {
+            tokens.getAndUpdate(each -> Math.min(each + amount, MAX_TOKENS));
+        }
+    }
+
+    private boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN_SCALE));
+        return true;
+    }
+
+    private void recordLatency(long latencyMillis) {
+        BucketHistogram window = currentWindow;
+        window.record(latencyMillis);
+        if (window.getCount() >= WINDOW_SAMPLES) {
+            synchronized (this) {
+                if (currentWindow == window) {
+                    previousWindow = window;
+                    currentWindow = BucketHistogram.millis();
+                }
+            }
+        }
+    }
+
+    /**
+     * 一次对冲调用，首次执行和对冲执行共享同一个结果
+     */
+    private static final class HedgedCall<T> {
+
+        private final Callable<T> task;
+        private final long submitNanos = System.nanoTime();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        /**
+         * 尚未结束的执行次数，全部失败时才以异常结束
+         */
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        private HedgedCall(Callable<T> task) {
+            this.task = task;
+        }
+
+        private void fail(Throwable ex) {
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * 一次执行，结果已完成时直接跳过；执行和丢弃只生效一次
+     */
+    private final class Attempt<T> implements Runnable, LabeledTask, DiscardAwareTask {
+
+        private final HedgedCall<T> call;
+        private final boolean hedged;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Attempt(HedgedCall<T> call, boolean hedged) {
+            this.call = call;
+            this.hedged = hedged;
+        }
+
+        @Override
+        public String getTaskLabel() {
+            return call.task.getClass().getName();
+        }
+
+        @Override
+        public void onDiscarded() {
+            settle(new RejectedExecutionException("Hedged task attempt was discarded by the rejected handler."));
+        }
+
+        /**
+         * 未执行就被拒绝或丢弃，按一次失败的执行处理
+         */
+        private void settle(Throwable ex) {
+            if (settled.compareAndSet(false, true)) {
+                call.fail(ex);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (call.result.isDone()) {
+                    return;
+                }
+                try {
+                    if (call.result.complete(call.task.call()) && hedged) {
+                        hedgeWinCount.increment();
+                    }
+                } catch (Throwable ex) {
+                    call.fail(ex);
+                }
+            } finally {
+                // 只统计首次执行耗时，对冲成功后被跳过的首次执行按跳过时的耗时计入
+                if (!hedged) {
+                    recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - call.submitNanos));
+                }
+            }
+        }
+    }
+
+    /**
+     * 对冲定时线程，所有线程池共用，首次使用时创建
+     */
+    private static final class TimerHolder {
+
+        private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.builder()
+                        .namePrefix("onethread-hedge-timer_")
+                        .daemon(true)
+                        .build()
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.Getter;
+
+/**
+ * 线程池任务提交、完成和拒绝的滑动窗口速率
+ * <p>
+ * 在事件发生时计数，速率与采集、抓取的时间点无关，抓取间隔大于采集间隔时也不会丢失数据
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Getter
+public class TaskRates {
+
+    /**
+     * 支持的速率窗口（单位：秒）：1 分钟、5 分钟、15 分钟
+     */
+    public static final int[] WINDOW_SECONDS = {60, 300, 900};
+
+    /**
+     * 与 {@link #WINDOW_SECONDS} 一一对应的窗口名称
+     */
+    public static final String[] WINDOW_NAMES = {"1m", "5m", "15m"};
+
+    private static final int MAX_WINDOW_SECONDS = 900;
+
+    /**
+     * 提交任务数，包含被拒绝的任务
+     */
+    private final SlidingWindowCounter submitted = new SlidingWindowCounter(MAX_WINDOW_SECONDS);
+
+    /**
+     * 执行完成任务数，包含执行异常的任务
+     */
+    private final SlidingWindowCounter completed = new SlidingWindowCounter(MAX_WINDOW_SECONDS);
+
+    /**
+     * 拒绝任务数
+     */
+    private final SlidingWindowCounter rejected = new SlidingWindowCounter(MAX_WINDOW_SECONDS);
+}
@@ -0,0 +1,64 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.monitor.BucketHistogram;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程池扇出作用域统计
+ * <p>
+ * 每个作用域结束时记录一次：扇出宽度（作用域内提交的子任务数）和从打开到结束的耗时，
+ * 以及因子任务失败、超时而提前结束的作用域数量
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Getter
+public class TaskScopeStats {
+
+    /**
+     * 扇出宽度分布
+     */
+    private final BucketHistogram widthHistogram = BucketHistogram.powerOfTwo(1024);
+
+    /**
+     * 作用域完成耗时分布，单位毫秒
+     */
+    private final BucketHistogram latencyHistogram = BucketHistogram.millis();
+
+    /**
+     * 已结束的作用域数量
+     */
+    private final LongAdder scopeCount = new LongAdder();
+
+    /**
+     * 因子任务失败而取消其余子任务的作用域数量
+     */
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * 等待超过截止时间的作用域数量
+     */
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * 记录一个已结束的作用域
+     *
+     * @param width         扇出宽度
+     * @param latencyMillis 完成耗时，单位毫秒
+     * @param failed        是否有子任务失败
+     * @param timedOut      是否超时
+     */
+    public void record(int width, long latencyMillis, boolean failed, boolean timedOut) {
+        widthHistogram.record(width);
+        latencyHistogram.record(latencyMillis);
+        scopeCount.increment();
+        if (failed) {
+            failureCount.increment();
+        }
+        if (timedOut) {
+            timeoutCount.increment();
+        }
+    }
+}
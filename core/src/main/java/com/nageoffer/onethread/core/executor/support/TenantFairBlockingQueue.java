@@ -0,0 +1,521 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.monitor.BucketHistogram;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 多租户加权公平阻塞队列
+ * <p>
+ * 每个租户拥有独立的子队列和容量，出队时按步长调度（Stride Scheduling）选择：每个租户的步长与权重成反比，
+ * 每出队一个任务该租户的行程增加一个步长，每次选择行程最小的非空租户，长期来看各租户出队数与权重成正比。
+ * 租户从空闲转为有任务时，行程不低于当前全局行程，避免空闲期间累积额度后集中出队
+ * <p>
+ * 租户数有上限，超出后的租户合并到 {@link #OTHERS_TENANT}，入队和出队的开销与上限成正比，不随任务数增长。
+ * 租户标识从 {@link TenantTask} 中获取，未实现该接口的任务归入 {@link #DEFAULT_TENANT}
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ *
+ * @param <E> 队列元素类型
+ */
+public class TenantFairBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    public static final String DEFAULT_TENANT = "default";
+    public static final String OTHERS_TENANT = "others";
+
+    private static final int DEFAULT_MAX_TENANTS = 64;
+    private static final long STRIDE_BASE = 1L << 20;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * 租户最大数量，超出后合并到溢出租户
+     */
+    private final int maxTenants;
+
+    /**
+     * 租户状态，由 {@link #lock} 保护
+     */
+    private final Map<String, TenantQueue> tenantMap = new HashMap<>();
+    private final List<TenantQueue> tenants = new ArrayList<>();
+
+    /**
+     * 租户权重和容量配置，未配置的租户使用默认值，由 {@link #lock} 保护
+     */
+    private Map<String, Integer> tenantWeights = Collections.emptyMap();
+    private Map<String, Integer> tenantCapacities = Collections.emptyMap();
+
+    /**
+     * 未单独配置容量的租户的默认容量，由 {@link #lock} 保护
+     */
+    private int defaultTenantCapacity;
+
+    /**
+     * 全局行程，即最近一次出队租户的行程，由 {@link #lock} 保护
+     */
+    private long globalPass;
+
+    /**
+     * 所有租户的任务总数，由 {@link #lock} 保护
+     */
+    private int count;
+
+    public TenantFairBlockingQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public TenantFairBlockingQueue(int defaultTenantCapacity) {
+        this(defaultTenantCapacity, DEFAULT_MAX_TENANTS);
+    }
+
+    public TenantFairBlockingQueue(int defaultTenantCapacity, int maxTenants) {
+        if (defaultTenantCapacity < 1 || maxTenants < 1) {
+            throw new IllegalArgumentException("The tenant capacity and max tenants must be greater than 0.");
+        }
+        this.defaultTenantCapacity = defaultTenantCapacity;
+        this.maxTenants = maxTenants;
+    }
+
+    /**
+     * 解析任务的租户标识
+     */
+    public static String resolveTenant(Object element) {
+        Object unwrapped = element instanceof Runnable ? ContextualTask.unwrap((Runnable) element) : element;
+        if (unwrapped instanceof TenantTask) {
+            String tenant = ((TenantTask) unwrapped).getTenant();
+            return tenant != null ? tenant : DEFAULT_TENANT;
+        }
+        return DEFAULT_TENANT;
+    }
+
+    /**
+     * 动态调整租户权重，未配置的租户权重为 1
+     *
+     * @param tenantWeights 租户标识 -> 权重
+     */
+    public void setTenantWeights(Map<String, Integer> tenantWeights) {
+        lock.lock();
+        try {
+            this.tenantWeights = tenantWeights != null ? new HashMap<>(tenantWeights) : Collections.emptyMap();
+            tenants.forEach(this::applyConfig);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 动态调整租户容量，未配置的租户使用默认容量；调小后已入队的任务不受影响
+     *
+     * @param tenantCapacities 租户标识 -> 容量
+     */
+    public void setTenantCapacities(Map<String, Integer> tenantCapacities) {
+        lock.lock();
+        try {
+            this.tenantCapacities = tenantCapacities != null ? new HashMap<>(tenantCapacities) : Collections.emptyMap();
+            tenants.forEach(this::applyConfig);
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 动态调整未单独配置容量的租户的默认容量
+     */
+    public void setDefaultTenantCapacity(int defaultTenantCapacity) {
+        if (defaultTenantCapacity < 1) {
+            throw new IllegalArgumentException("The tenant capacity must be greater than 0.");
+        }
+        lock.lock();
+        try {
+            this.defaultTenantCapacity = defaultTenantCapacity;
+            tenants.forEach(this::applyConfig);
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取各租户的队列统计快照
+     */
+    public List<TenantSnapshot> tenantSnapshots() {
+        lock.lock();
+        try {
+            List<TenantSnapshot> snapshots = new ArrayList<>(tenants.size());
+            for (TenantQueue each : tenants) {
+                snapshots.add(new TenantSnapshot(each.tenant, each.weight, each.capacity, each.elements.size(),
+                        each.dequeuedCount, each.overflowCount, each.waitHistogram.valueAtPercentile(0.99)));
+            }
+            return snapshots;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        String tenant = resolveTenant(e);
+        lock.lock();
+        try {
+            return enqueue(tenantQueueOf(tenant), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(e);
+        String tenant = resolveTenant(e);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            TenantQueue tenantQueue = tenantQueueOf(tenant);
+            while (tenantQueue.isFull()) {
+                if (nanos <= 0L) {
+                    tenantQueue.overflowCount++;
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return enqueue(tenantQueue, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        checkNotNull(e);
+        String tenant = resolveTenant(e);
+        lock.lockInterruptibly();
+        try {
+            TenantQueue tenantQueue = tenantQueueOf(tenant);
+            while (tenantQueue.isFull()) {
+                notFull.await();
+            }
+            enqueue(tenantQueue, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0L) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E peek() {
+        lock.lock();
+        try {
+            TenantQueue next = nextTenant();
+            return next == null ? null : next.elements.peekFirst().element;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 剩余容量为已出现租户的剩余容量之和，尚未出现的租户不计入
+     */
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            if (tenants.isEmpty()) {
+                return defaultTenantCapacity;
+            }
+            long remaining = 0L;
+            for (TenantQueue each : tenants) {
+                remaining += Math.max(each.capacity - each.elements.size(), 0);
+            }
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            for (TenantQueue each : tenants) {
+                Iterator<Node<E>> iterator = each.elements.iterator();
+                while (iterator.hasNext()) {
+                    if (o.equals(iterator.next().element)) {
+                        iterator.remove();
+                        count--;
+                        signalNotFull();
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        checkNotNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements && count > 0) {
+                c.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 返回当前元素的快照迭代器，按租户分组，不反映后续变化
+     */
+    @Override
+    public Iterator<E> iterator() {
+        lock.lock();
+        try {
+            List<E> snapshot = new ArrayList<>(count);
+            for (TenantQueue each : tenants) {
+                each.elements.forEach(node -> snapshot.add(node.element));
+            }
+            return Collections.unmodifiableList(snapshot).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean enqueue(TenantQueue tenantQueue, E e) {
+        if (tenantQueue.isFull()) {
+            tenantQueue.overflowCount++;
+            return false;
+        }
+        if (tenantQueue.elements.isEmpty()) {
+            tenantQueue.pass = Math.max(tenantQueue.pass, globalPass);
+        }
+        tenantQueue.elements.addLast(new Node<>(e, System.nanoTime()));
+        count++;
+        notEmpty.signal();
+        return true;
+    }
+
+    private E dequeue() {
+        TenantQueue tenantQueue = nextTenant();
+        Node<E> node = tenantQueue.elements.pollFirst();
+        globalPass = tenantQueue.pass;
+        tenantQueue.pass += tenantQueue.stride;
+        tenantQueue.dequeuedCount++;
+        tenantQueue.waitHistogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - node.enqueueNanos));
+        count--;
+        signalNotFull();
+        return node.element;
+    }
+
+    /**
+     * 选择行程最小的非空租户
+     */
+    private TenantQueue nextTenant() {
+        TenantQueue selected = null;
+        for (TenantQueue each : tenants) {
+            if (!each.elements.isEmpty() && (selected == null || each.pass < selected.pass)) {
+                selected = each;
+            }
+        }
+        return selected;
+    }
+
+    private TenantQueue tenantQueueOf(String tenant) {
+        TenantQueue tenantQueue = tenantMap.get(tenant);
+        if (tenantQueue != null) {
+            return tenantQueue;
+        }
+        if (tenants.size() >= maxTenants - 1 && !OTHERS_TENANT.equals(tenant)) {
+            return tenantQueueOf(OTHERS_TENANT);
+        }
+        tenantQueue = new TenantQueue(tenant);
+        tenantQueue.pass = globalPass;
+        applyConfig(tenantQueue);
+        tenantMap.put(tenant, tenantQueue);
+        tenants.add(tenantQueue);
+        return tenantQueue;
+    }
+
+    private void applyConfig(TenantQueue tenantQueue) {
+        int weight = Math.max(tenantWeights.getOrDefault(tenantQueue.tenant, 1), 1);
+        tenantQueue.weight = weight;
+        tenantQueue.stride = STRIDE_BASE / weight;
+        tenantQueue.capacity = Math.max(tenantCapacities.getOrDefault(tenantQueue.tenant, defaultTenantCapacity), 1);
+    }
+
+    private void signalNotFull() {
+        if (lock.hasWaiters(notFull)) {
+            notFull.signalAll();
+        }
+    }
+
+    private static void checkNotNull(Object o) {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+    }
+
+    /**
+     * 单个租户的子队列和调度状态，所有字段由队列锁保护
+     */
+    private final class TenantQueue {
+
+        private final String tenant;
+        private final ArrayDeque<Node<E>> elements = new ArrayDeque<>();
+        private final BucketHistogram waitHistogram = BucketHistogram.millis();
+        private int weight;
+        private long stride;
+        private int capacity;
+        private long pass;
+        private long dequeuedCount;
+        private long overflowCount;
+
+        private TenantQueue(String tenant) {
+            this.tenant = tenant;
+        }
+
+        private boolean isFull() {
+            return elements.size() >= capacity;
+        }
+    }
+
+    private static final class Node<E> {
+
+        private final E element;
+        private final long enqueueNanos;
+
+        private Node(E element, long enqueueNanos) {
+            this.element = element;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
+    /**
+     * 租户队列统计快照
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TenantSnapshot {
+
+        /**
+         * 租户标识
+         */
+        private String tenant;
+
+        /**
+         * 权重
+         */
+        private int weight;
+
+        /**
+         * 容量
+         */
+        private int capacity;
+
+        /**
+         * 排队任务数
+         */
+        private int depth;
+
+        /**
+         * 累计出队任务数
+         */
+        private long dequeuedCount;
+
+        /**
+         * 因租户子队列已满而入队失败的次数
+         */
+        private long overflowCount;
+
+        /**
+         * 排队等待时长 P99，单位毫秒
+         */
+        private long waitP99Millis;
+    }
+}
@@ -0,0 +1,60 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.NonNull;
+
+/**
+ * 带租户标识的任务
+ * <p>
+ * 使用 {@link TenantFairBlockingQueue} 的线程池按任务的租户标识入队，未实现该接口的任务归入默认租户。
+ * 租户标识需要是有限取值，超出队列租户数上限的租户会合并到同一个溢出租户中
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public interface TenantTask {
+
+    /**
+     * 获取租户标识
+     */
+    String getTenant();
+
+    /**
+     * 为任务绑定租户标识
+     *
+     * @param tenant  租户标识
+     * @param command 任务
+     * @return 带租户标识的任务
+     */
+    static Runnable of(@NonNull String tenant, @NonNull Runnable command) {
+        return new TenantRunnable(tenant, command);
+    }
+
+    /**
+     * 带租户标识的任务包装，资源统计时依然按原始任务归类
+     */
+    final class TenantRunnable implements Runnable, TenantTask, LabeledTask {
+
+        private final String tenant;
+        private final Runnable command;
+
+        private TenantRunnable(String tenant, Runnable command) {
+            this.tenant = tenant;
+            this.command = command;
+        }
+
+        @Override
+        public String getTenant() {
+            return tenant;
+        }
+
+        @Override
+        public String getTaskLabel() {
+            return TaskAccounting.resolveLabel(command);
+        }
+
+        @Override
+        public void run() {
+            command.run();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.NonNull;
+
+/**
+ * 基于 {@link ThreadLocal} 的上下文传递，适用于链路追踪 ID、租户标识等存放在 ThreadLocal 中的上下文
+ * <p>
+ * 传递的是 ThreadLocal 中值的引用，值对象需要是不可变的，否则提交线程和工作线程会共享同一个可变对象
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ *
+ * @param <T> 上下文类型
+ */
+public class ThreadLocalTaskContextPropagator<T> implements TaskContextPropagator {
+
+    private final ThreadLocal<T> threadLocal;
+
+    public ThreadLocalTaskContextPropagator(@NonNull ThreadLocal<T> threadLocal) {
+        this.threadLocal = threadLocal;
+    }
+
+    @Override
+    public Object capture() {
+        return threadLocal.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void restore(Object snapshot) {
+        threadLocal.set((T) snapshot);
+    }
+
+    @Override
+    public void clear() {
+        threadLocal.remove();
+    }
+}
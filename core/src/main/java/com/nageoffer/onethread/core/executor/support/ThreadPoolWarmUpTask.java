@@ -0,0 +1,25 @@
+package com.nageoffer.onethread.core.executor.support;
+
+/**
+ * 线程池预热任务
+ * <p>
+ * 应用启动时在目标线程池的工作线程中执行，用于提前触发 JIT 编译、初始化懒加载的客户端和连接池等。
+ * Spring 环境下声明为 Bean 即可，开启预热的线程池启动时会执行所有支持该线程池的预热任务
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public interface ThreadPoolWarmUpTask {
+
+    /**
+     * 是否需要在指定线程池中执行
+     *
+     * @param threadPoolId 线程池唯一标识
+     */
+    boolean supports(String threadPoolId);
+
+    /**
+     * 预热逻辑，异常只会记录日志，不影响应用启动
+     */
+    void warmUp() throws Exception;
+}
@@ -0,0 +1,133 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁令牌桶限流器
+ * <p>
+ * 基于 GCRA（Generic Cell Rate Algorithm）实现，仅使用一个 {@link AtomicLong} 记录"理论到达时间"（TAT），
+ * 获取令牌时通过 CAS 推进 TAT，不需要后台线程补充令牌，也不需要加锁
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 理论到达时间，单位纳秒，基于 {@link System#nanoTime()}
+     */
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+
+    /**
+     * 被放行的令牌总数
+     */
+    private final LongAdder admittedCount = new LongAdder();
+
+    /**
+     * 因等待令牌而被节流的总时长，单位纳秒
+     */
+    private final LongAdder throttledNanos = new LongAdder();
+
+    /**
+     * 每秒许可数
+     */
+    private volatile double permitsPerSecond;
+
+    /**
+     * 突发容量，即桶满时允许瞬间放行的令牌数
+     */
+    private volatile int burst;
+
+    /**
+     * 两个令牌之间的间隔，单位纳秒
+     */
+    private volatile long intervalNanos;
+
+    /**
+     * 允许提前消费的时间窗口，等于 (burst - 1) * intervalNanos
+     */
+    private volatile long burstToleranceNanos;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        setRate(permitsPerSecond, burst);
+    }
+
+    /**
+     * 运行时调整限流速率
+     *
+     * @param permitsPerSecond 每秒许可数，必须大于 0
+     * @param burst            突发容量，小于 1 时按 1 处理
+     */
+    public void setRate(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("The permits per second must be greater than 0.");
+        }
+        int actualBurst = Math.max(burst, 1);
+        long interval = Math.max((long) (NANOS_PER_SECOND / permitsPerSecond), 1L);
+
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = actualBurst;
+        this.intervalNanos = interval;
+        this.burstToleranceNanos = interval * (actualBurst - 1);
+    }
+
+    /**
+     * 预占一个令牌，返回调用方需要等待的纳秒数
+     *
+     * @param maxWaitNanos 最长可接受的等待时间，超过则不预占
+     * @return 需要等待的纳秒数（0 表示立即可用）；无法在 maxWaitNanos 内获得令牌时返回 -1
+     */
+    public long reserve(long maxWaitNanos) {
+        for (; ; ) {
+            long now = System.nanoTime();
+            long interval = intervalNanos;
+            long current = theoreticalArrivalTime.get();
+            long base = Math.max(current, now);
+            long waitNanos = Math.max(base - now - burstToleranceNanos, 0L);
+            if (waitNanos > maxWaitNanos) {
+                return -1L;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, base + interval)) {
+                admittedCount.increment();
+                if (waitNanos > 0) {
+                    throttledNanos.add(waitNanos);
+                }
+                return waitNanos;
+            }
+        }
+    }
+
+    /**
+     * 归还一个已预占但未使用的令牌，比如预占后等待任务超时或被中断
+     */
+    public void refund() {
+        theoreticalArrivalTime.addAndGet(-intervalNanos);
+        admittedCount.decrement();
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * 获取被放行的令牌总数
+     */
+    public long getAdmittedCount() {
+        return admittedCount.sum();
+    }
+
+    /**
+     * 获取因等待令牌而被节流的总时长，单位毫秒
+     */
+    public long getThrottledMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(throttledNanos.sum());
+    }
+}
@@ -0,0 +1,65 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.NonNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 记录所创建线程的线程工厂包装，用于按线程池采样工作线程的 CPU、阻塞和等待时间
+ * <p>
+ * 线程以弱引用登记，线程池回收空闲线程后不会因这里的引用而无法释放，已结束或已回收的线程在下次读取时清理
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TrackingThreadFactory implements ThreadFactory {
+
+    private volatile ThreadFactory delegate;
+
+    /**
+     * 线程弱引用登记表，key 为线程 ID
+     */
+    private final Map<Long, WeakReference<Thread>> threads = new ConcurrentHashMap<>();
+
+    public TrackingThreadFactory(@NonNull ThreadFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = delegate.newThread(runnable);
+        if (thread != null) {
+            threads.put(thread.getId(), new WeakReference<>(thread));
+        }
+        return thread;
+    }
+
+    /**
+     * 替换实际创建线程的线程工厂，已登记的线程保留
+     *
+     * @param delegate 线程工厂
+     */
+    public void setDelegate(@NonNull ThreadFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    public ThreadFactory getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 获取仍然存活的线程 ID，顺带清理已结束或已回收的线程
+     *
+     * @return 线程 ID 数组
+     */
+    public long[] liveThreadIds() {
+        threads.values().removeIf(each -> {
+            Thread thread = each.get();
+            return thread == null || thread.getState() == Thread.State.TERMINATED;
+        });
+        return threads.keySet().stream().mapToLong(Long::longValue).toArray();
+    }
+}
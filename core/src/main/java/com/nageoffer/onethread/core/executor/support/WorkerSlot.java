@@ -0,0 +1,130 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.Getter;
+
+/**
+ * 工作线程当前任务槽位
+ * <p>
+ * 每个工作线程首次执行任务时创建一个槽位，之后每次执行任务只更新槽位中的字段，不会为每个任务分配对象。
+ * 字段只由所属工作线程写入，监控、报警线程只读，读到的是近似一致的快照；
+ * 任务开始、结束和 {@link #interruptIfRunning(long)} 持有槽位锁，保证中断只会落在目标任务执行期间
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public final class WorkerSlot {
+
+    /**
+     * 所属工作线程
+     */
+    @Getter
+    private final Thread thread;
+
+    /**
+     * 当前执行的任务，空闲时为空
+     */
+    private volatile Runnable task;
+
+    /**
+     * 当前任务开始时间，单位纳秒，空闲时为 0
+     */
+    private volatile long taskStartNanos;
+
+    /**
+     * 已开始执行的任务序号，用于区分同一线程先后执行的不同任务
+     */
+    private volatile long taskSequence;
+
+    /**
+     * 已经上报过长任务告警的任务序号，只由报警检查线程读写
+     */
+    private volatile long reportedSequence;
+
+    /**
+     * 任务资源统计：任务开始时线程 CPU 时间和已分配字节数，只由所属工作线程读写
+     */
+    long cpuStartNanos;
+    long allocatedStartBytes;
+    boolean accounting;
+
+    public WorkerSlot(Thread thread) {
+        this.thread = thread;
+    }
+
+    /**
+     * 工作线程开始执行任务
+     */
+    public synchronized void begin(Runnable task) {
+        this.task = task;
+        this.taskStartNanos = System.nanoTime();
+        this.taskSequence++;
+    }
+
+    /**
+     * 工作线程任务执行结束
+     */
+    public synchronized void end() {
+        this.taskStartNanos = 0L;
+        this.task = null;
+    }
+
+    /**
+     * 获取当前任务快照，线程空闲时返回 null
+     *
+     * @param nowNanos 当前时间，单位纳秒
+     */
+    public RunningTaskInfo snapshot(long nowNanos) {
+        long sequence = taskSequence;
+        long startNanos = taskStartNanos;
+        Runnable current = task;
+        if (startNanos == 0L || current == null) {
+            return null;
+        }
+        return new RunningTaskInfo(
+                thread.getName(),
+                ContextualTask.unwrap(current).getClass().getName(),
+                (nowNanos - startNanos) / 1_000_000L,
+                sequence,
+                this
+        );
+    }
+
+    /**
+     * 当前槽位是否正在执行任务
+     */
+    public boolean isBusy() {
+        return taskStartNanos != 0L;
+    }
+
+    /**
+     * 当前槽位是否仍在执行指定序号的任务
+     */
+    public boolean isRunning(long sequence) {
+        return taskStartNanos != 0L && taskSequence == sequence;
+    }
+
+    /**
+     * 指定序号的任务仍在执行时中断工作线程；检查和中断与任务结束互斥，
+     * 不会出现检查时任务仍在执行、中断时已经轮到后续任务的情况
+     *
+     * @return 是否执行了中断
+     */
+    public synchronized boolean interruptIfRunning(long sequence) {
+        if (!isRunning(sequence)) {
+            return false;
+        }
+        thread.interrupt();
+        return true;
+    }
+
+    /**
+     * 标记指定序号的任务已上报，返回 false 表示该任务之前已经上报过
+     */
+    public boolean markReported(long sequence) {
+        if (reportedSequence == sequence) {
+            return false;
+        }
+        reportedSequence = sequence;
+        return true;
+    }
+}
@@ -0,0 +1,192 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 工作线程时间分布采样器，按线程池统计工作线程在 CPU 上运行、阻塞和等待的时间占比
+ * <p>
+ * 每次采样通过 {@link ThreadMXBean} 读取 {@link TrackingThreadFactory} 登记的各线程累计 CPU 时间、阻塞时间和等待时间，
+ * 与上次采样的差值除以（采样间隔 × 线程数）得到占比。上次采样之后新建的线程从下次采样开始计入。
+ * 等待时间包含空闲线程在队列上等待任务的时间，所以空闲线程池的等待占比接近 100%；
+ * 阻塞指等待进入 synchronized 的时间，阻塞和等待时间需要开启 JVM 线程竞争监控，未开启时占比为 -1
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class WorkerTimeSampler {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final boolean CPU_TIME_SUPPORTED = enableCpuTime();
+
+    private static final WorkerTimeSnapshot EMPTY = new WorkerTimeSnapshot(0, 0D, -1D, -1D, 0L, 0L);
+
+    private static final int CPU_NANOS = 0;
+    private static final int BLOCKED_MILLIS = 1;
+    private static final int BLOCKED_COUNT = 2;
+    private static final int WAITED_MILLIS = 3;
+    private static final int WAITED_COUNT = 4;
+
+    private final TrackingThreadFactory threadFactory;
+
+    /**
+     * 上次采样时各线程的累计值，key 为线程 ID
+     */
+    private Map<Long, long[]> lastValues = new HashMap<>();
+
+    private long lastSampleNanos = System.nanoTime();
+
+    /**
+     * 最近一次采样结果，尚未采样时各项为 0
+     */
+    @Getter
+    private volatile WorkerTimeSnapshot latest = EMPTY;
+
+    public WorkerTimeSampler(TrackingThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * 开启 JVM 线程竞争监控，开启后才能读取线程阻塞和等待时间，对所有线程生效
+     */
+    public static void enableContentionMonitoring() {
+        if (!THREAD_MX_BEAN.isThreadContentionMonitoringSupported()) {
+            log.warn("Thread contention monitoring is not supported by this JVM, worker blocked and waiting time will not be collected.");
+            return;
+        }
+        if (!THREAD_MX_BEAN.isThreadContentionMonitoringEnabled()) {
+            THREAD_MX_BEAN.setThreadContentionMonitoringEnabled(true);
+        }
+    }
+
+    /**
+     * 采样一次并计算自上次采样以来的时间分布
+     *
+     * @return 采样结果
+     */
+    public synchronized WorkerTimeSnapshot sample() {
+        long now = System.nanoTime();
+        long intervalNanos = now - lastSampleNanos;
+        long[] threadIds = threadFactory.liveThreadIds();
+        ThreadInfo[] threadInfos = threadIds.length == 0 ? new ThreadInfo[0] : THREAD_MX_BEAN.getThreadInfo(threadIds);
+
+        Map<Long, long[]> currentValues = new HashMap<>(threadIds.length * 2);
+        int sampledThreads = 0;
+        boolean timeAvailable = true;
+        long cpuNanos = 0L, blockedMillis = 0L, blockedCount = 0L, waitedMillis = 0L, waitedCount = 0L;
+        for (int i = 0; i < threadIds.length; i++) {
+            ThreadInfo threadInfo = threadInfos[i];
+            // 线程在两次调用之间结束
+            if (threadInfo == null) {
+                continue;
+            }
+            long[] values = new long[]{
+                    CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getThreadCpuTime(threadIds[i]) : -1L,
+                    threadInfo.getBlockedTime(),
+                    threadInfo.getBlockedCount(),
+                    threadInfo.getWaitedTime(),
+                    threadInfo.getWaitedCount()
+            };
+            currentValues.put(threadIds[i], values);
+
+            long[] previous = lastValues.get(threadIds[i]);
+            if (previous == null) {
+                continue;
+            }
+            sampledThreads++;
+            cpuNanos += delta(values, previous, CPU_NANOS);
+            blockedCount += delta(values, previous, BLOCKED_COUNT);
+            waitedCount += delta(values, previous, WAITED_COUNT);
+            if (values[BLOCKED_MILLIS] < 0 || previous[BLOCKED_MILLIS] < 0) {
+                timeAvailable = false;
+            } else {
+                blockedMillis += delta(values, previous, BLOCKED_MILLIS);
+                waitedMillis += delta(values, previous, WAITED_MILLIS);
+            }
+        }
+        lastValues = currentValues;
+        lastSampleNanos = now;
+
+        double threadNanos = (double) sampledThreads * intervalNanos;
+        WorkerTimeSnapshot snapshot = new WorkerTimeSnapshot(
+                currentValues.size(),
+                percent(CPU_TIME_SUPPORTED ? cpuNanos : 0L, threadNanos),
+                timeAvailable ? percent(blockedMillis * 1_000_000L, threadNanos) : -1D,
+                timeAvailable ? percent(waitedMillis * 1_000_000L, threadNanos) : -1D,
+                blockedCount,
+                waitedCount
+        );
+        latest = snapshot;
+        return snapshot;
+    }
+
+    private static long delta(long[] values, long[] previous, int index) {
+        return Math.max(0L, values[index] - previous[index]);
+    }
+
+    private static double percent(long nanos, double threadNanos) {
+        if (threadNanos <= 0) {
+            return 0D;
+        }
+        // 采样时刻与线程时间读取并非原子，结果可能略超过 100%
+        return Math.min(100D, Math.round(nanos * 10000D / threadNanos) / 100D);
+    }
+
+    private static boolean enableCpuTime() {
+        if (!THREAD_MX_BEAN.isThreadCpuTimeSupported()) {
+            log.warn("Thread cpu time is not supported by this JVM, worker cpu time will not be collected.");
+            return false;
+        }
+        if (!THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+            THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+        }
+        return true;
+    }
+
+    /**
+     * 工作线程时间分布采样结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class WorkerTimeSnapshot {
+
+        /**
+         * 采样到的存活工作线程数
+         */
+        private final int threadCount;
+
+        /**
+         * 在 CPU 上运行的时间占比（0 ~ 100）
+         */
+        private final double cpuPercent;
+
+        /**
+         * 阻塞在 synchronized 上的时间占比（0 ~ 100），未开启线程竞争监控时为 -1
+         */
+        private final double blockedPercent;
+
+        /**
+         * 等待（包括在队列上等待任务、Object.wait、LockSupport.park）的时间占比（0 ~ 100），未开启线程竞争监控时为 -1
+         */
+        private final double waitingPercent;
+
+        /**
+         * 采样间隔内的阻塞次数
+         */
+        private final long blockedCount;
+
+        /**
+         * 采样间隔内的等待次数
+         */
+        private final long waitedCount;
+    }
+}
@@ -0,0 +1,321 @@
+package com.nageoffer.onethread.core.monitor;
+
+import cn.hutool.core.util.StrUtil;
+import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 监控日志异步输出器，监控线程只负责把编码好的记录放入有界队列，由独立的输出线程批量写入文件或日志框架
+ * <p>
+ * 队列满时直接丢弃并计数，采集耗时不再受磁盘或日志框架延迟影响；丢弃的记录数在下一批写入前以 event=dropped 记录补记。
+ * 配置了输出文件时按大小和时间滚动，滚动后的文件以滚动时刻命名，只保留最近若干个；未配置时通过 ThreadPoolMonitor 的 logger 输出，
+ * 已有的日志采集配置不需要调整
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class AsyncMonitorLogAppender {
+
+    /**
+     * 未配置输出文件时使用的 logger，与原先同步输出时保持一致
+     */
+    private static final Logger MONITOR_LOGGER = LoggerFactory.getLogger(ThreadPoolMonitor.class);
+
+    private static final int BATCH_SIZE = 256;
+    private static final long POLL_TIMEOUT_MILLIS = 200L;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000L;
+
+    private final BlockingQueue<byte[]> queue;
+    private final LongAdder droppedCount = new LongAdder();
+    private final RollingFile rollingFile;
+    private final MonitorLogEncoder droppedEncoder = new MonitorLogEncoder();
+    private final Thread writerThread;
+    private volatile boolean closed;
+    private long reportedDroppedCount;
+    private boolean writeFailing;
+
+    /**
+     * 按监控日志配置创建并启动输出器
+     *
+     * @param logConfig 监控日志配置
+     * @return 监控日志异步输出器
+     */
+    public static AsyncMonitorLogAppender create(BootstrapConfigProperties.MonitorLogConfig logConfig) {
+        return new AsyncMonitorLogAppender(
+                logConfig.getFile(),
+                logConfig.getQueueCapacity(),
+                logConfig.getMaxFileSizeMb() * 1024 * 1024,
+                TimeUnit.MINUTES.toMillis(logConfig.getRotateIntervalMinutes()),
+                logConfig.getMaxHistory()
+        );
+    }
+
+    /**
+     * @param file                 输出文件，为空时通过日志框架输出
+     * @param queueCapacity        队列容量
+     * @param maxFileSizeBytes     单个文件大小上限，小于等于 0 表示不按大小滚动
+     * @param rotateIntervalMillis 按时间滚动的周期，按本地时区对齐，小于等于 0 表示不按时间滚动
+     * @param maxHistory           保留的滚动文件数量
+     */
+    public AsyncMonitorLogAppender(String file, int queueCapacity, long maxFileSizeBytes, long rotateIntervalMillis, int maxHistory) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.rollingFile = StrUtil.isBlank(file) ? null : new RollingFile(Paths.get(file), maxFileSizeBytes, rotateIntervalMillis, maxHistory);
+        this.writerThread = new Thread(this::runLoop, "monitor_log_appender");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 提交一条记录，队列已满或输出器已关闭时丢弃
+     *
+     * @param line 以换行符结尾的一行日志
+     * @return 是否放入队列
+     */
+    public boolean append(byte[] line) {
+        if (closed || !queue.offer(line)) {
+            droppedCount.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 累计丢弃的记录数
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 停止接收记录，等待输出线程写完队列中剩余的记录并关闭文件
+     */
+    public void close() {
+        closed = true;
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runLoop() {
+        List<byte[]> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                // 不使用中断唤醒，中断会导致 FileChannel 被关闭
+                byte[] first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        if (rollingFile != null) {
+            rollingFile.close();
+        }
+    }
+
+    private void writeBatch(List<byte[]> batch) {
+        long totalDropped = droppedCount.sum();
+        try {
+            if (totalDropped > reportedDroppedCount) {
+                write(droppedEncoder.encodeDropped(System.currentTimeMillis(), totalDropped - reportedDroppedCount, totalDropped));
+                reportedDroppedCount = totalDropped;
+            }
+            for (byte[] line : batch) {
+                write(line);
+            }
+            if (rollingFile != null) {
+                rollingFile.flush();
+            }
+            writeFailing = false;
+        } catch (IOException ex) {
+            // 写入失败的整批记录计入丢弃，只在首次失败时打印错误，下一批重新打开文件；
+            // 缓冲区中可能还残留已计入丢弃或写入了一部分的数据，直接清空，不能再尝试落盘
+            droppedCount.add(batch.size());
+            rollingFile.discard();
+            if (!writeFailing) {
+                writeFailing = true;
+                log.error("[ThreadPool Monitor] Write monitor log file failed, records are dropped until it recovers.", ex);
+            }
+        }
+    }
+
+    private void write(byte[] line) throws IOException {
+        if (rollingFile != null) {
+            rollingFile.write(line);
+        } else {
+            MONITOR_LOGGER.info("[ThreadPool Monitor] {}", new String(line, 0, line.length - 1, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 按大小和时间滚动的输出文件，写入先进入复用的缓冲区，每批结束或缓冲区写满时落盘；只由输出线程访问
+     */
+    private static class RollingFile {
+
+        private static final DateTimeFormatter ROTATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+        private final Path path;
+        private final long maxFileSizeBytes;
+        private final long rotateIntervalMillis;
+        private final int maxHistory;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        private FileChannel channel;
+        private long size;
+        private long nextRotateMillis;
+
+        RollingFile(Path path, long maxFileSizeBytes, long rotateIntervalMillis, int maxHistory) {
+            this.path = path.toAbsolutePath();
+            this.maxFileSizeBytes = maxFileSizeBytes;
+            this.rotateIntervalMillis = rotateIntervalMillis;
+            this.maxHistory = maxHistory;
+        }
+
+        void write(byte[] line) throws IOException {
+            long now = System.currentTimeMillis();
+            if (channel == null) {
+                open(now);
+            } else if ((maxFileSizeBytes > 0 && size > 0 && size + line.length > maxFileSizeBytes) || now >= nextRotateMillis) {
+                rotate(now);
+            }
+
+            if (line.length > buffer.remaining()) {
+                flush();
+            }
+            if (line.length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(line));
+            } else {
+                buffer.put(line);
+            }
+            size += line.length;
+        }
+
+        /**
+         * 缓冲区落盘，写入失败时同样清空缓冲区，避免缓冲区停留在读模式或残留已写入一部分的数据
+         */
+        void flush() throws IOException {
+            try {
+                if (channel != null) {
+                    buffer.flip();
+                    writeFully(buffer);
+                }
+            } finally {
+                buffer.clear();
+            }
+        }
+
+        /**
+         * 写入失败后丢弃缓冲区并关闭文件，下次写入时重新打开
+         */
+        void discard() {
+            buffer.clear();
+            closeChannel();
+        }
+
+        void close() {
+            try {
+                flush();
+            } catch (IOException ignored) {
+            }
+            closeChannel();
+        }
+
+        private void open(long now) throws IOException {
+            Path parent = path.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            size = channel.size();
+            nextRotateMillis = nextRotateMillis(now);
+        }
+
+        private void rotate(long now) throws IOException {
+            flush();
+            closeChannel();
+            if (Files.exists(path) && Files.size(path) > 0) {
+                String rotatedName = path.getFileName() + "." + ROTATE_FORMATTER.format(Instant.ofEpochMilli(now).atZone(ZoneId.systemDefault()));
+                Path rotated = path.resolveSibling(rotatedName);
+                for (int i = 1; Files.exists(rotated); i++) {
+                    rotated = path.resolveSibling(rotatedName + "." + i);
+                }
+                Files.move(path, rotated);
+                deleteExpiredFiles();
+            }
+            open(now);
+        }
+
+        /**
+         * 滚动文件名中的时间戳定长，按文件名排序即按滚动时间排序
+         */
+        private void deleteExpiredFiles() throws IOException {
+            String prefix = path.getFileName() + ".";
+            List<Path> rotatedFiles;
+            try (Stream<Path> files = Files.list(path.getParent())) {
+                rotatedFiles = files.filter(each -> each.getFileName().toString().startsWith(prefix))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (int i = 0; i < rotatedFiles.size() - maxHistory; i++) {
+                Files.deleteIfExists(rotatedFiles.get(i));
+            }
+        }
+
+        private long nextRotateMillis(long now) {
+            if (rotateIntervalMillis <= 0) {
+                return Long.MAX_VALUE;
+            }
+            long offset = TimeZone.getDefault().getOffset(now);
+            return ((now + offset) / rotateIntervalMillis + 1) * rotateIntervalMillis - offset;
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+
+        private void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+                channel = null;
+            }
+        }
+    }
+}
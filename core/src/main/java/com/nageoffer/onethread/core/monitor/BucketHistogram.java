@@ -0,0 +1,168 @@
+package com.nageoffer.onethread.core.monitor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定分桶直方图，用于统计批大小、耗时等分布类指标
+ * <p>
+ * 桶边界在创建时确定且升序排列，每个桶记录"小于等于该边界"的样本数，最后额外有一个溢出桶。
+ * 记录过程无锁，不会为每个样本分配对象
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class BucketHistogram {
+
+    /**
+     * 桶上边界（包含），升序
+     */
+    private final long[] bounds;
+
+    /**
+     * 各个桶的样本数，长度为 bounds.length + 1，最后一个为溢出桶
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * 样本值总和
+     */
+    private final LongAdder sum = new LongAdder();
+
+    public BucketHistogram(long... bounds) {
+        if (bounds.length == 0) {
+            throw new IllegalArgumentException("The histogram bounds cannot be empty.");
+        }
+        long[] sorted = bounds.clone();
+        Arrays.sort(sorted);
+        this.bounds = sorted;
+        this.counts = new AtomicLongArray(sorted.length + 1);
+    }
+
+    /**
+     * 创建以 2 的幂为边界的直方图：1、2、4 ... 直到大于等于 max
+     */
+    public static BucketHistogram powerOfTwo(long max) {
+        int size = 64 - Long.numberOfLeadingZeros(Math.max(max - 1, 1)) + 1;
+        long[] bounds = new long[size];
+        for (int i = 0; i < size; i++) {
+            bounds[i] = 1L << i;
+        }
+        return new BucketHistogram(bounds);
+    }
+
+    /**
+     * 创建以毫秒为单位的耗时直方图，边界为常见的 1-2-5 序列
+     */
+    public static BucketHistogram millis() {
+        return new BucketHistogram(1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000);
+    }
+
+    /**
+     * 记录一个样本
+     *
+     * @param value 样本值
+     */
+    public void record(long value) {
+        counts.incrementAndGet(bucketIndex(value));
+        sum.add(value);
+    }
+
+    private int bucketIndex(long value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * 获取桶上边界副本
+     */
+    public long[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * 获取第 index 个桶的上边界，不复制边界数组
+     */
+    public long getBound(int index) {
+        return bounds[index];
+    }
+
+    /**
+     * 获取桶的个数（不包含溢出桶）
+     */
+    public int getBucketCount() {
+        return bounds.length;
+    }
+
+    /**
+     * 获取小于等于第 index 个桶上边界的累计样本数
+     */
+    public long getCumulativeCount(int index) {
+        long cumulative = 0L;
+        for (int i = 0; i <= index && i < counts.length(); i++) {
+            cumulative += counts.get(i);
+        }
+        return cumulative;
+    }
+
+    /**
+     * 获取样本总数
+     */
+    public long getCount() {
+        return getCumulativeCount(bounds.length);
+    }
+
+    /**
+     * 获取样本值总和
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * 获取样本平均值，没有样本时返回 0
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0D : (double) getSum() / count;
+    }
+
+    /**
+     * 估算指定百分位的值，返回样本所落桶的上边界；落在溢出桶时返回最大边界
+     *
+     * @param percentile 百分位，取值 (0, 1]，比如 0.99
+     * @return 百分位估算值，没有样本时返回 0
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] snapshot = snapshotCounts();
+        long total = 0L;
+        for (long each : snapshot) {
+            total += each;
+        }
+        if (total == 0) {
+            return 0L;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long cumulative = 0L;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return bounds[i];
+            }
+        }
+        return bounds[bounds.length - 1];
+    }
+
+    /**
+     * 获取各个桶样本数的快照，长度为桶个数 + 1
+     */
+    public long[] snapshotCounts() {
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+}
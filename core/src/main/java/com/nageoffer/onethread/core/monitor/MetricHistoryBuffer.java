@@ -0,0 +1,202 @@
+package com.nageoffer.onethread.core.monitor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * 线程池指标历史环形缓冲区
+ * <p>
+ * 按采集周期保存最近 N 个运行时采样，按列存放在预先分配的基本类型数组中，写满后覆盖最旧的采样。
+ * 每次记录只写入数组槽位，不会为采样分配对象；完成数和拒绝数记录为相邻两次采样的差值，
+ * 降采样时按时间桶求和，线程数和队列类指标按时间桶取平均值或最大值
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class MetricHistoryBuffer {
+
+    private final int capacity;
+
+    private final long[] timestamps;
+    private final int[] corePoolSizes;
+    private final int[] maximumPoolSizes;
+    private final int[] currentPoolSizes;
+    private final int[] activePoolSizes;
+    private final int[] workQueueSizes;
+    private final int[] workQueueCapacities;
+    private final long[] completedTaskDeltas;
+    private final long[] rejectDeltas;
+
+    /**
+     * 已写入的采样总数，下一个写入槽位为 count % capacity
+     */
+    private long count;
+
+    private long lastCompletedTaskCount = -1L;
+    private long lastRejectCount = -1L;
+
+    public MetricHistoryBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The history buffer capacity must be greater than 0.");
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.corePoolSizes = new int[capacity];
+        this.maximumPoolSizes = new int[capacity];
+        this.currentPoolSizes = new int[capacity];
+        this.activePoolSizes = new int[capacity];
+        this.workQueueSizes = new int[capacity];
+        this.workQueueCapacities = new int[capacity];
+        this.completedTaskDeltas = new long[capacity];
+        this.rejectDeltas = new long[capacity];
+    }
+
+    /**
+     * 记录一次运行时采样
+     *
+     * @param timestamp   采样时间戳（单位：毫秒）
+     * @param runtimeInfo 线程池运行时信息
+     */
+    public synchronized void record(long timestamp, ThreadPoolRuntimeInfo runtimeInfo) {
+        int index = (int) (count % capacity);
+        timestamps[index] = timestamp;
+        corePoolSizes[index] = intValue(runtimeInfo.getCorePoolSize());
+        maximumPoolSizes[index] = intValue(runtimeInfo.getMaximumPoolSize());
+        currentPoolSizes[index] = intValue(runtimeInfo.getCurrentPoolSize());
+        activePoolSizes[index] = intValue(runtimeInfo.getActivePoolSize());
+        workQueueSizes[index] = intValue(runtimeInfo.getWorkQueueSize());
+        workQueueCapacities[index] = intValue(runtimeInfo.getWorkQueueCapacity());
+
+        long completedTaskCount = runtimeInfo.getCompletedTaskCount() == null ? 0L : runtimeInfo.getCompletedTaskCount();
+        long rejectCount = runtimeInfo.getRejectCount() == null ? -1L : runtimeInfo.getRejectCount();
+        // 首次采样没有上一周期，差值记为 0；计数回退（如线程池被替换）时同样记为 0
+        completedTaskDeltas[index] = lastCompletedTaskCount < 0 ? 0L : Math.max(0L, completedTaskCount - lastCompletedTaskCount);
+        rejectDeltas[index] = lastRejectCount < 0 || rejectCount < 0 ? 0L : Math.max(0L, rejectCount - lastRejectCount);
+        lastCompletedTaskCount = completedTaskCount;
+        lastRejectCount = rejectCount;
+        count++;
+    }
+
+    /**
+     * 查询时间范围内的采样，并按时间桶降采样
+     *
+     * @param fromMillis 起始时间戳（包含），小于等于 0 表示不限制
+     * @param toMillis   结束时间戳（包含），小于等于 0 表示不限制
+     * @param stepMillis 时间桶宽度，桶按该宽度对齐到整点；小于等于 0 表示不降采样，返回原始采样
+     * @param max        线程数和队列类指标是否取桶内最大值，否则取平均值
+     * @return 按列组织的历史序列，时间升序
+     */
+    public synchronized Series query(long fromMillis, long toMillis, long stepMillis, boolean max) {
+        int size = (int) Math.min(count, capacity);
+        int start = (int) ((count - size) % capacity);
+
+        long[] bucketTimestamps = new long[size];
+        double[][] gauges = new double[6][size];
+        long[] completed = new long[size];
+        long[] rejects = new long[size];
+        int[] samples = new int[size];
+
+        int bucket = -1;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % capacity;
+            long timestamp = timestamps[index];
+            if ((fromMillis > 0 && timestamp < fromMillis) || (toMillis > 0 && timestamp > toMillis)) {
+                continue;
+            }
+
+            long bucketTimestamp = stepMillis > 0 ? timestamp - Math.floorMod(timestamp, stepMillis) : timestamp;
+            if (bucket < 0 || stepMillis <= 0 || bucketTimestamps[bucket] != bucketTimestamp) {
+                bucket++;
+                bucketTimestamps[bucket] = bucketTimestamp;
+            }
+            samples[bucket]++;
+            accumulate(gauges[0], bucket, corePoolSizes[index], max);
+            accumulate(gauges[1], bucket, maximumPoolSizes[index], max);
+            accumulate(gauges[2], bucket, currentPoolSizes[index], max);
+            accumulate(gauges[3], bucket, activePoolSizes[index], max);
+            accumulate(gauges[4], bucket, workQueueSizes[index], max);
+            accumulate(gauges[5], bucket, workQueueCapacities[index], max);
+            completed[bucket] += completedTaskDeltas[index];
+            rejects[bucket] += rejectDeltas[index];
+        }
+
+        int length = bucket + 1;
+        if (!max) {
+            for (double[] gauge : gauges) {
+                for (int i = 0; i < length; i++) {
+                    gauge[i] /= samples[i];
+                }
+            }
+        }
+        return new Series(
+                Arrays.copyOf(bucketTimestamps, length),
+                Arrays.copyOf(gauges[0], length),
+                Arrays.copyOf(gauges[1], length),
+                Arrays.copyOf(gauges[2], length),
+                Arrays.copyOf(gauges[3], length),
+                Arrays.copyOf(gauges[4], length),
+                Arrays.copyOf(gauges[5], length),
+                Arrays.copyOf(completed, length),
+                Arrays.copyOf(rejects, length)
+        );
+    }
+
+    /**
+     * 获取缓冲区容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取当前保存的采样数
+     */
+    public synchronized int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    private static void accumulate(double[] column, int bucket, int value, boolean max) {
+        column[bucket] = max ? Math.max(column[bucket], value) : column[bucket] + value;
+    }
+
+    private static int intValue(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * 历史序列，各列下标一一对应
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Series {
+
+        /**
+         * 时间桶起始时间戳（单位：毫秒），不降采样时为采样时间戳
+         */
+        private final long[] timestamps;
+
+        private final double[] corePoolSizes;
+
+        private final double[] maximumPoolSizes;
+
+        private final double[] currentPoolSizes;
+
+        private final double[] activePoolSizes;
+
+        private final double[] workQueueSizes;
+
+        private final double[] workQueueCapacities;
+
+        /**
+         * 时间桶内完成的任务数
+         */
+        private final long[] completedTaskCounts;
+
+        /**
+         * 时间桶内拒绝的任务数
+         */
+        private final long[] rejectCounts;
+    }
+}
@@ -0,0 +1,48 @@
+package com.nageoffer.onethread.core.monitor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 线程池指标历史管理器，由监控器按采集周期写入，控制台按需读取
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class MetricHistoryRegistry {
+
+    /**
+     * 指标历史缓存，key 为线程池唯一标识
+     */
+    private static final Map<String, MetricHistoryBuffer> BUFFER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次运行时采样，线程池首次采样时按指定容量创建缓冲区
+     *
+     * @param runtimeInfo 线程池运行时信息
+     * @param capacity    缓冲区容量
+     */
+    public static void record(ThreadPoolRuntimeInfo runtimeInfo, int capacity) {
+        BUFFER_MAP.computeIfAbsent(runtimeInfo.getThreadPoolId(), each -> new MetricHistoryBuffer(capacity))
+                .record(System.currentTimeMillis(), runtimeInfo);
+    }
+
+    /**
+     * 根据线程池 ID 获取指标历史
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 指标历史缓冲区，未开启历史记录或尚未采样时为空
+     */
+    public static MetricHistoryBuffer getBuffer(String threadPoolId) {
+        return BUFFER_MAP.get(threadPoolId);
+    }
+
+    /**
+     * 移除线程池的指标历史
+     *
+     * @param threadPoolId 线程池唯一标识
+     */
+    public static void remove(String threadPoolId) {
+        BUFFER_MAP.remove(threadPoolId);
+    }
+}
@@ -0,0 +1,254 @@
+package com.nageoffer.onethread.core.monitor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 监控日志编码器，把线程池运行时信息编码为一行 key=value 格式（logfmt）的文本，行尾带换行符
+ * <p>
+ * 字段名预先编码为字节，数值逐位写入复用的字节缓冲区，每条记录只在最后复制出一个字节数组交给异步输出器；
+ * 为空的字段不输出，执行中任务、任务标签等列表类信息不写入日志，需要时通过控制台查看。非线程安全，监控线程和输出线程各自持有一个实例
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class MonitorLogEncoder {
+
+    private static final byte[] TS = bytes("ts=");
+    private static final byte[] APP = bytes(" app=");
+    private static final byte[] POOL = bytes(" pool=");
+    private static final byte[] CORE = bytes(" core=");
+    private static final byte[] MAX = bytes(" max=");
+    private static final byte[] CURRENT = bytes(" current=");
+    private static final byte[] LARGEST = bytes(" largest=");
+    private static final byte[] ACTIVE = bytes(" active=");
+    private static final byte[] COMPLETED = bytes(" completed=");
+    private static final byte[] QUEUE = bytes(" queue=");
+    private static final byte[] QUEUE_SIZE = bytes(" queue_size=");
+    private static final byte[] QUEUE_CAPACITY = bytes(" queue_capacity=");
+    private static final byte[] QUEUE_REMAINING = bytes(" queue_remaining=");
+    private static final byte[] QUEUE_TREND = bytes(" queue_trend=");
+    private static final byte[] QUEUE_SECONDS_TO_FULL = bytes(" queue_seconds_to_full=");
+    private static final byte[] QUEUE_SECONDS_TO_DRAIN = bytes(" queue_seconds_to_drain=");
+    private static final byte[] REJECTED_HANDLER = bytes(" rejected_handler=");
+    private static final byte[] REJECT = bytes(" reject=");
+    private static final byte[] SUBMIT_RATE = bytes(" submit_rate=");
+    private static final byte[] COMPLETE_RATE = bytes(" complete_rate=");
+    private static final byte[] REJECT_RATE = bytes(" reject_rate=");
+    private static final byte[] RUNNING = bytes(" running=");
+    private static final byte[] LONGEST_RUNNING_MILLIS = bytes(" longest_running_millis=");
+    private static final byte[] RUNNING_AGE_P99_MILLIS = bytes(" running_age_p99_millis=");
+    private static final byte[] PERMITS = bytes(" permits=");
+    private static final byte[] ADMITTED = bytes(" admitted=");
+    private static final byte[] THROTTLED_MILLIS = bytes(" throttled_millis=");
+    private static final byte[] BATCH_SIZE = bytes(" batch_size=");
+    private static final byte[] BATCH_ITEMS = bytes(" batch_items=");
+    private static final byte[] BATCH_FAILURES = bytes(" batch_failures=");
+    private static final byte[] KEY_LIMIT = bytes(" key_limit=");
+    private static final byte[] KEYS = bytes(" keys=");
+    private static final byte[] PARKED = bytes(" parked=");
+    private static final byte[] MEMORY_SHEDDING = bytes(" memory_shedding=");
+    private static final byte[] MEMORY_SHED = bytes(" memory_shed=");
+    private static final byte[] HEDGES = bytes(" hedges=");
+    private static final byte[] WORKER_CPU = bytes(" worker_cpu=");
+    private static final byte[] WORKER_BLOCKED = bytes(" worker_blocked=");
+    private static final byte[] WORKER_WAITING = bytes(" worker_waiting=");
+    private static final byte[] EVENT = bytes(" event=");
+    private static final byte[] DROPPED = bytes(" dropped=");
+    private static final byte[] TOTAL = bytes(" total=");
+
+    private final byte[] digits = new byte[20];
+    private byte[] buffer = new byte[1024];
+    private int position;
+
+    /**
+     * 编码一条线程池运行时信息
+     *
+     * @param timestamp       采集时间戳（单位：毫秒）
+     * @param applicationName 应用名
+     * @param runtimeInfo     线程池运行时信息
+     * @return 一行日志的 UTF-8 字节，以换行符结尾
+     */
+    public byte[] encode(long timestamp, String applicationName, ThreadPoolRuntimeInfo runtimeInfo) {
+        position = 0;
+        write(TS);
+        writeLong(timestamp);
+        writeString(APP, applicationName);
+        writeString(POOL, runtimeInfo.getThreadPoolId());
+        writeLong(CORE, runtimeInfo.getCorePoolSize());
+        writeLong(MAX, runtimeInfo.getMaximumPoolSize());
+        writeLong(CURRENT, runtimeInfo.getCurrentPoolSize());
+        writeLong(LARGEST, runtimeInfo.getLargestPoolSize());
+        writeLong(ACTIVE, runtimeInfo.getActivePoolSize());
+        writeLong(COMPLETED, runtimeInfo.getCompletedTaskCount());
+        writeString(QUEUE, runtimeInfo.getWorkQueueName());
+        writeLong(QUEUE_SIZE, runtimeInfo.getWorkQueueSize());
+        writeLong(QUEUE_CAPACITY, runtimeInfo.getWorkQueueCapacity());
+        writeLong(QUEUE_REMAINING, runtimeInfo.getWorkQueueRemainingCapacity());
+        writeDouble(QUEUE_TREND, runtimeInfo.getQueueTrendPerSecond());
+        writeLong(QUEUE_SECONDS_TO_FULL, runtimeInfo.getQueueSecondsToFull());
+        writeLong(QUEUE_SECONDS_TO_DRAIN, runtimeInfo.getQueueSecondsToDrain());
+        writeString(REJECTED_HANDLER, runtimeInfo.getRejectedHandlerName());
+        writeLong(REJECT, runtimeInfo.getRejectCount());
+        writeDouble(SUBMIT_RATE, runtimeInfo.getSubmitRate());
+        writeDouble(COMPLETE_RATE, runtimeInfo.getCompleteRate());
+        writeDouble(REJECT_RATE, runtimeInfo.getRejectRate());
+        writeLong(RUNNING, runtimeInfo.getRunningTaskCount());
+        writeLong(LONGEST_RUNNING_MILLIS, runtimeInfo.getLongestRunningTaskMillis());
+        writeLong(RUNNING_AGE_P99_MILLIS, runtimeInfo.getRunningTaskAgeP99Millis());
+        writeDouble(PERMITS, runtimeInfo.getPermitsPerSecond());
+        writeLong(ADMITTED, runtimeInfo.getAdmittedCount());
+        writeLong(THROTTLED_MILLIS, runtimeInfo.getThrottledMillis());
+        writeLong(BATCH_SIZE, runtimeInfo.getBatchSize());
+        writeLong(BATCH_ITEMS, runtimeInfo.getBatchItemCount());
+        writeLong(BATCH_FAILURES, runtimeInfo.getBatchFailureCount());
+        writeLong(KEY_LIMIT, runtimeInfo.getKeyConcurrencyLimit());
+        writeLong(KEYS, runtimeInfo.getTrackedKeyCount());
+        writeLong(PARKED, runtimeInfo.getParkedTaskCount());
+        if (runtimeInfo.getMemoryShedding() != null) {
+            writeString(MEMORY_SHEDDING, runtimeInfo.getMemoryShedding().toString());
+        }
+        writeLong(MEMORY_SHED, runtimeInfo.getMemoryShedCount());
+        writeLong(HEDGES, runtimeInfo.getHedgeCount());
+        writeDouble(WORKER_CPU, runtimeInfo.getWorkerCpuPercent());
+        writeDouble(WORKER_BLOCKED, runtimeInfo.getWorkerBlockedPercent());
+        writeDouble(WORKER_WAITING, runtimeInfo.getWorkerWaitingPercent());
+        writeByte('\n');
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * 编码一条丢弃统计记录，输出队列满时丢弃的记录数在下一次写入时补记
+     *
+     * @param timestamp    时间戳（单位：毫秒）
+     * @param dropped      自上次补记以来丢弃的记录数
+     * @param totalDropped 累计丢弃的记录数
+     * @return 一行日志的 UTF-8 字节，以换行符结尾
+     */
+    public byte[] encodeDropped(long timestamp, long dropped, long totalDropped) {
+        position = 0;
+        write(TS);
+        writeLong(timestamp);
+        writeString(EVENT, "dropped");
+        writeLong(DROPPED, dropped);
+        writeLong(TOTAL, totalDropped);
+        writeByte('\n');
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void writeLong(byte[] key, Number value) {
+        if (value != null) {
+            write(key);
+            writeLong(value.longValue());
+        }
+    }
+
+    private void writeDouble(byte[] key, Double value) {
+        if (value == null || value.isNaN() || value.isInfinite()) {
+            return;
+        }
+        write(key);
+        double doubleValue = value;
+        if (doubleValue == (long) doubleValue) {
+            writeLong((long) doubleValue);
+            return;
+        }
+
+        // 非整数保留 2 位小数，避免 Double.toString 创建字符串
+        if (doubleValue < 0) {
+            writeByte('-');
+            doubleValue = -doubleValue;
+        }
+        long scaled = Math.round(doubleValue * 100);
+        writeLong(scaled / 100);
+        writeByte('.');
+        writeByte('0' + (int) (scaled % 100 / 10));
+        writeByte('0' + (int) (scaled % 10));
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(bytes(Long.toString(value)));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        ensureCapacity(length);
+        while (length > 0) {
+            buffer[position++] = digits[--length];
+        }
+    }
+
+    /**
+     * 写入字符串字段，包含空格、等号、引号或控制字符时加双引号并转义，保证一条记录始终只占一行
+     */
+    private void writeString(byte[] key, String value) {
+        if (value == null) {
+            return;
+        }
+        write(key);
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char ch = value.charAt(i);
+            quote = ch <= ' ' || ch == '=' || ch == '"' || ch == '\\' || ch >= 0x7f;
+        }
+        if (!quote) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+            return;
+        }
+
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                writeByte('\\');
+                writeByte(ch);
+            } else if (ch == '\n') {
+                writeByte('\\');
+                writeByte('n');
+            } else if (ch == '\r') {
+                writeByte('\\');
+                writeByte('r');
+            } else if (ch < 0x80) {
+                writeByte(ch);
+            } else {
+                // 非 ASCII 字符按码点编码为 UTF-8，代理对一起处理
+                int end = Character.isHighSurrogate(ch) && i + 1 < value.length() ? i + 2 : i + 1;
+                write(bytes(value.substring(i, end)));
+                i = end - 1;
+            }
+        }
+        writeByte('"');
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int length) {
+        if (position + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
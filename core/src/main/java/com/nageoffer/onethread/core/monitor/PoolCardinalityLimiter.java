@@ -0,0 +1,187 @@
+package com.nageoffer.onethread.core.monitor;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 线程池指标基数限制器，线程池数量很多（比如每个租户一个线程池）时，只为最繁忙的前 N 个线程池上报明细指标，
+ * 其余线程池的指标汇总为线程池 ID 为 {@link #OTHERS_POOL_ID} 的一组指标
+ * <p>
+ * 每个线程池都维护一份 {@link ThreadPoolMetrics} 用于计算差值和排名，只有明细线程池才注册 Gauge。
+ * 每个采集周期结束后按「活跃线程数 + 队列元素数量 + 周期内完成数 + 周期内拒绝数」重新排名，分数相同时已经是明细的线程池优先，
+ * 避免空闲线程池之间来回切换导致指标反复注册和注销。汇总指标的完成数和拒绝数按成员差值累加，成员变化时依然单调递增。
+ * 只由监控线程调用，不需要额外同步
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class PoolCardinalityLimiter {
+
+    /**
+     * 汇总指标的线程池 ID
+     */
+    public static final String OTHERS_POOL_ID = "others";
+
+    /**
+     * 明细线程池数量上限，小于等于 0 表示不限制
+     */
+    private final int maxDetailedPools;
+
+    /**
+     * 所有线程池的指标载体，key 为线程池唯一标识
+     */
+    private final Map<String, ThreadPoolMetrics> metricsMap = new ConcurrentHashMap<>();
+
+    private final Set<String> detailedPools = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 汇总指标载体
+     */
+    @Getter
+    private final ThreadPoolMetrics othersMetrics = new ThreadPoolMetrics();
+
+    /**
+     * 汇总的线程池数量
+     */
+    @Getter
+    private volatile int othersPoolCount;
+
+    /**
+     * 最近一次汇总的运行时信息，从未出现过非明细线程池时为空
+     */
+    @Getter
+    private volatile ThreadPoolRuntimeInfo othersRuntimeInfo;
+
+    private long othersCompletedTaskCount;
+    private long othersRejectCount;
+
+    public PoolCardinalityLimiter(int maxDetailedPools) {
+        this.maxDetailedPools = maxDetailedPools;
+    }
+
+    /**
+     * 使用本周期采集到的运行时信息更新线程池指标载体
+     *
+     * @param runtimeInfo 线程池运行时信息
+     * @return 线程池指标载体
+     */
+    public ThreadPoolMetrics update(ThreadPoolRuntimeInfo runtimeInfo) {
+        ThreadPoolMetrics metrics = metricsMap.computeIfAbsent(runtimeInfo.getThreadPoolId(), each -> new ThreadPoolMetrics());
+        metrics.update(runtimeInfo);
+        return metrics;
+    }
+
+    /**
+     * 判断线程池是否上报明细指标，尚未参与排名的线程池在明细名额未满时直接成为明细
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 是否上报明细指标
+     */
+    public boolean isDetailed(String threadPoolId) {
+        if (maxDetailedPools <= 0 || detailedPools.contains(threadPoolId)) {
+            return true;
+        }
+        if (detailedPools.size() < maxDetailedPools) {
+            detailedPools.add(threadPoolId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 采集周期结束后重新排名并汇总非明细线程池
+     *
+     * @return 本次退出明细的线程池 ID，调用方需要注销其明细指标
+     */
+    public List<String> rebalance() {
+        if (maxDetailedPools <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Map.Entry<String, ThreadPoolMetrics>> ranked = new ArrayList<>(metricsMap.entrySet());
+        ranked.sort(Comparator.<Map.Entry<String, ThreadPoolMetrics>>comparingLong(each -> score(each.getValue())).reversed()
+                .thenComparing(each -> !detailedPools.contains(each.getKey())));
+
+        Set<String> nextDetailedPools = new HashSet<>();
+        long corePoolSize = 0L, maximumPoolSize = 0L, currentPoolSize = 0L, largestPoolSize = 0L, activePoolSize = 0L;
+        long workQueueSize = 0L, workQueueCapacity = 0L, workQueueRemainingCapacity = 0L;
+        long completedTaskDelta = 0L, rejectDelta = 0L;
+        int poolCount = 0;
+        for (int i = 0; i < ranked.size(); i++) {
+            if (i < maxDetailedPools) {
+                nextDetailedPools.add(ranked.get(i).getKey());
+                continue;
+            }
+            ThreadPoolMetrics metrics = ranked.get(i).getValue();
+            corePoolSize += metrics.getCorePoolSize();
+            maximumPoolSize += metrics.getMaximumPoolSize();
+            currentPoolSize += metrics.getCurrentPoolSize();
+            largestPoolSize += metrics.getLargestPoolSize();
+            activePoolSize += metrics.getActivePoolSize();
+            workQueueSize += metrics.getWorkQueueSize();
+            workQueueCapacity += metrics.getWorkQueueCapacity();
+            workQueueRemainingCapacity += metrics.getWorkQueueRemainingCapacity();
+            completedTaskDelta += metrics.getCompletedTaskDelta();
+            rejectDelta += metrics.getRejectDelta();
+            poolCount++;
+        }
+
+        List<String> evicted = detailedPools.stream()
+                .filter(each -> !nextDetailedPools.contains(each))
+                .collect(Collectors.toList());
+        detailedPools.retainAll(nextDetailedPools);
+        detailedPools.addAll(nextDetailedPools);
+
+        othersPoolCount = poolCount;
+        if (poolCount > 0 || othersRuntimeInfo != null) {
+            othersCompletedTaskCount += completedTaskDelta;
+            othersRejectCount += rejectDelta;
+            ThreadPoolRuntimeInfo runtimeInfo = ThreadPoolRuntimeInfo.builder()
+                    .threadPoolId(OTHERS_POOL_ID)
+                    .corePoolSize(saturatedInt(corePoolSize))
+                    .maximumPoolSize(saturatedInt(maximumPoolSize))
+                    .currentPoolSize(saturatedInt(currentPoolSize))
+                    .largestPoolSize(saturatedInt(largestPoolSize))
+                    .activePoolSize(saturatedInt(activePoolSize))
+                    .workQueueSize(saturatedInt(workQueueSize))
+                    .workQueueCapacity(saturatedInt(workQueueCapacity))
+                    .workQueueRemainingCapacity(saturatedInt(workQueueRemainingCapacity))
+                    .completedTaskCount(othersCompletedTaskCount)
+                    .rejectCount(othersRejectCount)
+                    .build();
+            othersMetrics.update(runtimeInfo);
+            othersRuntimeInfo = runtimeInfo;
+        }
+        return evicted;
+    }
+
+    /**
+     * 移除已从管理器移除的线程池
+     *
+     * @param threadPoolId 线程池唯一标识
+     */
+    public void remove(String threadPoolId) {
+        metricsMap.remove(threadPoolId);
+        detailedPools.remove(threadPoolId);
+    }
+
+    private static long score(ThreadPoolMetrics metrics) {
+        return metrics.getActivePoolSize() + metrics.getWorkQueueSize() + metrics.getCompletedTaskDelta() + metrics.getRejectDelta();
+    }
+
+    /**
+     * 无界队列容量为 Integer.MAX_VALUE，累加后按上限截断
+     */
+    private static int saturatedInt(long value) {
+        return (int) Math.min(Integer.MAX_VALUE, value);
+    }
+}
@@ -0,0 +1,423 @@
+package com.nageoffer.onethread.core.monitor;
+
+import com.nageoffer.onethread.core.config.ApplicationProperties;
+import com.nageoffer.onethread.core.executor.OneThreadBatchExecutor;
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Prometheus 文本格式指标输出，用于未接入 Micrometer 和 Actuator 的应用（collectType 为 prometheus）
+ * <p>
+ * 监控器每个采集周期原地更新各线程池的 {@link ThreadPoolMetrics}，抓取时直接从指标载体渲染到复用的字节缓冲区：
+ * 指标名和标签在线程池首次采集时编码为字节，数值逐位写入，gzip 复用同一个 {@link Deflater}，抓取过程基本不创建对象。
+ * 指标名与 Micrometer Prometheus 注册表转换后的名称一致，已有看板无需调整；分布类指标按 Prometheus 直方图的约定输出累计桶。
+ * 正在执行任务的已执行时长是每个周期整体替换的快照，桶计数会变小，不满足直方图桶单调递增的要求，按桶输出为 Gauge
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class PrometheusExposition {
+
+    /**
+     * Prometheus 文本格式的 Content-Type
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String METRIC_NAME_PREFIX = "dynamic_thread_pool_";
+
+    private static final byte[] RUNNING_TASK_AGE_BUCKET = bytes(METRIC_NAME_PREFIX + "running_task_age_millis_bucket_current");
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    /**
+     * 指标载体缓存，key 为线程池唯一标识
+     */
+    private static final Map<String, Entry> ENTRY_MAP = new ConcurrentHashMap<>();
+
+    private static final Deflater DEFLATER = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private static final CRC32 CRC = new CRC32();
+    private static final byte[] DIGITS = new byte[20];
+    private static final byte[] GZIP_TRAILER = new byte[8];
+
+    private static byte[] buffer = new byte[64 * 1024];
+    private static byte[] compressed = new byte[16 * 1024];
+    private static Entry[] entries = new Entry[64];
+    private static int position;
+
+    /**
+     * 使用本周期采集到的运行时信息更新线程池指标，线程池首次采集时创建指标载体
+     *
+     * @param runtimeInfo             线程池运行时信息
+     * @param executor                线程池执行器
+     * @param runningTaskAgeHistogram 本周期采集到的正在执行任务的已执行时长分布，非动态线程池为空
+     */
+    public static void update(ThreadPoolRuntimeInfo runtimeInfo, ThreadPoolExecutor executor, BucketHistogram runningTaskAgeHistogram) {
+        Entry entry = ENTRY_MAP.computeIfAbsent(runtimeInfo.getThreadPoolId(), Entry::new);
+        entry.metrics.update(runtimeInfo);
+        entry.executor = executor;
+        entry.runningTaskAgeHistogram = executor instanceof OneThreadExecutor ? runningTaskAgeHistogram : null;
+    }
+
+    /**
+     * 移除线程池的指标
+     *
+     * @param threadPoolId 线程池唯一标识
+     */
+    public static void remove(String threadPoolId) {
+        ENTRY_MAP.remove(threadPoolId);
+    }
+
+    /**
+     * 将所有线程池的指标按 Prometheus 文本格式写出
+     *
+     * @param out  输出流，调用方负责关闭
+     * @param gzip 是否使用 gzip 压缩
+     */
+    public static synchronized void scrape(OutputStream out, boolean gzip) throws IOException {
+        int size = 0;
+        for (Entry each : ENTRY_MAP.values()) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = each;
+        }
+
+        position = 0;
+        try {
+            for (Gauge gauge : Gauge.values()) {
+                renderGauge(gauge, size);
+            }
+            renderRunningTaskAge(size);
+            for (Histogram histogram : Histogram.values()) {
+                renderHistogram(histogram, size);
+            }
+        } finally {
+            Arrays.fill(entries, 0, size, null);
+        }
+
+        if (gzip) {
+            writeGzip(out);
+        } else {
+            out.write(buffer, 0, position);
+        }
+    }
+
+    private static void renderGauge(Gauge gauge, int size) {
+        boolean typeWritten = false;
+        for (int i = 0; i < size; i++) {
+            ThreadPoolMetrics metrics = entries[i].metrics;
+            if (!gauge.present.test(metrics)) {
+                continue;
+            }
+            if (!typeWritten) {
+                writeType(gauge.name, Gauge.TYPE);
+                typeWritten = true;
+            }
+            write(gauge.name);
+            write(entries[i].labels);
+            writeByte('}');
+            writeByte(' ');
+            writeDouble(gauge.value.applyAsDouble(metrics));
+            writeByte('\n');
+        }
+    }
+
+    /**
+     * 正在执行任务的已执行时长快照，每个桶输出一个带 le 标签的 Gauge，值为当前落在该桶及以下的任务数
+     */
+    private static void renderRunningTaskAge(int size) {
+        boolean typeWritten = false;
+        for (int i = 0; i < size; i++) {
+            BucketHistogram bucketHistogram = entries[i].runningTaskAgeHistogram;
+            if (bucketHistogram == null) {
+                continue;
+            }
+            if (!typeWritten) {
+                writeType(RUNNING_TASK_AGE_BUCKET, Gauge.TYPE);
+                typeWritten = true;
+            }
+
+            byte[] labels = entries[i].labels;
+            int bucketCount = bucketHistogram.getBucketCount();
+            for (int j = 0; j < bucketCount; j++) {
+                write(RUNNING_TASK_AGE_BUCKET);
+                write(labels);
+                write(Histogram.LE);
+                writeLong(bucketHistogram.getBound(j));
+                writeByte('"');
+                writeByte('}');
+                writeByte(' ');
+                writeLong(bucketHistogram.getCumulativeCount(j));
+                writeByte('\n');
+            }
+            write(RUNNING_TASK_AGE_BUCKET);
+            write(labels);
+            write(Histogram.LE);
+            write(Histogram.INF);
+            writeLong(bucketHistogram.getCumulativeCount(bucketCount));
+            writeByte('\n');
+        }
+    }
+
+    private static void renderHistogram(Histogram histogram, int size) {
+        boolean typeWritten = false;
+        for (int i = 0; i < size; i++) {
+            BucketHistogram bucketHistogram = histogram.histogram.apply(entries[i]);
+            if (bucketHistogram == null) {
+                continue;
+            }
+            if (!typeWritten) {
+                writeType(histogram.name, Histogram.TYPE);
+                typeWritten = true;
+            }
+
+            byte[] labels = entries[i].labels;
+            int bucketCount = bucketHistogram.getBucketCount();
+            for (int j = 0; j < bucketCount; j++) {
+                writeBucket(histogram, labels);
+                writeLong(bucketHistogram.getBound(j));
+                writeByte('"');
+                writeByte('}');
+                writeByte(' ');
+                writeLong(bucketHistogram.getCumulativeCount(j));
+                writeByte('\n');
+            }
+            // 溢出桶计入 +Inf，与 _count 取同一次累计值，保证两者一致
+            long count = bucketHistogram.getCumulativeCount(bucketCount);
+            writeBucket(histogram, labels);
+            write(Histogram.INF);
+            writeLong(count);
+            writeByte('\n');
+
+            write(histogram.sumName);
+            write(labels);
+            writeByte('}');
+            writeByte(' ');
+            writeLong(bucketHistogram.getSum());
+            writeByte('\n');
+
+            write(histogram.countName);
+            write(labels);
+            writeByte('}');
+            writeByte(' ');
+            writeLong(count);
+            writeByte('\n');
+        }
+    }
+
+    private static void writeBucket(Histogram histogram, byte[] labels) {
+        write(histogram.bucketName);
+        write(labels);
+        write(Histogram.LE);
+    }
+
+    private static void writeType(byte[] name, byte[] type) {
+        write(Gauge.TYPE_PREFIX);
+        write(name);
+        write(type);
+    }
+
+    private static void writeGzip(OutputStream out) throws IOException {
+        DEFLATER.reset();
+        DEFLATER.setInput(buffer, 0, position);
+        DEFLATER.finish();
+        out.write(GZIP_HEADER);
+        while (!DEFLATER.finished()) {
+            int length = DEFLATER.deflate(compressed);
+            out.write(compressed, 0, length);
+        }
+
+        CRC.reset();
+        CRC.update(buffer, 0, position);
+        writeIntLittleEndian(GZIP_TRAILER, 0, (int) CRC.getValue());
+        writeIntLittleEndian(GZIP_TRAILER, 4, position);
+        out.write(GZIP_TRAILER);
+    }
+
+    private static void writeIntLittleEndian(byte[] target, int offset, int value) {
+        target[offset] = (byte) value;
+        target[offset + 1] = (byte) (value >>> 8);
+        target[offset + 2] = (byte) (value >>> 16);
+        target[offset + 3] = (byte) (value >>> 24);
+    }
+
+    private static void writeDouble(double value) {
+        if (Double.isNaN(value)) {
+            write(Gauge.NAN);
+            return;
+        }
+        if (value == (long) value) {
+            writeLong((long) value);
+            return;
+        }
+
+        // 非整数保留 3 位小数，避免 Double.toString 创建字符串
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        long scaled = Math.round(value * 1000);
+        writeLong(scaled / 1000);
+        writeByte('.');
+        long fraction = scaled % 1000;
+        writeByte('0' + (int) (fraction / 100));
+        writeByte('0' + (int) (fraction / 10 % 10));
+        writeByte('0' + (int) (fraction % 10));
+    }
+
+    private static void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(Gauge.LONG_MIN_VALUE);
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            DIGITS[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        ensureCapacity(length);
+        while (length > 0) {
+            buffer[position++] = DIGITS[--length];
+        }
+    }
+
+    private static void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private static void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private static void ensureCapacity(int length) {
+        if (position + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String escape(String value) {
+        return Optional.ofNullable(value).orElse("")
+                .replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n");
+    }
+
+    /**
+     * 单个线程池的指标载体和预先编码的标签
+     */
+    private static class Entry {
+
+        /**
+         * 不含结尾花括号的标签，直方图在其后追加 le 标签
+         */
+        private final byte[] labels;
+
+        private final ThreadPoolMetrics metrics = new ThreadPoolMetrics();
+
+        private volatile ThreadPoolExecutor executor;
+
+        /**
+         * 最近一个采集周期正在执行任务的已执行时长分布
+         */
+        private volatile BucketHistogram runningTaskAgeHistogram;
+
+        private Entry(String threadPoolId) {
+            this.labels = bytes("{dynamic_thread_pool_id=\"" + escape(threadPoolId)
+                    + "\",application_name=\"" + escape(ApplicationProperties.getApplicationName()) + "\"");
+        }
+    }
+
+    private enum Gauge {
+
+        CORE_SIZE("core_size", ThreadPoolMetrics::getCorePoolSize),
+        MAXIMUM_SIZE("maximum_size", ThreadPoolMetrics::getMaximumPoolSize),
+        CURRENT_SIZE("current_size", ThreadPoolMetrics::getCurrentPoolSize),
+        LARGEST_SIZE("largest_size", ThreadPoolMetrics::getLargestPoolSize),
+        ACTIVE_SIZE("active_size", ThreadPoolMetrics::getActivePoolSize),
+        QUEUE_SIZE("queue_size", ThreadPoolMetrics::getWorkQueueSize),
+        QUEUE_CAPACITY("queue_capacity", ThreadPoolMetrics::getWorkQueueCapacity),
+        QUEUE_REMAINING_CAPACITY("queue_remaining_capacity", ThreadPoolMetrics::getWorkQueueRemainingCapacity),
+        QUEUE_TREND("queue_trend_per_second", ThreadPoolMetrics::getQueueTrendPerSecond),
+        QUEUE_SECONDS_TO_FULL("queue_seconds_to_full", ThreadPoolMetrics::getQueueSecondsToFull),
+        QUEUE_SECONDS_TO_DRAIN("queue_seconds_to_drain", ThreadPoolMetrics::getQueueSecondsToDrain),
+        COMPLETED_TASK_COUNT("completed_task_count", ThreadPoolMetrics::getCompletedTaskDelta),
+        REJECT_COUNT("reject_count", ThreadPoolMetrics::getRejectDelta),
+        RATE_LIMIT_PERMITS("rate_limit_permits", ThreadPoolMetrics::getPermitsPerSecond, each -> each.getPermitsPerSecond() > 0),
+        RATE_LIMIT_ADMITTED_COUNT("rate_limit_admitted_count", ThreadPoolMetrics::getAdmittedDelta, each -> each.getPermitsPerSecond() > 0),
+        RATE_LIMIT_THROTTLED_MILLIS("rate_limit_throttled_millis", ThreadPoolMetrics::getThrottledMillisDelta, each -> each.getPermitsPerSecond() > 0),
+        WARM_UP_MILLIS("warm_up_millis", ThreadPoolMetrics::getWarmUpMillis, each -> each.getWarmUpMillis() >= 0);
+
+        private static final byte[] TYPE_PREFIX = bytes("# TYPE ");
+        private static final byte[] TYPE = bytes(" gauge\n");
+        private static final byte[] NAN = bytes("NaN");
+        private static final byte[] LONG_MIN_VALUE = bytes(String.valueOf(Long.MIN_VALUE));
+
+        private final byte[] name;
+        private final ToDoubleFunction<ThreadPoolMetrics> value;
+        private final Predicate<ThreadPoolMetrics> present;
+
+        Gauge(String name, ToDoubleFunction<ThreadPoolMetrics> value) {
+            this(name, value, each -> true);
+        }
+
+        Gauge(String name, ToDoubleFunction<ThreadPoolMetrics> value, Predicate<ThreadPoolMetrics> present) {
+            this.name = bytes(METRIC_NAME_PREFIX + name);
+            this.value = value;
+            this.present = present;
+        }
+    }
+
+    private enum Histogram {
+
+        SCOPE_WIDTH("scope_distribution_width", each -> each.executor instanceof OneThreadExecutor
+                ? ((OneThreadExecutor) each.executor).getTaskScopeStats().getWidthHistogram() : null),
+        SCOPE_LATENCY("scope_distribution_latency_millis", each -> each.executor instanceof OneThreadExecutor
+                ? ((OneThreadExecutor) each.executor).getTaskScopeStats().getLatencyHistogram() : null),
+        BATCH_SIZE("batch_distribution_size", each -> each.executor instanceof OneThreadBatchExecutor
+                ? ((OneThreadBatchExecutor<?>) each.executor).getBatchSizeHistogram() : null),
+        BATCH_LINGER("batch_distribution_linger_millis", each -> each.executor instanceof OneThreadBatchExecutor
+                ? ((OneThreadBatchExecutor<?>) each.executor).getLingerHistogram() : null);
+
+        private static final byte[] TYPE = bytes(" histogram\n");
+        private static final byte[] LE = bytes(",le=\"");
+        private static final byte[] INF = bytes("+Inf\"} ");
+
+        private final byte[] name;
+        private final byte[] bucketName;
+        private final byte[] sumName;
+        private final byte[] countName;
+        private final Function<Entry, BucketHistogram> histogram;
+
+        Histogram(String name, Function<Entry, BucketHistogram> histogram) {
+            this.name = bytes(METRIC_NAME_PREFIX + name);
+            this.bucketName = bytes(METRIC_NAME_PREFIX + name + "_bucket");
+            this.sumName = bytes(METRIC_NAME_PREFIX + name + "_sum");
+            this.countName = bytes(METRIC_NAME_PREFIX + name + "_count");
+            this.histogram = histogram;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.nageoffer.onethread.core.monitor;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 队列饱和预测管理器，监控器和报警检查器共用同一个线程池的预测状态
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class QueueForecastRegistry {
+
+    /**
+     * 队列饱和预测器缓存，key 为线程池唯一标识
+     */
+    private static final Map<String, QueueSaturationForecaster> FORECASTER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 采样线程池队列深度并返回最新预测结果
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param queue        线程池阻塞队列
+     * @return 队列饱和预测结果
+     */
+    public static QueueSaturationForecaster.Forecast observe(String threadPoolId, BlockingQueue<?> queue) {
+        int size = queue.size();
+        long capacity = (long) size + queue.remainingCapacity();
+        return FORECASTER_MAP.computeIfAbsent(threadPoolId, each -> new QueueSaturationForecaster())
+                .observe(System.currentTimeMillis(), size, capacity);
+    }
+
+    /**
+     * 移除线程池的预测状态
+     *
+     * @param threadPoolId 线程池唯一标识
+     */
+    public static void remove(String threadPoolId) {
+        FORECASTER_MAP.remove(threadPoolId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.nageoffer.onethread.core.monitor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 队列饱和预测器，对采样得到的队列深度做 Holt 双指数平滑，估算队列增长趋势、距离队列打满和排空的时间
+ * <p>
+ * 队列深度的变化率即到达速率与处理速率之差，平滑后的水平值过滤单次采样的抖动，趋势值（单位：个/秒）反映持续的净增长，
+ * 采样间隔不固定，趋势按实际时间差折算。阈值报警要等到队列使用率已经很高才触发，预测可以在队列快速增长的早期给出提前量。
+ * 间隔小于 {@link #MIN_OBSERVE_INTERVAL_MILLIS} 的重复采样会被忽略，监控器和报警检查器可以各自按自己的周期调用
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class QueueSaturationForecaster {
+
+    /**
+     * 两次有效采样的最小间隔（单位：毫秒）
+     */
+    public static final long MIN_OBSERVE_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * 无法预测（队列没有增长或没有在减少、无界队列、同步队列）时的剩余秒数
+     */
+    public static final long UNKNOWN = -1L;
+
+    /**
+     * 视为无界队列的容量下限
+     */
+    private static final long UNBOUNDED_CAPACITY = Integer.MAX_VALUE / 2;
+
+    private static final Forecast EMPTY = new Forecast(0D, 0D, UNKNOWN, UNKNOWN);
+
+    /**
+     * 水平平滑系数，越大越贴近最新采样
+     */
+    private final double alpha;
+
+    /**
+     * 趋势平滑系数，越大趋势变化越快
+     */
+    private final double beta;
+
+    private double level;
+    private double trend;
+    private long lastObserveMillis = -1L;
+
+    /**
+     * 最近一次预测结果
+     */
+    @Getter
+    private volatile Forecast latest = EMPTY;
+
+    public QueueSaturationForecaster() {
+        this(0.5D, 0.3D);
+    }
+
+    public QueueSaturationForecaster(double alpha, double beta) {
+        if (alpha <= 0 || alpha > 1 || beta <= 0 || beta > 1) {
+            throw new IllegalArgumentException("The smoothing factors must be in (0, 1].");
+        }
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    /**
+     * 记录一次队列深度采样并更新预测
+     *
+     * @param nowMillis 采样时间戳
+     * @param depth     队列当前元素数量
+     * @param capacity  队列容量
+     * @return 最新预测结果，距离上次采样不足最小间隔时返回上次结果
+     */
+    public synchronized Forecast observe(long nowMillis, int depth, long capacity) {
+        if (lastObserveMillis < 0) {
+            level = depth;
+            trend = 0D;
+        } else {
+            long elapsedMillis = nowMillis - lastObserveMillis;
+            if (elapsedMillis < MIN_OBSERVE_INTERVAL_MILLIS) {
+                return latest;
+            }
+            double elapsedSeconds = elapsedMillis / 1000D;
+            double lastLevel = level;
+            level = alpha * depth + (1 - alpha) * (lastLevel + trend * elapsedSeconds);
+            trend = beta * (level - lastLevel) / elapsedSeconds + (1 - beta) * trend;
+        }
+        lastObserveMillis = nowMillis;
+
+        Forecast forecast = new Forecast(level, trend, secondsToFull(depth, capacity), secondsToDrain(depth));
+        latest = forecast;
+        return forecast;
+    }
+
+    private long secondsToFull(int depth, long capacity) {
+        if (trend <= 0 || capacity <= 0 || capacity >= UNBOUNDED_CAPACITY) {
+            return UNKNOWN;
+        }
+        return (long) Math.ceil(Math.max(0D, capacity - depth) / trend);
+    }
+
+    private long secondsToDrain(int depth) {
+        if (trend >= 0 || depth == 0) {
+            return UNKNOWN;
+        }
+        return (long) Math.ceil(depth / -trend);
+    }
+
+    /**
+     * 队列饱和预测结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Forecast {
+
+        /**
+         * 平滑后的队列深度
+         */
+        private final double smoothedDepth;
+
+        /**
+         * 队列深度变化趋势（单位：个/秒），正数表示在增长
+         */
+        private final double trendPerSecond;
+
+        /**
+         * 按当前趋势距离队列打满的秒数，队列没有增长时为 -1
+         */
+        private final long secondsToFull;
+
+        /**
+         * 按当前趋势距离队列排空的秒数，队列没有减少时为 -1
+         */
+        private final long secondsToDrain;
+    }
+}
@@ -0,0 +1,126 @@
+package com.nageoffer.onethread.core.monitor;
+
+import lombok.Getter;
+
+/**
+ * 线程池 Micrometer 指标载体
+ * <p>
+ * 每个线程池首次采集时创建并绑定 Gauge，之后每个采集周期原地更新各字段，Gauge 直接读取 volatile 基本类型字段，
+ * 避免每次采集通过反射复制属性；完成数、拒绝数等累计值在这里同时计算相邻两次采集的差值。
+ * 只由监控线程写入，Gauge 读取时可能看到不同字段来自相邻两个周期，这对监控展示没有影响
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Getter
+public class ThreadPoolMetrics {
+
+    private volatile long corePoolSize;
+
+    private volatile long maximumPoolSize;
+
+    private volatile long currentPoolSize;
+
+    private volatile long largestPoolSize;
+
+    private volatile long activePoolSize;
+
+    private volatile long workQueueSize;
+
+    private volatile long workQueueCapacity;
+
+    private volatile long workQueueRemainingCapacity;
+
+    /**
+     * 队列深度变化趋势（单位：个/秒）
+     */
+    private volatile double queueTrendPerSecond;
+
+    /**
+     * 预计距离队列打满的秒数，队列没有增长时为 -1
+     */
+    private volatile long queueSecondsToFull = -1L;
+
+    /**
+     * 预计距离队列排空的秒数，队列没有减少时为 -1
+     */
+    private volatile long queueSecondsToDrain = -1L;
+
+    /**
+     * 周期内完成的任务数
+     */
+    private volatile long completedTaskDelta;
+
+    /**
+     * 周期内拒绝的任务数
+     */
+    private volatile long rejectDelta;
+
+    /**
+     * 任务分派限速速率，未开启限速时为 0
+     */
+    private volatile double permitsPerSecond;
+
+    /**
+     * 周期内限速放行的任务数
+     */
+    private volatile long admittedDelta;
+
+    /**
+     * 周期内因限速等待的累计时长（单位：毫秒）
+     */
+    private volatile long throttledMillisDelta;
+
+    /**
+     * 预热耗时（单位：毫秒），预热未完成或未开启预热时为 -1
+     */
+    private volatile long warmUpMillis = -1L;
+
+    private long lastCompletedTaskCount = -1L;
+    private long lastRejectCount = -1L;
+    private long lastAdmittedCount = -1L;
+    private long lastThrottledMillis = -1L;
+
+    /**
+     * 使用本周期采集到的运行时信息原地更新
+     *
+     * @param runtimeInfo 线程池运行时信息
+     */
+    public void update(ThreadPoolRuntimeInfo runtimeInfo) {
+        corePoolSize = runtimeInfo.getCorePoolSize();
+        maximumPoolSize = runtimeInfo.getMaximumPoolSize();
+        currentPoolSize = runtimeInfo.getCurrentPoolSize();
+        largestPoolSize = runtimeInfo.getLargestPoolSize();
+        activePoolSize = runtimeInfo.getActivePoolSize();
+        workQueueSize = runtimeInfo.getWorkQueueSize();
+        workQueueCapacity = runtimeInfo.getWorkQueueCapacity();
+        workQueueRemainingCapacity = runtimeInfo.getWorkQueueRemainingCapacity();
+        if (runtimeInfo.getQueueSecondsToFull() != null) {
+            queueTrendPerSecond = runtimeInfo.getQueueTrendPerSecond();
+            queueSecondsToFull = runtimeInfo.getQueueSecondsToFull();
+            queueSecondsToDrain = runtimeInfo.getQueueSecondsToDrain();
+        }
+
+        long completedTaskCount = runtimeInfo.getCompletedTaskCount();
+        completedTaskDelta = lastCompletedTaskCount < 0 ? 0L : completedTaskCount - lastCompletedTaskCount;
+        lastCompletedTaskCount = completedTaskCount;
+
+        long rejectCount = runtimeInfo.getRejectCount();
+        rejectDelta = lastRejectCount < 0 ? 0L : rejectCount - lastRejectCount;
+        lastRejectCount = rejectCount;
+
+        if (runtimeInfo.getPermitsPerSecond() != null) {
+            permitsPerSecond = runtimeInfo.getPermitsPerSecond();
+            long admittedCount = runtimeInfo.getAdmittedCount();
+            long throttledMillis = runtimeInfo.getThrottledMillis();
+            admittedDelta = lastAdmittedCount < 0 ? 0L : admittedCount - lastAdmittedCount;
+            throttledMillisDelta = lastThrottledMillis < 0 ? 0L : throttledMillis - lastThrottledMillis;
+            lastAdmittedCount = admittedCount;
+            lastThrottledMillis = throttledMillis;
+        }
+
+        if (runtimeInfo.getWarmUpMillis() != null) {
+            warmUpMillis = runtimeInfo.getWarmUpMillis();
+        }
+    }
+}
@@ -1,28 +1,49 @@
 package com.nageoffer.onethread.core.monitor;
 
-import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollectionUtil;
-import com.alibaba.fastjson2.JSON;
 import com.nageoffer.onethread.core.config.ApplicationProperties;
 import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import com.nageoffer.onethread.core.executor.OneThreadBatchExecutor;
 import com.nageoffer.onethread.core.executor.OneThreadExecutor;
 import com.nageoffer.onethread.core.executor.OneThreadRegistry;
 import com.nageoffer.onethread.core.executor.ThreadPoolExecutorHolder;
+import com.nageoffer.onethread.core.executor.support.KeyedBulkhead;
+import com.nageoffer.onethread.core.executor.support.TenantFairBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.RateLimitedBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.RunningTaskInfo;
+import com.nageoffer.onethread.core.executor.support.SlidingWindowCounter;
+import com.nageoffer.onethread.core.executor.support.TaskAccounting;
+import com.nageoffer.onethread.core.executor.support.TaskHedger;
+import com.nageoffer.onethread.core.executor.support.TaskRates;
+import com.nageoffer.onethread.core.executor.support.TaskScopeStats;
+import com.nageoffer.onethread.core.executor.support.TokenBucketRateLimiter;
+import com.nageoffer.onethread.core.executor.support.WorkerTimeSampler;
 import com.nageoffer.onethread.core.toolkit.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.MultiGauge;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
 
 /**
  * 线程池运行时监控器
@@ -34,13 +55,49 @@ import java.util.concurrent.TimeUnit;
 public class ThreadPoolMonitor {
 
     private ScheduledExecutorService scheduler;
-    private Map<String, ThreadPoolRuntimeInfo> micrometerMonitorCache;
-    private Map<String, DeltaWrapper> rejectCountDeltaMap;
-    private Map<String, DeltaWrapper> completedTaskDeltaMap;
+    private Map<String, ThreadPoolMetrics> micrometerMonitorCache;
+    private Map<String, MultiGauge> keyInFlightGaugeMap;
+    private Map<String, MultiGauge> keyParkedGaugeMap;
+    private Map<String, AtomicReference<BucketHistogram>> runningTaskAgeHistogramMap;
+    /**
+     * 按任务标签、租户等维度逐行上报的 MultiGauge，key 为线程池 ID + 指标名
+     */
+    private Map<String, MultiGauge> rowGaugeMap;
+    private Set<String> warmUpRegisteredSet;
+    /**
+     * 已采集过的线程池 ID，用于发现已从管理器移除的线程池
+     */
+    private Set<String> monitoredPoolIds;
+    /**
+     * 各线程池上次采集的状态，用于跳过没有变化的空闲线程池
+     */
+    private Map<String, CollectState> collectStateMap;
+    private PoolCardinalityLimiter cardinalityLimiter;
+    private boolean othersRegistered;
+    private BootstrapConfigProperties.MonitorConfig monitorConfig;
+    private long historyMinutes;
+    private int historyCapacity;
+    private int nextSlice;
+    private MonitorLogEncoder logEncoder;
+    private AsyncMonitorLogAppender logAppender;
 
     private static final String METRIC_NAME_PREFIX = "dynamic.thread-pool";
     private static final String DYNAMIC_THREAD_POOL_ID_TAG = METRIC_NAME_PREFIX + ".id";
     private static final String APPLICATION_NAME_TAG = "application.name";
+    private static final String KEY_TAG = "key";
+    private static final String TASK_TAG = "task";
+    private static final String TENANT_TAG = "tenant";
+    private static final String WINDOW_TAG = "window";
+    private static final int TOP_KEY_LIMIT = 10;
+    private static final int TOP_TASK_LIMIT = 10;
+    /**
+     * 采集间隔切分的时间片数量，分片采集时每个时间片采集一个分片
+     */
+    private static final int COLLECT_SLICES = 10;
+    /**
+     * 空闲线程池连续跳过的最大采集周期数，超过后强制采集一次，刷新需要加锁读取的线程数等指标
+     */
+    private static final int MAX_SKIPPED_CYCLES = 5;
 
     /**
      * 启动定时检查任务
@@ -51,10 +108,10 @@ public class ThreadPoolMonitor {
             return;
         }
 
-        // 初始化监控相关资源
-        micrometerMonitorCache = new ConcurrentHashMap<>();
-        rejectCountDeltaMap = new ConcurrentHashMap<>();
-        completedTaskDeltaMap = new ConcurrentHashMap<>();
+        initialize(monitorConfig);
+        if (Boolean.TRUE.equals(monitorConfig.getThreadContentionMonitoring())) {
+            WorkerTimeSampler.enableContentionMonitoring();
+        }
         scheduler = Executors.newScheduledThreadPool(
                 1,
                 ThreadFactoryBuilder.builder()
@@ -62,20 +119,124 @@ public class ThreadPoolMonitor {
                         .build()
         );
 
-        // 每指定时间检查一次，初始延迟0秒
-        scheduler.scheduleWithFixedDelay(() -> {
-            Collection<ThreadPoolExecutorHolder> holders = OneThreadRegistry.getAllHolders();
-            for (ThreadPoolExecutorHolder holder : holders) {
-                ThreadPoolRuntimeInfo runtimeInfo = buildThreadPoolRuntimeInfo(holder);
-
-                // 根据采集类型判断
-                if (Objects.equals(monitorConfig.getCollectType(), "log")) {
-                    logMonitor(runtimeInfo);
-                } else if (Objects.equals(monitorConfig.getCollectType(), "micrometer")) {
-                    micrometerMonitor(runtimeInfo);
-                }
+        // 采集间隔切分为若干时间片，线程池数量较少时只在第一个时间片采集全部线程池，初始延迟0秒
+        long sliceMillis = Math.max(1L, TimeUnit.SECONDS.toMillis(monitorConfig.getCollectInterval()) / COLLECT_SLICES);
+        scheduler.scheduleWithFixedDelay(this::collectSlice, 0, sliceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 初始化监控相关资源
+     */
+    void initialize(BootstrapConfigProperties.MonitorConfig monitorConfig) {
+        this.monitorConfig = monitorConfig;
+        micrometerMonitorCache = new ConcurrentHashMap<>();
+        keyInFlightGaugeMap = new ConcurrentHashMap<>();
+        keyParkedGaugeMap = new ConcurrentHashMap<>();
+        runningTaskAgeHistogramMap = new ConcurrentHashMap<>();
+        rowGaugeMap = new ConcurrentHashMap<>();
+        warmUpRegisteredSet = ConcurrentHashMap.newKeySet();
+        monitoredPoolIds = ConcurrentHashMap.newKeySet();
+        collectStateMap = new ConcurrentHashMap<>();
+        cardinalityLimiter = new PoolCardinalityLimiter(Optional.ofNullable(monitorConfig.getMaxDetailedPools()).orElse(0));
+
+        // 指标历史按采集间隔采样，容量在启动时固定
+        historyMinutes = Optional.ofNullable(monitorConfig.getHistoryMinutes()).orElse(0L);
+        historyCapacity = (int) Math.max(1L, TimeUnit.MINUTES.toSeconds(historyMinutes) / Math.max(1L, monitorConfig.getCollectInterval()));
+
+        if (Objects.equals(monitorConfig.getCollectType(), "log")) {
+            logEncoder = new MonitorLogEncoder();
+            logAppender = AsyncMonitorLogAppender.create(monitorConfig.getLog());
+        }
+    }
+
+    /**
+     * 采集一个时间片：线程池数量超过分片阈值时只采集线程池 ID 哈希落在当前时间片的分片，否则只在第一个时间片采集全部线程池。
+     * 每个线程池在每个采集间隔内只在固定的时间片采集一次，相邻两次采集的间隔保持为采集间隔
+     */
+    void collectSlice() {
+        int slice = nextSlice;
+        nextSlice = (slice + 1) % COLLECT_SLICES;
+        if (slice == 0) {
+            finishCycle();
+        }
+
+        Collection<ThreadPoolExecutorHolder> holders = OneThreadRegistry.getAllHolders();
+        boolean sharded = holders.size() > Optional.ofNullable(monitorConfig.getCollectShardThreshold()).orElse(Integer.MAX_VALUE);
+        if (!sharded && slice != 0) {
+            return;
+        }
+        for (ThreadPoolExecutorHolder holder : holders) {
+            if (!sharded || Math.floorMod(holder.getThreadPoolId().hashCode(), COLLECT_SLICES) == slice) {
+                collect(holder);
             }
-        }, 0, monitorConfig.getCollectInterval(), TimeUnit.SECONDS);
+        }
+    }
+
+    private void collect(ThreadPoolExecutorHolder holder) {
+        String threadPoolId = holder.getThreadPoolId();
+        monitoredPoolIds.add(threadPoolId);
+
+        // 空闲且计数没有变化的线程池沿用上次结果，省去加锁读取线程池状态和扫描执行中任务
+        CollectState collectState = collectStateMap.computeIfAbsent(threadPoolId, each -> new CollectState());
+        boolean unchanged = Boolean.TRUE.equals(monitorConfig.getSkipUnchanged()) && collectState.unchanged(holder.getExecutor());
+        if (!unchanged) {
+            BucketHistogram runningTaskAgeHistogram = BucketHistogram.millis();
+            collectState.lastRuntimeInfo = buildThreadPoolRuntimeInfo(holder, runningTaskAgeHistogram);
+            collectState.runningTaskAgeHistogram = runningTaskAgeHistogram;
+        }
+        ThreadPoolRuntimeInfo runtimeInfo = collectState.lastRuntimeInfo;
+
+        ThreadPoolMetrics metrics = cardinalityLimiter.update(runtimeInfo);
+        boolean detailed = cardinalityLimiter.isDetailed(threadPoolId);
+        if (historyMinutes > 0 && detailed) {
+            MetricHistoryRegistry.record(runtimeInfo, historyCapacity);
+        }
+
+        // 根据采集类型判断
+        if (Objects.equals(monitorConfig.getCollectType(), "log")) {
+            if (!unchanged) {
+                logMonitor(runtimeInfo);
+            }
+        } else if (Objects.equals(monitorConfig.getCollectType(), "micrometer")) {
+            if (detailed) {
+                micrometerMonitor(runtimeInfo, metrics, holder.getExecutor(), collectState.runningTaskAgeHistogram);
+            }
+        } else if (Objects.equals(monitorConfig.getCollectType(), "prometheus")) {
+            if (detailed) {
+                PrometheusExposition.update(runtimeInfo, holder.getExecutor(), collectState.runningTaskAgeHistogram);
+            }
+        }
+    }
+
+    /**
+     * 一个采集周期结束：清理已移除的线程池，重新排名明细线程池并上报汇总指标
+     */
+    private void finishCycle() {
+        removeStalePools();
+        for (String threadPoolId : cardinalityLimiter.rebalance()) {
+            MetricHistoryRegistry.remove(threadPoolId);
+            PrometheusExposition.remove(threadPoolId);
+            unregisterMicrometer(threadPoolId);
+        }
+
+        ThreadPoolRuntimeInfo othersRuntimeInfo = cardinalityLimiter.getOthersRuntimeInfo();
+        if (othersRuntimeInfo == null) {
+            return;
+        }
+        if (historyMinutes > 0) {
+            MetricHistoryRegistry.record(othersRuntimeInfo, historyCapacity);
+        }
+        if (Objects.equals(monitorConfig.getCollectType(), "micrometer") && !othersRegistered) {
+            othersRegistered = true;
+            Iterable<Tag> tags = CollectionUtil.newArrayList(
+                    Tag.of(DYNAMIC_THREAD_POOL_ID_TAG, PoolCardinalityLimiter.OTHERS_POOL_ID),
+                    Tag.of(APPLICATION_NAME_TAG, ApplicationProperties.getApplicationName())
+            );
+            registerBasicGauges(tags, cardinalityLimiter.getOthersMetrics());
+            Metrics.gauge(metricName("others.pool.count"), tags, cardinalityLimiter, PoolCardinalityLimiter::getOthersPoolCount);
+        } else if (Objects.equals(monitorConfig.getCollectType(), "prometheus")) {
+            PrometheusExposition.update(othersRuntimeInfo, null, null);
+        }
     }
 
     /**
@@ -85,63 +246,300 @@ public class ThreadPoolMonitor {
         if (scheduler != null && !scheduler.isShutdown()) {
             scheduler.shutdown();
         }
+        if (logAppender != null) {
+            logAppender.close();
+        }
     }
 
+    /**
+     * 线程池从管理器移除后，注销其全部指标并释放采集状态，避免 Gauge 继续持有已关闭的线程池
+     */
+    private void removeStalePools() {
+        monitoredPoolIds.removeIf(threadPoolId -> {
+            if (OneThreadRegistry.getHolder(threadPoolId) != null) {
+                return false;
+            }
+            MetricHistoryRegistry.remove(threadPoolId);
+            QueueForecastRegistry.remove(threadPoolId);
+            PrometheusExposition.remove(threadPoolId);
+            unregisterMicrometer(threadPoolId);
+            cardinalityLimiter.remove(threadPoolId);
+            collectStateMap.remove(threadPoolId);
+            log.info("[ThreadPool Monitor] {} | Thread pool removed, metrics unregistered.", threadPoolId);
+            return true;
+        });
+    }
+
+    private void unregisterMicrometer(String threadPoolId) {
+        if (micrometerMonitorCache.remove(threadPoolId) != null) {
+            unregisterMeters(threadPoolId);
+        }
+        runningTaskAgeHistogramMap.remove(threadPoolId);
+        warmUpRegisteredSet.remove(threadPoolId);
+        rowGaugeMap.keySet().removeIf(each -> each.startsWith(threadPoolId + "|"));
+        keyInFlightGaugeMap.remove(threadPoolId);
+        keyParkedGaugeMap.remove(threadPoolId);
+    }
+
+    private void unregisterMeters(String threadPoolId) {
+        List<Meter> meters = Metrics.globalRegistry.getMeters().stream()
+                .filter(each -> each.getId().getName().startsWith(METRIC_NAME_PREFIX))
+                .filter(each -> Objects.equals(each.getId().getTag(DYNAMIC_THREAD_POOL_ID_TAG), threadPoolId))
+                .collect(Collectors.toList());
+        meters.forEach(Metrics.globalRegistry::remove);
+    }
+
+    /**
+     * 编码为一行 key=value 记录交给异步输出器，监控线程不等待磁盘或日志框架
+     */
     private void logMonitor(ThreadPoolRuntimeInfo runtimeInfo) {
-        log.info("[ThreadPool Monitor] {} | Content: {}", runtimeInfo.getThreadPoolId(), JSON.toJSON(runtimeInfo));
+        logAppender.append(logEncoder.encode(System.currentTimeMillis(), ApplicationProperties.getApplicationName(), runtimeInfo));
     }
 
     /**
-     * 采集 Micrometer 指标
+     * 采集 Micrometer 指标，线程池和执行中任务时长分布沿用本次采集的结果，采集期间线程池被移除也不会重新查找
      */
-    private void micrometerMonitor(ThreadPoolRuntimeInfo runtimeInfo) {
+    private void micrometerMonitor(ThreadPoolRuntimeInfo runtimeInfo, ThreadPoolMetrics metrics, ThreadPoolExecutor executor, BucketHistogram runningTaskAgeHistogram) {
         String threadPoolId = runtimeInfo.getThreadPoolId();
-        ThreadPoolRuntimeInfo existingRuntimeInfo = micrometerMonitorCache.get(threadPoolId);
 
-        // 只在首次注册时绑定 Gauge
-        if (existingRuntimeInfo == null) {
+        // 只在首次注册时绑定 Gauge，指标载体由基数限制器在每个采集周期原地更新
+        if (micrometerMonitorCache.putIfAbsent(threadPoolId, metrics) == null) {
             Iterable<Tag> tags = CollectionUtil.newArrayList(
                     Tag.of(DYNAMIC_THREAD_POOL_ID_TAG, threadPoolId),
                     Tag.of(APPLICATION_NAME_TAG, ApplicationProperties.getApplicationName())
             );
+            registerBasicGauges(tags, metrics);
+
+            // 开启任务分派限速的线程池，额外注册限速指标
+            if (runtimeInfo.getPermitsPerSecond() != null) {
+                Metrics.gauge(metricName("rate-limit.permits"), tags, metrics, ThreadPoolMetrics::getPermitsPerSecond);
+                Metrics.gauge(metricName("rate-limit.admitted.count"), tags, metrics, ThreadPoolMetrics::getAdmittedDelta);
+                Metrics.gauge(metricName("rate-limit.throttled.millis"), tags, metrics, ThreadPoolMetrics::getThrottledMillisDelta);
+            }
+
+            // 动态线程池注册正在执行任务的已执行时长分布，分布在每次采集时整体替换，桶计数会变小，只按桶注册 Gauge
+            if (executor instanceof OneThreadExecutor) {
+                AtomicReference<BucketHistogram> runningTaskAgeHistogramRef = new AtomicReference<>(BucketHistogram.millis());
+                runningTaskAgeHistogramMap.put(threadPoolId, runningTaskAgeHistogramRef);
+                registerBucketGauges(metricName("running.task.age.millis.bucket.current"), tags, runningTaskAgeHistogramRef, AtomicReference::get);
+
+                // 扇出作用域的宽度和完成耗时分布，未使用作用域的线程池各项为 0
+                TaskScopeStats taskScopeStats = ((OneThreadExecutor) executor).getTaskScopeStats();
+                registerCounter("scope.count", tags, taskScopeStats, each -> each.getScopeCount().sum());
+                registerCounter("scope.failure.count", tags, taskScopeStats, each -> each.getFailureCount().sum());
+                registerCounter("scope.timeout.count", tags, taskScopeStats, each -> each.getTimeoutCount().sum());
+                registerHistogramGauges(metricName("scope.distribution.width"), tags, taskScopeStats.getWidthHistogram());
+                registerHistogramGauges(metricName("scope.distribution.latency.millis"), tags, taskScopeStats.getLatencyHistogram());
+
+                // 对冲执行的对冲率、胜率和当前对冲延迟
+                TaskHedger taskHedger = ((OneThreadExecutor) executor).getTaskHedger();
+                registerCounter("hedge.request.count", tags, taskHedger, each -> each.getRequestCount().sum());
+                registerCounter("hedge.count", tags, taskHedger, each -> each.getHedgeCount().sum());
+                registerCounter("hedge.win.count", tags, taskHedger, each -> each.getHedgeWinCount().sum());
+                registerCounter("hedge.budget.exhausted.count", tags, taskHedger, each -> each.getBudgetExhaustedCount().sum());
+                Metrics.gauge(metricName("hedge.rate"), tags, taskHedger, TaskHedger::getHedgeRate);
+                Metrics.gauge(metricName("hedge.win.rate"), tags, taskHedger, TaskHedger::getHedgeWinRate);
+                Metrics.gauge(metricName("hedge.delay.millis"), tags, taskHedger, TaskHedger::getHedgeDelayMillis);
+
+                // 任务提交、完成和拒绝的单调累计数，以及最近 1、5、15 分钟的每秒速率
+                TaskRates taskRates = ((OneThreadExecutor) executor).getTaskRates();
+                registerRate("task.submitted", tags, taskRates.getSubmitted());
+                registerRate("task.completed", tags, taskRates.getCompleted());
+                registerRate("task.rejected", tags, taskRates.getRejected());
+
+                // 内存压力降级：提交拒绝状态、拒绝任务数和降级决策次数
+                OneThreadExecutor oneThreadExecutor = (OneThreadExecutor) executor;
+                Metrics.gauge(metricName("memory.shedding"), tags, oneThreadExecutor, each -> each.isMemoryShedding() ? 1 : 0);
+                registerCounter("memory.shed.count", tags, oneThreadExecutor, each -> each.getMemoryShedCount().get());
+                registerCounter("memory.shed.decision.count", tags, oneThreadExecutor, each -> each.getMemoryShedDecisionCount().get());
+
+                // 工作线程时间分布，读取监控线程每个采集周期的采样结果；共享工作线程的逻辑线程池不支持采样，不注册
+                WorkerTimeSampler workerTimeSampler = oneThreadExecutor.getWorkerTimeSampler();
+                if (workerTimeSampler != null) {
+                    Metrics.gauge(metricName("worker.cpu.percent"), tags, workerTimeSampler, each -> each.getLatest().getCpuPercent());
+                    Metrics.gauge(metricName("worker.blocked.percent"), tags, workerTimeSampler, each -> each.getLatest().getBlockedPercent());
+                    Metrics.gauge(metricName("worker.waiting.percent"), tags, workerTimeSampler, each -> each.getLatest().getWaitingPercent());
+                    Metrics.gauge(metricName("worker.blocked.count"), tags, workerTimeSampler, each -> each.getLatest().getBlockedCount());
+                    Metrics.gauge(metricName("worker.waited.count"), tags, workerTimeSampler, each -> each.getLatest().getWaitedCount());
+                }
+            }
+
+            // 微批处理线程池，额外注册批大小和凑批等待时长分布指标
+            if (executor instanceof OneThreadBatchExecutor) {
+                OneThreadBatchExecutor<?> batchExecutor = (OneThreadBatchExecutor<?>) executor;
+                Metrics.gauge(metricName("batch.size"), tags, batchExecutor, OneThreadBatchExecutor::getBatchSize);
+                Metrics.gauge(metricName("batch.linger.millis"), tags, batchExecutor, OneThreadBatchExecutor::getLingerMillis);
+                registerCounter("batch.item.count", tags, batchExecutor, each -> each.getItemCount().get());
+                registerCounter("batch.failure.count", tags, batchExecutor, each -> each.getBatchFailureCount().get());
+                registerHistogramGauges(metricName("batch.distribution.size"), tags, batchExecutor.getBatchSizeHistogram());
+                registerHistogramGauges(metricName("batch.distribution.linger.millis"), tags, batchExecutor.getLingerHistogram());
+            }
+        }
 
-            ThreadPoolRuntimeInfo registerRuntimeInfo = BeanUtil.toBean(runtimeInfo, ThreadPoolRuntimeInfo.class);
-            micrometerMonitorCache.put(threadPoolId, registerRuntimeInfo);
+        AtomicReference<BucketHistogram> runningTaskAgeHistogramRef = runningTaskAgeHistogramMap.get(threadPoolId);
+        if (runningTaskAgeHistogramRef != null && runningTaskAgeHistogram != null) {
+            runningTaskAgeHistogramRef.set(runningTaskAgeHistogram);
+        }
 
-            // 注册总量指标
-            Metrics.gauge(metricName("core.size"), tags, registerRuntimeInfo, ThreadPoolRuntimeInfo::getCorePoolSize);
-            Metrics.gauge(metricName("maximum.size"), tags, registerRuntimeInfo, ThreadPoolRuntimeInfo::getMaximumPoolSize);
-            Metrics.gauge(metricName("current.size"), tags, registerRuntimeInfo, ThreadPoolRuntimeInfo::getCurrentPoolSize);
-            Metrics.gauge(metricName("largest.size"), tags, registerRuntimeInfo, ThreadPoolRuntimeInfo::getLargestPoolSize);
-            Metrics.gauge(metricName("active.size"), tags, registerRuntimeInfo, ThreadPoolRuntimeInfo::getActivePoolSize);
-            Metrics.gauge(metricName("queue.size"), tags, registerRuntimeInfo, ThreadPoolRuntimeInfo::getWorkQueueSize);
-            Metrics.gauge(metricName("queue.capacity"), tags, registerRuntimeInfo, ThreadPoolRuntimeInfo::getWorkQueueCapacity);
-            Metrics.gauge(metricName("queue.remaining.capacity"), tags, registerRuntimeInfo, ThreadPoolRuntimeInfo::getWorkQueueRemainingCapacity);
+        // 预热在启动后异步完成，完成后再注册预热耗时指标
+        if (runtimeInfo.getWarmUpMillis() != null && warmUpRegisteredSet.add(threadPoolId)) {
+            Metrics.gauge(metricName("warm-up.millis"), CollectionUtil.newArrayList(
+                    Tag.of(DYNAMIC_THREAD_POOL_ID_TAG, threadPoolId),
+                    Tag.of(APPLICATION_NAME_TAG, ApplicationProperties.getApplicationName())
+            ), metrics, ThreadPoolMetrics::getWarmUpMillis);
+        }
 
-            // 注册 delta 指标
-            DeltaWrapper completedDelta = new DeltaWrapper();
-            completedTaskDeltaMap.put(threadPoolId, completedDelta);
-            Metrics.gauge(metricName("completed.task.count"), tags, completedDelta, DeltaWrapper::getDelta);
+        // 按 Key 隔离可能在运行期通过配置中心开启，所以每次采集时按需注册
+        if (runtimeInfo.getTopKeys() != null) {
+            micrometerKeyMonitor(runtimeInfo);
+        }
 
-            DeltaWrapper rejectDelta = new DeltaWrapper();
-            rejectCountDeltaMap.put(threadPoolId, rejectDelta);
-            Metrics.gauge(metricName("reject.count"), tags, rejectDelta, DeltaWrapper::getDelta);
-        } else {
-            // 更新属性（避免重新注册 Gauge）
-            BeanUtil.copyProperties(runtimeInfo, existingRuntimeInfo);
+        // 任务资源统计同样可以在运行期开启
+        if (runtimeInfo.getTaskStats() != null) {
+            micrometerTaskStatsMonitor(runtimeInfo);
         }
 
-        // 每次都更新 delta 值
-        completedTaskDeltaMap.get(threadPoolId).update(runtimeInfo.getCompletedTaskCount());
-        rejectCountDeltaMap.get(threadPoolId).update(runtimeInfo.getRejectCount());
+        // 租户在运行期陆续出现，每次采集整体覆盖
+        if (runtimeInfo.getTenantStats() != null) {
+            micrometerTenantMonitor(runtimeInfo);
+        }
+    }
+
+    /**
+     * 注册总量、队列饱和预测和 delta 指标，汇总指标 others 同样使用
+     */
+    private void registerBasicGauges(Iterable<Tag> tags, ThreadPoolMetrics metrics) {
+        // 注册总量指标
+        Metrics.gauge(metricName("core.size"), tags, metrics, ThreadPoolMetrics::getCorePoolSize);
+        Metrics.gauge(metricName("maximum.size"), tags, metrics, ThreadPoolMetrics::getMaximumPoolSize);
+        Metrics.gauge(metricName("current.size"), tags, metrics, ThreadPoolMetrics::getCurrentPoolSize);
+        Metrics.gauge(metricName("largest.size"), tags, metrics, ThreadPoolMetrics::getLargestPoolSize);
+        Metrics.gauge(metricName("active.size"), tags, metrics, ThreadPoolMetrics::getActivePoolSize);
+        Metrics.gauge(metricName("queue.size"), tags, metrics, ThreadPoolMetrics::getWorkQueueSize);
+        Metrics.gauge(metricName("queue.capacity"), tags, metrics, ThreadPoolMetrics::getWorkQueueCapacity);
+        Metrics.gauge(metricName("queue.remaining.capacity"), tags, metrics, ThreadPoolMetrics::getWorkQueueRemainingCapacity);
+
+        // 队列饱和预测：深度增长趋势、预计打满和排空时间
+        Metrics.gauge(metricName("queue.trend.per.second"), tags, metrics, ThreadPoolMetrics::getQueueTrendPerSecond);
+        Metrics.gauge(metricName("queue.seconds.to.full"), tags, metrics, ThreadPoolMetrics::getQueueSecondsToFull);
+        Metrics.gauge(metricName("queue.seconds.to.drain"), tags, metrics, ThreadPoolMetrics::getQueueSecondsToDrain);
+
+        // 注册 delta 指标
+        Metrics.gauge(metricName("completed.task.count"), tags, metrics, ThreadPoolMetrics::getCompletedTaskDelta);
+        Metrics.gauge(metricName("reject.count"), tags, metrics, ThreadPoolMetrics::getRejectDelta);
+    }
+
+    /**
+     * 采集 CPU 时间最多的前 N 个任务标签的累计执行次数、CPU 时间和内存分配，标签数量固定上限，避免指标基数失控
+     */
+    private void micrometerTaskStatsMonitor(ThreadPoolRuntimeInfo runtimeInfo) {
+        String threadPoolId = runtimeInfo.getThreadPoolId();
+        List<TaskAccounting.TaskStatsSnapshot> taskStats = runtimeInfo.getTaskStats();
+        registerRows("task.count", threadPoolId, TASK_TAG, taskStats, TaskAccounting.TaskStatsSnapshot::getLabel, TaskAccounting.TaskStatsSnapshot::getCount);
+        registerRows("task.cpu.nanos", threadPoolId, TASK_TAG, taskStats, TaskAccounting.TaskStatsSnapshot::getLabel, TaskAccounting.TaskStatsSnapshot::getCpuNanos);
+        registerRows("task.allocated.bytes", threadPoolId, TASK_TAG, taskStats, TaskAccounting.TaskStatsSnapshot::getLabel, TaskAccounting.TaskStatsSnapshot::getAllocatedBytes);
+    }
+
+    /**
+     * 采集多租户公平队列各租户的排队数、累计出队数、溢出次数和排队等待时长 P99，租户数有固定上限
+     */
+    private void micrometerTenantMonitor(ThreadPoolRuntimeInfo runtimeInfo) {
+        String threadPoolId = runtimeInfo.getThreadPoolId();
+        List<TenantFairBlockingQueue.TenantSnapshot> tenantStats = runtimeInfo.getTenantStats();
+        registerRows("tenant.queue.depth", threadPoolId, TENANT_TAG, tenantStats, TenantFairBlockingQueue.TenantSnapshot::getTenant, TenantFairBlockingQueue.TenantSnapshot::getDepth);
+        registerRows("tenant.dequeued.count", threadPoolId, TENANT_TAG, tenantStats, TenantFairBlockingQueue.TenantSnapshot::getTenant, TenantFairBlockingQueue.TenantSnapshot::getDequeuedCount);
+        registerRows("tenant.overflow.count", threadPoolId, TENANT_TAG, tenantStats, TenantFairBlockingQueue.TenantSnapshot::getTenant, TenantFairBlockingQueue.TenantSnapshot::getOverflowCount);
+        registerRows("tenant.wait.p99.millis", threadPoolId, TENANT_TAG, tenantStats, TenantFairBlockingQueue.TenantSnapshot::getTenant, TenantFairBlockingQueue.TenantSnapshot::getWaitP99Millis);
+    }
+
+    private <T> void registerRows(String name,
+                                  String threadPoolId,
+                                  String tagKey,
+                                  List<T> rows,
+                                  Function<T, String> tagFunction,
+                                  Function<T, Number> valueFunction) {
+        MultiGauge gauge = rowGaugeMap.computeIfAbsent(threadPoolId + "|" + name, each -> MultiGauge.builder(metricName(name))
+                .tags(DYNAMIC_THREAD_POOL_ID_TAG, threadPoolId, APPLICATION_NAME_TAG, ApplicationProperties.getApplicationName())
+                .register(Metrics.globalRegistry));
+        gauge.register(rows.stream()
+                .map(each -> MultiGauge.Row.of(Tags.of(tagKey, tagFunction.apply(each)), valueFunction.apply(each)))
+                .collect(Collectors.toList()), true);
+    }
+
+    /**
+     * 采集前 N 个 Key 的执行中和等待中任务数，Key 作为标签值；每次采集整体覆盖，已不在前 N 的 Key 会被移除
+     */
+    private void micrometerKeyMonitor(ThreadPoolRuntimeInfo runtimeInfo) {
+        String threadPoolId = runtimeInfo.getThreadPoolId();
+        MultiGauge inFlightGauge = keyInFlightGaugeMap.computeIfAbsent(threadPoolId, each -> MultiGauge.builder(metricName("key.inflight.count"))
+                .tags(DYNAMIC_THREAD_POOL_ID_TAG, threadPoolId, APPLICATION_NAME_TAG, ApplicationProperties.getApplicationName())
+                .register(Metrics.globalRegistry));
+        MultiGauge parkedGauge = keyParkedGaugeMap.computeIfAbsent(threadPoolId, each -> MultiGauge.builder(metricName("key.parked.count"))
+                .tags(DYNAMIC_THREAD_POOL_ID_TAG, threadPoolId, APPLICATION_NAME_TAG, ApplicationProperties.getApplicationName())
+                .register(Metrics.globalRegistry));
+
+        List<KeyedBulkhead.KeySnapshot> topKeys = runtimeInfo.getTopKeys();
+        inFlightGauge.register(topKeys.stream()
+                .map(each -> MultiGauge.Row.of(Tags.of(KEY_TAG, each.getKey()), each.getInFlight()))
+                .collect(Collectors.toList()), true);
+        parkedGauge.register(topKeys.stream()
+                .map(each -> MultiGauge.Row.of(Tags.of(KEY_TAG, each.getKey()), each.getParked()))
+                .collect(Collectors.toList()), true);
+    }
+
+    /**
+     * 单调递增的累计数注册为 FunctionCounter，监控系统按计数器处理重启归零，rate() 等函数才能得到正确结果
+     */
+    private <T> void registerCounter(String name, Iterable<Tag> tags, T state, ToDoubleFunction<T> countFunction) {
+        FunctionCounter.builder(metricName(name), state, countFunction)
+                .tags(tags)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 注册滑动窗口计数器：累计数注册为 FunctionCounter，各窗口的每秒速率注册为带 window 标签的 Gauge
+     */
+    private void registerRate(String name, Iterable<Tag> tags, SlidingWindowCounter counter) {
+        FunctionCounter.builder(metricName(name), counter, SlidingWindowCounter::getTotal)
+                .tags(tags)
+                .register(Metrics.globalRegistry);
+        for (int i = 0; i < TaskRates.WINDOW_SECONDS.length; i++) {
+            int windowSeconds = TaskRates.WINDOW_SECONDS[i];
+            Metrics.gauge(metricName(name + ".rate"), Tags.of(tags).and(WINDOW_TAG, TaskRates.WINDOW_NAMES[i]), counter, each -> each.rate(windowSeconds));
+        }
+    }
+
+    /**
+     * 将分桶直方图按 Prometheus 直方图的约定注册为一组 Gauge：累计桶计数（le 标签）、样本数和样本总和
+     */
+    private void registerHistogramGauges(String name, Iterable<Tag> tags, BucketHistogram histogram) {
+        registerBucketGauges(name + ".bucket", tags, histogram, Function.identity());
+        Metrics.gauge(name + ".count", tags, histogram, BucketHistogram::getCount);
+        Metrics.gauge(name + ".sum", tags, histogram, BucketHistogram::getSum);
+    }
+
+    /**
+     * 每个桶注册一个带 le 标签的 Gauge，值为落在该桶及以下的样本数；直方图通过 state 间接获取，适用于每次采集整体替换的快照分布，
+     * state 需要被强引用持有
+     */
+    private <T> void registerBucketGauges(String name, Iterable<Tag> tags, T state, Function<T, BucketHistogram> histogramFunction) {
+        long[] bounds = histogramFunction.apply(state).getBounds();
+        for (int i = 0; i < bounds.length; i++) {
+            int index = i;
+            Metrics.gauge(name, Tags.of(tags).and("le", String.valueOf(bounds[i])), state, each -> histogramFunction.apply(each).getCumulativeCount(index));
+        }
+        Metrics.gauge(name, Tags.of(tags).and("le", "+Inf"), state, each -> histogramFunction.apply(each).getCount());
     }
 
     private String metricName(String name) {
         return String.join(".", METRIC_NAME_PREFIX, name);
     }
 
+    /**
+     * 构建线程池运行时信息，动态线程池正在执行任务的已执行时长同时记入指定分布，供指标复用，不再重复扫描
+     */
     @SneakyThrows
-    private ThreadPoolRuntimeInfo buildThreadPoolRuntimeInfo(ThreadPoolExecutorHolder holder) {
+    private ThreadPoolRuntimeInfo buildThreadPoolRuntimeInfo(ThreadPoolExecutorHolder holder, BucketHistogram runningTaskAgeHistogram) {
         ThreadPoolExecutor executor = holder.getExecutor();
         BlockingQueue<?> queue = executor.getQueue();
 
@@ -152,7 +550,80 @@ public class ThreadPoolMonitor {
 
         int workQueueSize = queue.size();
         int remainingCapacity = queue.remainingCapacity();
-        return ThreadPoolRuntimeInfo.builder()
+        ThreadPoolRuntimeInfo.ThreadPoolRuntimeInfoBuilder builder = ThreadPoolRuntimeInfo.builder();
+        QueueSaturationForecaster.Forecast forecast = QueueForecastRegistry.observe(holder.getThreadPoolId(), queue);
+        builder.queueTrendPerSecond(forecast.getTrendPerSecond())
+                .queueSecondsToFull(forecast.getSecondsToFull())
+                .queueSecondsToDrain(forecast.getSecondsToDrain());
+        if (executor instanceof OneThreadBatchExecutor) {
+            OneThreadBatchExecutor<?> batchExecutor = (OneThreadBatchExecutor<?>) executor;
+            builder.batchSize(batchExecutor.getBatchSize())
+                    .batchLingerMillis(batchExecutor.getLingerMillis())
+                    .batchItemCount(batchExecutor.getItemCount().get())
+                    .batchFailureCount(batchExecutor.getBatchFailureCount().get())
+                    .batchSizeP50(batchExecutor.getBatchSizeHistogram().valueAtPercentile(0.5))
+                    .batchSizeP99(batchExecutor.getBatchSizeHistogram().valueAtPercentile(0.99))
+                    .batchLingerP99Millis(batchExecutor.getLingerHistogram().valueAtPercentile(0.99));
+        }
+        if (executor instanceof OneThreadExecutor) {
+            List<RunningTaskInfo> runningTasks = ((OneThreadExecutor) executor).getRunningTasks();
+            runningTasks.forEach(each -> runningTaskAgeHistogram.record(each.getRunningMillis()));
+            builder.warmUpMillis(((OneThreadExecutor) executor).getWarmUpMillis());
+            TaskScopeStats taskScopeStats = ((OneThreadExecutor) executor).getTaskScopeStats();
+            builder.scopeCount(taskScopeStats.getScopeCount().sum())
+                    .scopeFailureCount(taskScopeStats.getFailureCount().sum())
+                    .scopeTimeoutCount(taskScopeStats.getTimeoutCount().sum())
+                    .scopeWidthP99(taskScopeStats.getWidthHistogram().valueAtPercentile(0.99))
+                    .scopeLatencyP99Millis(taskScopeStats.getLatencyHistogram().valueAtPercentile(0.99));
+            TaskHedger taskHedger = ((OneThreadExecutor) executor).getTaskHedger();
+            builder.hedgeCount(taskHedger.getHedgeCount().sum())
+                    .hedgeRate(taskHedger.getHedgeRate())
+                    .hedgeWinRate(taskHedger.getHedgeWinRate())
+                    .hedgeDelayMillis(taskHedger.getHedgeDelayMillis());
+            TaskRates taskRates = ((OneThreadExecutor) executor).getTaskRates();
+            builder.submitRate(taskRates.getSubmitted().rate(TaskRates.WINDOW_SECONDS[0]))
+                    .completeRate(taskRates.getCompleted().rate(TaskRates.WINDOW_SECONDS[0]))
+                    .rejectRate(taskRates.getRejected().rate(TaskRates.WINDOW_SECONDS[0]));
+            builder.memoryShedding(((OneThreadExecutor) executor).isMemoryShedding())
+                    .memoryShedCount(((OneThreadExecutor) executor).getMemoryShedCount().get())
+                    .memoryShedDecisionCount(((OneThreadExecutor) executor).getMemoryShedDecisionCount().get());
+            WorkerTimeSampler workerTimeSampler = ((OneThreadExecutor) executor).getWorkerTimeSampler();
+            if (workerTimeSampler != null) {
+                WorkerTimeSampler.WorkerTimeSnapshot workerTime = workerTimeSampler.sample();
+                builder.workerCpuPercent(workerTime.getCpuPercent())
+                        .workerBlockedPercent(workerTime.getBlockedPercent())
+                        .workerWaitingPercent(workerTime.getWaitingPercent())
+                        .workerBlockedCount(workerTime.getBlockedCount())
+                        .workerWaitedCount(workerTime.getWaitedCount());
+            }
+            TaskAccounting taskAccounting = ((OneThreadExecutor) executor).getTaskAccounting();
+            if (taskAccounting != null) {
+                builder.taskStats(taskAccounting.topN(TOP_TASK_LIMIT));
+            }
+            builder.runningTaskCount(runningTasks.size())
+                    .longestRunningTaskMillis(runningTasks.isEmpty() ? 0L : runningTasks.get(0).getRunningMillis())
+                    .runningTaskAgeP99Millis(runningTaskAgeHistogram.valueAtPercentile(0.99));
+        }
+        KeyedBulkhead keyedBulkhead = executor instanceof OneThreadExecutor ? ((OneThreadExecutor) executor).getKeyedBulkhead() : null;
+        if (keyedBulkhead != null) {
+            // 顺带淘汰空闲 Key，避免只在 Key 数量达到上限时才淘汰
+            keyedBulkhead.evictIdleKeys();
+            builder.keyConcurrencyLimit(keyedBulkhead.getLimitPerKey())
+                    .trackedKeyCount(keyedBulkhead.getTrackedKeyCount())
+                    .parkedTaskCount(keyedBulkhead.getParkedCount())
+                    .topKeys(keyedBulkhead.topKeys(TOP_KEY_LIMIT));
+        }
+        BlockingQueue<?> delegateQueue = RateLimitedBlockingQueue.unwrap(queue);
+        if (delegateQueue instanceof TenantFairBlockingQueue) {
+            builder.tenantStats(((TenantFairBlockingQueue<?>) delegateQueue).tenantSnapshots());
+        }
+        if (queue instanceof RateLimitedBlockingQueue) {
+            TokenBucketRateLimiter rateLimiter = ((RateLimitedBlockingQueue<?>) queue).getRateLimiter();
+            builder.permitsPerSecond(rateLimiter.getPermitsPerSecond())
+                    .admittedCount(rateLimiter.getAdmittedCount())
+                    .throttledMillis(rateLimiter.getThrottledMillis());
+        }
+        return builder
                 .threadPoolId(holder.getThreadPoolId())
                 .corePoolSize(executor.getCorePoolSize())
                 .maximumPoolSize(executor.getMaximumPoolSize())
@@ -160,7 +631,7 @@ public class ThreadPoolMonitor {
                 .currentPoolSize(executor.getPoolSize())  // API 有锁，避免高频率调用
                 .completedTaskCount(executor.getCompletedTaskCount())  // API 有锁，避免高频率调用
                 .largestPoolSize(executor.getLargestPoolSize())  // API 有锁，避免高频率调用
-                .workQueueName(queue.getClass().getSimpleName())
+                .workQueueName(delegateQueue.getClass().getSimpleName())
                 .workQueueSize(workQueueSize)
                 .workQueueRemainingCapacity(remainingCapacity)
                 .workQueueCapacity(workQueueSize + remainingCapacity)
@@ -168,4 +639,57 @@ public class ThreadPoolMonitor {
                 .rejectCount(rejectCount)
                 .build();
     }
+
+    /**
+     * 线程池上次采集的状态
+     * <p>
+     * 动态线程池的提交数、完成数、拒绝数和核心、最大线程数都可以无锁读取，上次采集时没有活跃线程且队列为空，
+     * 并且这些值都没有变化，说明线程池在两次采集之间完全空闲，可以沿用上次的采集结果
+     */
+    private static class CollectState {
+
+        private ThreadPoolRuntimeInfo lastRuntimeInfo;
+
+        /**
+         * 上次采集时正在执行任务的已执行时长分布，与 lastRuntimeInfo 取自同一次扫描
+         */
+        private BucketHistogram runningTaskAgeHistogram;
+
+        private long submittedCount = -1L;
+        private long completedCount;
+        private long rejectCount;
+        private int corePoolSize;
+        private int maximumPoolSize;
+        private int skippedCycles;
+
+        private boolean unchanged(ThreadPoolExecutor executor) {
+            if (!(executor instanceof OneThreadExecutor)) {
+                return false;
+            }
+
+            OneThreadExecutor oneThreadExecutor = (OneThreadExecutor) executor;
+            long submitted = oneThreadExecutor.getTaskRates().getSubmitted().getTotal();
+            long completed = oneThreadExecutor.getTaskRates().getCompleted().getTotal();
+            long rejected = oneThreadExecutor.getRejectCount().get();
+            int core = oneThreadExecutor.getCorePoolSize();
+            int maximum = oneThreadExecutor.getMaximumPoolSize();
+            boolean unchanged = lastRuntimeInfo != null
+                    && lastRuntimeInfo.getActivePoolSize() == 0
+                    && lastRuntimeInfo.getWorkQueueSize() == 0
+                    && submitted == submittedCount
+                    && completed == completedCount
+                    && rejected == rejectCount
+                    && core == corePoolSize
+                    && maximum == maximumPoolSize
+                    && skippedCycles < MAX_SKIPPED_CYCLES;
+
+            submittedCount = submitted;
+            completedCount = completed;
+            rejectCount = rejected;
+            corePoolSize = core;
+            maximumPoolSize = maximum;
+            skippedCycles = unchanged ? skippedCycles + 1 : 0;
+            return unchanged;
+        }
+    }
 }
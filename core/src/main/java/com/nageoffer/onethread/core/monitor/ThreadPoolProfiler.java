@@ -0,0 +1,195 @@
+package com.nageoffer.onethread.core.monitor;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池采样分析器，在指定时长内周期性抓取某个线程池工作线程的调用栈，按折叠栈（collapsed stack）格式聚合，
+ * 结果可以直接交给 FlameGraph、speedscope 等工具生成火焰图
+ * <p>
+ * 每次采样通过 {@link ThreadMXBean#getThreadInfo(long[], int)} 批量获取工作线程调用栈，会触发一次安全点，
+ * 所以采样时长、采样间隔和栈深度都有上限，同一时刻整个进程只允许一个采样会话。
+ * 空闲线程（在 ThreadPoolExecutor#getTask 中等待任务）默认不计入，只统计正在执行任务的线程
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+public class ThreadPoolProfiler {
+
+    /**
+     * 最长采样时长（单位：秒）
+     */
+    public static final int MAX_SECONDS = 60;
+
+    /**
+     * 最小采样间隔（单位：毫秒），即每秒最多采样 100 次
+     */
+    public static final long MIN_INTERVAL_MILLIS = 10L;
+
+    /**
+     * 最大栈深度
+     */
+    public static final int MAX_STACK_DEPTH = 128;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final Semaphore SESSION = new Semaphore(1);
+
+    private static final String IDLE_CLASS_NAME = "java.util.concurrent.ThreadPoolExecutor";
+    private static final String IDLE_METHOD_NAME = "getTask";
+
+    /**
+     * 识别空闲线程至少需要的栈深度：getTask 之上还有队列 take/poll、AQS 等待和 park 等帧，
+     * 包装队列会再多几层，指定的栈深度较小时按该深度抓取，生成折叠栈时再截断到指定深度
+     */
+    private static final int IDLE_DETECT_DEPTH = 16;
+
+    /**
+     * 对线程池工作线程采样，阻塞当前线程直到采样结束；采样期间线程被中断时返回已采集的结果。
+     * 共享工作线程的逻辑线程池每次只采样当时正在执行其任务的线程，没有空闲线程
+     *
+     * @param executor       动态线程池
+     * @param seconds        采样时长，超过 {@link #MAX_SECONDS} 时按上限处理
+     * @param intervalMillis 采样间隔，小于 {@link #MIN_INTERVAL_MILLIS} 时按下限处理
+     * @param maxDepth       栈深度，超过 {@link #MAX_STACK_DEPTH} 时按上限处理
+     * @param includeIdle    是否包含空闲线程
+     * @return 采样结果
+     * @throws IllegalStateException 已有采样会话正在进行
+     */
+    public static Profile profile(OneThreadExecutor executor, int seconds, long intervalMillis, int maxDepth, boolean includeIdle) {
+        if (!SESSION.tryAcquire()) {
+            throw new IllegalStateException("Another thread pool profiling session is in progress.");
+        }
+        try {
+            long durationNanos = TimeUnit.SECONDS.toNanos(Math.max(1, Math.min(seconds, MAX_SECONDS)));
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(intervalMillis, MIN_INTERVAL_MILLIS));
+            int depth = Math.max(1, Math.min(maxDepth, MAX_STACK_DEPTH));
+            int fetchDepth = includeIdle ? depth : Math.max(depth, IDLE_DETECT_DEPTH);
+
+            Map<String, Long> stacks = new HashMap<>();
+            Map<StackTraceElement, String> frameNames = new HashMap<>();
+            StringBuilder stack = new StringBuilder(256);
+            long samples = 0L, threadSamples = 0L, idleSamples = 0L;
+            long start = System.nanoTime();
+            long next = start;
+            while (next - start < durationNanos) {
+                long[] threadIds = executor.getWorkerThreadIds();
+                ThreadInfo[] threadInfos = threadIds.length == 0 ? new ThreadInfo[0] : THREAD_MX_BEAN.getThreadInfo(threadIds, fetchDepth);
+                samples++;
+                for (ThreadInfo threadInfo : threadInfos) {
+                    if (threadInfo == null || threadInfo.getStackTrace().length == 0) {
+                        continue;
+                    }
+                    StackTraceElement[] frames = threadInfo.getStackTrace();
+                    if (!includeIdle && isIdle(frames)) {
+                        idleSamples++;
+                        continue;
+                    }
+                    threadSamples++;
+                    // 折叠栈从根帧开始，帧之间以分号分隔，只保留栈顶的 depth 帧
+                    stack.setLength(0);
+                    for (int i = Math.min(frames.length, depth) - 1; i >= 0; i--) {
+                        if (stack.length() > 0) {
+                            stack.append(';');
+                        }
+                        stack.append(frameNames.computeIfAbsent(frames[i], ThreadPoolProfiler::frameName));
+                    }
+                    stacks.merge(stack.toString(), 1L, Long::sum);
+                }
+
+                next += intervalNanos;
+                long sleepNanos = next - System.nanoTime();
+                if (sleepNanos > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+
+            Map<String, Long> sortedStacks = new LinkedHashMap<>();
+            stacks.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEachOrdered(each -> sortedStacks.put(each.getKey(), each.getValue()));
+            log.info("[{}] Thread pool profiling finished, samples: {}, thread samples: {}, idle samples: {}, distinct stacks: {}",
+                    executor.getThreadPoolId(), samples, threadSamples, idleSamples, sortedStacks.size());
+            return new Profile(executor.getThreadPoolId(), samples, threadSamples, idleSamples, sortedStacks);
+        } finally {
+            SESSION.release();
+        }
+    }
+
+    /**
+     * Lambda 等隐藏类去掉地址后缀，同一位置的栈帧在不同进程中保持一致
+     */
+    private static String frameName(StackTraceElement frame) {
+        String className = frame.getClassName();
+        int index = className.indexOf('/');
+        return (index > 0 ? className.substring(0, index) : className) + "." + frame.getMethodName();
+    }
+
+    private static boolean isIdle(StackTraceElement[] frames) {
+        for (StackTraceElement frame : frames) {
+            if (IDLE_METHOD_NAME.equals(frame.getMethodName()) && IDLE_CLASS_NAME.equals(frame.getClassName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 采样结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Profile {
+
+        /**
+         * 线程池唯一标识
+         */
+        private final String threadPoolId;
+
+        /**
+         * 采样次数
+         */
+        private final long samples;
+
+        /**
+         * 计入结果的线程栈数量
+         */
+        private final long threadSamples;
+
+        /**
+         * 因线程空闲被跳过的线程栈数量
+         */
+        private final long idleSamples;
+
+        /**
+         * 折叠栈及其出现次数，按次数倒序
+         */
+        private final Map<String, Long> stacks;
+
+        /**
+         * 输出折叠栈文本，每行一个调用栈：根帧在前、帧之间以分号分隔，最后是空格和出现次数
+         */
+        public String toCollapsed() {
+            StringBuilder builder = new StringBuilder();
+            stacks.forEach((stack, count) -> builder.append(stack).append(' ').append(count).append('\n'));
+            return builder.toString();
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.nageoffer.onethread.core.monitor;
 
+import com.nageoffer.onethread.core.executor.support.KeyedBulkhead;
+import com.nageoffer.onethread.core.executor.support.TaskAccounting;
+import com.nageoffer.onethread.core.executor.support.TenantFairBlockingQueue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * 线程池运行时监控实体
  * <p>
@@ -72,6 +77,21 @@ public class ThreadPoolRuntimeInfo {
      */
     private Integer workQueueRemainingCapacity;
 
+    /**
+     * 队列深度变化趋势（单位：个/秒），正数表示在增长
+     */
+    private Double queueTrendPerSecond;
+
+    /**
+     * 按当前趋势距离队列打满的秒数，队列没有增长时为 -1
+     */
+    private Long queueSecondsToFull;
+
+    /**
+     * 按当前趋势距离队列排空的秒数，队列没有减少时为 -1
+     */
+    private Long queueSecondsToDrain;
+
     /**
      * 拒绝策略
      */
@@ -81,4 +101,204 @@ public class ThreadPoolRuntimeInfo {
      * 执行拒绝策略次数
      */
     private Long rejectCount;
+
+    /**
+     * 任务分派限速：每秒许可数，未开启限速时为空
+     */
+    private Double permitsPerSecond;
+
+    /**
+     * 任务分派限速：累计放行任务数
+     */
+    private Long admittedCount;
+
+    /**
+     * 任务分派限速：工作线程累计等待令牌时长（毫秒）
+     */
+    private Long throttledMillis;
+
+    /**
+     * 微批处理：单批次最大元素个数，非微批处理线程池为空
+     */
+    private Integer batchSize;
+
+    /**
+     * 微批处理：凑批最长等待时间（毫秒）
+     */
+    private Long batchLingerMillis;
+
+    /**
+     * 微批处理：累计处理元素个数
+     */
+    private Long batchItemCount;
+
+    /**
+     * 微批处理：累计处理失败批次数
+     */
+    private Long batchFailureCount;
+
+    /**
+     * 微批处理：批大小 P50
+     */
+    private Long batchSizeP50;
+
+    /**
+     * 微批处理：批大小 P99
+     */
+    private Long batchSizeP99;
+
+    /**
+     * 微批处理：凑批等待时长 P99（毫秒）
+     */
+    private Long batchLingerP99Millis;
+
+    /**
+     * 按 Key 隔离：单个 Key 最大并发执行数，未开启时为空
+     */
+    private Integer keyConcurrencyLimit;
+
+    /**
+     * 按 Key 隔离：当前跟踪的 Key 数量
+     */
+    private Integer trackedKeyCount;
+
+    /**
+     * 按 Key 隔离：所有 Key 等待中的任务总数
+     */
+    private Long parkedTaskCount;
+
+    /**
+     * 按 Key 隔离：执行中 + 等待中任务数最多的前 N 个 Key
+     */
+    private List<KeyedBulkhead.KeySnapshot> topKeys;
+
+    /**
+     * 正在执行的任务数
+     */
+    private Integer runningTaskCount;
+
+    /**
+     * 正在执行的任务中最长的已执行时长（毫秒）
+     */
+    private Long longestRunningTaskMillis;
+
+    /**
+     * 正在执行的任务已执行时长 P99（毫秒）
+     */
+    private Long runningTaskAgeP99Millis;
+
+    /**
+     * 任务资源统计：CPU 时间最多的前 N 个任务标签，未开启时为空
+     */
+    private List<TaskAccounting.TaskStatsSnapshot> taskStats;
+
+    /**
+     * 多租户公平队列：各租户队列统计，未使用该队列时为空
+     */
+    private List<TenantFairBlockingQueue.TenantSnapshot> tenantStats;
+
+    /**
+     * 启动预热耗时（毫秒），未预热或预热未完成时为空
+     */
+    private Long warmUpMillis;
+
+    /**
+     * 扇出作用域：已结束的作用域数量
+     */
+    private Long scopeCount;
+
+    /**
+     * 扇出作用域：因子任务失败而提前结束的作用域数量
+     */
+    private Long scopeFailureCount;
+
+    /**
+     * 扇出作用域：超时的作用域数量
+     */
+    private Long scopeTimeoutCount;
+
+    /**
+     * 扇出作用域：扇出宽度 P99
+     */
+    private Long scopeWidthP99;
+
+    /**
+     * 扇出作用域：完成耗时 P99（毫秒）
+     */
+    private Long scopeLatencyP99Millis;
+
+    /**
+     * 对冲执行：累计对冲次数
+     */
+    private Long hedgeCount;
+
+    /**
+     * 对冲执行：对冲次数占对冲请求数的比例
+     */
+    private Double hedgeRate;
+
+    /**
+     * 对冲执行：对冲执行先完成的比例
+     */
+    private Double hedgeWinRate;
+
+    /**
+     * 对冲执行：当前对冲延迟（毫秒），样本不足不对冲时为 -1
+     */
+    private Long hedgeDelayMillis;
+
+    /**
+     * 最近 1 分钟每秒提交任务数
+     */
+    private Double submitRate;
+
+    /**
+     * 最近 1 分钟每秒完成任务数
+     */
+    private Double completeRate;
+
+    /**
+     * 最近 1 分钟每秒拒绝任务数
+     */
+    private Double rejectRate;
+
+    /**
+     * 内存压力降级：是否在提交时直接拒绝任务
+     */
+    private Boolean memoryShedding;
+
+    /**
+     * 内存压力降级：提交时被拒绝的任务数
+     */
+    private Long memoryShedCount;
+
+    /**
+     * 内存压力降级：缩小或恢复队列容量、开启或关闭提交拒绝的决策次数
+     */
+    private Long memoryShedDecisionCount;
+
+    /**
+     * 工作线程在 CPU 上运行的时间占比（0 ~ 100），共享工作线程的逻辑线程池不支持采样，各项工作线程时间指标均为空
+     */
+    private Double workerCpuPercent;
+
+    /**
+     * 工作线程阻塞在 synchronized 上的时间占比（0 ~ 100），未开启线程竞争监控时为 -1
+     */
+    private Double workerBlockedPercent;
+
+    /**
+     * 工作线程等待的时间占比（0 ~ 100），包含空闲线程等待任务的时间，未开启线程竞争监控时为 -1
+     */
+    private Double workerWaitingPercent;
+
+    /**
+     * 采集间隔内工作线程阻塞次数
+     */
+    private Long workerBlockedCount;
+
+    /**
+     * 采集间隔内工作线程等待次数
+     */
+    private Long workerWaitedCount;
 }
@@ -0,0 +1,46 @@
+package com.nageoffer.onethread.core.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 长任务检测 JFR 事件，每个任务只记录一次
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Name("com.nageoffer.onethread.LongTaskDetected")
+@Label("Long Task Detected")
+@Category({"oneThread", "Thread Pool"})
+@Description("Task running longer than the configured long task threshold")
+@StackTrace(false)
+public class LongTaskDetectedEvent extends Event {
+
+    @Label("Thread Pool ID")
+    String threadPoolId;
+
+    @Label("Worker Thread")
+    String workerThread;
+
+    @Label("Task")
+    String taskName;
+
+    @Label("Running Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long runningMillis;
+
+    @Label("Threshold")
+    @Timespan(Timespan.MILLISECONDS)
+    long thresholdMillis;
+
+    @Label("Interrupted")
+    boolean interrupted;
+
+    @Label("Queue Depth")
+    int queueDepth;
+}
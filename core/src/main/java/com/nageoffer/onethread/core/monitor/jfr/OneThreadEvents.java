@@ -0,0 +1,149 @@
+package com.nageoffer.onethread.core.monitor.jfr;
+
+import jdk.jfr.EventType;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * oneThread JFR 事件发布入口
+ * <p>
+ * 每个方法先检查事件类型是否开启，没有录制或录制配置关闭了该事件时直接返回，不会创建事件对象。
+ * 任务提交事件另外按 {@link #SUBMIT_SAMPLE_INTERVAL} 抽样，避免高吞吐线程池产生大量事件
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public final class OneThreadEvents {
+
+    /**
+     * 任务提交事件平均每多少次提交记录一次
+     */
+    public static final int SUBMIT_SAMPLE_INTERVAL = 64;
+
+    private static final EventType SUBMITTED = EventType.getEventType(TaskSubmittedEvent.class);
+    private static final EventType REJECTED = EventType.getEventType(TaskRejectedEvent.class);
+    private static final EventType RESIZED = EventType.getEventType(PoolResizedEvent.class);
+    private static final EventType QUEUE_CAPACITY_CHANGED = EventType.getEventType(QueueCapacityChangedEvent.class);
+    private static final EventType LONG_TASK_DETECTED = EventType.getEventType(LongTaskDetectedEvent.class);
+
+    private OneThreadEvents() {
+    }
+
+    /**
+     * 按采样开始一次任务提交事件
+     *
+     * @return 已开始计时的事件，未开启或未被抽中时为 null
+     */
+    public static TaskSubmittedEvent beginSubmit() {
+        if (!SUBMITTED.isEnabled() || ThreadLocalRandom.current().nextInt(SUBMIT_SAMPLE_INTERVAL) != 0) {
+            return null;
+        }
+        TaskSubmittedEvent event = new TaskSubmittedEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束并提交任务提交事件
+     *
+     * @param event        {@link #beginSubmit()} 返回的事件，为 null 时忽略
+     * @param threadPoolId 线程池唯一标识
+     * @param task         提交的任务
+     * @param queue        线程池队列
+     */
+    public static void commitSubmit(TaskSubmittedEvent event, String threadPoolId, Runnable task, BlockingQueue<?> queue) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.threadPoolId = threadPoolId;
+            event.taskName = task.getClass().getName();
+            event.queueDepth = queue.size();
+            event.sampleInterval = SUBMIT_SAMPLE_INTERVAL;
+            event.commit();
+        }
+    }
+
+    /**
+     * 记录任务拒绝
+     */
+    public static void rejected(String threadPoolId, Runnable task, String rejectedHandler, BlockingQueue<?> queue) {
+        if (!REJECTED.isEnabled()) {
+            return;
+        }
+        TaskRejectedEvent event = new TaskRejectedEvent();
+        if (event.shouldCommit()) {
+            event.threadPoolId = threadPoolId;
+            event.taskName = task == null ? null : task.getClass().getName();
+            event.rejectedHandler = rejectedHandler;
+            event.queueDepth = queue.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * 记录线程数变更，新旧值相同时不记录
+     *
+     * @param source 变更来源，比如 refresh、container-sizer
+     */
+    public static void resized(String threadPoolId, int oldCorePoolSize, int newCorePoolSize,
+                               int oldMaximumPoolSize, int newMaximumPoolSize, BlockingQueue<?> queue, String source) {
+        if (!RESIZED.isEnabled() || (oldCorePoolSize == newCorePoolSize && oldMaximumPoolSize == newMaximumPoolSize)) {
+            return;
+        }
+        PoolResizedEvent event = new PoolResizedEvent();
+        if (event.shouldCommit()) {
+            event.threadPoolId = threadPoolId;
+            event.oldCorePoolSize = oldCorePoolSize;
+            event.newCorePoolSize = newCorePoolSize;
+            event.oldMaximumPoolSize = oldMaximumPoolSize;
+            event.newMaximumPoolSize = newMaximumPoolSize;
+            event.queueDepth = queue.size();
+            event.source = source;
+            event.commit();
+        }
+    }
+
+    /**
+     * 记录队列容量变更，新旧值相同时不记录
+     *
+     * @param source 变更来源，比如 refresh、memory-pressure
+     */
+    public static void queueCapacityChanged(String threadPoolId, int oldCapacity, int newCapacity, BlockingQueue<?> queue, String source) {
+        if (!QUEUE_CAPACITY_CHANGED.isEnabled() || oldCapacity == newCapacity) {
+            return;
+        }
+        QueueCapacityChangedEvent event = new QueueCapacityChangedEvent();
+        if (event.shouldCommit()) {
+            event.threadPoolId = threadPoolId;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.queueDepth = queue.size();
+            event.source = source;
+            event.commit();
+        }
+    }
+
+    /**
+     * 记录长任务
+     */
+    public static void longTaskDetected(String threadPoolId, String workerThread, String taskName, long runningMillis,
+                                        long thresholdMillis, boolean interrupted, BlockingQueue<?> queue) {
+        if (!LONG_TASK_DETECTED.isEnabled()) {
+            return;
+        }
+        LongTaskDetectedEvent event = new LongTaskDetectedEvent();
+        if (event.shouldCommit()) {
+            event.threadPoolId = threadPoolId;
+            event.workerThread = workerThread;
+            event.taskName = taskName;
+            event.runningMillis = runningMillis;
+            event.thresholdMillis = thresholdMillis;
+            event.interrupted = interrupted;
+            event.queueDepth = queue.size();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.nageoffer.onethread.core.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 线程池核心线程数、最大线程数变更 JFR 事件
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Name("com.nageoffer.onethread.PoolResized")
+@Label("Pool Resized")
+@Category({"oneThread", "Thread Pool"})
+@Description("Core or maximum pool size of a oneThread pool changed")
+@StackTrace(false)
+public class PoolResizedEvent extends Event {
+
+    @Label("Thread Pool ID")
+    String threadPoolId;
+
+    @Label("Old Core Pool Size")
+    int oldCorePoolSize;
+
+    @Label("New Core Pool Size")
+    int newCorePoolSize;
+
+    @Label("Old Maximum Pool Size")
+    int oldMaximumPoolSize;
+
+    @Label("New Maximum Pool Size")
+    int newMaximumPoolSize;
+
+    @Label("Queue Depth")
+    int queueDepth;
+
+    @Label("Source")
+    @Description("Component that applied the change")
+    String source;
+}
@@ -0,0 +1,38 @@
+package com.nageoffer.onethread.core.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 线程池队列容量变更 JFR 事件
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Name("com.nageoffer.onethread.QueueCapacityChanged")
+@Label("Queue Capacity Changed")
+@Category({"oneThread", "Thread Pool"})
+@Description("Work queue capacity of a oneThread pool changed")
+@StackTrace(false)
+public class QueueCapacityChangedEvent extends Event {
+
+    @Label("Thread Pool ID")
+    String threadPoolId;
+
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    @Label("Queue Depth")
+    int queueDepth;
+
+    @Label("Source")
+    @Description("Component that applied the change")
+    String source;
+}
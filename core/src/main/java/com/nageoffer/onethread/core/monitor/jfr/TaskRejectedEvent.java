@@ -0,0 +1,32 @@
+package com.nageoffer.onethread.core.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 任务拒绝 JFR 事件，记录提交线程的调用栈，便于定位被拒绝任务的来源
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Name("com.nageoffer.onethread.TaskRejected")
+@Label("Task Rejected")
+@Category({"oneThread", "Thread Pool"})
+@Description("Task rejected by a oneThread pool")
+public class TaskRejectedEvent extends Event {
+
+    @Label("Thread Pool ID")
+    String threadPoolId;
+
+    @Label("Task")
+    String taskName;
+
+    @Label("Rejected Handler")
+    String rejectedHandler;
+
+    @Label("Queue Depth")
+    int queueDepth;
+}
@@ -0,0 +1,36 @@
+package com.nageoffer.onethread.core.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 任务提交 JFR 事件，按采样间隔抽样记录，持续时间为提交调用本身的耗时（包含入队）
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Name("com.nageoffer.onethread.TaskSubmitted")
+@Label("Task Submitted")
+@Category({"oneThread", "Thread Pool"})
+@Description("Sampled task submission to a oneThread pool")
+@StackTrace(false)
+public class TaskSubmittedEvent extends Event {
+
+    @Label("Thread Pool ID")
+    String threadPoolId;
+
+    @Label("Task")
+    String taskName;
+
+    @Label("Queue Depth")
+    @Description("Queued tasks after submission")
+    int queueDepth;
+
+    @Label("Sample Interval")
+    @Description("One event is recorded every this many submissions on average")
+    int sampleInterval;
+}
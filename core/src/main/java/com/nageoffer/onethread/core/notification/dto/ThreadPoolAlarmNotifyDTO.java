@@ -48,7 +48,7 @@ public class ThreadPoolAlarmNotifyDTO {
     private String receives;
 
     /**
-     * 报警类型：Capacity、Activity、Reject
+     * 报警类型：Capacity、Activity、Reject、RejectRate、QueueFullForecast、LongTask
      */
     private String alarmType;
 
@@ -122,6 +122,11 @@ public class ThreadPoolAlarmNotifyDTO {
      */
     private Integer interval;
 
+    /**
+     * 长任务详情：工作线程、任务、执行时长和调用栈，仅 LongTask 报警类型有值
+     */
+    private String longTaskDetail;
+
     @ToString.Exclude
     private transient Supplier<ThreadPoolAlarmNotifyDTO> supplier;
 
@@ -1,6 +1,7 @@
 package com.nageoffer.onethread.core.notification.service;
 
 import cn.hutool.core.collection.CollectionUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.hutool.http.HttpUtil;
 import com.alibaba.fastjson2.JSON;
 import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
@@ -14,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static com.nageoffer.onethread.core.constant.Constants.DING_ALARM_LONG_TASK_DETAIL_TEXT;
 import static com.nageoffer.onethread.core.constant.Constants.DING_ALARM_NOTIFY_MESSAGE_TEXT;
 import static com.nageoffer.onethread.core.constant.Constants.DING_CONFIG_CHANGE_MESSAGE_TEXT;
 import static com.nageoffer.onethread.core.constant.Constants.DING_CONFIG_WEB_CHANGE_MESSAGE_TEXT;
@@ -100,6 +102,9 @@ public class DingTalkMessageService implements NotifierService {
                 alarm.getInterval(),
                 alarm.getCurrentTime()
         );
+        if (StrUtil.isNotBlank(alarm.getLongTaskDetail())) {
+            text += String.format(DING_ALARM_LONG_TASK_DETAIL_TEXT, alarm.getLongTaskDetail());
+        }
 
         List<String> atMobiles = CollectionUtil.newArrayList(alarm.getReceives().split(","));
         sendDingTalkMarkdownMessage("线程池告警通知", text, atMobiles);
@@ -0,0 +1,191 @@
+package com.nageoffer.onethread.core.toolkit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+/**
+ * 容器资源限制快照
+ * <p>
+ * 从 cgroup 文件中读取 CPU 配额和内存上限，同时支持 cgroup v2（{@code cpu.max}、{@code memory.max}）
+ * 和 cgroup v1（{@code cpu/cpu.cfs_quota_us}、{@code memory/memory.limit_in_bytes}）。
+ * cgroup 根目录可以指定，便于在普通 Linux 上使用伪造的 cgroup 文件测试；文件不存在或无法解析时视为不限制
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+@Getter
+public class ContainerResources {
+
+    /**
+     * 默认 cgroup 挂载目录
+     */
+    public static final Path DEFAULT_CGROUP_ROOT = Paths.get("/sys/fs/cgroup");
+
+    /**
+     * cgroup v1 中不限制内存时的取值接近 Long.MAX_VALUE，超过该值视为不限制
+     */
+    private static final long UNLIMITED_MEMORY_THRESHOLD = 1L << 60;
+
+    private static final String[] V1_CPU_DIRS = {"cpu", "cpu,cpuacct", "cpuacct,cpu"};
+
+    /**
+     * cgroup 版本，未检测到 cgroup 时为 0
+     */
+    private final int cgroupVersion;
+
+    /**
+     * JVM 可用处理器数
+     */
+    private final int hostProcessors;
+
+    /**
+     * CPU 配额（核数，可以是小数），不限制时为 -1
+     */
+    private final double cpuLimit;
+
+    /**
+     * 内存上限（字节），不限制时为 -1
+     */
+    private final long memoryLimitBytes;
+
+    public ContainerResources(int cgroupVersion, int hostProcessors, double cpuLimit, long memoryLimitBytes) {
+        this.cgroupVersion = cgroupVersion;
+        this.hostProcessors = hostProcessors;
+        this.cpuLimit = cpuLimit;
+        this.memoryLimitBytes = memoryLimitBytes;
+    }
+
+    /**
+     * 读取当前进程所在容器的资源限制
+     */
+    public static ContainerResources detect() {
+        return read(DEFAULT_CGROUP_ROOT, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 从指定 cgroup 根目录读取资源限制
+     *
+     * @param cgroupRoot     cgroup 挂载目录
+     * @param hostProcessors 可用处理器数，作为 CPU 配额的上限和不限制时的取值
+     */
+    public static ContainerResources read(Path cgroupRoot, int hostProcessors) {
+        if (Files.exists(cgroupRoot.resolve("cgroup.controllers"))) {
+            return new ContainerResources(2, hostProcessors, readV2CpuLimit(cgroupRoot), readV2MemoryLimit(cgroupRoot));
+        }
+        for (String each : V1_CPU_DIRS) {
+            Path cpuDir = cgroupRoot.resolve(each);
+            if (Files.isDirectory(cpuDir)) {
+                return new ContainerResources(1, hostProcessors, readV1CpuLimit(cpuDir), readV1MemoryLimit(cgroupRoot));
+            }
+        }
+        return new ContainerResources(0, hostProcessors, -1D, -1L);
+    }
+
+    /**
+     * 获取实际可用的 CPU 核数，取 CPU 配额与可用处理器数的较小值，可以是小数
+     */
+    public double getEffectiveCpus() {
+        return cpuLimit > 0 ? Math.min(cpuLimit, hostProcessors) : hostProcessors;
+    }
+
+    /**
+     * 获取实际可用的处理器数，小数配额向上取整，最少为 1
+     */
+    public int getEffectiveProcessors() {
+        return Math.max(1, (int) Math.ceil(getEffectiveCpus()));
+    }
+
+    /**
+     * 与另一个快照相比资源限制是否发生变化
+     */
+    public boolean isChanged(ContainerResources other) {
+        return other == null
+                || Double.compare(cpuLimit, other.cpuLimit) != 0
+                || memoryLimitBytes != other.memoryLimitBytes
+                || hostProcessors != other.hostProcessors;
+    }
+
+    @Override
+    public String toString() {
+        return "cgroup v" + cgroupVersion + ", cpus: " + getEffectiveCpus() + ", memory limit: "
+                + (memoryLimitBytes < 0 ? "unlimited" : memoryLimitBytes + " bytes");
+    }
+
+    /**
+     * cgroup v2 cpu.max 格式为 "$MAX $PERIOD"，不限制时 $MAX 为 "max"
+     */
+    private static double readV2CpuLimit(Path cgroupRoot) {
+        String content = readFirstLine(cgroupRoot.resolve("cpu.max"));
+        if (content == null) {
+            return -1D;
+        }
+        String[] parts = content.trim().split("\\s+");
+        if (parts.length != 2 || Objects.equals(parts[0], "max")) {
+            return -1D;
+        }
+        return toCpuLimit(parseLong(parts[0]), parseLong(parts[1]));
+    }
+
+    private static long readV2MemoryLimit(Path cgroupRoot) {
+        String content = readFirstLine(cgroupRoot.resolve("memory.max"));
+        if (content == null || Objects.equals(content.trim(), "max")) {
+            return -1L;
+        }
+        return toMemoryLimit(parseLong(content.trim()));
+    }
+
+    /**
+     * cgroup v1 cpu.cfs_quota_us 为 -1 时表示不限制
+     */
+    private static double readV1CpuLimit(Path cpuDir) {
+        String quota = readFirstLine(cpuDir.resolve("cpu.cfs_quota_us"));
+        String period = readFirstLine(cpuDir.resolve("cpu.cfs_period_us"));
+        if (quota == null || period == null) {
+            return -1D;
+        }
+        return toCpuLimit(parseLong(quota.trim()), parseLong(period.trim()));
+    }
+
+    private static long readV1MemoryLimit(Path cgroupRoot) {
+        String content = readFirstLine(cgroupRoot.resolve("memory").resolve("memory.limit_in_bytes"));
+        return content == null ? -1L : toMemoryLimit(parseLong(content.trim()));
+    }
+
+    private static double toCpuLimit(long quota, long period) {
+        return quota > 0 && period > 0 ? (double) quota / period : -1D;
+    }
+
+    private static long toMemoryLimit(long limit) {
+        return limit > 0 && limit < UNLIMITED_MEMORY_THRESHOLD ? limit : -1L;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    private static String readFirstLine(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            int lineEnd = content.indexOf('\n');
+            return lineEnd >= 0 ? content.substring(0, lineEnd) : content;
+        } catch (IOException ex) {
+            log.debug("Failed to read cgroup file: {}", path, ex);
+            return null;
+        }
+    }
+}
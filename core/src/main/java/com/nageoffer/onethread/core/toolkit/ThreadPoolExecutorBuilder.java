@@ -1,10 +1,22 @@
 package com.nageoffer.onethread.core.toolkit;
 
 import cn.hutool.core.lang.Assert;
+import com.nageoffer.onethread.core.executor.OneThreadBatchExecutor;
+import com.nageoffer.onethread.core.executor.LogicalOneThreadExecutor;
 import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.executor.SharedWorkerSubstrate;
+import com.nageoffer.onethread.core.executor.support.BatchTaskHandler;
 import com.nageoffer.onethread.core.executor.support.BlockingQueueTypeEnum;
+import com.nageoffer.onethread.core.executor.support.MdcTaskContextPropagator;
+import com.nageoffer.onethread.core.executor.support.QueuedTaskStore;
+import com.nageoffer.onethread.core.executor.support.RateLimitedBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.TaskContextPropagator;
 import lombok.Getter;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
@@ -76,6 +88,81 @@ public class ThreadPoolExecutorBuilder {
      */
     private long awaitTerminationMillis = 0L;
 
+    /**
+     * 每秒许可数，为空表示不限速
+     */
+    private Double permitsPerSecond;
+
+    /**
+     * 令牌桶突发容量
+     */
+    private int permitsBurst = 1;
+
+    /**
+     * 批量任务处理器，设置后构建微批处理线程池
+     */
+    private BatchTaskHandler<?> batchHandler;
+
+    /**
+     * 单批次最大元素个数
+     */
+    private int batchSize = 100;
+
+    /**
+     * 凑批最长等待时间（单位：毫秒）
+     */
+    private long batchLingerMillis = 10L;
+
+    /**
+     * 单个 Key 最大并发执行数，为空表示不限制
+     */
+    private Integer keyConcurrencyLimit;
+
+    /**
+     * 任务上下文传递器
+     */
+    private final List<TaskContextPropagator> contextPropagators = new ArrayList<>();
+
+    /**
+     * 是否开启任务资源统计
+     */
+    private boolean taskAccounting = false;
+
+    /**
+     * 是否在构建后启动预热
+     */
+    private boolean warmUp = false;
+
+    /**
+     * 预热任务
+     */
+    private final List<Runnable> warmUpTasks = new ArrayList<>();
+
+    /**
+     * 预热任务最大并发数
+     */
+    private int warmUpConcurrency = 1;
+
+    /**
+     * 关闭时转存排队任务的目录，为空表示不转存
+     */
+    private Path drainDirectory;
+
+    /**
+     * 转存任务读回时允许反序列化的类
+     */
+    private List<String> drainAllowedClasses = new ArrayList<>();
+
+    /**
+     * 共享工作线程底座，设置后构建逻辑线程池
+     */
+    private SharedWorkerSubstrate substrate;
+
+    /**
+     * 逻辑线程池赤字轮询权重
+     */
+    private int logicalPoolWeight = 1;
+
     /**
      * 设置构建线程池为动态线程池
      */
@@ -114,6 +201,18 @@ public class ThreadPoolExecutorBuilder {
         return this;
     }
 
+    /**
+     * 按负载类型和当前容器资源限制设置核心线程数和最大线程数
+     *
+     * @param sizing 负载类型，比如 {@code ThreadPoolSizing.ioBound(0.8)}
+     */
+    public ThreadPoolExecutorBuilder workload(ThreadPoolSizing sizing) {
+        ThreadPoolSizing.PoolSize size = sizing.compute(ContainerResources.detect());
+        this.corePoolSize = size.getCorePoolSize();
+        this.maximumPoolSize = size.getMaximumPoolSize();
+        return this;
+    }
+
     /**
      * 设置阻塞队列容量
      *
@@ -213,6 +312,108 @@ public class ThreadPoolExecutorBuilder {
         return this;
     }
 
+    /**
+     * 设置任务分派限速，任务从队列分派到工作线程的速率受令牌桶限制
+     *
+     * @param permitsPerSecond 每秒许可数
+     * @param permitsBurst     令牌桶突发容量
+     */
+    public ThreadPoolExecutorBuilder permitsPerSecond(double permitsPerSecond, int permitsBurst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.permitsBurst = permitsBurst;
+        return this;
+    }
+
+    /**
+     * 设置批量任务处理器，构建微批处理线程池 {@link OneThreadBatchExecutor}
+     *
+     * @param batchHandler      批量任务处理器
+     * @param batchSize         单批次最大元素个数
+     * @param batchLingerMillis 凑批最长等待时间（单位：毫秒）
+     */
+    public <T> ThreadPoolExecutorBuilder batchHandler(BatchTaskHandler<T> batchHandler, int batchSize, long batchLingerMillis) {
+        this.batchHandler = batchHandler;
+        this.batchSize = batchSize;
+        this.batchLingerMillis = batchLingerMillis;
+        return this;
+    }
+
+    /**
+     * 设置单个 Key 最大并发执行数，仅对动态线程池生效
+     *
+     * @param keyConcurrencyLimit 单个 Key 最大并发执行数
+     */
+    public ThreadPoolExecutorBuilder keyConcurrencyLimit(int keyConcurrencyLimit) {
+        this.keyConcurrencyLimit = keyConcurrencyLimit;
+        return this;
+    }
+
+    /**
+     * 添加任务上下文传递器，仅对动态线程池生效，可多次调用添加多个
+     *
+     * @param contextPropagator 任务上下文传递器，比如 {@link MdcTaskContextPropagator}
+     */
+    public ThreadPoolExecutorBuilder contextPropagator(TaskContextPropagator contextPropagator) {
+        this.contextPropagators.add(contextPropagator);
+        return this;
+    }
+
+    /**
+     * 开启按任务类型的 CPU 时间和内存分配统计，仅对动态线程池生效
+     */
+    public ThreadPoolExecutorBuilder taskAccounting() {
+        this.taskAccounting = true;
+        return this;
+    }
+
+    /**
+     * 构建后启动预热：预启动全部核心线程并执行预热任务，仅对动态线程池生效
+     * 预热异步进行，可通过 {@link OneThreadExecutor#getWarmUpMillis()} 判断是否完成
+     *
+     * @param warmUpConcurrency 预热任务最大并发数
+     * @param warmUpTasks       预热任务，可以为空（只预启动核心线程）
+     */
+    public ThreadPoolExecutorBuilder warmUp(int warmUpConcurrency, Runnable... warmUpTasks) {
+        this.warmUp = true;
+        this.warmUpConcurrency = warmUpConcurrency;
+        this.warmUpTasks.addAll(Arrays.asList(warmUpTasks));
+        return this;
+    }
+
+    /**
+     * 关闭时将队列中可序列化的任务转存到指定目录，构建时重新提交上次转存的任务，仅对动态线程池生效
+     *
+     * @param drainDirectory 转存目录，同一个线程池 ID 前后两次启动需要使用相同目录
+     * @param allowedClasses 允许转存和读回的任务类模式，如 com.example.task.*，不指定时不转存任务
+     */
+    public ThreadPoolExecutorBuilder drainOnShutdown(Path drainDirectory, String... allowedClasses) {
+        this.drainDirectory = drainDirectory;
+        this.drainAllowedClasses = Arrays.asList(allowedClasses);
+        return this;
+    }
+
+    /**
+     * 构建挂载在共享工作线程底座上的逻辑线程池，不创建自己的工作线程，最大线程数表示占用共享工作线程的上限
+     *
+     * @param substrate 共享工作线程底座
+     */
+    public ThreadPoolExecutorBuilder logicalPool(SharedWorkerSubstrate substrate) {
+        return logicalPool(substrate, 1);
+    }
+
+    /**
+     * 构建挂载在共享工作线程底座上的逻辑线程池
+     *
+     * @param substrate 共享工作线程底座
+     * @param weight    赤字轮询权重，每轮可连续执行的任务数
+     */
+    public ThreadPoolExecutorBuilder logicalPool(SharedWorkerSubstrate substrate, int weight) {
+        this.substrate = substrate;
+        this.logicalPoolWeight = weight;
+        this.dynamicPool = true;
+        return this;
+    }
+
     /**
      * 创建线程池构建器
      */
@@ -228,6 +429,10 @@ public class ThreadPoolExecutorBuilder {
     public ThreadPoolExecutor build() {
         // 创建指定类型和容量的阻塞队列
         BlockingQueue<Runnable> blockingQueue = BlockingQueueTypeEnum.createBlockingQueue(workQueueType.getName(), workQueueCapacity);
+        // 配置了限速参数时，使用限速队列包装原始队列
+        if (permitsPerSecond != null && permitsPerSecond > 0) {
+            blockingQueue = new RateLimitedBlockingQueue<>(blockingQueue, permitsPerSecond, permitsBurst);
+        }
         // 设置拒绝策略，如果未指定则使用默认的AbortPolicy
 
         // 使用Optional.ofNullable来安全处理可能为null的拒绝策略
@@ -236,12 +441,42 @@ public class ThreadPoolExecutorBuilder {
         RejectedExecutionHandler rejectedHandler = Optional.ofNullable(this.rejectedHandler)
                 .orElseGet(ThreadPoolExecutor.AbortPolicy::new);
 
-        // 验证线程工厂不能为空
-        Assert.notNull(threadFactory, "The thread factory cannot be null.");
+        // 验证线程工厂不能为空，逻辑线程池使用共享工作线程，不需要线程工厂
+        if (substrate == null) {
+            Assert.notNull(threadFactory, "The thread factory cannot be null.");
+        }
 
         ThreadPoolExecutor threadPoolExecutor;
-        // 根据是否为动态线程池创建不同类型的线程池实例
-        if (dynamicPool) {
+        // 根据是否为动态线程池创建不同类型的线程池实例，设置了批量任务处理器时创建微批处理线程池
+        if (batchHandler != null) {
+            threadPoolExecutor = new OneThreadBatchExecutor<>(
+                    threadPoolId,
+                    corePoolSize,
+                    maximumPoolSize,
+                    keepAliveTime,
+                    TimeUnit.SECONDS,
+                    blockingQueue,
+                    threadFactory,
+                    rejectedHandler,
+                    awaitTerminationMillis,
+                    batchHandler,
+                    batchSize,
+                    batchLingerMillis
+            );
+        } else if (substrate != null) {
+            threadPoolExecutor = new LogicalOneThreadExecutor(
+                    threadPoolId,
+                    corePoolSize,
+                    maximumPoolSize,
+                    keepAliveTime,
+                    TimeUnit.SECONDS,
+                    blockingQueue,
+                    rejectedHandler,
+                    awaitTerminationMillis,
+                    substrate,
+                    logicalPoolWeight
+            );
+        } else if (dynamicPool) {
             threadPoolExecutor = new OneThreadExecutor(
                     threadPoolId,
                     corePoolSize,
@@ -267,6 +502,26 @@ public class ThreadPoolExecutorBuilder {
 
         // 设置核心线程是否允许超时
         threadPoolExecutor.allowCoreThreadTimeOut(allowCoreThreadTimeOut);
+        if (threadPoolExecutor instanceof OneThreadExecutor) {
+            OneThreadExecutor oneThreadExecutor = (OneThreadExecutor) threadPoolExecutor;
+            // 设置单 Key 并发上限
+            if (keyConcurrencyLimit != null) {
+                oneThreadExecutor.setKeyConcurrencyLimit(keyConcurrencyLimit);
+            }
+            // 注册任务上下文传递器
+            contextPropagators.forEach(oneThreadExecutor::addContextPropagator);
+            // 开启任务资源统计
+            oneThreadExecutor.setTaskAccountingEnabled(taskAccounting);
+            // 启动预热
+            if (warmUp) {
+                oneThreadExecutor.warmUp(warmUpTasks, warmUpConcurrency);
+            }
+            // 开启关闭时转存，并重新提交上次关闭时转存的任务
+            if (drainDirectory != null) {
+                oneThreadExecutor.setQueuedTaskStore(new QueuedTaskStore(drainDirectory, drainAllowedClasses));
+                oneThreadExecutor.restoreQueuedTasks();
+            }
+        }
         return threadPoolExecutor;
     }
 }
@@ -0,0 +1,136 @@
+package com.nageoffer.onethread.core.toolkit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 按负载类型计算线程池大小
+ * <p>
+ * CPU 密集型：线程数等于可用 CPU 核数（小数配额向上取整），最大线程数与核心线程数相同；
+ * IO 密集型：线程数为 {@code cpus / (1 - blockingCoefficient)}，阻塞系数为任务等待 IO 的时间占比，
+ * 最大线程数为核心线程数的 1.5 倍。
+ * 设置了内存上限时，线程栈总大小不超过内存上限的 {@link #THREAD_MEMORY_RATIO}，避免小内存容器中线程数过多
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Getter
+public class ThreadPoolSizing {
+
+    /**
+     * 单个线程栈大小估算值，与 JVM 默认 -Xss 一致
+     */
+    private static final long THREAD_STACK_BYTES = 1024L * 1024L;
+
+    /**
+     * 线程栈最多占用的内存比例
+     */
+    private static final double THREAD_MEMORY_RATIO = 0.25D;
+
+    /**
+     * 负载类型
+     */
+    private final WorkloadClass workloadClass;
+
+    /**
+     * 阻塞系数，取值 [0, 1)，仅 IO 密集型生效
+     */
+    private final double blockingCoefficient;
+
+    private ThreadPoolSizing(WorkloadClass workloadClass, double blockingCoefficient) {
+        if (blockingCoefficient < 0 || blockingCoefficient >= 1) {
+            throw new IllegalArgumentException("The blocking coefficient must be in [0, 1).");
+        }
+        this.workloadClass = workloadClass;
+        this.blockingCoefficient = blockingCoefficient;
+    }
+
+    /**
+     * CPU 密集型
+     */
+    public static ThreadPoolSizing cpuBound() {
+        return new ThreadPoolSizing(WorkloadClass.CPU_BOUND, 0D);
+    }
+
+    /**
+     * IO 密集型
+     *
+     * @param blockingCoefficient 阻塞系数，比如任务 80% 的时间在等待 IO 时为 0.8
+     */
+    public static ThreadPoolSizing ioBound(double blockingCoefficient) {
+        return new ThreadPoolSizing(WorkloadClass.IO_BOUND, blockingCoefficient);
+    }
+
+    /**
+     * 按配置创建，负载类型为 cpu 或 io，不区分大小写
+     *
+     * @param workloadClass       负载类型
+     * @param blockingCoefficient 阻塞系数，仅 IO 密集型生效
+     */
+    public static ThreadPoolSizing of(String workloadClass, double blockingCoefficient) {
+        if ("cpu".equalsIgnoreCase(workloadClass)) {
+            return cpuBound();
+        }
+        if ("io".equalsIgnoreCase(workloadClass)) {
+            return ioBound(blockingCoefficient);
+        }
+        throw new IllegalArgumentException("Unknown workload class: " + workloadClass);
+    }
+
+    /**
+     * 按资源限制计算线程池大小
+     *
+     * @param resources 容器资源限制
+     */
+    public PoolSize compute(ContainerResources resources) {
+        double cpus = resources.getEffectiveCpus();
+        double threads = workloadClass == WorkloadClass.CPU_BOUND ? cpus : cpus / (1 - blockingCoefficient);
+
+        // 减去一个极小值，避免 2.5 / (1 - 0.9) 这类浮点误差被向上取整成 26
+        int corePoolSize = Math.max(1, (int) Math.ceil(threads - 1e-9));
+        int maximumPoolSize = workloadClass == WorkloadClass.CPU_BOUND ? corePoolSize : corePoolSize + (corePoolSize >> 1);
+        if (resources.getMemoryLimitBytes() > 0) {
+            int memoryCap = (int) Math.max(1L, (long) (resources.getMemoryLimitBytes() * THREAD_MEMORY_RATIO / THREAD_STACK_BYTES));
+            maximumPoolSize = Math.min(maximumPoolSize, memoryCap);
+            corePoolSize = Math.min(corePoolSize, maximumPoolSize);
+        }
+        return new PoolSize(corePoolSize, maximumPoolSize);
+    }
+
+    /**
+     * 负载类型
+     */
+    public enum WorkloadClass {
+
+        /**
+         * CPU 密集型
+         */
+        CPU_BOUND,
+
+        /**
+         * IO 密集型
+         */
+        IO_BOUND
+    }
+
+    /**
+     * 线程池大小
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PoolSize {
+
+        /**
+         * 核心线程数
+         */
+        private int corePoolSize;
+
+        /**
+         * 最大线程数
+         */
+        private int maximumPoolSize;
+    }
+}
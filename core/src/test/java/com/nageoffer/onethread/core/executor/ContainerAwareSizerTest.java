@@ -0,0 +1,68 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.toolkit.ContainerResources;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 容器资源感知线程池大小调整单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class ContainerAwareSizerTest {
+
+    @TempDir
+    Path cgroupRoot;
+
+    @Test
+    void testResizeWhenQuotaChanges() throws IOException {
+        Files.writeString(cgroupRoot.resolve("cgroup.controllers"), "cpu memory\n");
+        Files.writeString(cgroupRoot.resolve("cpu.max"), "200000 100000\n");
+
+        ThreadPoolExecutor applied = register("test-sizer-apply", "io", true);
+        ThreadPoolExecutor proposed = register("test-sizer-propose", "cpu", false);
+        ContainerAwareSizer sizer = new ContainerAwareSizer(() -> ContainerResources.read(cgroupRoot, 64));
+
+        List<ContainerAwareSizer.SizingProposal> proposals = sizer.evaluate();
+        assertThat(proposals).extracting(ContainerAwareSizer.SizingProposal::getThreadPoolId)
+                .containsExactlyInAnyOrder("test-sizer-apply", "test-sizer-propose");
+        assertThat(applied.getCorePoolSize()).isEqualTo(4);
+        assertThat(applied.getMaximumPoolSize()).isEqualTo(6);
+        assertThat(proposed.getCorePoolSize()).isEqualTo(1);
+
+        // 配额不变时不再重复计算
+        assertThat(sizer.evaluate()).isEmpty();
+
+        Files.writeString(cgroupRoot.resolve("cpu.max"), "50000 100000\n");
+        sizer.evaluate();
+        assertThat(applied.getCorePoolSize()).isEqualTo(1);
+        assertThat(applied.getMaximumPoolSize()).isEqualTo(1);
+
+        applied.shutdown();
+        proposed.shutdown();
+    }
+
+    private ThreadPoolExecutor register(String threadPoolId, String workloadClass, boolean apply) {
+        ThreadPoolExecutor executor = ThreadPoolExecutorBuilder.builder()
+                .threadPoolId(threadPoolId)
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory(threadPoolId + "_")
+                .build();
+        ThreadPoolExecutorProperties properties = new ThreadPoolExecutorProperties().setThreadPoolId(threadPoolId);
+        properties.setSizing(new ThreadPoolExecutorProperties.SizingConfig(true, workloadClass, 0.5D, apply));
+        OneThreadRegistry.putHolder(threadPoolId, executor, properties);
+        return executor;
+    }
+}
@@ -0,0 +1,151 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.toolkit.ThreadFactoryBuilder;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 共享工作线程逻辑线程池单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class LogicalOneThreadExecutorTest {
+
+    @Test
+    void testBusyPoolDoesNotStarveOthers() throws InterruptedException {
+        SharedWorkerSubstrate substrate = new SharedWorkerSubstrate("test-substrate", 4, ThreadFactoryBuilder.builder().namePrefix("test-substrate_").build());
+        LogicalOneThreadExecutor heavy = buildLogicalPool("test-logical-heavy", 3, substrate);
+        LogicalOneThreadExecutor light = buildLogicalPool("test-logical-light", 2, substrate);
+
+        AtomicInteger heavyInFlight = new AtomicInteger();
+        AtomicInteger heavyMaxInFlight = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            heavy.execute(() -> {
+                heavyMaxInFlight.accumulateAndGet(heavyInFlight.incrementAndGet(), Math::max);
+                sleep(5L);
+                heavyInFlight.decrementAndGet();
+            });
+        }
+        CountDownLatch lightLatch = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            light.execute(lightLatch::countDown);
+        }
+
+        // 繁忙线程池最多占用 3 个共享工作线程，另一个线程池的任务不需要等繁忙线程池的积压执行完
+        assertThat(lightLatch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(heavy.getQueue()).isNotEmpty();
+
+        heavy.shutdown();
+        assertThat(heavy.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(heavy.getCompletedTaskCount()).isEqualTo(200L);
+        assertThat(heavyMaxInFlight.get()).isLessThanOrEqualTo(3);
+        assertThat(heavy.getLargestPoolSize()).isLessThanOrEqualTo(3);
+
+        light.shutdown();
+        assertThat(light.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(substrate.getPoolCount()).isZero();
+
+        // 最后一个逻辑线程池终止后底座自动关闭，共享工作线程退出
+        assertThat(substrate.isShutdown()).isTrue();
+        assertThat(substrate.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testFailedTaskDoesNotKillSharedWorker() throws InterruptedException {
+        SharedWorkerSubstrate substrate = new SharedWorkerSubstrate("test-substrate-error", 1, ThreadFactoryBuilder.builder().namePrefix("test-substrate-error_").build());
+        LogicalOneThreadExecutor executor = buildLogicalPool("test-logical-error", 1, substrate);
+
+        executor.execute(() -> {
+            throw new IllegalStateException("test");
+        });
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(latch::countDown);
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        substrate.shutdown();
+    }
+
+    @Test
+    void testShutdownNowDoesNotInterruptOtherPoolTask() throws InterruptedException {
+        AtomicBoolean holdInterrupt = new AtomicBoolean();
+        CountDownLatch interrupting = new CountDownLatch(1);
+        CountDownLatch releaseInterrupt = new CountDownLatch(1);
+        SharedWorkerSubstrate substrate = new SharedWorkerSubstrate("test-substrate-interrupt", 1, runnable -> new Thread(runnable, "test-substrate-interrupt_0") {
+            @Override
+            public void interrupt() {
+                // 模拟检查到任务仍在执行后、真正中断前的停顿
+                if (holdInterrupt.get()) {
+                    interrupting.countDown();
+                    try {
+                        releaseInterrupt.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.interrupt();
+            }
+        });
+        LogicalOneThreadExecutor stopping = buildLogicalPool("test-logical-stopping", 1, substrate);
+        LogicalOneThreadExecutor other = buildLogicalPool("test-logical-other", 1, substrate);
+
+        CountDownLatch stoppingStarted = new CountDownLatch(1);
+        CountDownLatch stoppingFinish = new CountDownLatch(1);
+        stopping.execute(() -> {
+            stoppingStarted.countDown();
+            try {
+                stoppingFinish.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        assertThat(stoppingStarted.await(1, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch otherStarted = new CountDownLatch(1);
+        AtomicBoolean otherInterrupted = new AtomicBoolean();
+        other.execute(() -> {
+            otherStarted.countDown();
+            sleep(50L);
+            otherInterrupted.set(Thread.currentThread().isInterrupted());
+        });
+
+        holdInterrupt.set(true);
+        Thread stopper = new Thread(stopping::shutdownNow);
+        stopper.start();
+        assertThat(interrupting.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // 中断尚未送达时任务结束，共享工作线程在中断完成前不能开始执行其他线程池的任务
+        stoppingFinish.countDown();
+        assertThat(otherStarted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        releaseInterrupt.countDown();
+        assertThat(otherStarted.await(1, TimeUnit.SECONDS)).isTrue();
+        stopper.join(1000L);
+
+        other.shutdown();
+        assertThat(other.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(otherInterrupted.get()).isFalse();
+    }
+
+    private LogicalOneThreadExecutor buildLogicalPool(String threadPoolId, int maximumPoolSize, SharedWorkerSubstrate substrate) {
+        return (LogicalOneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId(threadPoolId)
+                .corePoolSize(1)
+                .maximumPoolSize(maximumPoolSize)
+                .logicalPool(substrate)
+                .build();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
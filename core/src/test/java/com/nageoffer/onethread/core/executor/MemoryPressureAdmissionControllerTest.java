@@ -0,0 +1,95 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import com.nageoffer.onethread.core.executor.support.BlockingQueueTypeEnum;
+import com.nageoffer.onethread.core.executor.support.ResizableCapacityLinkedBlockingQueue;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 内存压力准入控制单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class MemoryPressureAdmissionControllerTest {
+
+    @Test
+    void testShedAndRestoreWithHysteresis() {
+        OneThreadExecutor resizable = register("test-admission-resizable", BlockingQueueTypeEnum.RESIZABLE_CAPACITY_LINKED_BLOCKING_QUEUE, true);
+        OneThreadExecutor rejecting = register("test-admission-rejecting", BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE, true);
+        OneThreadExecutor untouched = register("test-admission-untouched", BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE, false);
+        ResizableCapacityLinkedBlockingQueue<Runnable> queue = (ResizableCapacityLinkedBlockingQueue<Runnable>) resizable.getQueue();
+
+        BootstrapConfigProperties.AdmissionConfig admissionConfig = new BootstrapConfigProperties.AdmissionConfig();
+        admissionConfig.setEnable(false);
+        MemoryPressureAdmissionController controller = new MemoryPressureAdmissionController(admissionConfig);
+
+        controller.update(0.9D);
+        assertThat(controller.isUnderPressure()).isTrue();
+        assertThat(queue.getCapacity()).isEqualTo(10);
+        assertThat(rejecting.isMemoryShedding()).isTrue();
+        assertThatThrownBy(() -> rejecting.execute(() -> {
+        })).isInstanceOf(RejectedExecutionException.class);
+        assertThat(rejecting.getMemoryShedCount().get()).isEqualTo(1L);
+        assertThat(rejecting.getRejectCount().get()).isEqualTo(1L);
+        untouched.execute(() -> {
+        });
+
+        // 介于高低水位之间时保持压力状态
+        controller.update(0.8D);
+        assertThat(controller.isUnderPressure()).isTrue();
+        assertThat(queue.getCapacity()).isEqualTo(10);
+
+        controller.update(0.6D);
+        assertThat(controller.isUnderPressure()).isFalse();
+        assertThat(queue.getCapacity()).isEqualTo(100);
+        assertThat(rejecting.isMemoryShedding()).isFalse();
+        rejecting.execute(() -> {
+        });
+        assertThat(resizable.getMemoryShedDecisionCount().get()).isEqualTo(2L);
+        assertThat(controller.getPressureEventCount().get()).isEqualTo(1L);
+
+        resizable.shutdown();
+        rejecting.shutdown();
+        untouched.shutdown();
+    }
+
+    @Test
+    void testOnlyTenuredPoolsAreTracked() {
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("G1 Eden Space")).isTrue();
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("G1 Survivor Space")).isTrue();
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("PS Eden Space")).isTrue();
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("Par Survivor Space")).isTrue();
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("ZGC Young Generation")).isTrue();
+
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("G1 Old Gen")).isFalse();
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("PS Old Gen")).isFalse();
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("Tenured Gen")).isFalse();
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("ZGC Old Generation")).isFalse();
+        assertThat(MemoryPressureAdmissionController.isYoungGenerationPool("ZHeap")).isFalse();
+    }
+
+    private OneThreadExecutor register(String threadPoolId, BlockingQueueTypeEnum queueType, boolean sheddable) {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId(threadPoolId)
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .workQueueType(queueType)
+                .workQueueCapacity(100)
+                .threadFactory(threadPoolId + "_")
+                .build();
+        ThreadPoolExecutorProperties properties = new ThreadPoolExecutorProperties()
+                .setThreadPoolId(threadPoolId)
+                .setQueueCapacity(100)
+                .setSheddable(sheddable);
+        OneThreadRegistry.putHolder(threadPoolId, executor, properties);
+        return executor;
+    }
+}
@@ -0,0 +1,117 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.executor.support.BlockingQueueTypeEnum;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 微批处理线程池单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class OneThreadBatchExecutorTest {
+
+    @Test
+    void testItemsAreHandledInBatches() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1000);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        OneThreadBatchExecutor<Integer> executor = (OneThreadBatchExecutor<Integer>) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-batch")
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .workQueueType(BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE)
+                .threadFactory("test-batch_")
+                .<Integer>batchHandler(batch -> {
+                    batchSizes.add(batch.size());
+                    batch.forEach(each -> latch.countDown());
+                }, 100, 50L)
+                .build();
+
+        for (int i = 0; i < 1000; i++) {
+            executor.submitItem(i);
+        }
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(batchSizes).allMatch(each -> each <= 100);
+        assertThat(batchSizes.size()).isLessThan(1000);
+        assertThat(executor.getItemCount().get()).isEqualTo(1000L);
+        assertThat(executor.getBatchSizeHistogram().getCount()).isEqualTo(batchSizes.size());
+        executor.shutdown();
+    }
+
+    @Test
+    void testLingerFlushesPartialBatch() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        OneThreadBatchExecutor<String> executor = (OneThreadBatchExecutor<String>) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-batch-linger")
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory("test-batch-linger_")
+                .<String>batchHandler(batch -> latch.countDown(), 100, 20L)
+                .build();
+
+        executor.submitItem("only-one");
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getBatchSizeHistogram().valueAtPercentile(0.99)).isEqualTo(1L);
+        executor.shutdown();
+    }
+
+    @Test
+    void testNonBatchTaskClosesBatchAndRunsAsNormalTask() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        OneThreadBatchExecutor<String> executor = (OneThreadBatchExecutor<String>) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-batch-mixed")
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory("test-batch-mixed_")
+                .<String>batchHandler(batch -> batchSizes.add(batch.size()), 100, 1000L)
+                .build();
+
+        executor.submitItem("a");
+        Thread.sleep(50L);
+        CountDownLatch plain = new CountDownLatch(1);
+        long startNanos = System.nanoTime();
+        executor.execute(plain::countDown);
+
+        // 普通任务结束当前批次，放回队列后作为独立任务执行，不等凑批超时
+        assertThat(plain.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).isLessThan(900L);
+        assertThat(batchSizes).containsExactly(1);
+        long deadline = System.currentTimeMillis() + 500L;
+        while (executor.getCompletedTaskCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertThat(executor.getCompletedTaskCount()).isEqualTo(2L);
+        executor.shutdown();
+    }
+
+    @Test
+    void testBatchSizeHistogramCoversMaxBatchSize() {
+        OneThreadBatchExecutor<String> executor = (OneThreadBatchExecutor<String>) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-batch-resize")
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory("test-batch-resize_")
+                .<String>batchHandler(batch -> {
+                }, 10, 20L)
+                .build();
+
+        // 调大批大小后，超过初始批大小的批次依然落在准确的桶中
+        executor.setBatchSize(5000);
+        executor.getBatchSizeHistogram().record(5000);
+        assertThat(executor.getBatchSizeHistogram().valueAtPercentile(0.99)).isEqualTo(8192L);
+        assertThatThrownBy(() -> executor.setBatchSize(OneThreadBatchExecutor.MAX_BATCH_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        executor.shutdown();
+    }
+}
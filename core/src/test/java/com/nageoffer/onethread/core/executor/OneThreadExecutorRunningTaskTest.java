@@ -0,0 +1,59 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.executor.support.RunningTaskInfo;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 正在执行任务跟踪单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class OneThreadExecutorRunningTaskTest {
+
+    @Test
+    void testLongRunningTaskIsTrackedAndInterrupted() throws InterruptedException {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-running-task")
+                .dynamicPool()
+                .corePoolSize(2)
+                .maximumPoolSize(2)
+                .threadFactory("test-running-task_")
+                .build();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000L);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+        });
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50L);
+
+        List<RunningTaskInfo> runningTasks = executor.getRunningTasks();
+        assertThat(runningTasks).hasSize(1);
+        assertThat(runningTasks.get(0).getRunningMillis()).isGreaterThanOrEqualTo(50L);
+        assertThat(runningTasks.get(0).captureStackTrace(5)).anyMatch(each -> each.contains("sleep"));
+        assertThat(executor.getRunningTaskAgeHistogram().getCount()).isEqualTo(1L);
+
+        assertThat(runningTasks.get(0).interruptIfRunning()).isTrue();
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // 任务结束后再次中断不会影响该线程后续执行的任务
+        Thread.sleep(50L);
+        assertThat(runningTasks.get(0).interruptIfRunning()).isFalse();
+        assertThat(executor.getRunningTasks()).isEmpty();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,126 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 线程池启动预热单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class OneThreadExecutorWarmUpTest {
+
+    @Test
+    void testWarmUpPrestartsThreadsAndCapsConcurrency() throws Exception {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-warm-up")
+                .dynamicPool()
+                .corePoolSize(4)
+                .maximumPoolSize(4)
+                .threadFactory("test-warm-up_")
+                .build();
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Runnable> warmUpTasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            warmUpTasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10L);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            });
+        }
+        warmUpTasks.add(() -> {
+            throw new IllegalStateException("warm-up failure should not stop other tasks");
+        });
+
+        Long warmUpMillis = executor.warmUp(warmUpTasks, 2).get(5, TimeUnit.SECONDS);
+
+        assertThat(executor.getPoolSize()).isEqualTo(4);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+        assertThat(warmUpMillis).isGreaterThanOrEqualTo(100L);
+        assertThat(executor.getWarmUpMillis()).isEqualTo(warmUpMillis);
+        executor.shutdown();
+    }
+
+    @Test
+    void testDiscardedWarmUpTasksDoNotBlockCompletion() throws Exception {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-warm-up-discard")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .workQueueCapacity(1)
+                .rejectedHandler(new ThreadPoolExecutor.DiscardPolicy())
+                .threadFactory("test-warm-up-discard_")
+                .build();
+
+        // 并发数大于线程数与队列容量之和，多出的预热任务被静默丢弃
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        List<Runnable> warmUpTasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            warmUpTasks.add(() -> {
+                executed.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        CompletableFuture<Long> future = executor.warmUp(warmUpTasks, 5);
+        Thread.sleep(100L);
+        release.countDown();
+
+        assertThat(future.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(executed.get()).isBetween(1, 2);
+        assertThat(executor.getWarmUpMillis()).isNotNull();
+        executor.shutdown();
+    }
+
+    @Test
+    void testWarmUpTimesOut() throws Exception {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-warm-up-timeout")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory("test-warm-up-timeout_")
+                .build();
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<Runnable> warmUpTasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            warmUpTasks.add(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        Long warmUpMillis = executor.warmUp(warmUpTasks, 1, 200L).get(5, TimeUnit.SECONDS);
+
+        assertThat(warmUpMillis).isBetween(200L, 5000L);
+        release.countDown();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,118 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 结构化扇出作用域单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TaskScopeTest {
+
+    private OneThreadExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-scope")
+                .dynamicPool()
+                .corePoolSize(8)
+                .maximumPoolSize(8)
+                .threadFactory("test-scope_")
+                .build();
+        OneThreadRegistry.putHolder("test-scope", executor, new ThreadPoolExecutorProperties().setThreadPoolId("test-scope"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testJoinCollectsAllResults() throws Exception {
+        List<TaskScope.Subtask<Integer>> subtasks = new ArrayList<>();
+        try (TaskScope scope = TaskScope.open("test-scope", 2000L)) {
+            for (int i = 0; i < 20; i++) {
+                int value = i;
+                subtasks.add(scope.fork(() -> value * 2));
+            }
+            scope.join();
+        }
+
+        assertThat(subtasks.stream().mapToInt(TaskScope.Subtask::getResult).sum()).isEqualTo(380);
+        assertThat(executor.getTaskScopeStats().getScopeCount().sum()).isEqualTo(1L);
+        assertThat(executor.getTaskScopeStats().getWidthHistogram().valueAtPercentile(0.99)).isEqualTo(32L);
+    }
+
+    @Test
+    void testFailureCancelsSiblings() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(3);
+        long startNanos = System.nanoTime();
+        try (TaskScope scope = TaskScope.open(executor, 10_000L)) {
+            for (int i = 0; i < 3; i++) {
+                scope.fork(() -> {
+                    try {
+                        Thread.sleep(10_000L);
+                    } catch (InterruptedException ex) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                });
+            }
+            scope.fork(() -> {
+                throw new IllegalStateException("boom");
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).isLessThan(5000L);
+        assertThat(executor.getTaskScopeStats().getFailureCount().sum()).isEqualTo(1L);
+    }
+
+    @Test
+    void testDeadlineCancelsUnfinished() throws InterruptedException {
+        TaskScope.Subtask<String> fast;
+        TaskScope.Subtask<String> slow;
+        try (TaskScope scope = TaskScope.open(executor, 100L)) {
+            fast = scope.fork(() -> "fast");
+            slow = scope.fork(() -> {
+                Thread.sleep(10_000L);
+                return "slow";
+            });
+
+            assertThatThrownBy(scope::join).isInstanceOf(TimeoutException.class);
+        }
+
+        assertThat(fast.getResult()).isEqualTo("fast");
+        assertThat(slow.isCancelled()).isTrue();
+        assertThatThrownBy(slow::getResult).isInstanceOf(IllegalStateException.class);
+        assertThat(executor.getTaskScopeStats().getTimeoutCount().sum()).isEqualTo(1L);
+    }
+
+    @Test
+    void testForkAfterJoinIsRejected() throws Exception {
+        try (TaskScope scope = TaskScope.open(executor, 1000L)) {
+            scope.fork(() -> 1);
+            scope.join();
+            assertThatThrownBy(() -> scope.fork(() -> 2)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.nageoffer.onethread.core.executor;
+
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 线程池统一关闭协调器单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class ThreadPoolShutdownCoordinatorTest {
+
+    @Test
+    void testProducerShutsDownBeforeConsumer() {
+        OneThreadExecutor producer = buildExecutor("test-shutdown-producer");
+        OneThreadExecutor consumer = buildExecutor("test-shutdown-consumer");
+        AtomicBoolean handedOff = new AtomicBoolean();
+        producer.execute(() -> {
+            sleep(200L);
+            // 生产者关闭期间，下游消费者线程池依然可以接收任务
+            consumer.execute(() -> handedOff.set(true));
+        });
+
+        List<ThreadPoolShutdownCoordinator.PoolShutdownStats> stats = new ThreadPoolShutdownCoordinator(5000L).shutdown(Arrays.asList(
+                holder(consumer, 1),
+                holder(producer, 0)
+        ));
+
+        assertThat(handedOff.get()).isTrue();
+        assertThat(stats).extracting(ThreadPoolShutdownCoordinator.PoolShutdownStats::getThreadPoolId)
+                .containsExactly("test-shutdown-producer", "test-shutdown-consumer");
+        assertThat(stats).noneMatch(ThreadPoolShutdownCoordinator.PoolShutdownStats::isForced);
+        assertThat(producer.isTerminated()).isTrue();
+        assertThat(consumer.isTerminated()).isTrue();
+    }
+
+    @Test
+    void testForceShutdownAtDeadline() {
+        OneThreadExecutor executor = buildExecutor("test-shutdown-deadline");
+        CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+            });
+        }
+
+        long startMillis = System.currentTimeMillis();
+        List<ThreadPoolShutdownCoordinator.PoolShutdownStats> stats = new ThreadPoolShutdownCoordinator(200L)
+                .shutdown(Arrays.asList(holder(executor, 0)));
+
+        assertThat(System.currentTimeMillis() - startMillis).isLessThan(2000L);
+        assertThat(stats).hasSize(1);
+        assertThat(stats.get(0).isForced()).isTrue();
+        assertThat(stats.get(0).getQueuedTasks()).isEqualTo(5);
+        assertThat(stats.get(0).getDroppedTasks()).isEqualTo(5);
+    }
+
+    private OneThreadExecutor buildExecutor(String threadPoolId) {
+        return (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId(threadPoolId)
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory(threadPoolId + "_")
+                .build();
+    }
+
+    private ThreadPoolExecutorHolder holder(OneThreadExecutor executor, int shutdownOrder) {
+        ThreadPoolExecutorProperties properties = new ThreadPoolExecutorProperties();
+        properties.setThreadPoolId(executor.getThreadPoolId());
+        properties.setShutdownOrder(shutdownOrder);
+        return new ThreadPoolExecutorHolder(executor.getThreadPoolId(), executor, properties);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 按 Key 隔离并发舱壁单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class KeyedBulkheadTest {
+
+    @Test
+    void testSlowKeyDoesNotOccupyAllWorkers() throws InterruptedException {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-keyed")
+                .dynamicPool()
+                .corePoolSize(4)
+                .maximumPoolSize(4)
+                .threadFactory("test-keyed_")
+                .keyConcurrencyLimit(2)
+                .build();
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        AtomicInteger maxSlowInFlight = new AtomicInteger();
+        AtomicInteger slowInFlight = new AtomicInteger();
+        CountDownLatch slowLatch = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            executor.execute("slow", () -> {
+                maxSlowInFlight.accumulateAndGet(slowInFlight.incrementAndGet(), Math::max);
+                try {
+                    blocker.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                slowInFlight.decrementAndGet();
+                slowLatch.countDown();
+            });
+        }
+
+        // 慢 Key 最多占用 2 个工作线程，其他 Key 的任务依然可以执行
+        CountDownLatch fastLatch = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            executor.execute("fast", fastLatch::countDown);
+        }
+        assertThat(fastLatch.await(2, TimeUnit.SECONDS)).isTrue();
+
+        KeyedBulkhead bulkhead = executor.getKeyedBulkhead();
+        assertThat(bulkhead.getParkedCount()).isEqualTo(18L);
+        List<KeyedBulkhead.KeySnapshot> topKeys = bulkhead.topKeys(1);
+        assertThat(topKeys).hasSize(1);
+        assertThat(topKeys.get(0).getKey()).isEqualTo("slow");
+        assertThat(topKeys.get(0).getInFlight()).isEqualTo(2);
+        assertThat(topKeys.get(0).getParked()).isEqualTo(18);
+
+        blocker.countDown();
+        assertThat(slowLatch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxSlowInFlight.get()).isEqualTo(2);
+        assertThat(bulkhead.getParkedCount()).isZero();
+        executor.shutdown();
+    }
+
+    @Test
+    void testParkedQueueFullRejects() {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-keyed-reject")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory("test-keyed-reject_")
+                .rejectedHandler(new ThreadPoolExecutor.DiscardPolicy())
+                .build();
+        KeyedBulkhead bulkhead = new KeyedBulkhead(executor, 1, 16, 1, 1000L);
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        bulkhead.execute("a", blocking);
+        bulkhead.execute("a", blocking);
+        bulkhead.execute("a", blocking);
+
+        assertThat(bulkhead.getParkedCount()).isEqualTo(1L);
+        assertThat(bulkhead.getRejectCount().get()).isEqualTo(1L);
+        blocker.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testDiscardedTaskReleasesKeySlot() throws InterruptedException {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-keyed-discard")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .workQueueCapacity(1)
+                .threadFactory("test-keyed-discard_")
+                .rejectedHandler(new ThreadPoolExecutor.DiscardPolicy())
+                .build();
+        KeyedBulkhead bulkhead = new KeyedBulkhead(executor, 1, 16, 8, 1000L);
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        bulkhead.execute("block", () -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        bulkhead.execute("queued", () -> {
+        });
+
+        // 工作线程和队列都已占满，DiscardPolicy 静默丢弃任务，Key 的名额依然要归还
+        bulkhead.execute("a", () -> {
+        });
+        executor.setMemoryShedding(true);
+        bulkhead.execute("b", () -> {
+        });
+        executor.setMemoryShedding(false);
+        assertThat(bulkhead.topKeys(10)).extracting(KeyedBulkhead.KeySnapshot::getKey).containsOnly("block", "queued");
+
+        // 名额已归还，两个 Key 的后续任务可以直接执行，不会进入等待队列
+        blocker.countDown();
+        Thread.sleep(100L);
+        CountDownLatch latchA = new CountDownLatch(1);
+        bulkhead.execute("a", latchA::countDown);
+        assertThat(latchA.await(2, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch latchB = new CountDownLatch(1);
+        bulkhead.execute("b", latchB::countDown);
+        assertThat(latchB.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.getParkedCount()).isZero();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,222 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 关闭时转存排队任务单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class QueuedTaskStoreTest {
+
+    private static final AtomicInteger EXECUTED = new AtomicInteger();
+    private static final AtomicInteger NOT_ALLOWED_EXECUTED = new AtomicInteger();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testQueuedTasksAreRestoredOnNextStart() throws InterruptedException {
+        OneThreadExecutor executor = buildExecutor();
+        CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 10; i++) {
+            executor.execute(new CountingTask());
+        }
+        CountDownLatch nonSerializable = new CountDownLatch(1);
+        executor.execute(nonSerializable::countDown);
+        int notAllowedExecuted = NOT_ALLOWED_EXECUTED.get();
+        executor.execute(new NotAllowedTask());
+
+        executor.shutdown();
+        assertThat(Files.exists(tempDir.resolve("test-drain.queue"))).isTrue();
+        blocker.countDown();
+
+        // 不可序列化或不在白名单中的任务留在队列中照常执行，白名单中的任务被转存不执行
+        assertThat(nonSerializable.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.awaitTermination(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(NOT_ALLOWED_EXECUTED.get()).isEqualTo(notAllowedExecuted + 1);
+        assertThat(EXECUTED.get()).isZero();
+
+        OneThreadExecutor restarted = buildExecutor();
+        assertThat(Files.exists(tempDir.resolve("test-drain.queue"))).isFalse();
+        long deadline = System.currentTimeMillis() + 2000L;
+        while (EXECUTED.get() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertThat(EXECUTED.get()).isEqualTo(10);
+        restarted.shutdown();
+    }
+
+    @Test
+    void testNothingIsDrainedWithoutAllowList() throws InterruptedException {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-drain-disabled")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory("test-drain-disabled_")
+                .drainOnShutdown(tempDir)
+                .build();
+        CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        int notAllowedExecuted = NOT_ALLOWED_EXECUTED.get();
+        executor.execute(new NotAllowedTask());
+
+        executor.shutdown();
+        blocker.countDown();
+
+        // 未配置白名单时转存的任务无法读回，任务留在队列中照常执行
+        assertThat(executor.awaitTermination(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(NOT_ALLOWED_EXECUTED.get()).isEqualTo(notAllowedExecuted + 1);
+        assertThat(Files.exists(tempDir.resolve("test-drain-disabled.queue"))).isFalse();
+    }
+
+    private OneThreadExecutor buildExecutor() {
+        return (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-drain")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory("test-drain_")
+                .drainOnShutdown(tempDir, "com.nageoffer.onethread.core.executor.support.QueuedTaskStoreTest$CountingTask")
+                .build();
+    }
+
+    @Test
+    void testTasksNotInAllowListAreSkipped() throws IOException {
+        QueuedTaskStore store = new QueuedTaskStore(tempDir, List.of("com.nageoffer.onethread.core.executor.support.QueuedTaskStoreTest$CountingTask"));
+        store.save("test-filter", List.of(
+                QueuedTaskStore.serialize(new CountingTask()),
+                QueuedTaskStore.serialize(new PayloadTask(new HashMap<>())),
+                QueuedTaskStore.serialize(new PayloadTask(new int[]{1, 2, 3}))
+        ));
+
+        // 任务字段中的 JDK 常用类型允许反序列化，任务类本身不在白名单中时转入隔离文件
+        List<Runnable> tasks = store.load("test-filter");
+        assertThat(tasks).hasSize(1);
+        assertThat(tasks.get(0)).isInstanceOf(CountingTask.class);
+        assertThat(Files.exists(tempDir.resolve("test-filter.queue"))).isFalse();
+        Path quarantine = quarantineFiles("test-filter").get(0);
+
+        // 修正白名单后将隔离文件改回原文件名即可读回
+        Files.move(quarantine, tempDir.resolve("test-filter.queue"));
+        QueuedTaskStore fixedStore = new QueuedTaskStore(tempDir, List.of("com.nageoffer.onethread.core.executor.support.QueuedTaskStoreTest$PayloadTask"));
+        assertThat(fixedStore.load("test-filter")).hasSize(2);
+
+        QueuedTaskStore payloadStore = new QueuedTaskStore(tempDir, List.of("com.nageoffer.onethread.core.executor.support.QueuedTaskStoreTest$PayloadTask"));
+        payloadStore.save("test-filter", List.of(
+                QueuedTaskStore.serialize(new PayloadTask(new HashMap<>())),
+                QueuedTaskStore.serialize(new PayloadTask(new int[]{1, 2, 3})),
+                QueuedTaskStore.serialize(new PayloadTask(new int[100001]))
+        ));
+        // 超过数组长度上限的任务被跳过
+        assertThat(payloadStore.load("test-filter")).hasSize(2);
+    }
+
+    @Test
+    void testCorruptedRecordLengthIsRejected() throws IOException {
+        QueuedTaskStore store = new QueuedTaskStore(tempDir, List.of());
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(tempDir.resolve("test-corrupted.queue"))))) {
+            out.writeInt(0x4F545153);
+            out.writeInt(1);
+            out.writeInt(1);
+            out.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertThatThrownBy(() -> store.load("test-corrupted"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("record length");
+        assertThat(Files.exists(tempDir.resolve("test-corrupted.queue"))).isFalse();
+        assertThat(quarantineFiles("test-corrupted")).hasSize(1);
+    }
+
+    @Test
+    void testSaveAppendsToUnrestoredFile() throws IOException {
+        QueuedTaskStore store = new QueuedTaskStore(tempDir, List.of("com.nageoffer.onethread.core.executor.support.QueuedTaskStoreTest$CountingTask"));
+        store.save("test-append", List.of(store.toRestorableRecord(new CountingTask())));
+        store.save("test-append", List.of(store.toRestorableRecord(new CountingTask()), store.toRestorableRecord(new CountingTask())));
+
+        assertThat(store.load("test-append")).hasSize(3);
+        assertThat(store.toRestorableRecord(new NotAllowedTask())).isNull();
+    }
+
+    @Test
+    void testThreadPoolIdWithPathSeparatorIsRejected() {
+        QueuedTaskStore store = new QueuedTaskStore(tempDir.resolve("store"), List.of());
+
+        assertThatThrownBy(() -> store.save("../escaped", List.of()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid thread pool id");
+        assertThatThrownBy(() -> store.load("..\\escaped")).isInstanceOf(IOException.class);
+        assertThat(Files.exists(tempDir.resolve("escaped.queue"))).isFalse();
+    }
+
+    private List<Path> quarantineFiles(String threadPoolId) throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(each -> each.getFileName().toString().startsWith(threadPoolId + ".queue.rejected-")).collect(Collectors.toList());
+        }
+    }
+
+    private static class CountingTask implements Runnable, Serializable {
+
+        @Override
+        public void run() {
+            EXECUTED.incrementAndGet();
+        }
+    }
+
+    private static class NotAllowedTask implements Runnable, Serializable {
+
+        @Override
+        public void run() {
+            NOT_ALLOWED_EXECUTED.incrementAndGet();
+        }
+    }
+
+    private static class PayloadTask implements Runnable, Serializable {
+
+        private final Object payload;
+
+        private PayloadTask(Object payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+}
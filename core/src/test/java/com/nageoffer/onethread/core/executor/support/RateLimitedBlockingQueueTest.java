@@ -0,0 +1,98 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 限速阻塞队列单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class RateLimitedBlockingQueueTest {
+
+    @Test
+    void testBurstThenPaced() throws InterruptedException {
+        RateLimitedBlockingQueue<Integer> queue = new RateLimitedBlockingQueue<>(new LinkedBlockingQueue<>(), 20, 5);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            assertThat(queue.take()).isEqualTo(i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 前 5 个令牌突发放行，剩余 5 个按 50ms 间隔匀速放行
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(200L);
+        assertThat(queue.getRateLimiter().getAdmittedCount()).isEqualTo(10L);
+        assertThat(queue.getRateLimiter().getThrottledMillis()).isGreaterThan(0L);
+    }
+
+    @Test
+    void testPollTimeoutRefundsPermit() throws InterruptedException {
+        RateLimitedBlockingQueue<Integer> queue = new RateLimitedBlockingQueue<>(new LinkedBlockingQueue<>(), 1, 1);
+
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(queue.getRateLimiter().getAdmittedCount()).isZero();
+
+        queue.offer(1);
+        assertThat(queue.poll()).isEqualTo(1);
+    }
+
+    @Test
+    void testDiscardOldestEvictsWithoutPermit() throws InterruptedException {
+        ThreadPoolExecutor executor = ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-rate-limit-discard-oldest")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .workQueueCapacity(2)
+                .threadFactory("test-rate-limit-discard-oldest_")
+                .permitsPerSecond(0.01, 1)
+                .rejectedHandler(new ThreadPoolExecutor.DiscardOldestPolicy())
+                .build();
+        CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // 唯一的令牌用完后非阻塞 poll 返回空，淘汰队头任务不能依赖限速队列的 poll，否则会反复拒绝直至栈溢出
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Runnable task = () -> {
+            };
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        assertThat(executor.getQueue()).containsExactly(tasks.get(8), tasks.get(9));
+        blocker.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testDrainToBypassesRateLimit() {
+        RateLimitedBlockingQueue<Integer> queue = new RateLimitedBlockingQueue<>(new LinkedBlockingQueue<>(), 1, 1);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(i);
+        }
+
+        assertThat(queue.drainTo(new ArrayList<>())).isEqualTo(100);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+}
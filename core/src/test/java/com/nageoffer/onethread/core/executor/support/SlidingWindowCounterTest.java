@@ -0,0 +1,69 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 滑动窗口计数器单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class SlidingWindowCounterTest {
+
+    @Test
+    void testRateOverWindows() {
+        AtomicLong clock = new AtomicLong(1_000_000L);
+        SlidingWindowCounter counter = new SlidingWindowCounter(900, clock::get);
+
+        // 连续 120 秒每秒 10 次
+        for (int i = 0; i < 120; i++) {
+            counter.add(10L);
+            clock.addAndGet(1000L);
+        }
+        assertThat(counter.rate(60)).isEqualTo(10D);
+        // 运行时长不足窗口时按实际时长计算
+        assertThat(counter.rate(300)).isEqualTo(10D);
+
+        // 静默 30 秒后 1 分钟速率减半，累计数不变
+        clock.addAndGet(30_000L);
+        assertThat(counter.rate(60)).isEqualTo(5D);
+        assertThat(counter.getTotal()).isEqualTo(1200L);
+
+        // 超过最大窗口后桶被复用，过期桶不计入
+        clock.addAndGet(900_000L);
+        counter.increment();
+        clock.addAndGet(1000L);
+        assertThat(counter.rate(60)).isEqualTo(1D / 60);
+        assertThat(counter.getTotal()).isEqualTo(1201L);
+    }
+
+    @Test
+    void testConcurrentIncrementNotLost() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(5_000L);
+        SlidingWindowCounter counter = new SlidingWindowCounter(60, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch latch = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    counter.increment();
+                }
+                latch.countDown();
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        clock.addAndGet(1000L);
+        assertThat(counter.getTotal()).isEqualTo(400_000L);
+        assertThat(counter.rate(1)).isEqualTo(400_000D);
+    }
+}
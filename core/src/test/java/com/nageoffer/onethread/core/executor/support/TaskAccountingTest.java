@@ -0,0 +1,84 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 任务资源统计单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TaskAccountingTest {
+
+    @Test
+    void testStatsAreAttributedToTaskLabel() throws Exception {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-accounting")
+                .dynamicPool()
+                .corePoolSize(2)
+                .maximumPoolSize(2)
+                .threadFactory("test-accounting_")
+                .taskAccounting()
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            executor.submit(new AllocatingTask()).get(1, TimeUnit.SECONDS);
+            executor.submit(new ReportTask()).get(1, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+
+        List<TaskAccounting.TaskStatsSnapshot> taskStats = executor.getTaskAccounting().topN(10);
+        assertThat(taskStats).extracting(TaskAccounting.TaskStatsSnapshot::getLabel)
+                .containsExactlyInAnyOrder(AllocatingTask.class.getName(), "report");
+        assertThat(taskStats).allMatch(each -> each.getCount() == 10L);
+        TaskAccounting.TaskStatsSnapshot allocating = taskStats.stream()
+                .filter(each -> each.getLabel().equals(AllocatingTask.class.getName()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(allocating.getAllocatedBytes()).isGreaterThanOrEqualTo(10L * 1024 * 1024);
+    }
+
+    @Test
+    void testLabelsAreBounded() {
+        TaskAccounting accounting = new TaskAccounting(1);
+        WorkerSlot slot = new WorkerSlot(Thread.currentThread());
+
+        accounting.begin(slot);
+        accounting.end(slot, new AllocatingTask());
+        accounting.begin(slot);
+        accounting.end(slot, new ReportTask());
+
+        assertThat(accounting.topN(10)).extracting(TaskAccounting.TaskStatsSnapshot::getLabel)
+                .containsExactlyInAnyOrder(AllocatingTask.class.getName(), TaskAccounting.OTHERS_LABEL);
+    }
+
+    private static class AllocatingTask implements Runnable {
+
+        private static volatile byte[] sink;
+
+        @Override
+        public void run() {
+            sink = new byte[1024 * 1024];
+        }
+    }
+
+    private static class ReportTask implements Runnable, LabeledTask {
+
+        @Override
+        public String getTaskLabel() {
+            return "report";
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+}
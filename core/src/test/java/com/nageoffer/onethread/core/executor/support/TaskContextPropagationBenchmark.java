@@ -0,0 +1,75 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务上下文传递开销对比：未注册传递器、注册了但上下文为空、注册并携带 MDC 三种情况下单任务的提交 + 执行耗时
+ * <p>
+ * 单线程池单工作线程，避免线程调度差异干扰结果；每种情况先预热再计时。在项目根目录执行：
+ * <pre>
+ * mvn -q -pl core -am test-compile
+ * mvn -q -pl core dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp core/target/classes:core/target/test-classes:$(cat core/target/classpath.txt) \
+ *     com.nageoffer.onethread.core.executor.support.TaskContextPropagationBenchmark
+ * </pre>
+ * 输出三种情况的单任务耗时（ns/task）。disabled 和 enabled-empty 的差异应在多次运行的波动范围之内，即上下文为空时没有可测量的开销；
+ * enabled-mdc 走 Logback 的只读 MDC 快照，提交时不复制 MDC。结果受核数和 JIT 影响较大，对比时在同一台机器上连续运行多次取范围
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TaskContextPropagationBenchmark {
+
+    private static final int WARMUP_TASKS = 200_000;
+    private static final int MEASURE_TASKS = 1_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        run("disabled", buildExecutor(false), false);
+        run("enabled-empty", buildExecutor(true), false);
+        run("enabled-mdc", buildExecutor(true), true);
+    }
+
+    private static void run(String name, OneThreadExecutor executor, boolean withMdc) throws InterruptedException {
+        if (withMdc) {
+            MDC.put("traceId", "6f1c2d3e4b5a6978");
+            MDC.put("tenantId", "tenant-1");
+        }
+
+        submit(executor, WARMUP_TASKS);
+        long start = System.nanoTime();
+        submit(executor, MEASURE_TASKS);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-14s %8.1f ns/task%n", name, (double) elapsed / MEASURE_TASKS);
+        MDC.clear();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static void submit(OneThreadExecutor executor, int count) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            executor.execute(latch::countDown);
+        }
+        latch.await();
+    }
+
+    private static OneThreadExecutor buildExecutor(boolean enabled) {
+        ThreadPoolExecutorBuilder builder = ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("benchmark-context")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .workQueueCapacity(MEASURE_TASKS)
+                .threadFactory("benchmark-context_");
+        if (enabled) {
+            builder.contextPropagator(new MdcTaskContextPropagator());
+        }
+        return (OneThreadExecutor) builder.build();
+    }
+}
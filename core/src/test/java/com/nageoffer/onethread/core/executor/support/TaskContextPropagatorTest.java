@@ -0,0 +1,102 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 任务上下文传递单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TaskContextPropagatorTest {
+
+    private static final ThreadLocal<String> TENANT = new ThreadLocal<>();
+
+    @AfterEach
+    void clearContext() {
+        MDC.clear();
+        TENANT.remove();
+    }
+
+    @Test
+    void testContextIsRestoredAndCleared() throws Exception {
+        OneThreadExecutor executor = buildExecutor("test-context");
+
+        MDC.put("traceId", "trace-1");
+        TENANT.set("tenant-1");
+        String propagated = executor.submit(() -> MDC.get("traceId") + "/" + TENANT.get()).get(1, TimeUnit.SECONDS);
+        assertThat(propagated).isEqualTo("trace-1/tenant-1");
+
+        // 提交线程清空上下文后，同一个工作线程不应残留上一个任务的上下文
+        MDC.clear();
+        TENANT.remove();
+        String leaked = executor.submit(() -> MDC.get("traceId") + "/" + TENANT.get()).get(1, TimeUnit.SECONDS);
+        assertThat(leaked).isEqualTo("null/null");
+        executor.shutdown();
+    }
+
+    @Test
+    void testParkedKeyedTaskDoesNotInheritPreviousTaskContext() throws Exception {
+        OneThreadExecutor executor = buildExecutor("test-context-keyed");
+        executor.setKeyConcurrencyLimit(1);
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        TENANT.set("tenant-1");
+        executor.execute("key", () -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // 等待中的任务由上一个任务在工作线程中转交提交，此时工作线程仍是上一个任务的上下文
+        TENANT.remove();
+        AtomicReference<String> tenant = new AtomicReference<>("unset");
+        CountDownLatch finished = new CountDownLatch(1);
+        executor.execute("key", () -> {
+            tenant.set(TENANT.get());
+            finished.countDown();
+        });
+        blocker.countDown();
+
+        assertThat(finished.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(tenant.get()).isNull();
+        executor.shutdown();
+    }
+
+    @Test
+    void testMdcSnapshotIsReusedWhenUnchanged() {
+        MdcTaskContextPropagator propagator = new MdcTaskContextPropagator();
+        assertThat(propagator.capture()).isNull();
+
+        MDC.put("traceId", "trace-1");
+        Object first = propagator.capture();
+        assertThat(propagator.capture()).isSameAs(first);
+
+        MDC.put("traceId", "trace-2");
+        assertThat(propagator.capture()).isNotSameAs(first);
+    }
+
+    static OneThreadExecutor buildExecutor(String threadPoolId) {
+        return (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId(threadPoolId)
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .threadFactory(threadPoolId + "_")
+                .contextPropagator(new MdcTaskContextPropagator())
+                .contextPropagator(new ThreadLocalTaskContextPropagator<>(TENANT))
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 对冲执行单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TaskHedgerTest {
+
+    private OneThreadExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-hedge")
+                .dynamicPool()
+                .corePoolSize(4)
+                .maximumPoolSize(4)
+                .threadFactory("test-hedge_")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testNoHedgeBeforeEnoughSamples() {
+        assertThat(executor.getTaskHedger().getHedgeDelayMillis()).isEqualTo(-1L);
+    }
+
+    @Test
+    void testSlowPrimaryIsHedged() throws Exception {
+        warmUp();
+        TaskHedger hedger = executor.getTaskHedger();
+        assertThat(hedger.getHedgeDelayMillis()).isBetween(1L, 5L);
+
+        AtomicInteger attempts = new AtomicInteger();
+        long startNanos = System.nanoTime();
+        CompletableFuture<String> result = executor.submitHedged(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(3000L);
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertThat(result.get(2, TimeUnit.SECONDS)).isEqualTo("hedge");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).isLessThan(1000L);
+        // 胜出次数在结果完成之后才累加，等待对冲执行线程完成计数
+        long deadline = System.currentTimeMillis() + 1000L;
+        while (hedger.getHedgeWinCount().sum() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertThat(hedger.getHedgeWinCount().sum()).isGreaterThanOrEqualTo(1L);
+        assertThat(hedger.getHedgeWinRate()).isGreaterThan(0D);
+    }
+
+    @Test
+    void testHedgeIsBudgeted() throws Exception {
+        TaskHedger hedger = executor.getTaskHedger();
+        hedger.setBudgetPercent(0D);
+        warmUp();
+
+        CompletableFuture<String> result = executor.submitHedged(() -> {
+            Thread.sleep(200L);
+            return "primary";
+        });
+
+        assertThat(result.get(2, TimeUnit.SECONDS)).isEqualTo("primary");
+        assertThat(hedger.getHedgeCount().sum()).isZero();
+        assertThat(hedger.getBudgetExhaustedCount().sum()).isGreaterThanOrEqualTo(1L);
+    }
+
+    @Test
+    void testDiscardedPrimaryFailsResult() throws Exception {
+        OneThreadExecutor discardExecutor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-hedge-discard")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .workQueueCapacity(1)
+                .rejectedHandler(new ThreadPoolExecutor.DiscardPolicy())
+                .threadFactory("test-hedge-discard_")
+                .build();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            discardExecutor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            discardExecutor.execute(() -> {
+            });
+
+            // 样本不足不会对冲，首次执行被静默丢弃后结果也要结束
+            CompletableFuture<String> result = discardExecutor.submitHedged(() -> "discarded");
+
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+            assertThat(ex.getCause()).isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+            discardExecutor.shutdownNow();
+        }
+    }
+
+    private void warmUp() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            executor.submitHedged(() -> "warm-up").get(1, TimeUnit.SECONDS);
+        }
+    }
+}
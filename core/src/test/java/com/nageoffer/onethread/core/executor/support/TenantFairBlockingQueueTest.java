@@ -0,0 +1,108 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多租户加权公平队列单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class TenantFairBlockingQueueTest {
+
+    @Test
+    void testNoisyTenantDoesNotStarveOthers() {
+        TenantFairBlockingQueue<Runnable> queue = new TenantFairBlockingQueue<>(10000);
+        for (int i = 0; i < 1000; i++) {
+            queue.offer(TenantTask.of("noisy", () -> {
+            }));
+        }
+        for (int i = 0; i < 10; i++) {
+            queue.offer(TenantTask.of("quiet", () -> {
+            }));
+        }
+
+        // 后入队的安静租户不需要等嘈杂租户的积压出队完
+        Map<String, Long> dequeued = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            dequeued.merge(TenantFairBlockingQueue.resolveTenant(queue.poll()), 1L, Long::sum);
+        }
+        assertThat(dequeued.get("quiet")).isEqualTo(10L);
+        assertThat(queue.size()).isEqualTo(990);
+    }
+
+    @Test
+    void testDequeueProportionalToWeight() {
+        TenantFairBlockingQueue<Runnable> queue = new TenantFairBlockingQueue<>(10000);
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("gold", 3);
+        queue.setTenantWeights(weights);
+        for (int i = 0; i < 1000; i++) {
+            queue.offer(TenantTask.of("gold", () -> {
+            }));
+            queue.offer(TenantTask.of("silver", () -> {
+            }));
+        }
+
+        Map<String, Long> dequeued = new HashMap<>();
+        for (int i = 0; i < 400; i++) {
+            dequeued.merge(TenantFairBlockingQueue.resolveTenant(queue.poll()), 1L, Long::sum);
+        }
+        assertThat(dequeued.get("gold")).isEqualTo(300L);
+        assertThat(dequeued.get("silver")).isEqualTo(100L);
+    }
+
+    @Test
+    void testPerTenantCapacityAndSnapshots() {
+        TenantFairBlockingQueue<Runnable> queue = new TenantFairBlockingQueue<>(2);
+        Map<String, Integer> capacities = new HashMap<>();
+        capacities.put("big", 5);
+        queue.setTenantCapacities(capacities);
+
+        for (int i = 0; i < 3; i++) {
+            queue.offer(TenantTask.of("small", () -> {
+            }));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThat(queue.offer(TenantTask.of("big", () -> {
+            }))).isTrue();
+        }
+        // 未实现 TenantTask 的任务归入默认租户
+        assertThat(queue.offer(() -> {
+        })).isTrue();
+
+        Map<String, TenantFairBlockingQueue.TenantSnapshot> snapshots = queue.tenantSnapshots().stream()
+                .collect(Collectors.toMap(TenantFairBlockingQueue.TenantSnapshot::getTenant, each -> each));
+        assertThat(snapshots.get("small").getDepth()).isEqualTo(2);
+        assertThat(snapshots.get("small").getOverflowCount()).isEqualTo(1L);
+        assertThat(snapshots.get("big").getCapacity()).isEqualTo(5);
+        assertThat(snapshots.get(TenantFairBlockingQueue.DEFAULT_TENANT).getDepth()).isEqualTo(1);
+
+        List<Runnable> drained = new ArrayList<>();
+        assertThat(queue.drainTo(drained)).isEqualTo(8);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testTenantsBeyondLimitShareOthersQueue() {
+        TenantFairBlockingQueue<Runnable> queue = new TenantFairBlockingQueue<>(100, 3);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(TenantTask.of("tenant-" + i, () -> {
+            }));
+        }
+
+        List<String> tenants = queue.tenantSnapshots().stream()
+                .map(TenantFairBlockingQueue.TenantSnapshot::getTenant)
+                .collect(Collectors.toList());
+        assertThat(tenants).containsExactly("tenant-0", "tenant-1", TenantFairBlockingQueue.OTHERS_TENANT);
+        assertThat(queue.size()).isEqualTo(5);
+    }
+}
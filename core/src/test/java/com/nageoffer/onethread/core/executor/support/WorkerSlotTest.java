@@ -0,0 +1,63 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 工作线程任务槽位单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class WorkerSlotTest {
+
+    @Test
+    void testTaskCannotEndWhileBeingInterrupted() throws InterruptedException {
+        CountDownLatch interrupting = new CountDownLatch(1);
+        CountDownLatch releaseInterrupt = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+        }) {
+            @Override
+            public void interrupt() {
+                // 模拟检查通过后、真正中断前的停顿
+                interrupting.countDown();
+                try {
+                    releaseInterrupt.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                super.interrupt();
+            }
+        };
+        WorkerSlot slot = new WorkerSlot(worker);
+        slot.begin(() -> {
+        });
+        RunningTaskInfo runningTask = slot.snapshot(System.nanoTime());
+
+        Thread interrupter = new Thread(runningTask::interruptIfRunning);
+        interrupter.start();
+        assertThat(interrupting.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // 中断过程中任务不能结束，否则中断会落到工作线程的下一个任务上
+        Thread finisher = new Thread(() -> {
+            slot.end();
+            slot.begin(() -> {
+            });
+        });
+        finisher.start();
+        long deadline = System.currentTimeMillis() + 1000L;
+        while (finisher.getState() != Thread.State.BLOCKED && finisher.isAlive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertThat(finisher.getState()).isEqualTo(Thread.State.BLOCKED);
+
+        releaseInterrupt.countDown();
+        interrupter.join(1000L);
+        finisher.join(1000L);
+        assertThat(runningTask.interruptIfRunning()).isFalse();
+    }
+}
@@ -0,0 +1,107 @@
+package com.nageoffer.onethread.core.executor.support;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 工作线程时间分布采样器单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class WorkerTimeSamplerTest {
+
+    private static final Object LOCK = new Object();
+
+    @Test
+    void testCpuBusyWorkers() throws Exception {
+        OneThreadExecutor executor = newExecutor("worker-time-cpu");
+        CountDownLatch stop = new CountDownLatch(1);
+        try {
+            executor.prestartAllCoreThreads();
+            // 两个工作线程一个忙于计算、一个空闲，单核机器上也能稳定得到约 50% 的 CPU 占比
+            executor.execute(() -> {
+                long x = 0;
+                while (stop.getCount() > 0) {
+                    x += System.nanoTime() % 7;
+                }
+                assertThat(x).isNotNegative();
+            });
+            WorkerTimeSampler sampler = executor.getWorkerTimeSampler();
+            sampler.sample();
+            Thread.sleep(500L);
+            WorkerTimeSampler.WorkerTimeSnapshot snapshot = sampler.sample();
+
+            assertThat(snapshot.getThreadCount()).isEqualTo(2);
+            assertThat(snapshot.getCpuPercent()).isGreaterThan(25D);
+            assertThat(sampler.getLatest()).isSameAs(snapshot);
+        } finally {
+            stop.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBlockedAndIdleWorkers() throws Exception {
+        WorkerTimeSampler.enableContentionMonitoring();
+        OneThreadExecutor executor = newExecutor("worker-time-blocked");
+        CountDownLatch started = new CountDownLatch(2);
+        try {
+            executor.prestartAllCoreThreads();
+            WorkerTimeSampler sampler = executor.getWorkerTimeSampler();
+            sampler.sample();
+            Thread.sleep(300L);
+
+            // 空闲线程在队列上等待任务，计入等待时间
+            WorkerTimeSampler.WorkerTimeSnapshot idle = sampler.sample();
+            assertThat(idle.getCpuPercent()).isLessThan(20D);
+            assertThat(idle.getWaitingPercent()).isGreaterThan(50D);
+
+            synchronized (LOCK) {
+                sampler.sample();
+                for (int i = 0; i < 2; i++) {
+                    executor.execute(() -> {
+                        started.countDown();
+                        synchronized (LOCK) {
+                            LOCK.notifyAll();
+                        }
+                    });
+                }
+                started.await();
+                Thread.sleep(300L);
+                WorkerTimeSampler.WorkerTimeSnapshot blocked = sampler.sample();
+                assertThat(blocked.getBlockedPercent()).isGreaterThan(50D);
+                assertThat(blocked.getBlockedCount()).isEqualTo(2L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReplacedThreadFactoryStillTracked() {
+        OneThreadExecutor executor = newExecutor("worker-time-factory");
+        try {
+            executor.setThreadFactory(Executors.defaultThreadFactory());
+            assertThat(executor.getThreadFactory()).isInstanceOf(TrackingThreadFactory.class);
+
+            executor.prestartAllCoreThreads();
+            assertThat(((TrackingThreadFactory) executor.getThreadFactory()).liveThreadIds()).hasSize(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private OneThreadExecutor newExecutor(String threadPoolId) {
+        return new OneThreadExecutor(threadPoolId, 2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy(), 0L);
+    }
+}
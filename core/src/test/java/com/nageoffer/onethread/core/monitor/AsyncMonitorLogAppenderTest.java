@@ -0,0 +1,75 @@
+package com.nageoffer.onethread.core.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 监控日志异步输出器单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class AsyncMonitorLogAppenderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndRotateBySize() throws IOException {
+        Path file = tempDir.resolve("monitor.log");
+        AsyncMonitorLogAppender appender = new AsyncMonitorLogAppender(file.toString(), 1024, 100L, 0L, 2);
+        for (int i = 0; i < 20; i++) {
+            // 每行 20 字节，每个文件最多 5 行
+            assertThat(appender.append(line(i))).isTrue();
+        }
+        appender.close();
+
+        List<Path> files = listFiles();
+        // 当前文件加最多 2 个滚动文件
+        assertThat(files).hasSize(3).contains(file);
+        assertThat(Files.readAllLines(file)).hasSize(5).last().isEqualTo("ts=1 pool=line-0019");
+        for (Path each : files) {
+            assertThat(Files.size(each)).isLessThanOrEqualTo(100L);
+        }
+        assertThat(appender.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void testDropWhenQueueFullOrClosed() throws IOException {
+        Path file = tempDir.resolve("monitor.log");
+        AsyncMonitorLogAppender appender = new AsyncMonitorLogAppender(file.toString(), 1, 0L, 0L, 1);
+        int accepted = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (appender.append(line(i))) {
+                accepted++;
+            }
+        }
+        appender.close();
+        assertThat(appender.append(line(0))).isFalse();
+
+        long dropped = appender.getDroppedCount();
+        assertThat(dropped).isPositive().isEqualTo(1001 - accepted);
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines.stream().filter(each -> each.startsWith("ts=1 pool="))).hasSize(accepted);
+    }
+
+    private static byte[] line(int index) {
+        return String.format("ts=1 pool=line-%04d\n", index).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.nageoffer.onethread.core.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 线程池指标历史环形缓冲区单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class MetricHistoryBufferTest {
+
+    @Test
+    void testOverwriteOldestWhenFull() {
+        MetricHistoryBuffer buffer = new MetricHistoryBuffer(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.record(i * 1000L, runtimeInfo(i, i * 10L, 0L));
+        }
+
+        MetricHistoryBuffer.Series series = buffer.query(0L, 0L, 0L, true);
+        assertThat(buffer.size()).isEqualTo(3);
+        assertThat(series.getTimestamps()).containsExactly(3000L, 4000L, 5000L);
+        assertThat(series.getActivePoolSizes()).containsExactly(3D, 4D, 5D);
+        assertThat(series.getCompletedTaskCounts()).containsExactly(10L, 10L, 10L);
+    }
+
+    @Test
+    void testRangeAndDownsample() {
+        MetricHistoryBuffer buffer = new MetricHistoryBuffer(16);
+        buffer.record(10_000L, runtimeInfo(2, 100L, 0L));
+        buffer.record(20_000L, runtimeInfo(6, 130L, 1L));
+        buffer.record(30_000L, runtimeInfo(4, 150L, 1L));
+        buffer.record(70_000L, runtimeInfo(1, 160L, 4L));
+
+        MetricHistoryBuffer.Series max = buffer.query(15_000L, 0L, 60_000L, true);
+        assertThat(max.getTimestamps()).containsExactly(0L, 60_000L);
+        assertThat(max.getActivePoolSizes()).containsExactly(6D, 1D);
+        assertThat(max.getCompletedTaskCounts()).containsExactly(50L, 10L);
+        assertThat(max.getRejectCounts()).containsExactly(1L, 3L);
+
+        MetricHistoryBuffer.Series avg = buffer.query(0L, 60_000L, 60_000L, false);
+        assertThat(avg.getTimestamps()).containsExactly(0L);
+        assertThat(avg.getActivePoolSizes()).containsExactly(4D);
+    }
+
+    private ThreadPoolRuntimeInfo runtimeInfo(int activePoolSize, long completedTaskCount, long rejectCount) {
+        return ThreadPoolRuntimeInfo.builder()
+                .corePoolSize(8)
+                .maximumPoolSize(8)
+                .currentPoolSize(8)
+                .activePoolSize(activePoolSize)
+                .workQueueSize(0)
+                .workQueueCapacity(100)
+                .completedTaskCount(completedTaskCount)
+                .rejectCount(rejectCount)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.nageoffer.onethread.core.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 监控日志编码器单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class MonitorLogEncoderTest {
+
+    @Test
+    void testEncodeRuntimeInfo() {
+        ThreadPoolRuntimeInfo runtimeInfo = ThreadPoolRuntimeInfo.builder()
+                .threadPoolId("order-pool")
+                .corePoolSize(2)
+                .maximumPoolSize(4)
+                .activePoolSize(1)
+                .completedTaskCount(1024L)
+                .workQueueName("LinkedBlockingQueue")
+                .workQueueSize(3)
+                .queueTrendPerSecond(-1.256D)
+                .rejectCount(0L)
+                .build();
+
+        String line = new String(new MonitorLogEncoder().encode(1760000000000L, "demo", runtimeInfo), StandardCharsets.UTF_8);
+
+        assertThat(line).isEqualTo("ts=1760000000000 app=demo pool=order-pool core=2 max=4 active=1 completed=1024"
+                + " queue=LinkedBlockingQueue queue_size=3 queue_trend=-1.26 reject=0\n");
+    }
+
+    @Test
+    void testQuoteAndEscapeString() {
+        MonitorLogEncoder encoder = new MonitorLogEncoder();
+        ThreadPoolRuntimeInfo runtimeInfo = ThreadPoolRuntimeInfo.builder()
+                .threadPoolId("订单 \"pool\"\nx=1")
+                .build();
+
+        String line = new String(encoder.encode(1L, "demo", runtimeInfo), StandardCharsets.UTF_8);
+        assertThat(line).isEqualTo("ts=1 app=demo pool=\"订单 \\\"pool\\\"\\nx=1\"\n");
+
+        // 复用缓冲区，前一条记录不影响后一条
+        assertThat(new String(encoder.encodeDropped(2L, 3L, 5L), StandardCharsets.UTF_8))
+                .isEqualTo("ts=2 event=dropped dropped=3 total=5\n");
+    }
+}
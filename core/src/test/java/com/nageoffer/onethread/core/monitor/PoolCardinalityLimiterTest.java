@@ -0,0 +1,70 @@
+package com.nageoffer.onethread.core.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 线程池指标基数限制器单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class PoolCardinalityLimiterTest {
+
+    @Test
+    void testBusiestPoolsStayDetailedAndOthersAggregated() {
+        PoolCardinalityLimiter limiter = new PoolCardinalityLimiter(2);
+        for (int i = 0; i < 4; i++) {
+            limiter.update(runtimeInfo("pool-" + i, 0, 0L));
+        }
+        assertThat(limiter.isDetailed("pool-0")).isTrue();
+        assertThat(limiter.isDetailed("pool-1")).isTrue();
+        assertThat(limiter.isDetailed("pool-2")).isFalse();
+
+        // 空闲时排名不变，不会来回切换
+        assertThat(limiter.rebalance()).isEmpty();
+        assertThat(limiter.getOthersPoolCount()).isEqualTo(2);
+
+        // pool-3 变得繁忙，挤掉一个空闲的明细线程池
+        limiter.update(runtimeInfo("pool-3", 5, 10L));
+        List<String> evicted = limiter.rebalance();
+        assertThat(evicted).hasSize(1).isSubsetOf("pool-0", "pool-1");
+        assertThat(limiter.isDetailed("pool-3")).isTrue();
+        assertThat(limiter.isDetailed(evicted.get(0))).isFalse();
+
+        ThreadPoolRuntimeInfo others = limiter.getOthersRuntimeInfo();
+        assertThat(others.getThreadPoolId()).isEqualTo(PoolCardinalityLimiter.OTHERS_POOL_ID);
+        assertThat(others.getCorePoolSize()).isEqualTo(2);
+        assertThat(others.getWorkQueueCapacity()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testUnlimited() {
+        PoolCardinalityLimiter limiter = new PoolCardinalityLimiter(0);
+        for (int i = 0; i < 10; i++) {
+            limiter.update(runtimeInfo("pool-" + i, 0, 0L));
+            assertThat(limiter.isDetailed("pool-" + i)).isTrue();
+        }
+        assertThat(limiter.rebalance()).isEmpty();
+        assertThat(limiter.getOthersRuntimeInfo()).isNull();
+    }
+
+    private static ThreadPoolRuntimeInfo runtimeInfo(String threadPoolId, int activePoolSize, long completedTaskCount) {
+        return ThreadPoolRuntimeInfo.builder()
+                .threadPoolId(threadPoolId)
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .currentPoolSize(1)
+                .largestPoolSize(1)
+                .activePoolSize(activePoolSize)
+                .workQueueSize(0)
+                .workQueueCapacity(Integer.MAX_VALUE)
+                .workQueueRemainingCapacity(Integer.MAX_VALUE)
+                .completedTaskCount(completedTaskCount)
+                .rejectCount(0L)
+                .build();
+    }
+}
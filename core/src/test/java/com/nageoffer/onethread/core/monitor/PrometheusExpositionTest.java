@@ -0,0 +1,86 @@
+package com.nageoffer.onethread.core.monitor;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prometheus 文本格式指标输出单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class PrometheusExpositionTest {
+
+    @Test
+    void testScrapeGaugesAndHistograms() throws IOException {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-prometheus")
+                .dynamicPool()
+                .corePoolSize(2)
+                .maximumPoolSize(4)
+                .threadFactory("test-prometheus_")
+                .build();
+        executor.getTaskScopeStats().record(3, 12L, false, false);
+
+        BucketHistogram runningTaskAgeHistogram = BucketHistogram.millis();
+        runningTaskAgeHistogram.record(30L);
+        PrometheusExposition.update(runtimeInfo("test-prometheus", 10L), executor, BucketHistogram.millis());
+        PrometheusExposition.update(runtimeInfo("test-prometheus", 25L), executor, runningTaskAgeHistogram);
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        PrometheusExposition.scrape(plain, false);
+        String text = plain.toString(StandardCharsets.UTF_8);
+        assertThat(text).contains("# TYPE dynamic_thread_pool_core_size gauge\n");
+        assertThat(text).contains("dynamic_thread_pool_core_size{dynamic_thread_pool_id=\"test-prometheus\",application_name=\"\"} 2\n");
+        assertThat(text).contains("dynamic_thread_pool_completed_task_count{dynamic_thread_pool_id=\"test-prometheus\",application_name=\"\"} 15\n");
+        assertThat(text).contains("# TYPE dynamic_thread_pool_scope_distribution_width histogram\n");
+        assertThat(text).contains("dynamic_thread_pool_scope_distribution_width_bucket{dynamic_thread_pool_id=\"test-prometheus\",application_name=\"\",le=\"2\"} 0\n");
+        assertThat(text).contains("dynamic_thread_pool_scope_distribution_width_bucket{dynamic_thread_pool_id=\"test-prometheus\",application_name=\"\",le=\"4\"} 1\n");
+        assertThat(text).contains("dynamic_thread_pool_scope_distribution_width_sum{dynamic_thread_pool_id=\"test-prometheus\",application_name=\"\"} 3\n");
+        assertThat(text).doesNotContain("rate_limit");
+
+        // 正在执行任务的时长分布是每个周期替换的快照，按桶输出为 Gauge 而不是直方图
+        assertThat(text).contains("# TYPE dynamic_thread_pool_running_task_age_millis_bucket_current gauge\n");
+        assertThat(text).contains("dynamic_thread_pool_running_task_age_millis_bucket_current{dynamic_thread_pool_id=\"test-prometheus\",application_name=\"\",le=\"20\"} 0\n");
+        assertThat(text).contains("dynamic_thread_pool_running_task_age_millis_bucket_current{dynamic_thread_pool_id=\"test-prometheus\",application_name=\"\",le=\"50\"} 1\n");
+        assertThat(text).contains("dynamic_thread_pool_running_task_age_millis_bucket_current{dynamic_thread_pool_id=\"test-prometheus\",application_name=\"\",le=\"+Inf\"} 1\n");
+        assertThat(text).doesNotContain("running_task_age_millis histogram").doesNotContain("running_task_age_millis_count");
+
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        PrometheusExposition.scrape(gzip, true);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(text);
+        }
+
+        PrometheusExposition.remove("test-prometheus");
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        PrometheusExposition.scrape(empty, false);
+        assertThat(empty.toString(StandardCharsets.UTF_8)).doesNotContain("test-prometheus");
+        executor.shutdown();
+    }
+
+    private ThreadPoolRuntimeInfo runtimeInfo(String threadPoolId, long completedTaskCount) {
+        return ThreadPoolRuntimeInfo.builder()
+                .threadPoolId(threadPoolId)
+                .corePoolSize(2)
+                .maximumPoolSize(4)
+                .currentPoolSize(0)
+                .largestPoolSize(0)
+                .activePoolSize(0)
+                .workQueueSize(0)
+                .workQueueCapacity(100)
+                .workQueueRemainingCapacity(100)
+                .completedTaskCount(completedTaskCount)
+                .rejectCount(0L)
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.nageoffer.onethread.core.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 队列饱和预测器单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class QueueSaturationForecasterTest {
+
+    @Test
+    void testSteadyGrowthPredictsTimeToFull() {
+        QueueSaturationForecaster forecaster = new QueueSaturationForecaster();
+        QueueSaturationForecaster.Forecast forecast = null;
+        // 每 5 秒增长 50 个，即 10 个/秒，容量 1000
+        for (int i = 0; i <= 10; i++) {
+            forecast = forecaster.observe(i * 5000L, i * 50, 1000L);
+        }
+
+        assertThat(forecast.getTrendPerSecond()).isBetween(8D, 12D);
+        // 当前深度 500，剩余 500，约 50 秒打满
+        assertThat(forecast.getSecondsToFull()).isBetween(40L, 65L);
+        assertThat(forecast.getSecondsToDrain()).isEqualTo(QueueSaturationForecaster.UNKNOWN);
+        assertThat(forecaster.getLatest()).isSameAs(forecast);
+    }
+
+    @Test
+    void testDrainingQueuePredictsTimeToDrain() {
+        QueueSaturationForecaster forecaster = new QueueSaturationForecaster();
+        QueueSaturationForecaster.Forecast forecast = null;
+        for (int i = 0; i <= 10; i++) {
+            forecast = forecaster.observe(i * 1000L, 800 - i * 20, 1000L);
+        }
+
+        assertThat(forecast.getTrendPerSecond()).isLessThan(0D);
+        assertThat(forecast.getSecondsToFull()).isEqualTo(QueueSaturationForecaster.UNKNOWN);
+        // 当前深度 600，约 20 个/秒，约 30 秒排空
+        assertThat(forecast.getSecondsToDrain()).isBetween(25L, 45L);
+    }
+
+    @Test
+    void testUnboundedAndFlatQueue() {
+        QueueSaturationForecaster forecaster = new QueueSaturationForecaster();
+        forecaster.observe(0L, 0, Integer.MAX_VALUE);
+        QueueSaturationForecaster.Forecast unbounded = forecaster.observe(1000L, 100, Integer.MAX_VALUE);
+        assertThat(unbounded.getTrendPerSecond()).isPositive();
+        assertThat(unbounded.getSecondsToFull()).isEqualTo(QueueSaturationForecaster.UNKNOWN);
+
+        QueueSaturationForecaster flat = new QueueSaturationForecaster();
+        for (int i = 0; i < 5; i++) {
+            flat.observe(i * 1000L, 10, 100L);
+        }
+        assertThat(flat.getLatest().getTrendPerSecond()).isZero();
+        assertThat(flat.getLatest().getSecondsToFull()).isEqualTo(QueueSaturationForecaster.UNKNOWN);
+        assertThat(flat.getLatest().getSecondsToDrain()).isEqualTo(QueueSaturationForecaster.UNKNOWN);
+    }
+
+    @Test
+    void testIgnoreTooFrequentObservations() {
+        QueueSaturationForecaster forecaster = new QueueSaturationForecaster();
+        QueueSaturationForecaster.Forecast first = forecaster.observe(0L, 10, 100L);
+        assertThat(forecaster.observe(QueueSaturationForecaster.MIN_OBSERVE_INTERVAL_MILLIS - 1, 90, 100L)).isSameAs(first);
+        assertThat(forecaster.observe(QueueSaturationForecaster.MIN_OBSERVE_INTERVAL_MILLIS, 90, 100L)).isNotSameAs(first);
+    }
+}
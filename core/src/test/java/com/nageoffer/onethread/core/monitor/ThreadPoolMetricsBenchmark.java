@@ -0,0 +1,70 @@
+package com.nageoffer.onethread.core.monitor;
+
+import cn.hutool.core.bean.BeanUtil;
+
+/**
+ * Micrometer 指标更新开销对比：1000 个线程池每个采集周期通过反射复制属性与原地更新 {@link ThreadPoolMetrics} 的单周期耗时
+ * <p>
+ * 仅对比将运行时信息写入 Gauge 载体的开销，不包含采集运行时信息本身；先预热再计时，直接运行 main 方法即可
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class ThreadPoolMetricsBenchmark {
+
+    private static final int POOL_COUNT = 1_000;
+    private static final int WARMUP_TICKS = 2_000;
+    private static final int MEASURE_TICKS = 5_000;
+
+    public static void main(String[] args) {
+        ThreadPoolRuntimeInfo[] runtimeInfos = new ThreadPoolRuntimeInfo[POOL_COUNT];
+        ThreadPoolRuntimeInfo[] copyTargets = new ThreadPoolRuntimeInfo[POOL_COUNT];
+        ThreadPoolMetrics[] metrics = new ThreadPoolMetrics[POOL_COUNT];
+        for (int i = 0; i < POOL_COUNT; i++) {
+            runtimeInfos[i] = runtimeInfo(i);
+            copyTargets[i] = new ThreadPoolRuntimeInfo();
+            metrics[i] = new ThreadPoolMetrics();
+        }
+
+        run("reflection-copy", () -> {
+            for (int i = 0; i < POOL_COUNT; i++) {
+                BeanUtil.copyProperties(runtimeInfos[i], copyTargets[i]);
+            }
+        });
+        run("in-place-update", () -> {
+            for (int i = 0; i < POOL_COUNT; i++) {
+                metrics[i].update(runtimeInfos[i]);
+            }
+        });
+    }
+
+    private static void run(String name, Runnable tick) {
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            tick.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_TICKS; i++) {
+            tick.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-16s %10.1f us/tick (%d pools)%n", name, elapsed / 1000.0 / MEASURE_TICKS, POOL_COUNT);
+    }
+
+    private static ThreadPoolRuntimeInfo runtimeInfo(int index) {
+        return ThreadPoolRuntimeInfo.builder()
+                .threadPoolId("benchmark-pool-" + index)
+                .corePoolSize(8)
+                .maximumPoolSize(16)
+                .currentPoolSize(8)
+                .activePoolSize(index % 8)
+                .largestPoolSize(16)
+                .completedTaskCount(index * 1000L)
+                .workQueueName("LinkedBlockingQueue")
+                .workQueueCapacity(1024)
+                .workQueueSize(index % 64)
+                .workQueueRemainingCapacity(1024 - index % 64)
+                .rejectedHandlerName("AbortPolicy")
+                .rejectCount(0L)
+                .build();
+    }
+}
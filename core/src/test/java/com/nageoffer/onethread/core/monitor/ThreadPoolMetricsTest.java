@@ -0,0 +1,44 @@
+package com.nageoffer.onethread.core.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 线程池 Micrometer 指标载体单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class ThreadPoolMetricsTest {
+
+    @Test
+    void testUpdateInPlaceWithDelta() {
+        ThreadPoolMetrics metrics = new ThreadPoolMetrics();
+        metrics.update(runtimeInfo(3, 100L, 2L));
+        assertThat(metrics.getActivePoolSize()).isEqualTo(3L);
+        assertThat(metrics.getCompletedTaskDelta()).isZero();
+        assertThat(metrics.getRejectDelta()).isZero();
+        assertThat(metrics.getWarmUpMillis()).isEqualTo(-1L);
+
+        metrics.update(runtimeInfo(5, 160L, 7L));
+        assertThat(metrics.getActivePoolSize()).isEqualTo(5L);
+        assertThat(metrics.getCompletedTaskDelta()).isEqualTo(60L);
+        assertThat(metrics.getRejectDelta()).isEqualTo(5L);
+    }
+
+    private ThreadPoolRuntimeInfo runtimeInfo(int activePoolSize, long completedTaskCount, long rejectCount) {
+        return ThreadPoolRuntimeInfo.builder()
+                .corePoolSize(8)
+                .maximumPoolSize(8)
+                .currentPoolSize(8)
+                .largestPoolSize(8)
+                .activePoolSize(activePoolSize)
+                .workQueueSize(0)
+                .workQueueCapacity(100)
+                .workQueueRemainingCapacity(100)
+                .completedTaskCount(completedTaskCount)
+                .rejectCount(rejectCount)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.nageoffer.onethread.core.monitor;
+
+import com.nageoffer.onethread.core.config.ApplicationProperties;
+import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.executor.OneThreadRegistry;
+import com.nageoffer.onethread.core.executor.ThreadPoolExecutorProperties;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监控采集开销：10000 个线程池（每个周期 1% 的线程池有任务执行）在不同采集策略下单个采集周期的总耗时和最长时间片耗时
+ * <p>
+ * 最长时间片耗时即监控线程单次连续占用的时长；分片后每个时间片只采集约十分之一的线程池，跳过无变化的空闲线程池后，
+ * 采集开销只和实际有变化的线程池数量相关。采集类型通过第一个参数指定，默认 prometheus。在项目根目录执行：
+ * <pre>
+ * mvn -q -pl core -am test-compile
+ * mvn -q -pl core dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -Xss256k -cp core/target/classes:core/target/test-classes:$(cat core/target/classpath.txt) \
+ *     com.nageoffer.onethread.core.monitor.ThreadPoolMonitorBenchmark prometheus
+ * </pre>
+ * 参考环境：1 vCPU、6 GB 内存的 Linux 虚拟机，Temurin 17.0.9，JVM 默认参数（G1）加 -Xss256k，每个线程池 1 个存活工作线程。
+ * 连续三次运行的每周期平均耗时（总耗时 / 最长时间片）：
+ * <pre>
+ * serial         114.7-127.9 ms / 114.7-127.9 ms
+ * sharded        142.3-157.2 ms /  23.6-28.6 ms
+ * sharded+skip    37.6-42.2 ms  /   6.3-9.1 ms
+ * </pre>
+ * 分片不减少总开销，只把单次连续占用从整个周期缩短到约十分之一。只分片时总耗时反而高出 20% 左右，原因有两点：
+ * 每个时间片都要遍历全部 10000 个线程池并计算 ID 哈希来挑出本片的线程池，一个周期共遍历 10 遍，
+ * 在这台机器上单独测量约 8 ms；此外每个时间片访问的线程池在内存中分散，顺序采集时相邻线程池的数据仍在缓存中，分片后多为缓存未命中。
+ * JFR 采样显示单个线程池的采集开销主要在构建运行时信息：执行中任务耗时分位计算、加锁读取活跃线程数和队列趋势预测，
+ * 读取工作线程时间分布的占比很小；跳过空闲线程池省去的正是这部分，总开销降到原来的三分之一左右。
+ * 明细指标上限为 200 时，无论线程池数量多少，注册的线程池维度只有 200 个明细线程池加 1 个 others
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class ThreadPoolMonitorBenchmark {
+
+    private static final int POOL_COUNT = 10_000;
+    private static final int ACTIVE_POOL_STEP = 100;
+    private static final int WARMUP_CYCLES = 20;
+    private static final int MEASURE_CYCLES = 50;
+    private static final int SLICES = 10;
+
+    private static int cycle;
+
+    public static void main(String[] args) throws Exception {
+        String collectType = args.length > 0 ? args[0] : "prometheus";
+        ApplicationProperties.setApplicationName("benchmark");
+        OneThreadExecutor[] executors = new OneThreadExecutor[POOL_COUNT];
+        for (int i = 0; i < POOL_COUNT; i++) {
+            String threadPoolId = "tenant-pool-" + i;
+            executors[i] = new OneThreadExecutor(threadPoolId, 1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1024),
+                    Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy(), 0L);
+            // 提前启动核心线程，各采集策略面对相同数量的存活工作线程
+            executors[i].prestartAllCoreThreads();
+            OneThreadRegistry.putHolder(threadPoolId, executors[i], new ThreadPoolExecutorProperties());
+        }
+
+        try {
+            run("serial", monitorConfig(collectType, Integer.MAX_VALUE, false), executors);
+            run("sharded", monitorConfig(collectType, 500, false), executors);
+            run("sharded+skip", monitorConfig(collectType, 500, true), executors);
+        } finally {
+            for (OneThreadExecutor executor : executors) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void run(String name, BootstrapConfigProperties.MonitorConfig monitorConfig, OneThreadExecutor[] executors) throws Exception {
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        monitor.initialize(monitorConfig);
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            runCycle(monitor, executors);
+        }
+
+        long totalNanos = 0L, maxSliceNanos = 0L;
+        for (int i = 0; i < MEASURE_CYCLES; i++) {
+            long[] result = runCycle(monitor, executors);
+            totalNanos += result[0];
+            maxSliceNanos += result[1];
+        }
+        System.out.printf("%-14s cycle %6.1f ms, max slice %6.1f ms (%d pools)%n",
+                name, totalNanos / 1e6 / MEASURE_CYCLES, maxSliceNanos / 1e6 / MEASURE_CYCLES, POOL_COUNT);
+    }
+
+    /**
+     * 执行一个采集周期，返回总耗时和最长时间片耗时
+     */
+    private static long[] runCycle(ThreadPoolMonitor monitor, OneThreadExecutor[] executors) throws InterruptedException {
+        // 每个周期轮换 1% 的线程池执行一个任务，等待任务完成后再采集
+        int offset = cycle++ % ACTIVE_POOL_STEP;
+        for (int i = offset; i < executors.length; i += ACTIVE_POOL_STEP) {
+            executors[i].execute(() -> {
+            });
+        }
+        Thread.sleep(20L);
+
+        long totalNanos = 0L, maxSliceNanos = 0L;
+        for (int slice = 0; slice < SLICES; slice++) {
+            long start = System.nanoTime();
+            monitor.collectSlice();
+            long elapsed = System.nanoTime() - start;
+            totalNanos += elapsed;
+            maxSliceNanos = Math.max(maxSliceNanos, elapsed);
+        }
+        return new long[]{totalNanos, maxSliceNanos};
+    }
+
+    private static BootstrapConfigProperties.MonitorConfig monitorConfig(String collectType, int collectShardThreshold, boolean skipUnchanged) {
+        BootstrapConfigProperties.MonitorConfig monitorConfig = new BootstrapConfigProperties.MonitorConfig();
+        monitorConfig.setCollectType(collectType);
+        monitorConfig.setCollectShardThreshold(collectShardThreshold);
+        monitorConfig.setSkipUnchanged(skipUnchanged);
+        return monitorConfig;
+    }
+}
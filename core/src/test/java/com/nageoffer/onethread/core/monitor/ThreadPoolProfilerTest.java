@@ -0,0 +1,120 @@
+package com.nageoffer.onethread.core.monitor;
+
+import com.nageoffer.onethread.core.executor.LogicalOneThreadExecutor;
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.executor.SharedWorkerSubstrate;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 线程池采样分析器单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class ThreadPoolProfilerTest {
+
+    @Test
+    void testCollapsedStacksOfBusyWorker() throws Exception {
+        OneThreadExecutor executor = new OneThreadExecutor("profiler-test", 2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy(), 0L);
+        CountDownLatch stop = new CountDownLatch(1);
+        try {
+            executor.prestartAllCoreThreads();
+            executor.execute(() -> spin(stop));
+
+            ThreadPoolProfiler.Profile profile = ThreadPoolProfiler.profile(executor, 1, 10L, 32, false);
+
+            // 一个线程忙、一个线程空闲，空闲线程被跳过
+            assertThat(profile.getSamples()).isBetween(10L, 101L);
+            assertThat(profile.getThreadSamples()).isPositive();
+            assertThat(profile.getIdleSamples()).isPositive();
+            String collapsed = profile.toCollapsed();
+            assertThat(collapsed).contains("java.lang.Thread.run;").contains("ThreadPoolProfilerTest.spin");
+            String firstLine = collapsed.substring(0, collapsed.indexOf('\n'));
+            assertThat(firstLine).matches("[^ ]+ \\d+");
+            // 栈深度上限
+            assertThat(firstLine.split(";")).hasSizeLessThanOrEqualTo(32);
+
+            ThreadPoolProfiler.Profile withIdle = ThreadPoolProfiler.profile(executor, 1, 50L, 32, true);
+            assertThat(withIdle.getIdleSamples()).isZero();
+            assertThat(withIdle.toCollapsed()).contains("java.util.concurrent.ThreadPoolExecutor.getTask");
+        } finally {
+            stop.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testIdleWorkerDetectedWithShallowDepth() throws Exception {
+        OneThreadExecutor executor = new OneThreadExecutor("profiler-test-shallow", 2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy(), 0L);
+        CountDownLatch stop = new CountDownLatch(1);
+        try {
+            executor.prestartAllCoreThreads();
+            executor.execute(() -> spin(stop));
+
+            // 栈深度小于 getTask 所在层数时依然能识别空闲线程，折叠栈按指定深度截断
+            ThreadPoolProfiler.Profile profile = ThreadPoolProfiler.profile(executor, 1, 50L, 2, false);
+            assertThat(profile.getIdleSamples()).isPositive();
+            assertThat(profile.getThreadSamples()).isPositive();
+            assertThat(profile.getStacks().keySet()).allMatch(each -> each.split(";").length <= 2);
+            assertThat(profile.toCollapsed()).doesNotContain("park");
+        } finally {
+            stop.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLogicalPoolProfilesSharedWorkersRunningItsTasks() throws Exception {
+        SharedWorkerSubstrate substrate = new SharedWorkerSubstrate("profiler-test-substrate", 2, Executors.defaultThreadFactory());
+        LogicalOneThreadExecutor busy = buildLogicalPool("profiler-test-logical-busy", substrate);
+        LogicalOneThreadExecutor idle = buildLogicalPool("profiler-test-logical-idle", substrate);
+        CountDownLatch stop = new CountDownLatch(1);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            busy.execute(() -> {
+                started.countDown();
+                spin(stop);
+            });
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+            // 只采样正在执行该线程池任务的共享工作线程，时间分布无法拆分到逻辑线程池，明确不支持
+            assertThat(busy.getWorkerThreadIds()).hasSize(1);
+            assertThat(idle.getWorkerThreadIds()).isEmpty();
+            assertThat(busy.getWorkerTimeSampler()).isNull();
+            ThreadPoolProfiler.Profile profile = ThreadPoolProfiler.profile(busy, 1, 50L, 32, false);
+            assertThat(profile.getThreadSamples()).isPositive();
+            assertThat(profile.toCollapsed()).contains("ThreadPoolProfilerTest.spin");
+            assertThat(ThreadPoolProfiler.profile(idle, 1, 50L, 32, true).getThreadSamples()).isZero();
+        } finally {
+            stop.countDown();
+            busy.shutdownNow();
+            idle.shutdownNow();
+        }
+    }
+
+    private static LogicalOneThreadExecutor buildLogicalPool(String threadPoolId, SharedWorkerSubstrate substrate) {
+        return (LogicalOneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId(threadPoolId)
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .logicalPool(substrate)
+                .build();
+    }
+
+    private static void spin(CountDownLatch stop) {
+        while (stop.getCount() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
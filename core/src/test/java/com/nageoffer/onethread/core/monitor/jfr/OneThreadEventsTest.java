@@ -0,0 +1,90 @@
+package com.nageoffer.onethread.core.monitor.jfr;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.executor.support.BlockingQueueTypeEnum;
+import com.nageoffer.onethread.core.toolkit.ThreadPoolExecutorBuilder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * oneThread JFR 事件单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class OneThreadEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecordSubmitRejectAndResize() throws IOException, InterruptedException {
+        OneThreadExecutor executor = (OneThreadExecutor) ThreadPoolExecutorBuilder.builder()
+                .threadPoolId("test-jfr")
+                .dynamicPool()
+                .corePoolSize(1)
+                .maximumPoolSize(1)
+                .workQueueType(BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE)
+                .workQueueCapacity(1)
+                .rejectedHandler(new ThreadPoolExecutor.DiscardPolicy())
+                .threadFactory("test-jfr_")
+                .build();
+
+        Path file = tempDir.resolve("onethread.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TaskSubmittedEvent.class).withoutStackTrace();
+            recording.enable(TaskRejectedEvent.class);
+            recording.enable(PoolResizedEvent.class).withoutStackTrace();
+            recording.start();
+
+            // 阻塞唯一的工作线程，队列满后其余任务被拒绝
+            CountDownLatch blocker = new CountDownLatch(1);
+            executor.execute(() -> {
+                try {
+                    blocker.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            for (int i = 0; i < 2000; i++) {
+                executor.execute(() -> {
+                });
+            }
+            blocker.countDown();
+            OneThreadEvents.resized("test-jfr", 1, 2, 1, 4, executor.getQueue(), "test");
+
+            recording.stop();
+            recording.dump(file);
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).anySatisfy(each -> {
+            assertThat(each.getEventType().getName()).isEqualTo("com.nageoffer.onethread.TaskRejected");
+            assertThat(each.getString("threadPoolId")).isEqualTo("test-jfr");
+            assertThat(each.getString("rejectedHandler")).isEqualTo("DiscardPolicy");
+            assertThat(each.getInt("queueDepth")).isEqualTo(1);
+        });
+        assertThat(events).anySatisfy(each -> {
+            assertThat(each.getEventType().getName()).isEqualTo("com.nageoffer.onethread.TaskSubmitted");
+            assertThat(each.getInt("sampleInterval")).isEqualTo(OneThreadEvents.SUBMIT_SAMPLE_INTERVAL);
+        });
+        assertThat(events).anySatisfy(each -> {
+            assertThat(each.getEventType().getName()).isEqualTo("com.nageoffer.onethread.PoolResized");
+            assertThat(each.getInt("newMaximumPoolSize")).isEqualTo(4);
+            assertThat(each.getString("source")).isEqualTo("test");
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.nageoffer.onethread.core.toolkit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 容器资源限制读取和线程池大小计算单元测试
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+public class ContainerResourcesTest {
+
+    @TempDir
+    Path cgroupRoot;
+
+    @Test
+    void testReadCgroupV2() throws IOException {
+        Files.writeString(cgroupRoot.resolve("cgroup.controllers"), "cpu memory\n");
+        Files.writeString(cgroupRoot.resolve("cpu.max"), "150000 100000\n");
+        Files.writeString(cgroupRoot.resolve("memory.max"), "536870912\n");
+
+        ContainerResources resources = ContainerResources.read(cgroupRoot, 16);
+        assertThat(resources.getCgroupVersion()).isEqualTo(2);
+        assertThat(resources.getEffectiveCpus()).isEqualTo(1.5D);
+        assertThat(resources.getEffectiveProcessors()).isEqualTo(2);
+        assertThat(resources.getMemoryLimitBytes()).isEqualTo(536870912L);
+    }
+
+    @Test
+    void testReadCgroupV2Unlimited() throws IOException {
+        Files.writeString(cgroupRoot.resolve("cgroup.controllers"), "cpu memory\n");
+        Files.writeString(cgroupRoot.resolve("cpu.max"), "max 100000\n");
+        Files.writeString(cgroupRoot.resolve("memory.max"), "max\n");
+
+        ContainerResources resources = ContainerResources.read(cgroupRoot, 8);
+        assertThat(resources.getCpuLimit()).isEqualTo(-1D);
+        assertThat(resources.getEffectiveCpus()).isEqualTo(8D);
+        assertThat(resources.getMemoryLimitBytes()).isEqualTo(-1L);
+    }
+
+    @Test
+    void testReadCgroupV1() throws IOException {
+        Path cpuDir = Files.createDirectories(cgroupRoot.resolve("cpu,cpuacct"));
+        Files.writeString(cpuDir.resolve("cpu.cfs_quota_us"), "50000\n");
+        Files.writeString(cpuDir.resolve("cpu.cfs_period_us"), "100000\n");
+        Path memoryDir = Files.createDirectories(cgroupRoot.resolve("memory"));
+        Files.writeString(memoryDir.resolve("memory.limit_in_bytes"), "9223372036854771712\n");
+
+        ContainerResources resources = ContainerResources.read(cgroupRoot, 4);
+        assertThat(resources.getCgroupVersion()).isEqualTo(1);
+        assertThat(resources.getEffectiveCpus()).isEqualTo(0.5D);
+        assertThat(resources.getEffectiveProcessors()).isEqualTo(1);
+        assertThat(resources.getMemoryLimitBytes()).isEqualTo(-1L);
+    }
+
+    @Test
+    void testNoCgroupFallsBackToProcessors() {
+        ContainerResources resources = ContainerResources.read(cgroupRoot, 6);
+        assertThat(resources.getCgroupVersion()).isZero();
+        assertThat(resources.getEffectiveProcessors()).isEqualTo(6);
+    }
+
+    @Test
+    void testWorkloadSizing() {
+        ContainerResources resources = new ContainerResources(2, 16, 2.5D, -1L);
+        ThreadPoolSizing.PoolSize cpuBound = ThreadPoolSizing.cpuBound().compute(resources);
+        assertThat(cpuBound.getCorePoolSize()).isEqualTo(3);
+        assertThat(cpuBound.getMaximumPoolSize()).isEqualTo(3);
+
+        ThreadPoolSizing.PoolSize ioBound = ThreadPoolSizing.ioBound(0.9D).compute(resources);
+        assertThat(ioBound.getCorePoolSize()).isEqualTo(25);
+        assertThat(ioBound.getMaximumPoolSize()).isEqualTo(37);
+
+        // 64MB 内存上限下线程栈最多占 16MB，即 16 个线程
+        ThreadPoolSizing.PoolSize memoryCapped = ThreadPoolSizing.ioBound(0.9D).compute(new ContainerResources(2, 16, 2.5D, 64L * 1024 * 1024));
+        assertThat(memoryCapped.getCorePoolSize()).isEqualTo(16);
+        assertThat(memoryCapped.getMaximumPoolSize()).isEqualTo(16);
+
+        assertThatThrownBy(() -> ThreadPoolSizing.of("gpu", 0D)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
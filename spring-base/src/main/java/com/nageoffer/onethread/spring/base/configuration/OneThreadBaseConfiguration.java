@@ -2,11 +2,17 @@ package com.nageoffer.onethread.spring.base.configuration;
 
 import com.nageoffer.onethread.core.alarm.ThreadPoolAlarmChecker;
 import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import com.nageoffer.onethread.core.executor.ContainerAwareSizer;
+import com.nageoffer.onethread.core.executor.MemoryPressureAdmissionController;
+import com.nageoffer.onethread.core.executor.support.ThreadPoolWarmUpTask;
 import com.nageoffer.onethread.core.monitor.ThreadPoolMonitor;
 import com.nageoffer.onethread.core.notification.service.NotifierDispatcher;
 import com.nageoffer.onethread.spring.base.support.ApplicationContextHolder;
 import com.nageoffer.onethread.spring.base.support.OneThreadBeanPostProcessor;
 import com.nageoffer.onethread.spring.base.support.SpringPropertiesLoader;
+import com.nageoffer.onethread.spring.base.support.ThreadPoolShutdownLifecycle;
+import com.nageoffer.onethread.spring.base.support.ThreadPoolWarmUpLifecycle;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
@@ -50,4 +56,24 @@ public class OneThreadBaseConfiguration {
     public ThreadPoolMonitor threadPoolMonitor() {
         return new ThreadPoolMonitor();
     }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ContainerAwareSizer containerAwareSizer() {
+        return new ContainerAwareSizer();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public MemoryPressureAdmissionController memoryPressureAdmissionController(BootstrapConfigProperties properties) {
+        return new MemoryPressureAdmissionController(properties.getAdmission());
+    }
+
+    @Bean
+    public ThreadPoolWarmUpLifecycle threadPoolWarmUpLifecycle(ObjectProvider<ThreadPoolWarmUpTask> warmUpTasks) {
+        return new ThreadPoolWarmUpLifecycle(warmUpTasks);
+    }
+
+    @Bean
+    public ThreadPoolShutdownLifecycle threadPoolShutdownLifecycle(BootstrapConfigProperties properties) {
+        return new ThreadPoolShutdownLifecycle(properties);
+    }
 }
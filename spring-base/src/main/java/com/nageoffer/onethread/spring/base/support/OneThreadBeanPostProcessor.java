@@ -2,11 +2,16 @@ package com.nageoffer.onethread.spring.base.support;
 
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.ReflectUtil;
+import com.nageoffer.onethread.core.executor.LogicalOneThreadExecutor;
+import com.nageoffer.onethread.core.executor.OneThreadBatchExecutor;
 import com.nageoffer.onethread.core.executor.OneThreadExecutor;
 import com.nageoffer.onethread.core.executor.OneThreadRegistry;
 import com.nageoffer.onethread.core.executor.ThreadPoolExecutorProperties;
 import com.nageoffer.onethread.core.executor.support.BlockingQueueTypeEnum;
+import com.nageoffer.onethread.core.executor.support.QueuedTaskStore;
+import com.nageoffer.onethread.core.executor.support.RateLimitedBlockingQueue;
 import com.nageoffer.onethread.core.executor.support.RejectedPolicyTypeEnum;
+import com.nageoffer.onethread.core.executor.support.TenantFairBlockingQueue;
 import com.nageoffer.onethread.spring.base.DynamicThreadPool;
 import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
 import lombok.NonNull;
@@ -15,7 +20,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 
+import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
@@ -29,6 +36,8 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class OneThreadBeanPostProcessor implements BeanPostProcessor {
 
+    private static final String DEFAULT_DRAIN_DIRECTORY = "onethread-drain";
+
     private final BootstrapConfigProperties properties;
 
     @Override
@@ -58,11 +67,21 @@ public class OneThreadBeanPostProcessor implements BeanPostProcessor {
 
             // 注册到动态线程池注册器，后续监控和报警从注册器获取线程池实例。同时，参数动态变更需要依赖 ThreadPoolExecutorProperties 比对是否有边跟
             OneThreadRegistry.putHolder(oneThreadExecutor.getThreadPoolId(), oneThreadExecutor, executorProperties);
+
+            // 开启关闭时转存后，重新提交上次关闭时转存的排队任务
+            ThreadPoolExecutorProperties.DrainConfig drainConfig = executorProperties.getDrain();
+            if (drainConfig != null && Boolean.TRUE.equals(drainConfig.getEnable())) {
+                String directory = Optional.ofNullable(drainConfig.getDirectory())
+                        .orElseGet(() -> Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_DRAIN_DIRECTORY).toString());
+                oneThreadExecutor.setQueuedTaskStore(new QueuedTaskStore(Paths.get(directory), drainConfig.getAllowedClasses()));
+                oneThreadExecutor.restoreQueuedTasks();
+            }
         }
 
         return bean;
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private void overrideLocalThreadPoolConfig(ThreadPoolExecutorProperties executorProperties, OneThreadExecutor oneThreadExecutor) {
         Integer remoteCorePoolSize = executorProperties.getCorePoolSize();
         Integer remoteMaximumPoolSize = executorProperties.getMaximumPoolSize();
@@ -80,15 +99,53 @@ public class OneThreadBeanPostProcessor implements BeanPostProcessor {
 
         // 阻塞队列没有常规 set 方法，所以使用反射赋值
         BlockingQueue<Object> workQueue = BlockingQueueTypeEnum.createBlockingQueue(executorProperties.getWorkQueue(), executorProperties.getQueueCapacity());
+        // 多租户公平队列赋值租户权重和容量
+        if (workQueue instanceof TenantFairBlockingQueue) {
+            TenantFairBlockingQueue<Object> tenantQueue = (TenantFairBlockingQueue<Object>) workQueue;
+            tenantQueue.setTenantWeights(executorProperties.getTenantWeights());
+            tenantQueue.setTenantCapacities(executorProperties.getTenantCapacities());
+        }
+        // 配置了每秒许可数时，使用限速队列包装，后续可通过配置中心动态调整速率
+        Double permitsPerSecond = executorProperties.getPermitsPerSecond();
+        if (permitsPerSecond != null && permitsPerSecond > 0) {
+            int permitsBurst = Optional.ofNullable(executorProperties.getPermitsBurst()).orElse(1);
+            workQueue = new RateLimitedBlockingQueue<>(workQueue, permitsPerSecond, permitsBurst);
+        }
         // Java 9+ 的模块系统（JPMS）默认禁止通过反射访问 JDK 内部 API 的私有字段，所以需要配置开放反射权限
         // 在启动命令中增加以下参数，显式开放 java.util.concurrent 包
         // IDE 中通过在 VM options 中添加参数：--add-opens=java.base/java.util.concurrent=ALL-UNNAMED
         // 部署的时候，在启动脚本（如 java -jar 命令）中加入该参数：java -jar --add-opens=java.base/java.util.concurrent=ALL-UNNAMED your-app.jar
-        ReflectUtil.setFieldValue(oneThreadExecutor, "workQueue", workQueue);
+        // 逻辑线程池的工作队列由自身持有，直接替换
+        if (oneThreadExecutor instanceof LogicalOneThreadExecutor) {
+            ((LogicalOneThreadExecutor) oneThreadExecutor).replaceWorkQueue((BlockingQueue) workQueue);
+        } else {
+            BlockingQueue<Runnable> originalWorkQueue = oneThreadExecutor.getQueue();
+            ReflectUtil.setFieldValue(oneThreadExecutor, "workQueue", workQueue);
+            // 构建时已提交的任务（比如构建器重新提交的转存任务）迁移到新队列
+            originalWorkQueue.drainTo(workQueue);
+        }
 
         // 赋值动态线程池其他核心参数
         oneThreadExecutor.setKeepAliveTime(executorProperties.getKeepAliveTime(), TimeUnit.SECONDS);
         oneThreadExecutor.allowCoreThreadTimeOut(executorProperties.getAllowCoreThreadTimeOut());
         oneThreadExecutor.setRejectedExecutionHandler(RejectedPolicyTypeEnum.createPolicy(executorProperties.getRejectedHandler()));
+
+        // 微批处理线程池赋值批大小和凑批等待时间
+        if (oneThreadExecutor instanceof OneThreadBatchExecutor) {
+            OneThreadBatchExecutor<?> batchExecutor = (OneThreadBatchExecutor<?>) oneThreadExecutor;
+            Optional.ofNullable(executorProperties.getBatchSize()).ifPresent(batchExecutor::setBatchSize);
+            Optional.ofNullable(executorProperties.getBatchLingerMillis()).ifPresent(batchExecutor::setLingerMillis);
+        }
+
+        // 配置了单 Key 并发上限时开启按 Key 隔离
+        Optional.ofNullable(executorProperties.getKeyConcurrencyLimit()).ifPresent(oneThreadExecutor::setKeyConcurrencyLimit);
+        Optional.ofNullable(executorProperties.getTaskAccounting()).ifPresent(oneThreadExecutor::setTaskAccountingEnabled);
+        Optional.ofNullable(executorProperties.getHedgeDelayPercentile()).ifPresent(oneThreadExecutor.getTaskHedger()::setDelayPercentile);
+        Optional.ofNullable(executorProperties.getHedgeBudgetPercent()).ifPresent(oneThreadExecutor.getTaskHedger()::setBudgetPercent);
+
+        // 开启预热时先预启动核心线程，预热任务在所有 Bean 初始化完成后由 ThreadPoolWarmUpLifecycle 执行
+        if (executorProperties.getWarmUp() != null && Boolean.TRUE.equals(executorProperties.getWarmUp().getEnable())) {
+            oneThreadExecutor.prestartAllCoreThreads();
+        }
     }
 }
@@ -0,0 +1,55 @@
+package com.nageoffer.onethread.spring.base.support;
+
+import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import com.nageoffer.onethread.core.executor.ThreadPoolShutdownCoordinator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.Optional;
+
+/**
+ * 动态线程池统一关闭
+ * <p>
+ * Spring 销毁 Bean 时逐个调用线程池的 shutdown 方法，每个线程池都会等待各自的终止时间，总耗时是所有线程池之和。
+ * 该组件在容器关闭早期通过 {@link ThreadPoolShutdownCoordinator} 按关闭顺序并行关闭所有已注册线程池（包括排队任务转存），
+ * 总耗时不超过全局截止时间；之后 Bean 销毁时线程池已关闭，直接返回
+ * <p>
+ * 阶段值低于 Web 服务器的生命周期，保证 Web 服务器停止接收请求后再关闭线程池
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@RequiredArgsConstructor
+public class ThreadPoolShutdownLifecycle implements SmartLifecycle {
+
+    private static final int SHUTDOWN_PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 25000L;
+
+    private final BootstrapConfigProperties properties;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        long timeoutMillis = Optional.ofNullable(properties.getShutdown())
+                .map(BootstrapConfigProperties.ShutdownConfig::getTimeoutMillis)
+                .orElse(DEFAULT_TIMEOUT_MILLIS);
+        new ThreadPoolShutdownCoordinator(timeoutMillis).shutdownAll();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SHUTDOWN_PHASE;
+    }
+}
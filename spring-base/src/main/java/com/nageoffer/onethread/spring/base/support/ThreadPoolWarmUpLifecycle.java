@@ -0,0 +1,101 @@
+package com.nageoffer.onethread.spring.base.support;
+
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
+import com.nageoffer.onethread.core.executor.OneThreadRegistry;
+import com.nageoffer.onethread.core.executor.ThreadPoolExecutorHolder;
+import com.nageoffer.onethread.core.executor.ThreadPoolExecutorProperties;
+import com.nageoffer.onethread.core.executor.support.ThreadPoolWarmUpTask;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 动态线程池启动预热
+ * <p>
+ * 在所有单例 Bean 初始化完成后执行预热任务，各线程池并行预热，启动流程最多等待到各线程池的预热超时时间。
+ * Spring Boot 在容器刷新完成后才会将应用就绪状态切换为可接收流量，所以预热结束前应用不会被判定为就绪
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ThreadPoolWarmUpLifecycle implements SmartLifecycle {
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30000L;
+
+    private final ObjectProvider<ThreadPoolWarmUpTask> warmUpTasks;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+        long startNanos = System.nanoTime();
+        Map<String, CompletableFuture<Long>> futures = new LinkedHashMap<>();
+        Map<String, Long> timeouts = new LinkedHashMap<>();
+        for (ThreadPoolExecutorHolder holder : OneThreadRegistry.getAllHolders()) {
+            ThreadPoolExecutorProperties.WarmUpConfig warmUpConfig = holder.getExecutorProperties().getWarmUp();
+            if (warmUpConfig == null || !Boolean.TRUE.equals(warmUpConfig.getEnable()) || !(holder.getExecutor() instanceof OneThreadExecutor)) {
+                continue;
+            }
+
+            OneThreadExecutor executor = (OneThreadExecutor) holder.getExecutor();
+            String threadPoolId = holder.getThreadPoolId();
+            List<Runnable> tasks = warmUpTasks.orderedStream()
+                    .filter(each -> each.supports(threadPoolId))
+                    .map(this::toRunnable)
+                    .collect(Collectors.toList());
+            int concurrency = Optional.ofNullable(warmUpConfig.getConcurrency()).orElse(executor.getCorePoolSize());
+            long timeoutMillis = Optional.ofNullable(warmUpConfig.getTimeoutMillis()).orElse(DEFAULT_TIMEOUT_MILLIS);
+            // 线程池自身的预热等待使用相同的超时时间，避免配置值被线程池默认超时截断
+            futures.put(threadPoolId, executor.warmUp(tasks, concurrency, timeoutMillis));
+            timeouts.put(threadPoolId, timeoutMillis);
+        }
+
+        // 各线程池并行预热，按各自超时时间等待，总耗时取决于最慢的线程池
+        futures.forEach((threadPoolId, future) -> {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeouts.get(threadPoolId)) - (System.nanoTime() - startNanos);
+            try {
+                future.get(Math.max(remainingNanos, 0L), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                log.warn("[{}] Thread pool warm-up timed out after {}ms, continue startup.", threadPoolId, timeouts.get(threadPoolId));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                log.warn("[{}] Thread pool warm-up failed.", threadPoolId, ex);
+            }
+        });
+    }
+
+    private Runnable toRunnable(ThreadPoolWarmUpTask warmUpTask) {
+        return () -> {
+            try {
+                warmUpTask.warmUp();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -3,12 +3,19 @@ package com.nageoffer.onethread.config.common.starter.refresher;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
 import com.nageoffer.onethread.core.config.BootstrapConfigProperties;
+import com.nageoffer.onethread.core.executor.OneThreadBatchExecutor;
+import com.nageoffer.onethread.core.executor.OneThreadExecutor;
 import com.nageoffer.onethread.core.executor.OneThreadRegistry;
 import com.nageoffer.onethread.core.executor.ThreadPoolExecutorHolder;
 import com.nageoffer.onethread.core.executor.ThreadPoolExecutorProperties;
 import com.nageoffer.onethread.core.executor.support.BlockingQueueTypeEnum;
+import com.nageoffer.onethread.core.executor.support.RateLimitedBlockingQueue;
 import com.nageoffer.onethread.core.executor.support.RejectedPolicyTypeEnum;
 import com.nageoffer.onethread.core.executor.support.ResizableCapacityLinkedBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.TaskHedger;
+import com.nageoffer.onethread.core.executor.support.TenantFairBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.TokenBucketRateLimiter;
+import com.nageoffer.onethread.core.monitor.jfr.OneThreadEvents;
 import com.nageoffer.onethread.core.notification.dto.ThreadPoolConfigChangeDTO;
 import com.nageoffer.onethread.core.notification.service.NotifierDispatcher;
 import com.nageoffer.onethread.spring.base.support.ApplicationContextHolder;
@@ -22,6 +29,7 @@ import java.net.InetAddress;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -81,7 +89,8 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
                         String.format(CHANGE_DELIMITER, originalProperties.getQueueCapacity(), remoteProperties.getQueueCapacity()),
                         String.format(CHANGE_DELIMITER, originalProperties.getKeepAliveTime(), remoteProperties.getKeepAliveTime()),
                         String.format(CHANGE_DELIMITER, originalProperties.getRejectedHandler(), remoteProperties.getRejectedHandler()),
-                        String.format(CHANGE_DELIMITER, originalProperties.getAllowCoreThreadTimeOut(), remoteProperties.getAllowCoreThreadTimeOut())
+                        String.format(CHANGE_DELIMITER, originalProperties.getAllowCoreThreadTimeOut(), remoteProperties.getAllowCoreThreadTimeOut()),
+                        String.format(CHANGE_DELIMITER, originalProperties.getPermitsPerSecond(), remoteProperties.getPermitsPerSecond())
                 );
             }
         }
@@ -106,10 +115,11 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
         ThreadPoolExecutor executor = holder.getExecutor();
         ThreadPoolExecutorProperties originalProperties = holder.getExecutorProperties();
 
+        int originalCorePoolSize = executor.getCorePoolSize();
+        int originalMaximumPoolSize = executor.getMaximumPoolSize();
         Integer remoteCorePoolSize = remoteProperties.getCorePoolSize();
         Integer remoteMaximumPoolSize = remoteProperties.getMaximumPoolSize();
         if (remoteCorePoolSize != null && remoteMaximumPoolSize != null) {
-            int originalMaximumPoolSize = executor.getMaximumPoolSize();
             if (remoteCorePoolSize > originalMaximumPoolSize) {
                 executor.setMaximumPoolSize(remoteMaximumPoolSize);
                 executor.setCorePoolSize(remoteCorePoolSize);
@@ -126,6 +136,9 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
             }
         }
 
+        OneThreadEvents.resized(threadPoolId, originalCorePoolSize, executor.getCorePoolSize(),
+                originalMaximumPoolSize, executor.getMaximumPoolSize(), executor.getQueue(), "refresh");
+
         if (remoteProperties.getAllowCoreThreadTimeOut() != null &&
                 !Objects.equals(remoteProperties.getAllowCoreThreadTimeOut(), originalProperties.getAllowCoreThreadTimeOut())) {
             executor.allowCoreThreadTimeOut(remoteProperties.getAllowCoreThreadTimeOut());
@@ -142,12 +155,96 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
             executor.setKeepAliveTime(remoteProperties.getKeepAliveTime(), TimeUnit.SECONDS);
         }
 
-        // 更新队列容量（仅对 ResizableCapacityLinkedBlockingQueue 生效）
+        // 更新队列容量（仅对 ResizableCapacityLinkedBlockingQueue 和 TenantFairBlockingQueue 生效）
         if (isQueueCapacityChanged(originalProperties, remoteProperties, executor)) {
-            BlockingQueue<Runnable> queue = executor.getQueue();
-            ResizableCapacityLinkedBlockingQueue<?> resizableQueue = (ResizableCapacityLinkedBlockingQueue<?>) queue;
-            resizableQueue.setCapacity(remoteProperties.getQueueCapacity());
+            BlockingQueue<?> queue = RateLimitedBlockingQueue.unwrap(executor.getQueue());
+            if (queue instanceof TenantFairBlockingQueue) {
+                ((TenantFairBlockingQueue<?>) queue).setDefaultTenantCapacity(remoteProperties.getQueueCapacity());
+            } else {
+                ResizableCapacityLinkedBlockingQueue<?> resizableQueue = (ResizableCapacityLinkedBlockingQueue<?>) queue;
+                int originalCapacity = resizableQueue.getCapacity();
+                resizableQueue.setCapacity(remoteProperties.getQueueCapacity());
+                OneThreadEvents.queueCapacityChanged(threadPoolId, originalCapacity, remoteProperties.getQueueCapacity(), resizableQueue, "refresh");
+            }
+        }
+
+        // 更新租户权重和容量（仅对 TenantFairBlockingQueue 生效）
+        if (isTenantConfigChanged(originalProperties, remoteProperties)) {
+            BlockingQueue<?> queue = RateLimitedBlockingQueue.unwrap(executor.getQueue());
+            if (queue instanceof TenantFairBlockingQueue) {
+                TenantFairBlockingQueue<?> tenantQueue = (TenantFairBlockingQueue<?>) queue;
+                if (isChanged(originalProperties.getTenantWeights(), remoteProperties.getTenantWeights())) {
+                    tenantQueue.setTenantWeights(remoteProperties.getTenantWeights());
+                }
+                if (isChanged(originalProperties.getTenantCapacities(), remoteProperties.getTenantCapacities())) {
+                    tenantQueue.setTenantCapacities(remoteProperties.getTenantCapacities());
+                }
+            } else {
+                log.warn("[{}] Work queue is not TenantFairBlockingQueue, tenant config change is ignored.", remoteProperties.getThreadPoolId());
+            }
+        }
+
+        // 更新任务分派速率（仅对启动时已开启限速的线程池生效）
+        if (isRateLimitChanged(originalProperties, remoteProperties)) {
+            updateRateLimit(executor, originalProperties, remoteProperties);
+        }
+
+        // 更新批大小和凑批等待时间（仅对微批处理线程池生效）
+        if (executor instanceof OneThreadBatchExecutor) {
+            OneThreadBatchExecutor<?> batchExecutor = (OneThreadBatchExecutor<?>) executor;
+            if (isChanged(originalProperties.getBatchSize(), remoteProperties.getBatchSize())) {
+                batchExecutor.setBatchSize(remoteProperties.getBatchSize());
+            }
+            if (isChanged(originalProperties.getBatchLingerMillis(), remoteProperties.getBatchLingerMillis())) {
+                batchExecutor.setLingerMillis(remoteProperties.getBatchLingerMillis());
+            }
+        }
+
+        // 更新单 Key 并发上限（仅对 OneThreadExecutor 生效，运行期不支持关闭）
+        if (isChanged(originalProperties.getKeyConcurrencyLimit(), remoteProperties.getKeyConcurrencyLimit())) {
+            if (executor instanceof OneThreadExecutor && remoteProperties.getKeyConcurrencyLimit() > 0) {
+                ((OneThreadExecutor) executor).setKeyConcurrencyLimit(remoteProperties.getKeyConcurrencyLimit());
+            } else {
+                log.warn("[{}] Key concurrency limit change is ignored, limit: {}", remoteProperties.getThreadPoolId(), remoteProperties.getKeyConcurrencyLimit());
+            }
+        }
+
+        // 开启或关闭任务资源统计（仅对 OneThreadExecutor 生效）
+        if (isChanged(originalProperties.getTaskAccounting(), remoteProperties.getTaskAccounting()) && executor instanceof OneThreadExecutor) {
+            ((OneThreadExecutor) executor).setTaskAccountingEnabled(remoteProperties.getTaskAccounting());
+        }
+
+        // 更新对冲延迟分位和对冲预算（仅对 OneThreadExecutor 生效）
+        if (executor instanceof OneThreadExecutor) {
+            TaskHedger taskHedger = ((OneThreadExecutor) executor).getTaskHedger();
+            if (isChanged(originalProperties.getHedgeDelayPercentile(), remoteProperties.getHedgeDelayPercentile())) {
+                taskHedger.setDelayPercentile(remoteProperties.getHedgeDelayPercentile());
+            }
+            if (isChanged(originalProperties.getHedgeBudgetPercent(), remoteProperties.getHedgeBudgetPercent())) {
+                taskHedger.setBudgetPercent(remoteProperties.getHedgeBudgetPercent());
+            }
+        }
+    }
+
+    private void updateRateLimit(ThreadPoolExecutor executor,
+                                 ThreadPoolExecutorProperties originalProperties,
+                                 ThreadPoolExecutorProperties remoteProperties) {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if (!(queue instanceof RateLimitedBlockingQueue)) {
+            log.warn("[{}] Rate limit is not enabled at startup, permitsPerSecond change is ignored.", remoteProperties.getThreadPoolId());
+            return;
+        }
+
+        TokenBucketRateLimiter rateLimiter = ((RateLimitedBlockingQueue<Runnable>) queue).getRateLimiter();
+        Double permitsPerSecond = Optional.ofNullable(remoteProperties.getPermitsPerSecond())
+                .orElse(originalProperties.getPermitsPerSecond());
+        Integer permitsBurst = Optional.ofNullable(remoteProperties.getPermitsBurst())
+                .orElse(rateLimiter.getBurst());
+        if (permitsPerSecond == null || permitsPerSecond <= 0) {
+            log.warn("[{}] Rate limit cannot be disabled at runtime, permitsPerSecond must be greater than 0.", remoteProperties.getThreadPoolId());
+            return;
         }
+        rateLimiter.setRate(permitsPerSecond, permitsBurst);
     }
 
     private boolean hasDifference(ThreadPoolExecutorProperties originalProperties,
@@ -158,7 +255,27 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
                 || isChanged(originalProperties.getAllowCoreThreadTimeOut(), remoteProperties.getAllowCoreThreadTimeOut())
                 || isChanged(originalProperties.getKeepAliveTime(), remoteProperties.getKeepAliveTime())
                 || isChanged(originalProperties.getRejectedHandler(), remoteProperties.getRejectedHandler())
-                || isQueueCapacityChanged(originalProperties, remoteProperties, executor);
+                || isQueueCapacityChanged(originalProperties, remoteProperties, executor)
+                || isRateLimitChanged(originalProperties, remoteProperties)
+                || isChanged(originalProperties.getBatchSize(), remoteProperties.getBatchSize())
+                || isChanged(originalProperties.getBatchLingerMillis(), remoteProperties.getBatchLingerMillis())
+                || isChanged(originalProperties.getKeyConcurrencyLimit(), remoteProperties.getKeyConcurrencyLimit())
+                || isChanged(originalProperties.getTaskAccounting(), remoteProperties.getTaskAccounting())
+                || isChanged(originalProperties.getHedgeDelayPercentile(), remoteProperties.getHedgeDelayPercentile())
+                || isChanged(originalProperties.getHedgeBudgetPercent(), remoteProperties.getHedgeBudgetPercent())
+                || isTenantConfigChanged(originalProperties, remoteProperties);
+    }
+
+    private boolean isTenantConfigChanged(ThreadPoolExecutorProperties originalProperties,
+                                          ThreadPoolExecutorProperties remoteProperties) {
+        return isChanged(originalProperties.getTenantWeights(), remoteProperties.getTenantWeights())
+                || isChanged(originalProperties.getTenantCapacities(), remoteProperties.getTenantCapacities());
+    }
+
+    private boolean isRateLimitChanged(ThreadPoolExecutorProperties originalProperties,
+                                       ThreadPoolExecutorProperties remoteProperties) {
+        return isChanged(originalProperties.getPermitsPerSecond(), remoteProperties.getPermitsPerSecond())
+                || isChanged(originalProperties.getPermitsBurst(), remoteProperties.getPermitsBurst());
     }
 
     private <T> boolean isChanged(T before, T after) {
@@ -170,11 +287,12 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
                                            ThreadPoolExecutor executor) {
         Integer remoteCapacity = remoteProperties.getQueueCapacity();
         Integer originalCapacity = originalProperties.getQueueCapacity();
-        BlockingQueue<?> queue = executor.getQueue();
+        BlockingQueue<?> queue = RateLimitedBlockingQueue.unwrap(executor.getQueue());
 
         return remoteCapacity != null
                 && !Objects.equals(remoteCapacity, originalCapacity)
-                && Objects.equals(BlockingQueueTypeEnum.RESIZABLE_CAPACITY_LINKED_BLOCKING_QUEUE.getName(), queue.getClass().getSimpleName());
+                && (Objects.equals(BlockingQueueTypeEnum.RESIZABLE_CAPACITY_LINKED_BLOCKING_QUEUE.getName(), queue.getClass().getSimpleName())
+                || Objects.equals(BlockingQueueTypeEnum.TENANT_FAIR_BLOCKING_QUEUE.getName(), queue.getClass().getSimpleName()));
     }
 
     @SneakyThrows
@@ -3,13 +3,23 @@ package com.nageoffer.onethread.dashboard.dev.starter.controller;
 import com.nageoffer.onethread.dashboard.dev.starter.core.Result;
 import com.nageoffer.onethread.dashboard.dev.starter.core.Results;
 import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevBaseMetricsRespDTO;
+import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevHistoryRespDTO;
 import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevRespDTO;
+import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevRunningTaskRespDTO;
+import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevTaskStatsRespDTO;
 import com.nageoffer.onethread.dashboard.dev.starter.service.DynamicThreadPoolService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * 动态线程池控制器
  * <p>
@@ -37,4 +47,56 @@ public class DynamicThreadPoolController {
     public Result<ThreadPoolDashBoardDevRespDTO> getRuntimeInfo(@PathVariable String threadPoolId) {
         return Results.success(dynamicThreadPoolService.getRuntimeInfo(threadPoolId));
     }
+
+    /**
+     * 获取线程池中执行时间最长的前 N 个任务及其调用栈
+     */
+    @GetMapping("/dynamic/thread-pool/{threadPoolId}/running-tasks")
+    public Result<List<ThreadPoolDashBoardDevRunningTaskRespDTO>> getRunningTasks(@PathVariable String threadPoolId,
+                                                                                 @RequestParam(defaultValue = "10") Integer limit) {
+        return Results.success(dynamicThreadPoolService.getRunningTasks(threadPoolId, limit));
+    }
+
+    /**
+     * 获取线程池中 CPU 时间最多的前 N 个任务类型，需要线程池开启任务资源统计
+     */
+    @GetMapping("/dynamic/thread-pool/{threadPoolId}/task-stats")
+    public Result<List<ThreadPoolDashBoardDevTaskStatsRespDTO>> getTaskStats(@PathVariable String threadPoolId,
+                                                                             @RequestParam(defaultValue = "10") Integer limit) {
+        return Results.success(dynamicThreadPoolService.getTaskStats(threadPoolId, limit));
+    }
+
+    /**
+     * 获取线程池进程内保留的指标历史，可按时间范围过滤并按时间桶降采样
+     */
+    @GetMapping("/dynamic/thread-pool/{threadPoolId}/history")
+    public Result<ThreadPoolDashBoardDevHistoryRespDTO> getHistory(@PathVariable String threadPoolId,
+                                                                   @RequestParam(defaultValue = "0") Long from,
+                                                                   @RequestParam(defaultValue = "0") Long to,
+                                                                   @RequestParam(defaultValue = "0") Long step,
+                                                                   @RequestParam(defaultValue = "max") String aggregation) {
+        return Results.success(dynamicThreadPoolService.getHistory(threadPoolId, from, to, step, aggregation));
+    }
+
+    /**
+     * 在指定时长内采样线程池工作线程调用栈，以折叠栈文本格式输出，可直接用于生成火焰图
+     */
+    @GetMapping("/dynamic/thread-pool/{threadPoolId}/profile")
+    public void profile(@PathVariable String threadPoolId,
+                        @RequestParam(defaultValue = "30") Integer seconds,
+                        @RequestParam(defaultValue = "20") Long interval,
+                        @RequestParam(defaultValue = "64") Integer depth,
+                        @RequestParam(defaultValue = "false") Boolean includeIdle,
+                        HttpServletResponse response) throws IOException {
+        dynamicThreadPoolService.profile(threadPoolId, seconds, interval, depth, includeIdle, response);
+    }
+
+    /**
+     * 以 Prometheus 文本格式输出所有线程池指标，需要将监控类型配置为 prometheus
+     */
+    @GetMapping("/dynamic/thread-pool/metrics/prometheus")
+    public void scrapePrometheus(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                 HttpServletResponse response) throws IOException {
+        dynamicThreadPoolService.scrapePrometheus(acceptEncoding, response);
+    }
 }
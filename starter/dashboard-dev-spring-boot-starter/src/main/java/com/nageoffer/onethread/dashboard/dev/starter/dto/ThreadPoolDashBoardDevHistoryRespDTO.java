@@ -0,0 +1,79 @@
+package com.nageoffer.onethread.dashboard.dev.starter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 线程池指标历史，按列返回，各数组下标一一对应
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThreadPoolDashBoardDevHistoryRespDTO {
+
+    /**
+     * 线程池唯一标识
+     */
+    private String threadPoolId;
+
+    /**
+     * 降采样时间桶宽度（单位：毫秒），0 表示原始采样
+     */
+    private Long stepMillis;
+
+    /**
+     * 线程数和队列类指标的桶内聚合方式：max 或 avg
+     */
+    private String aggregation;
+
+    /**
+     * 时间桶起始时间戳（单位：毫秒）
+     */
+    private long[] timestamps;
+
+    /**
+     * 核心线程数
+     */
+    private double[] corePoolSizes;
+
+    /**
+     * 最大线程数
+     */
+    private double[] maximumPoolSizes;
+
+    /**
+     * 当前线程数
+     */
+    private double[] currentPoolSizes;
+
+    /**
+     * 活跃线程数
+     */
+    private double[] activePoolSizes;
+
+    /**
+     * 队列元素数量
+     */
+    private double[] workQueueSizes;
+
+    /**
+     * 队列容量
+     */
+    private double[] workQueueCapacities;
+
+    /**
+     * 时间桶内完成的任务数
+     */
+    private long[] completedTaskCounts;
+
+    /**
+     * 时间桶内拒绝的任务数
+     */
+    private long[] rejectCounts;
+}
@@ -127,6 +127,21 @@ public class ThreadPoolDashBoardDevRespDTO {
      */
     private Long rejectCount;
 
+    /**
+     * 工作线程在 CPU 上运行的时间占比，由监控采集周期更新，非动态线程池和共享工作线程的逻辑线程池为空
+     */
+    private Double workerCpuPercent;
+
+    /**
+     * 工作线程阻塞的时间占比，未开启线程竞争监控时为 -1
+     */
+    private Double workerBlockedPercent;
+
+    /**
+     * 工作线程等待的时间占比（包含空闲等待任务），未开启线程竞争监控时为 -1
+     */
+    private Double workerWaitingPercent;
+
     /**
      * 当前时间
      */
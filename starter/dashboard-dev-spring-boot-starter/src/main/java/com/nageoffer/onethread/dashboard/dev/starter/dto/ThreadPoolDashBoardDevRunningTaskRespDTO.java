@@ -0,0 +1,41 @@
+package com.nageoffer.onethread.dashboard.dev.starter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 线程池正在执行的任务
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThreadPoolDashBoardDevRunningTaskRespDTO {
+
+    /**
+     * 工作线程名称
+     */
+    private String threadName;
+
+    /**
+     * 任务类名
+     */
+    private String taskName;
+
+    /**
+     * 已执行时长（单位：毫秒）
+     */
+    private Long runningMillis;
+
+    /**
+     * 工作线程当前调用栈
+     */
+    private List<String> stackTrace;
+}
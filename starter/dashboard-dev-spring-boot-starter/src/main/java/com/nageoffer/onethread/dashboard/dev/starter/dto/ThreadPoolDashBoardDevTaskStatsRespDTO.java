@@ -0,0 +1,49 @@
+package com.nageoffer.onethread.dashboard.dev.starter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 线程池按任务类型的资源消耗统计
+ * <p>
+ * 作者：杨潇
+ * 开发时间：2026-10-19
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThreadPoolDashBoardDevTaskStatsRespDTO {
+
+    /**
+     * 任务标签，默认为任务类名
+     */
+    private String label;
+
+    /**
+     * 累计执行次数
+     */
+    private Long count;
+
+    /**
+     * 累计 CPU 时间（单位：毫秒）
+     */
+    private Long cpuMillis;
+
+    /**
+     * 平均每次执行 CPU 时间（单位：微秒）
+     */
+    private Long avgCpuMicros;
+
+    /**
+     * 累计分配内存
+     */
+    private String allocated;
+
+    /**
+     * 平均每次执行分配内存（单位：字节）
+     */
+    private Long avgAllocatedBytes;
+}
@@ -6,17 +6,35 @@ import cn.hutool.core.util.ReflectUtil;
 import com.nageoffer.onethread.core.executor.OneThreadExecutor;
 import com.nageoffer.onethread.core.executor.OneThreadRegistry;
 import com.nageoffer.onethread.core.executor.ThreadPoolExecutorHolder;
+import com.nageoffer.onethread.core.executor.support.RateLimitedBlockingQueue;
+import com.nageoffer.onethread.core.executor.support.TaskAccounting;
+import com.nageoffer.onethread.core.executor.support.WorkerTimeSampler;
+import com.nageoffer.onethread.core.monitor.MetricHistoryBuffer;
+import com.nageoffer.onethread.core.monitor.MetricHistoryRegistry;
+import com.nageoffer.onethread.core.monitor.PrometheusExposition;
+import com.nageoffer.onethread.core.monitor.ThreadPoolProfiler;
 import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevBaseMetricsRespDTO;
+import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevHistoryRespDTO;
 import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevRespDTO;
+import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevRunningTaskRespDTO;
+import com.nageoffer.onethread.dashboard.dev.starter.dto.ThreadPoolDashBoardDevTaskStatsRespDTO;
+import com.nageoffer.onethread.dashboard.dev.starter.toolkit.ByteConvertUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static com.nageoffer.onethread.dashboard.dev.starter.toolkit.MemoryUtil.getFreeMemory;
 import static com.nageoffer.onethread.dashboard.dev.starter.toolkit.MemoryUtil.getMemoryProportion;
@@ -30,6 +48,8 @@ import static com.nageoffer.onethread.dashboard.dev.starter.toolkit.MemoryUtil.g
 @Slf4j
 public class DynamicThreadPoolService {
 
+    private static final int RUNNING_TASK_STACK_DEPTH = 30;
+
     @Value("${server.port:8080}")
     private String port;
     @Value("${spring.profiles.active:unknown}")
@@ -91,13 +111,23 @@ public class DynamicThreadPoolService {
         BlockingQueue<?> queue = executor.getQueue();
 
         long rejectCount = -1L;
+        WorkerTimeSampler.WorkerTimeSnapshot workerTime = null;
         if (executor instanceof OneThreadExecutor) {
             rejectCount = ((OneThreadExecutor) executor).getRejectCount().get();
+            // 读取监控线程最近一次采样结果，控制台刷新不参与采样，避免缩短采样间隔；逻辑线程池不支持采样
+            WorkerTimeSampler workerTimeSampler = ((OneThreadExecutor) executor).getWorkerTimeSampler();
+            workerTime = workerTimeSampler != null ? workerTimeSampler.getLatest() : null;
         }
 
         int workQueueSize = queue.size(); // API 有锁，避免高频率调用
         int remainingCapacity = queue.remainingCapacity(); // API 有锁，避免高频率调用
-        return ThreadPoolDashBoardDevRespDTO.builder()
+        ThreadPoolDashBoardDevRespDTO.ThreadPoolDashBoardDevRespDTOBuilder builder = ThreadPoolDashBoardDevRespDTO.builder();
+        if (workerTime != null) {
+            builder.workerCpuPercent(workerTime.getCpuPercent())
+                    .workerBlockedPercent(workerTime.getBlockedPercent())
+                    .workerWaitingPercent(workerTime.getWaitingPercent());
+        }
+        return builder
                 .threadPoolId(holder.getThreadPoolId())
                 .corePoolSize(executor.getCorePoolSize())
                 .maximumPoolSize(executor.getMaximumPoolSize())
@@ -105,7 +135,7 @@ public class DynamicThreadPoolService {
                 .currentPoolSize(executor.getPoolSize())  // API 有锁，避免高频率调用
                 .completedTaskCount(executor.getCompletedTaskCount())  // API 有锁，避免高频率调用
                 .largestPoolSize(executor.getLargestPoolSize())  // API 有锁，避免高频率调用
-                .workQueueName(queue.getClass().getSimpleName())
+                .workQueueName(RateLimitedBlockingQueue.unwrap(queue).getClass().getSimpleName())
                 .workQueueSize(workQueueSize)
                 .workQueueRemainingCapacity(remainingCapacity)
                 .workQueueCapacity(workQueueSize + remainingCapacity)
@@ -124,6 +154,139 @@ public class DynamicThreadPoolService {
                 .build();
     }
 
+    /**
+     * 获取线程池中执行时间最长的前 N 个任务，调用栈在请求时实时获取
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param limit        返回任务个数
+     * @return 正在执行的任务，按已执行时长倒序
+     */
+    public List<ThreadPoolDashBoardDevRunningTaskRespDTO> getRunningTasks(String threadPoolId, int limit) {
+        ThreadPoolExecutorHolder holder = OneThreadRegistry.getHolder(threadPoolId);
+        Optional.ofNullable(holder).orElseThrow(() -> new RuntimeException("No thread pool with id " + threadPoolId));
+
+        ThreadPoolExecutor executor = holder.getExecutor();
+        if (!(executor instanceof OneThreadExecutor)) {
+            return Collections.emptyList();
+        }
+
+        return ((OneThreadExecutor) executor).getRunningTasks().stream()
+                .limit(limit)
+                .map(each -> ThreadPoolDashBoardDevRunningTaskRespDTO.builder()
+                        .threadName(each.getThreadName())
+                        .taskName(each.getTaskName())
+                        .runningMillis(each.getRunningMillis())
+                        .stackTrace(each.captureStackTrace(RUNNING_TASK_STACK_DEPTH))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取线程池中 CPU 时间最多的前 N 个任务类型
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param limit        返回任务类型个数
+     * @return 任务类型资源消耗统计，线程池未开启任务资源统计时返回空集合
+     */
+    public List<ThreadPoolDashBoardDevTaskStatsRespDTO> getTaskStats(String threadPoolId, int limit) {
+        ThreadPoolExecutorHolder holder = OneThreadRegistry.getHolder(threadPoolId);
+        Optional.ofNullable(holder).orElseThrow(() -> new RuntimeException("No thread pool with id " + threadPoolId));
+
+        ThreadPoolExecutor executor = holder.getExecutor();
+        TaskAccounting taskAccounting = executor instanceof OneThreadExecutor ? ((OneThreadExecutor) executor).getTaskAccounting() : null;
+        if (taskAccounting == null) {
+            return Collections.emptyList();
+        }
+
+        return taskAccounting.topN(limit).stream()
+                .map(each -> ThreadPoolDashBoardDevTaskStatsRespDTO.builder()
+                        .label(each.getLabel())
+                        .count(each.getCount())
+                        .cpuMillis(TimeUnit.NANOSECONDS.toMillis(each.getCpuNanos()))
+                        .avgCpuMicros(each.getCount() == 0 ? 0L : TimeUnit.NANOSECONDS.toMicros(each.getCpuNanos() / each.getCount()))
+                        .allocated(ByteConvertUtil.getPrintSize(each.getAllocatedBytes()))
+                        .avgAllocatedBytes(each.getCount() == 0 ? 0L : each.getAllocatedBytes() / each.getCount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取线程池进程内保留的指标历史，按时间桶降采样
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param fromMillis   起始时间戳（包含），小于等于 0 表示不限制
+     * @param toMillis     结束时间戳（包含），小于等于 0 表示不限制
+     * @param stepMillis   时间桶宽度，小于等于 0 表示返回原始采样
+     * @param aggregation  线程数和队列类指标的桶内聚合方式：max 或 avg
+     * @return 按列组织的指标历史，尚未采样或未开启历史记录时不返回各列
+     */
+    public ThreadPoolDashBoardDevHistoryRespDTO getHistory(String threadPoolId, long fromMillis, long toMillis, long stepMillis, String aggregation) {
+        ThreadPoolExecutorHolder holder = OneThreadRegistry.getHolder(threadPoolId);
+        Optional.ofNullable(holder).orElseThrow(() -> new RuntimeException("No thread pool with id " + threadPoolId));
+
+        boolean max = !"avg".equalsIgnoreCase(aggregation);
+        ThreadPoolDashBoardDevHistoryRespDTO.ThreadPoolDashBoardDevHistoryRespDTOBuilder builder = ThreadPoolDashBoardDevHistoryRespDTO.builder()
+                .threadPoolId(threadPoolId)
+                .stepMillis(Math.max(0L, stepMillis))
+                .aggregation(max ? "max" : "avg");
+        MetricHistoryBuffer buffer = MetricHistoryRegistry.getBuffer(threadPoolId);
+        if (buffer == null) {
+            return builder.build();
+        }
+
+        MetricHistoryBuffer.Series series = buffer.query(fromMillis, toMillis, stepMillis, max);
+        return builder.timestamps(series.getTimestamps())
+                .corePoolSizes(series.getCorePoolSizes())
+                .maximumPoolSizes(series.getMaximumPoolSizes())
+                .currentPoolSizes(series.getCurrentPoolSizes())
+                .activePoolSizes(series.getActivePoolSizes())
+                .workQueueSizes(series.getWorkQueueSizes())
+                .workQueueCapacities(series.getWorkQueueCapacities())
+                .completedTaskCounts(series.getCompletedTaskCounts())
+                .rejectCounts(series.getRejectCounts())
+                .build();
+    }
+
+    /**
+     * 以 Prometheus 文本格式输出所有线程池指标，客户端支持时使用 gzip 压缩
+     *
+     * @param acceptEncoding 请求头 Accept-Encoding
+     * @param response       HTTP 响应，指标直接写入响应输出流
+     */
+    public void scrapePrometheus(String acceptEncoding, HttpServletResponse response) throws IOException {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        response.setContentType(PrometheusExposition.CONTENT_TYPE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        PrometheusExposition.scrape(response.getOutputStream(), gzip);
+    }
+
+    /**
+     * 采样线程池工作线程调用栈，以折叠栈文本格式输出
+     *
+     * @param threadPoolId   线程池唯一标识
+     * @param seconds        采样时长（单位：秒），上限 {@link ThreadPoolProfiler#MAX_SECONDS}
+     * @param intervalMillis 采样间隔（单位：毫秒），下限 {@link ThreadPoolProfiler#MIN_INTERVAL_MILLIS}
+     * @param maxDepth       栈深度，上限 {@link ThreadPoolProfiler#MAX_STACK_DEPTH}
+     * @param includeIdle    是否包含空闲线程
+     * @param response       HTTP 响应，折叠栈直接写入响应输出流
+     */
+    public void profile(String threadPoolId, int seconds, long intervalMillis, int maxDepth, boolean includeIdle, HttpServletResponse response) throws IOException {
+        ThreadPoolExecutorHolder holder = OneThreadRegistry.getHolder(threadPoolId);
+        Optional.ofNullable(holder).orElseThrow(() -> new RuntimeException("No thread pool with id " + threadPoolId));
+
+        ThreadPoolExecutor executor = holder.getExecutor();
+        if (!(executor instanceof OneThreadExecutor)) {
+            throw new RuntimeException("Thread pool " + threadPoolId + " is not a dynamic thread pool, profiling is not supported");
+        }
+
+        ThreadPoolProfiler.Profile profile = ThreadPoolProfiler.profile((OneThreadExecutor) executor, seconds, intervalMillis, maxDepth, includeIdle);
+        response.setContentType("text/plain; charset=utf-8");
+        response.setHeader("X-Profile-Samples", String.valueOf(profile.getSamples()));
+        response.setHeader("X-Profile-Thread-Samples", String.valueOf(profile.getThreadSamples()));
+        response.getOutputStream().write(profile.toCollapsed().getBytes(StandardCharsets.UTF_8));
+    }
 
     private String getThreadPoolState(ThreadPoolExecutor executor) {
         try {